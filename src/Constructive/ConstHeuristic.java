@@ -1,5 +1,8 @@
 package Constructive;
 
+import java.util.Random;
+
+import Problems.SolveContext;
 import Solutions.ProblemSol;
 
 /**
@@ -13,14 +16,22 @@ public abstract class ConstHeuristic {
 
 	// Solution made by construction
 	public ProblemSol result;
+
+	// Solve context (problem, random stream) of the construction
+	protected SolveContext ctx;
+	protected Random rnd;
 	
 	// Time to complete the construction
 	private double timeTaken;
 	
 	/**
 	 * Initialize a heuristic, but do not run
+	 * 
+	 * @param ctx - solve context of the constructed solution
 	 */
-	public ConstHeuristic() {
+	public ConstHeuristic(SolveContext ctx) {
+		this.ctx = ctx;
+		rnd = ctx.getRnd();
 		timeTaken = -1;
 	}
 	
@@ -1,10 +1,9 @@
 package Constructive;
 
 import java.util.ArrayList;
-import java.util.Random;
 
 import Problems.Cubic;
-import Runner.RndGen;
+import Problems.SolveContext;
 import Solutions.CubicSol;
 import Solutions.ProblemSol;
 
@@ -16,16 +15,16 @@ import Solutions.ProblemSol;
 public class CubicDP extends ConstHeuristic {
 
 	private int n;
-	private Random rnd = RndGen.getRnd();
 	private Cubic c;
 
 	/**
 	 * Specify the problem to solve
 	 * 
-	 * @param c Cubic problem
+	 * @param ctx - solve context of the Cubic problem
 	 */
-	public CubicDP(Cubic c) {
-		this.c = c;
+	public CubicDP(SolveContext ctx) {
+		super(ctx);
+		this.c = (Cubic)ctx.getProblem();
 		n = c.getN();
 	}
 
@@ -85,7 +84,7 @@ public class CubicDP extends ConstHeuristic {
 		x.addAll(B[rmax]);
 		r.removeAll(B[rmax]);
 
-		return localSearch(new CubicSol(x,r));
+		return localSearch(new CubicSol(ctx,x,r));
 	}
 
 	/**
@@ -1,10 +1,9 @@
 package Constructive;
 
 import java.util.ArrayList;
-import java.util.Random;
 
 import Problems.Cubic;
-import Runner.RndGen;
+import Problems.SolveContext;
 import Solutions.CubicSol;
 import Solutions.ProblemSol;
 
@@ -17,16 +16,15 @@ import Solutions.ProblemSol;
 public class CubicFillUp extends ConstHeuristic {
 
 	private Cubic c;
-	private Random rnd = RndGen.getRnd();
 
 	/**
 	 * Specify the problem to solve
 	 * 
-	 * @param c Cubic problem
+	 * @param ctx - solve context of the Cubic problem
 	 */
-	public CubicFillUp(Cubic c) {
-		super();
-		this.c = c;
+	public CubicFillUp(SolveContext ctx) {
+		super(ctx);
+		this.c = (Cubic)ctx.getProblem();
 	}
 
 	/**
@@ -60,7 +58,7 @@ public class CubicFillUp extends ConstHeuristic {
 	 * @return solution constructed
 	 */
 	private CubicSol fillUpNExchange(ArrayList<Integer> x, ArrayList<Integer> r) {
-		CubicSol current = new CubicSol(x,r);
+		CubicSol current = new CubicSol(ctx,x,r);
 
 		boolean done = false;
 		double curObj = current.getObj();
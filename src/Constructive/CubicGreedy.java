@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 
 import Problems.Cubic;
+import Problems.SolveContext;
 import Solutions.CubicSol;
 import Solutions.ProblemSol;
 import Solutions.ratioNode;
@@ -22,11 +23,11 @@ public class CubicGreedy extends ConstHeuristic {
 	/**
 	 * Specify the problem to solve
 	 * 
-	 * @param c Cubic problem
+	 * @param ctx - solve context of the Cubic problem
 	 */
-	public CubicGreedy(Cubic c) {
-		super();
-		this.c = c;
+	public CubicGreedy(SolveContext ctx) {
+		super(ctx);
+		this.c = (Cubic)ctx.getProblem();
 	}
 
 	protected ProblemSol construct() {
@@ -62,7 +63,7 @@ public class CubicGreedy extends ConstHeuristic {
 			updateRatio(x,ratio,i);
 		}
 
-		return new CubicSol(x,r);
+		return new CubicSol(ctx,x,r);
 	}
 
 	/**
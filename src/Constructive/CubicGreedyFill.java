@@ -2,10 +2,9 @@ package Constructive;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Random;
 
 import Problems.Cubic;
-import Runner.RndGen;
+import Problems.SolveContext;
 import Solutions.CubicSol;
 import Solutions.ProblemSol;
 import Solutions.ratioNode;
@@ -18,15 +17,15 @@ import Solutions.ratioNode;
 public class CubicGreedyFill extends ConstHeuristic {
 
 	private Cubic c;
-	private Random rnd = RndGen.getRnd();
 
 	/**
 	 * Specify the problem to solve
 	 * 
-	 * @param c Cubic problem
+	 * @param ctx - solve context of the Cubic problem
 	 */
-	public CubicGreedyFill(Cubic c) {
-		this.c = c;
+	public CubicGreedyFill(SolveContext ctx) {
+		super(ctx);
+		this.c = (Cubic)ctx.getProblem();
 	}
 
 	/**
@@ -80,7 +79,7 @@ public class CubicGreedyFill extends ConstHeuristic {
 	 * @return solution generated
 	 */
 	private CubicSol fillUpNExchange(ArrayList<Integer> x, ArrayList<Integer> r, int totalA) {
-		CubicSol current = new CubicSol(x,r);
+		CubicSol current = new CubicSol(ctx,x,r);
 
 		boolean done = false;
 		double curObj = current.getObj();
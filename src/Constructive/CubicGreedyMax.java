@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 
 import Problems.Cubic;
+import Problems.SolveContext;
 import Solutions.CubicSol;
 import Solutions.ProblemSol;
 import Solutions.ratioNode;
@@ -21,11 +22,11 @@ public class CubicGreedyMax extends ConstHeuristic {
 	/**
 	 * Specify the problem to solve
 	 * 
-	 * @param c Cubic problem
+	 * @param ctx - solve context of the Cubic problem
 	 */
-	public CubicGreedyMax(Cubic c) {
-		super();
-		this.c = c;
+	public CubicGreedyMax(SolveContext ctx) {
+		super(ctx);
+		this.c = (Cubic)ctx.getProblem();
 	}
 
 	protected ProblemSol construct() {
@@ -61,7 +62,7 @@ public class CubicGreedyMax extends ConstHeuristic {
 			}
 		}
 
-		return new CubicSol(x,r);
+		return new CubicSol(ctx,x,r);
 	}
 
 	/**
@@ -3,6 +3,7 @@ package Constructive;
 import java.util.ArrayList;
 
 import Problems.Cubic;
+import Problems.SolveContext;
 import Solutions.CubicSol;
 import Solutions.ProblemSol;
 
@@ -18,10 +19,11 @@ public class CubicIncumbent extends ConstHeuristic {
 	/**
 	 * Specify the problem to solve
 	 * 
-	 * @param c
+	 * @param ctx - solve context of the Cubic problem
 	 */
-	public CubicIncumbent(Cubic c) {
-		this.c = c;
+	public CubicIncumbent(SolveContext ctx) {
+		super(ctx);
+		this.c = (Cubic)ctx.getProblem();
 	}
 
 	/**
@@ -154,7 +156,7 @@ public class CubicIncumbent extends ConstHeuristic {
 				}
 			}
 		}
-		return new CubicSol(x,r,curObj,totalAx);
+		return new CubicSol(ctx,x,r,curObj,totalAx);
 	}
 	
 	/**
@@ -1,10 +1,9 @@
 package Constructive;
 
 import java.util.ArrayList;
-import java.util.Random;
 
 import Problems.CubicMult;
-import Runner.RndGen;
+import Problems.SolveContext;
 import Solutions.CubicMultSol;
 import Solutions.ProblemSol;
 
@@ -17,16 +16,15 @@ import Solutions.ProblemSol;
 public class CubicMultFillUp extends ConstHeuristic {
 
 	private CubicMult cm;
-	private Random rnd = RndGen.getRnd();
 
 	/**
 	 * Specify problem to create solution
 	 *  
-	 * @param CubicMult problem
+	 * @param ctx - solve context of the CubicMult problem
 	 */
-	public CubicMultFillUp(CubicMult cm) {
-		super();
-		this.cm = cm;
+	public CubicMultFillUp(SolveContext ctx) {
+		super(ctx);
+		this.cm = (CubicMult)ctx.getProblem();
 	}
 
 	/**
@@ -62,7 +60,7 @@ public class CubicMultFillUp extends ConstHeuristic {
 	 * @return solution generated
 	 */
 	private CubicMultSol fillUpNExchange(ArrayList<Integer> x, ArrayList<Integer> r) {
-		CubicMultSol current = new CubicMultSol(x,r);
+		CubicMultSol current = new CubicMultSol(ctx,x,r);
 
 		boolean done = false;
 		double curObj = current.getObj();
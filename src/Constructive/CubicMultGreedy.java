@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 
 import Problems.CubicMult;
+import Problems.SolveContext;
 import Solutions.CubicMultSol;
 import Solutions.ProblemSol;
 import Solutions.ratioNode;
@@ -22,11 +23,11 @@ public class CubicMultGreedy extends ConstHeuristic {
 	/**
 	 * Specify problem to solve
 	 * 
-	 * @param CubicMult problem
+	 * @param ctx - solve context of the CubicMult problem
 	 */
-	public CubicMultGreedy(CubicMult cm) {
-		super();
-		this.cm = cm;
+	public CubicMultGreedy(SolveContext ctx) {
+		super(ctx);
+		this.cm = (CubicMult)ctx.getProblem();
 	}
 
 	/**
@@ -54,7 +55,7 @@ public class CubicMultGreedy extends ConstHeuristic {
 			x.add(i);
 		}
 		
-		CubicMultSol cms = new CubicMultSol(x,r);
+		CubicMultSol cms = new CubicMultSol(ctx,x,r);
 
 		// Remove items, picking the item that minimizes the loss-to-weight ratio
 		ArrayList<ratioNode> ratio = computeRatio(x);
@@ -65,7 +66,7 @@ public class CubicMultGreedy extends ConstHeuristic {
 			updateRatio(cms.getX(),ratio,i);
 		}
 
-		return new CubicMultSol(cms.getX(),cms.getR());
+		return new CubicMultSol(ctx,cms.getX(),cms.getR());
 	}
 	
 	/**
@@ -2,10 +2,9 @@ package Constructive;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Random;
 
 import Problems.CubicMult;
-import Runner.RndGen;
+import Problems.SolveContext;
 import Solutions.CubicMultSol;
 import Solutions.ProblemSol;
 import Solutions.ratioNode;
@@ -18,15 +17,15 @@ import Solutions.ratioNode;
 public class CubicMultGreedyFill extends ConstHeuristic {
 
 	private CubicMult cm;
-	private Random rnd = RndGen.getRnd();
 
 	/**
 	 * Specify problem to solve
 	 * 
-	 * @param CubicMult problem
+	 * @param ctx - solve context of the CubicMult problem
 	 */
-	public CubicMultGreedyFill(CubicMult cm) {
-		this.cm = cm;
+	public CubicMultGreedyFill(SolveContext ctx) {
+		super(ctx);
+		this.cm = (CubicMult)ctx.getProblem();
 	}
 
 	/**
@@ -53,7 +52,7 @@ public class CubicMultGreedyFill extends ConstHeuristic {
 			x.add(i);
 		}
 		
-		CubicMultSol cms = new CubicMultSol(x,r);
+		CubicMultSol cms = new CubicMultSol(ctx,x,r);
 
 		// Remove items, picking the item that minimizes the loss-to-weight ratio
 		ArrayList<ratioNode> ratio = computeRatio(x);
@@ -76,7 +75,7 @@ public class CubicMultGreedyFill extends ConstHeuristic {
 	 * @return solution generated
 	 */
 	private CubicMultSol fillUpNExchange(ArrayList<Integer> x, ArrayList<Integer> r) {
-		CubicMultSol current = new CubicMultSol(x,r);
+		CubicMultSol current = new CubicMultSol(ctx,x,r);
 		
 		boolean done = false;
 		double curObj = current.getObj();
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 
 import Problems.CubicMult;
+import Problems.SolveContext;
 import Solutions.CubicMultSol;
 import Solutions.ProblemSol;
 import Solutions.ratioNode;
@@ -21,11 +22,11 @@ public class CubicMultGreedyMax extends ConstHeuristic {
 	/**
 	 * Specify the problem to solve
 	 * 
-	 * @param cm Cubic problem
+	 * @param ctx - solve context of the CubicMult problem
 	 */
-	public CubicMultGreedyMax(CubicMult cm) {
-		super();
-		this.cm = cm;
+	public CubicMultGreedyMax(SolveContext ctx) {
+		super(ctx);
+		this.cm = (CubicMult)ctx.getProblem();
 	}
 
 	protected ProblemSol construct() {
@@ -60,7 +61,7 @@ public class CubicMultGreedyMax extends ConstHeuristic {
 			}
 		}
 
-		return new CubicMultSol(x,r);
+		return new CubicMultSol(ctx,x,r);
 	}
 
 	/**
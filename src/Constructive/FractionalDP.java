@@ -1,10 +1,9 @@
 package Constructive;
 
 import java.util.ArrayList;
-import java.util.Random;
 
 import Problems.Fractional;
-import Runner.RndGen;
+import Problems.SolveContext;
 import Solutions.FractionalSol;
 import Solutions.ProblemSol;
 
@@ -16,16 +15,16 @@ import Solutions.ProblemSol;
 public class FractionalDP extends ConstHeuristic {
 
 	private int n;
-	private Random rnd = RndGen.getRnd();
 	private Fractional fract;
 
 	/**
 	 * Specify the problem to solve
 	 * 
-	 * @param c Cubic problem
+	 * @param ctx - solve context of the Fractional problem
 	 */
-	public FractionalDP(Fractional f) {
-		this.fract = f;
+	public FractionalDP(SolveContext ctx) {
+		super(ctx);
+		this.fract = (Fractional)ctx.getProblem();
 		n = fract.getN();
 	}
 
@@ -90,7 +89,7 @@ public class FractionalDP extends ConstHeuristic {
 		r.removeAll(B[rmax]);
 
 //		return new FractionalSol(x,r);
-		return localSearch(new FractionalSol(x,r));
+		return localSearch(new FractionalSol(ctx,x,r));
 	}
 
 	/**
@@ -1,10 +1,9 @@
 package Constructive;
 
 import java.util.ArrayList;
-import java.util.Random;
 
 import Problems.Fractional;
-import Runner.RndGen;
+import Problems.SolveContext;
 import Solutions.FractionalSol;
 import Solutions.ProblemSol;
 
@@ -17,16 +16,15 @@ import Solutions.ProblemSol;
 public class FractionalFillUp extends ConstHeuristic {
 
 	private Fractional f;
-	private Random rnd = RndGen.getRnd();
 
 	/**
 	 * Specify the problem to solve
 	 * 
-	 * @param f Fractional problem
+	 * @param ctx - solve context of the Fractional problem
 	 */
-	public FractionalFillUp(Fractional f) {
-		super();
-		this.f = f;
+	public FractionalFillUp(SolveContext ctx) {
+		super(ctx);
+		this.f = (Fractional)ctx.getProblem();
 	}
 
 	/**
@@ -60,7 +58,7 @@ public class FractionalFillUp extends ConstHeuristic {
 	 * @return solution constructed
 	 */
 	private FractionalSol fillUpNExchange(ArrayList<Integer> x, ArrayList<Integer> r) {
-		FractionalSol current = new FractionalSol(x,r);
+		FractionalSol current = new FractionalSol(ctx,x,r);
 
 		boolean done = false;
 		double curObj = current.getObj();
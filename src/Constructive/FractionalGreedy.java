@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 
 import Problems.Fractional;
+import Problems.SolveContext;
 import Solutions.FractionalSol;
 import Solutions.ProblemSol;
 import Solutions.ratioNode;
@@ -24,11 +25,11 @@ public class FractionalGreedy extends ConstHeuristic {
 	/**
 	 * Specify the problem to solve
 	 * 
-	 * @param f Fractional problem
+	 * @param ctx - solve context of the Fractional problem
 	 */
-	public FractionalGreedy(Fractional f) {
-		super();
-		this.f = f;
+	public FractionalGreedy(SolveContext ctx) {
+		super(ctx);
+		this.f = (Fractional)ctx.getProblem();
 		num = new long[f.getM()];
 		den = new long[f.getM()];
 	}
@@ -52,7 +53,7 @@ public class FractionalGreedy extends ConstHeuristic {
 		for (int i = 0; i < f.getN(); i++) {
 			x.add(i);
 		}
-		FractionalSol fs = new FractionalSol(x,r);
+		FractionalSol fs = new FractionalSol(ctx,x,r);
 		num = fs.getNum();
 		den = fs.getDen();
 
@@ -67,7 +68,7 @@ public class FractionalGreedy extends ConstHeuristic {
 			updateRatio(x,fs.getObj(),ratio,i);
 		}
 
-		return new FractionalSol(fs.getX(),fs.getR());
+		return new FractionalSol(ctx,fs.getX(),fs.getR());
 	}
 
 	/**
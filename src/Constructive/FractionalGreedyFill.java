@@ -2,10 +2,9 @@ package Constructive;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Random;
 
 import Problems.Fractional;
-import Runner.RndGen;
+import Problems.SolveContext;
 import Solutions.FractionalSol;
 import Solutions.ProblemSol;
 import Solutions.ratioNode;
@@ -18,18 +17,17 @@ import Solutions.ratioNode;
 public class FractionalGreedyFill extends ConstHeuristic {
 
 	private Fractional f;
-	private Random rnd = RndGen.getRnd();
 	private long[] num;
 	private long[] den;
 
 	/**
 	 * Specify the problem to solve
 	 * 
-	 * @param f Fractional problem
+	 * @param ctx - solve context of the Fractional problem
 	 */
-	public FractionalGreedyFill(Fractional f) {
-		super();
-		this.f = f;
+	public FractionalGreedyFill(SolveContext ctx) {
+		super(ctx);
+		this.f = (Fractional)ctx.getProblem();
 		num = new long[f.getM()];
 		den = new long[f.getM()];
 	}
@@ -53,7 +51,7 @@ public class FractionalGreedyFill extends ConstHeuristic {
 		for (int i = 0; i < f.getN(); i++) {
 			x.add(i);
 		}
-		FractionalSol fs = new FractionalSol(x,r);
+		FractionalSol fs = new FractionalSol(ctx,x,r);
 		num = fs.getNum();
 		den = fs.getDen();
 
@@ -152,7 +150,7 @@ public class FractionalGreedyFill extends ConstHeuristic {
 	 * @return solution constructed
 	 */
 	private FractionalSol fillUpNExchange(ArrayList<Integer> x, ArrayList<Integer> r) {
-		FractionalSol current = new FractionalSol(x,r);
+		FractionalSol current = new FractionalSol(ctx,x,r);
 
 		boolean done = false;
 		double curObj = current.getObj();
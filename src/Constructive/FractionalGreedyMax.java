@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 
 import Problems.Fractional;
+import Problems.SolveContext;
 import Solutions.FractionalSol;
 import Solutions.ProblemSol;
 import Solutions.ratioNode;
@@ -23,11 +24,11 @@ public class FractionalGreedyMax extends ConstHeuristic {
 	/**
 	 * Specify the problem to solve
 	 * 
-	 * @param f Fractional problem
+	 * @param ctx - solve context of the Fractional problem
 	 */
-	public FractionalGreedyMax(Fractional f) {
-		super();
-		this.f = f;
+	public FractionalGreedyMax(SolveContext ctx) {
+		super(ctx);
+		this.f = (Fractional)ctx.getProblem();
 		num = new long[f.getM()];
 		den = new long[f.getM()];
 	}
@@ -51,7 +52,7 @@ public class FractionalGreedyMax extends ConstHeuristic {
 		for (int i = 0; i < f.getN(); i++) {
 			r.add(i);
 		}
-		FractionalSol fs = new FractionalSol(x,r);
+		FractionalSol fs = new FractionalSol(ctx,x,r);
 		num = fs.getNum();
 		den = fs.getDen();
 
@@ -69,7 +70,7 @@ public class FractionalGreedyMax extends ConstHeuristic {
 			}
 		}
 
-		return new FractionalSol(fs.getX(),fs.getR());
+		return new FractionalSol(ctx,fs.getX(),fs.getR());
 	}
 
 	/**
@@ -3,6 +3,7 @@ package Constructive;
 import java.util.ArrayList;
 
 import Problems.Fractional;
+import Problems.SolveContext;
 import Solutions.FractionalSol;
 import Solutions.ProblemSol;
 
@@ -18,10 +19,11 @@ public class FractionalIncumbent extends ConstHeuristic {
 	
 	/**
 	 * Set the problem to solve
-	 * @param f - Fractional
+	 * @param ctx - solve context of the Fractional problem
 	 */
-	public FractionalIncumbent(Fractional f) {
-		this.f = f;
+	public FractionalIncumbent(SolveContext ctx) {
+		super(ctx);
+		this.f = (Fractional)ctx.getProblem();
 	}
 	
 	@Override
@@ -133,7 +135,7 @@ public class FractionalIncumbent extends ConstHeuristic {
 		}
 		
 		// Return the solution
-		return new FractionalSol(x,r);
+		return new FractionalSol(ctx,x,r);
 	}
 	
 	/**
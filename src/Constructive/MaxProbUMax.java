@@ -4,6 +4,7 @@ import java.util.ArrayList;
 
 import ExactMethods.Knapsack_Frac;
 import Problems.MaxProbability;
+import Problems.SolveContext;
 import Solutions.ProblemSol;
 import Solutions.MaxProbabilitySol;
 
@@ -29,10 +30,11 @@ public class MaxProbUMax extends ConstHeuristic {
 	/**
 	 * Specify the problem to solve
 	 * 
-	 * @param mp Max Probability problem
+	 * @param ctx - solve context of the MaxProbability problem
 	 */
-	public MaxProbUMax(MaxProbability mp, boolean useCplex) {
-		this.mp = mp;
+	public MaxProbUMax(SolveContext ctx, boolean useCplex) {
+		super(ctx);
+		this.mp = (MaxProbability)ctx.getProblem();
 		n = mp.getN();
 		this.useCplex = useCplex;
 		b = mp.getB();
@@ -143,7 +145,7 @@ public class MaxProbUMax extends ConstHeuristic {
 				}
 			}
 		}
-		return new MaxProbabilitySol(x,r);
+		return new MaxProbabilitySol(ctx,x,r);
 	}
 
 	/**
@@ -2,6 +2,7 @@ package ExactMethods;
 import java.util.ArrayList;
 
 import Problems.CubicMult;
+import Problems.SolveContext;
 import Solutions.CubicMultSol;
 import ilog.cplex.*;
 import ilog.concert.*;
@@ -202,7 +203,7 @@ public class CubicMult_Forrester {
 		}
 
 		// Seed MIP with incumbent solution
-		CubicMultSol inc = new CubicMultSol("incumbents/cm/"+file+"inc.txt");
+		CubicMultSol inc = new CubicMultSol(new SolveContext(cm), "incumbents/cm/"+file+"inc.txt");
 		ArrayList<Integer> incX = inc.getX();
 		seedMIP(incX);
 
@@ -237,7 +238,7 @@ public class CubicMult_Forrester {
 			}
 		}
 		// Check MIP against problem solution and problem objectives
-		CubicMultSol cms = new CubicMultSol(solX,solR);
+		CubicMultSol cms = new CubicMultSol(new SolveContext(cm),solX,solR);
 		double cmObj = cm.getObj(solX);
 		if (cms.getObj() != bestObj || cms.getObj() != cmObj) {
 			System.err.println("Different cms obj: " + cms.getObj());
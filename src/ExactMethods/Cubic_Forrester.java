@@ -2,6 +2,7 @@ package ExactMethods;
 import java.util.ArrayList;
 
 import Problems.Cubic;
+import Problems.SolveContext;
 import Solutions.CubicSol;
 import ilog.cplex.*;
 import ilog.concert.*;
@@ -200,7 +201,7 @@ public class Cubic_Forrester {
 		}
 
 		// Seed MIP with incumbent solution
-		CubicSol inc = new CubicSol("incumbents/cubic/"+file+"inc.txt");
+		CubicSol inc = new CubicSol(new SolveContext(c), "incumbents/cubic/"+file+"inc.txt");
 		ArrayList<Integer> incX = inc.getX();
 		seedMIP(incX);
 
@@ -236,7 +237,7 @@ public class Cubic_Forrester {
 			}
 		}
 		// Check MIP against problem solution and problem objectives
-		CubicSol cs = new CubicSol(solX,solR);
+		CubicSol cs = new CubicSol(new SolveContext(c),solX,solR);
 		double cObj = c.getObj(solX);
 		if (cs.getObj() != bestObj || cs.getObj() != cObj) {
 			System.err.println("Different cs obj: " + cs.getObj());
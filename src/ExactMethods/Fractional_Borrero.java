@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import ilog.concert.*;
 import ilog.cplex.*;
 import Problems.Fractional;
+import Problems.SolveContext;
 import Solutions.FractionalSol;
 
 /**
@@ -272,7 +273,7 @@ public class Fractional_Borrero {
 		}
 
 		// Seed MIP with incumbent solution
-		FractionalSol inc = new FractionalSol("incumbents/fractional/"+file+"inc.txt");
+		FractionalSol inc = new FractionalSol(new SolveContext(f), "incumbents/fractional/"+file+"inc.txt");
 		ArrayList<Integer> incX = inc.getX();
 		seedMIP(incX);
 
@@ -306,7 +307,7 @@ public class Fractional_Borrero {
 			}
 		}
 		// Check MIP against problem solution and problem objectives
-		FractionalSol fs = new FractionalSol(solX,solR);
+		FractionalSol fs = new FractionalSol(new SolveContext(f),solX,solR);
 		double fObj = f.getObj(solX,false);
 		bestObj = fObj;
 		if (fs.getObj() != bestObj || fs.getObj() != fObj) {
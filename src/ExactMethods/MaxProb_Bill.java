@@ -3,6 +3,7 @@ package ExactMethods;
 import java.util.ArrayList;
 
 import Problems.MaxProbability;
+import Problems.SolveContext;
 import Solutions.MaxProbabilitySol;
 import ilog.concert.*;
 import ilog.cplex.*;
@@ -200,7 +201,7 @@ public class MaxProb_Bill {
 		cplex.exportModel("maxProbBill.lp");
 
 		// Seed MIP with incumbent solution
-		MaxProbabilitySol inc = new MaxProbabilitySol("incumbents/mp/"+file+"inc.txt");
+		MaxProbabilitySol inc = new MaxProbabilitySol(new SolveContext(mp), "incumbents/mp/"+file+"inc.txt");
 		System.out.println("Inc Valid: " + inc.getValid());
 		ArrayList<Integer> incX = inc.getX();
 		seedMIP(incX);
@@ -236,7 +237,7 @@ public class MaxProb_Bill {
 				}
 			}
 			// Check MIP against problem solution and problem objectives
-			MaxProbabilitySol mps = new MaxProbabilitySol(solX,solR);
+			MaxProbabilitySol mps = new MaxProbabilitySol(new SolveContext(mp),solX,solR);
 			double mpObj = mp.getObj(solX);
 			if (mps.getObj() != bestObj || mps.getObj() != mpObj) {
 				System.err.println("Different mps obj: " + mps.getObj());
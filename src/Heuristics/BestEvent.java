@@ -0,0 +1,59 @@
+package Heuristics;
+
+import Solutions.ProblemSol;
+
+/**
+ * Best-solution event of a metaheuristic
+ * - Objective, iteration and time (ns since run() started) of a new best
+ * - The solution is the heuristic's best at that time: best solutions
+ * 	are never modified once stored, so listeners may keep it (read-only)
+ *
+ * @author midkiffj
+ */
+public class BestEvent {
+
+	private Metaheuristic source;
+	private ProblemSol solution;
+	private double objective;
+	private long iteration;
+	private long elapsed;
+
+	/**
+	 * @param source - heuristic that found the solution
+	 * @param solution - new best solution
+	 * @param iteration - iteration (or generation) it was found in
+	 * @param elapsed - time since run() started (ns)
+	 */
+	public BestEvent(Metaheuristic source, ProblemSol solution, long iteration, long elapsed) {
+		this.source = source;
+		this.solution = solution;
+		this.objective = solution.getObj();
+		this.iteration = iteration;
+		this.elapsed = elapsed;
+	}
+
+	public Metaheuristic getSource() {
+		return source;
+	}
+
+	public ProblemSol getSolution() {
+		return solution;
+	}
+
+	public double getObjective() {
+		return objective;
+	}
+
+	public long getIteration() {
+		return iteration;
+	}
+
+	public long getElapsed() {
+		return elapsed;
+	}
+
+	@Override
+	public String toString() {
+		return source.getClass().getSimpleName() + "," + iteration + "," + elapsed + "," + objective;
+	}
+}
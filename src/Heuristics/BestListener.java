@@ -0,0 +1,20 @@
+package Heuristics;
+
+/**
+ * Receives the best-solution events of a metaheuristic
+ * - Called on the event thread (not the search thread), in the
+ * 	order the heuristic found the solutions
+ * - Slow listeners delay later events, never the search
+ *
+ * @author midkiffj
+ */
+public interface BestListener {
+
+	/**
+	 * Called once a heuristic starts (its initial best) and
+	 * 	each time it improves its best solution
+	 *
+	 * @param event - the new best solution and when it was found
+	 */
+	public void bestUpdated(BestEvent event);
+}
@@ -1,15 +1,32 @@
 package Heuristics;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
-import Problems.ProblemFactory;
-import Runner.RndGen;
+import Problems.SolveContext;
+import Runner.TraceRecorder;
 import Solutions.ProblemSol;
 
 /**
  * Metaheuristic super class
  *	- Stores current and best solution found
+ *	- Uses the solve context (problem, settings) of the initial solution
+ *		with its own random stream
  *	- Abstract run method to allow individual heuristic implementation
+ *	- Optionally snapshots current/best while running,
+ *		so an interrupted run can resume from them
+ *	- Reports each new best to its listeners (BestListener) on a
+ *		separate event thread, so listeners never block the search
+ *	- Optionally records a binary trace of its iterations (TraceRecorder)
  *
  * @author midkiffj
  *
@@ -17,9 +34,26 @@ import Solutions.ProblemSol;
 public abstract class Metaheuristic {
 	
 	public ProblemSol current;
-	public ProblemSol best;
-	public Random rnd = RndGen.getRnd();
+	// Volatile: read by other threads (e.g. a racing portfolio) during run()
+	public volatile ProblemSol best;
+	public Random rnd;
 	public int n;
+	protected SolveContext ctx;
+	// Set by stop() to end run() at the next iteration
+	protected volatile boolean stopped = false;
+	// Snapshot file prefix (null: no snapshots) and interval (ns)
+	protected String snapshotFile = null;
+	protected long snapshotInterval;
+	private long lastSnapshot;
+	// Best-solution listeners and the start time (ns) of run()
+	private List<BestListener> listeners = new CopyOnWriteArrayList<BestListener>();
+	private volatile long startTime;
+
+	// Binary trace of the run (null: no tracing)
+	protected TraceRecorder trace = null;
+
+	// Event thread shared by all heuristics (daemon, created on first use)
+	private static ExecutorService events;
 	
 	/**
 	 * Create from given problem solution
@@ -28,9 +62,14 @@ public abstract class Metaheuristic {
 	 * @param initial solution to store as current/best
 	 */
 	public Metaheuristic(ProblemSol initial) {
-		current = ProblemSol.copy(initial);
+		// Own random stream, forked from the initial solution's context
+		// 	(thread-safe, the initial solution's stream is not used)
+		ctx = initial.getContext().fork();
+		rnd = ctx.getRnd();
+		// Work on copies in the own context
+		current = ProblemSol.copy(initial, ctx);
 		best = ProblemSol.copy(current);
-		n = ProblemFactory.getProblem().getN();
+		n = initial.getProblem().getN();
 	}
 	
 	public double getBestObj() {
@@ -44,6 +83,246 @@ public abstract class Metaheuristic {
 	public ProblemSol getBest() {
 		return best;
 	}
+
+	public SolveContext getContext() {
+		return ctx;
+	}
+	
+	/**
+	 * Ask a running heuristic to return at its next iteration
+	 * 	(best/current hold the solutions found so far)
+	 */
+	public void stop() {
+		stopped = true;
+	}
+
+	public boolean isStopped() {
+		return stopped;
+	}
 	
+	/**
+	 * Record the iterations of run() to the trace
+	 * 	(recorded by the thread running the heuristic)
+	 * 
+	 * @param tr - trace to record to (null: no tracing)
+	 */
+	public void setTrace(TraceRecorder tr) {
+		trace = tr;
+	}
+
+	public TraceRecorder getTrace() {
+		return trace;
+	}
+
+	/**
+	 * Record current/best to the trace (nothing if not tracing)
+	 * 
+	 * @param type - record type (TraceRecorder)
+	 * @param iteration - current iteration
+	 * @param value - type specific value
+	 */
+	protected final void trace(short type, long iteration, double value) {
+		if (trace != null) {
+			trace.record(type, iteration, current.getObj(), best.getObj(), value, current.getXSize(), current.getValid());
+		}
+	}
+
+	/**
+	 * Add a listener for the best solutions found while running
+	 * 
+	 * @param listener - listener to add
+	 */
+	public void addListener(BestListener listener) {
+		listeners.add(listener);
+	}
+
+	public void removeListener(BestListener listener) {
+		listeners.remove(listener);
+	}
+
+	protected boolean hasListeners() {
+		return !listeners.isEmpty();
+	}
+
+	/**
+	 * Start the run clock and report the initial best (iteration 0)
+	 * 	(called by run() before its first iteration)
+	 * 
+	 * @return start time (ns)
+	 */
+	protected long startClock() {
+		startTime = System.nanoTime();
+		improved(0);
+		return startTime;
+	}
+
+	/**
+	 * Report the current best to the listeners (call after updating best)
+	 * - Only queues the event: listeners run on the event thread
+	 * 
+	 * @param iteration - iteration (or generation) the best was found in
+	 */
+	protected void improved(long iteration) {
+		if (listeners.isEmpty()) {
+			return;
+		}
+		final BestEvent event = new BestEvent(this, best, iteration, System.nanoTime() - startTime);
+		eventThread().execute(new Runnable() {
+			public void run() {
+				for (BestListener l: listeners) {
+					try {
+						l.bestUpdated(event);
+					} catch (RuntimeException e) {
+						System.err.println("Best listener failed: " + e);
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * Replace best with the solution if it is better (thread-safe)
+	 * 	and report it (e.g. for the worker threads of parallel heuristics)
+	 * 
+	 * @param ps - new solution (must not be modified afterwards)
+	 * @param iteration - iteration (or generation) it was found in
+	 * @return (T) if best was replaced
+	 */
+	protected synchronized boolean offerBest(ProblemSol ps, long iteration) {
+		if (ps.compareTo(best) > 0) {
+			best = ps;
+			improved(iteration);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Wait until the listeners have received all events reported so far
+	 * 	(e.g. after run() returns)
+	 */
+	public static void awaitEvents() {
+		try {
+			eventThread().submit(new Runnable() {
+				public void run() {
+				}
+			}).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			System.err.println("Best event thread failed: " + e.getCause());
+		}
+	}
+
+	/**
+	 * Return the event thread (created on first use)
+	 */
+	private static synchronized ExecutorService eventThread() {
+		if (events == null) {
+			events = Executors.newSingleThreadExecutor(new ThreadFactory() {
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r, "best-events");
+					t.setDaemon(true);
+					return t;
+				}
+			});
+		}
+		return events;
+	}
+
+	/**
+	 * Snapshot current/best every interval while running
+	 * 	(files: file_cur.txt, file_best.txt)
+	 * 
+	 * @param file - snapshot file prefix
+	 * @param interval - time between snapshots (ns)
+	 */
+	public void setSnapshot(String file, long interval) {
+		snapshotFile = file;
+		snapshotInterval = interval;
+		lastSnapshot = System.nanoTime();
+	}
+
+	/**
+	 * Restore current/best from the snapshot of an interrupted run
+	 * 
+	 * @return (T) if a snapshot was restored
+	 */
+	public boolean resume() {
+		if (snapshotFile == null) {
+			return false;
+		}
+		File curFile = new File(snapshotFile + "_cur.txt");
+		File bestFile = new File(snapshotFile + "_best.txt");
+		if (!curFile.exists() || !bestFile.exists()) {
+			return false;
+		}
+		try {
+			ProblemSol cur = ProblemSol.read(current, curFile.getPath());
+			ProblemSol snapBest = ProblemSol.read(best, bestFile.getPath());
+			current = cur;
+			if (snapBest.compareTo(best) > 0) {
+				best = snapBest;
+			}
+		} catch (RuntimeException e) {
+			System.err.println("Unable to resume from snapshot " + snapshotFile + ": " + e);
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Snapshot current/best if the snapshot interval has passed
+	 * 	(called by run() once per iteration)
+	 */
+	protected void snapshot() {
+		if (snapshotFile != null && System.nanoTime() - lastSnapshot >= snapshotInterval) {
+			saveSnapshot();
+		}
+	}
+
+	/**
+	 * Write the current/best snapshot
+	 * - Each file is written aside and moved into place,
+	 * 	so a crash leaves the previous snapshot intact
+	 */
+	public void saveSnapshot() {
+		if (snapshotFile == null) {
+			return;
+		}
+		File parent = new File(snapshotFile).getAbsoluteFile().getParentFile();
+		if (parent != null) {
+			parent.mkdirs();
+		}
+		writeAtomic(current, snapshotFile + "_cur.txt");
+		writeAtomic(best, snapshotFile + "_best.txt");
+		lastSnapshot = System.nanoTime();
+	}
+
+	/**
+	 * Delete the snapshot (e.g. once the results are recorded)
+	 */
+	public void clearSnapshot() {
+		if (snapshotFile == null) {
+			return;
+		}
+		new File(snapshotFile + "_cur.txt").delete();
+		new File(snapshotFile + "_best.txt").delete();
+	}
+
+	/**
+	 * Write the solution to a temporary file and move it to filename
+	 */
+	private void writeAtomic(ProblemSol ps, String filename) {
+		File tmp = new File(filename + ".tmp");
+		ps.writeSolution(tmp.getPath());
+		try {
+			Files.move(tmp.toPath(), new File(filename).toPath(),
+					StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			System.err.println("Error writing snapshot " + filename + ": " + e.getMessage());
+		}
+	}
+
 	public abstract void run();
 }
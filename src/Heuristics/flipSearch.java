@@ -0,0 +1,445 @@
+package Heuristics;
+
+import java.util.ArrayList;
+
+import Problems.SparseCoefs;
+import Problems.Unconstrained;
+import Runner.TestLogger;
+import Solutions.ProblemSol;
+import Solutions.UnconstrainedSol;
+
+/**
+ * One-flip Tabu Search for the Unconstrained Cubic (minimization)
+ * - Keeps the objective change of flipping each variable up to date after every flip
+ * - Sparse problems (e.g. Sat2Cubic penalty functions) store each variable's
+ * 		non-zero coefficients and keep the variables in gain buckets
+ * 		so the best flip is found in O(1)
+ * - Dense problems update the gains with the coefficient accessors
+ * 		and scan for the best flip
+ *
+ * @author midkiffj
+ */
+public class flipSearch extends Metaheuristic {
+
+	// Limits on the sparse coefficient lists and the gain buckets
+	private static final long maxSparse = 8000000;
+	private static final long maxBuckets = 4000000;
+
+	private Unconstrained u;
+	private int maxIter;
+	private long time;
+	private int tabuDuration;
+
+	// Current solution
+	private boolean[] xVals;
+	private int[] xList;
+	private int[] xPos;
+	private int xSize;
+	private long obj;
+
+	// gain[i] : change in objective if i is added (i not in x) or lost if i is removed (i in x)
+	private int[] gain;
+
+	// Sparse coefficients (cij, dijk) of each item (shared with the problem)
+	private boolean sparse;
+	private SparseCoefs sp;
+
+	// Gain buckets (doubly-linked lists indexed by flip change + offset)
+	private int offset;
+	private int[] head;
+	private int[] next;
+	private int[] prev;
+	private int[] bucket;
+	private int minBucket;
+
+	// Tabu variables (in order of becoming tabu)
+	private boolean[] tabu;
+	private int[] tabuQueue;
+	private int tabuStart;
+	private int tabuSize;
+
+	/**
+	 * Setup initial solution and parameters
+	 *
+	 * @param ps - initial solution
+	 * @param maxIter - optional parameter for number of flips. Default: 1mil
+	 * @param time - optional time parameter for heuristic runtime. Default: 5min
+	 */
+	public flipSearch(ProblemSol ps, int maxIter, long time) {
+		super(ps);
+		u = (Unconstrained)current.getProblem();
+
+		// Tabu tracking variables (leave enough variables to flip)
+		tabuDuration = (int)Math.round(7.5*Math.log(n));
+		if (tabuDuration > n/4) {
+			tabuDuration = Math.max(1, n/4);
+		}
+
+		// Default parameters
+		this.maxIter = 1000000;
+		this.time = 60000000000L*5;
+		if (maxIter != -1) {
+			this.maxIter = maxIter;
+		}
+		if (time != -1) {
+			this.time = time;
+		}
+
+		setupCoefficients();
+		setupSolution(current);
+	}
+
+	/**
+	 * Determine if the problem is sparse and, if so,
+	 * 	use the sparse coefficient lists of the problem
+	 * - The non-zero count and the lists are kept by the problem,
+	 * 	so later searches on the same problem do not scan the coefficients
+	 */
+	private void setupCoefficients() {
+		// Too many non-zero dijk for the lists (or items to pack): dense
+		sparse = false;
+		if (n > (1 << 16) || 3*u.getDijkNonZero() > maxSparse) {
+			return;
+		}
+		sp = u.getSparse();
+
+		// Bound each item's gain (size of the gain buckets)
+		long maxBound = 0;
+		for (int i = 0; i < n; i++) {
+			long bound = Math.abs(u.getCi(i));
+			for (int t = 0; t < sp.getQuadSize(i); t++) {
+				bound += Math.abs(sp.getQuadValue(i,t));
+			}
+			for (int t = 0; t < sp.getCubicSize(i); t++) {
+				bound += Math.abs(sp.getCubicValue(i,t));
+			}
+			maxBound = Math.max(maxBound, bound);
+		}
+		if (2*maxBound+1 > maxBuckets) {
+			return;
+		}
+		sparse = true;
+
+		// Setup empty gain buckets
+		offset = (int)maxBound;
+		head = new int[2*offset+1];
+		next = new int[n];
+		prev = new int[n];
+		bucket = new int[n];
+	}
+
+	/**
+	 * Initialize the solution, gains, buckets, and tabu list from the given solution
+	 *
+	 * @param ps - solution to start from
+	 */
+	private void setupSolution(ProblemSol ps) {
+		xVals = new boolean[n];
+		xList = new int[n];
+		xPos = new int[n];
+		xSize = 0;
+		for (Integer i: ps.getX()) {
+			xVals[i] = true;
+			xPos[i] = xSize;
+			xList[xSize] = i;
+			xSize++;
+		}
+		obj = Math.round(ps.getObj());
+
+		// Gain of each item given the solution
+		gain = new int[n];
+		for (int i = 0; i < n; i++) {
+			int g = u.getCi(i);
+			if (sparse) {
+				g += (int)sp.contribution(i, xVals);
+			} else {
+				for (int j = 0; j < xSize; j++) {
+					int xj = xList[j];
+					g += u.getCij(i,xj);
+					for (int k = j+1; k < xSize; k++) {
+						g += u.getDijk(i,xj,xList[k]);
+					}
+				}
+			}
+			gain[i] = g;
+		}
+
+		// Fill buckets
+		if (sparse) {
+			for (int b = 0; b < head.length; b++) {
+				head[b] = -1;
+			}
+			minBucket = head.length;
+			for (int i = 0; i < n; i++) {
+				insert(i);
+			}
+		}
+
+		// No variables tabu
+		tabu = new boolean[n];
+		tabuQueue = new int[tabuDuration+1];
+		tabuStart = 0;
+		tabuSize = 0;
+	}
+
+	/**
+	 * Run tabu search with single variable flips and a random-flip diversification
+	 */
+	public void run() {
+		long bestObj = obj;
+		boolean[] bestX = xVals.clone();
+		int bestNotUpdated = 0;
+		int diversified = 1;
+		long start = startClock();
+		long end = start;
+
+		// Track time/iterations
+		for (int i = 1; i < maxIter && (end-start) < time && !stopped; i++) {
+			// If best hasn't been updated, diversify with random flips
+			if (bestNotUpdated >= 10*n*diversified) {
+				bestNotUpdated = 0;
+				diversified++;
+				TestLogger.logger.info("Diversifying...");
+				for (int d = 0; d < Math.max(1, n/10); d++) {
+					flipAny(rnd.nextInt(n));
+				}
+			}
+
+			// Find the best nontabu flip (or a tabu flip that improves best)
+			int k = bestFlip();
+			for (int t = 0; t < tabuSize; t++) {
+				int j = tabuQueue[(tabuStart+t) % tabuQueue.length];
+				if (obj + change(j) < bestObj && (k == -1 || change(j) < change(k))) {
+					k = j;
+				}
+			}
+
+			// Flip and make tabu
+			if (k != -1) {
+				if (tabu[k]) {
+					flip(k);
+				} else {
+					if (sparse) {
+						remove(k);
+					}
+					flip(k);
+					makeTabu(k);
+				}
+			}
+
+			// Update Best
+			if (obj < bestObj) {
+				bestObj = obj;
+				System.arraycopy(xVals, 0, bestX, 0, n);
+				TestLogger.logger.info("Best updated at iteration " + i + " to " + obj);
+				// Solutions are only built for listeners
+				if (hasListeners()) {
+					best = toSolution(bestX, bestObj);
+					improved(i);
+				}
+				bestNotUpdated = 0;
+			} else {
+				bestNotUpdated++;
+			}
+
+			// Update time
+			end = System.nanoTime();
+		}
+
+		current = toSolution(xVals, obj);
+		best = toSolution(bestX, bestObj);
+	}
+
+	/**
+	 * Return the change in objective if item i is flipped
+	 */
+	private int change(int i) {
+		if (xVals[i]) {
+			return -gain[i];
+		} else {
+			return gain[i];
+		}
+	}
+
+	/**
+	 * Find the nontabu item with the best (lowest) flip change
+	 *
+	 * @return item to flip or -1 if all items tabu
+	 */
+	private int bestFlip() {
+		if (sparse) {
+			while (minBucket < head.length && head[minBucket] == -1) {
+				minBucket++;
+			}
+			if (minBucket == head.length) {
+				return -1;
+			}
+			return head[minBucket];
+		} else {
+			int minI = -1;
+			int minChange = Integer.MAX_VALUE;
+			for (int i = 0; i < n; i++) {
+				if (!tabu[i] && change(i) < minChange) {
+					minChange = change(i);
+					minI = i;
+				}
+			}
+			return minI;
+		}
+	}
+
+	/**
+	 * Flip item k and update the objective and gains of the other items
+	 *
+	 * @param k - item to flip
+	 */
+	private void flip(int k) {
+		int sign = 1;
+		if (xVals[k]) {
+			sign = -1;
+		}
+		obj += sign*gain[k];
+		if (sparse) {
+			for (int t = 0; t < sp.getQuadSize(k); t++) {
+				updateGain(sp.getQuadPartner(k,t), sign*sp.getQuadValue(k,t));
+			}
+			for (int t = 0; t < sp.getCubicSize(k); t++) {
+				int j = sp.getCubicFirst(k,t);
+				int l = sp.getCubicSecond(k,t);
+				int d = sp.getCubicValue(k,t);
+				if (xVals[l]) {
+					updateGain(j, sign*d);
+				}
+				if (xVals[j]) {
+					updateGain(l, sign*d);
+				}
+			}
+		} else {
+			for (int l = 0; l < n; l++) {
+				if (l != k) {
+					int wkl = u.getCij(k,l);
+					for (int t = 0; t < xSize; t++) {
+						wkl += u.getDijk(k,l,xList[t]);
+					}
+					gain[l] += sign*wkl;
+				}
+			}
+		}
+
+		// Update solution
+		if (xVals[k]) {
+			xVals[k] = false;
+			xSize--;
+			int last = xList[xSize];
+			xList[xPos[k]] = last;
+			xPos[last] = xPos[k];
+		} else {
+			xVals[k] = true;
+			xPos[k] = xSize;
+			xList[xSize] = k;
+			xSize++;
+		}
+	}
+
+	/**
+	 * Flip item k whether or not it is tabu
+	 *
+	 * @param k - item to flip
+	 */
+	private void flipAny(int k) {
+		if (sparse && !tabu[k]) {
+			remove(k);
+			flip(k);
+			insert(k);
+		} else {
+			flip(k);
+		}
+	}
+
+	/**
+	 * Change the gain of item i and move it to its new bucket
+	 *
+	 * @param i - item to update
+	 * @param g - change in gain
+	 */
+	private void updateGain(int i, int g) {
+		if (tabu[i]) {
+			gain[i] += g;
+		} else {
+			remove(i);
+			gain[i] += g;
+			insert(i);
+		}
+	}
+
+	/**
+	 * Make item k tabu and release the oldest tabu item if the list is full
+	 *
+	 * @param k - item flipped
+	 */
+	private void makeTabu(int k) {
+		tabu[k] = true;
+		tabuQueue[(tabuStart+tabuSize) % tabuQueue.length] = k;
+		tabuSize++;
+		if (tabuSize > tabuDuration) {
+			int j = tabuQueue[tabuStart];
+			tabuStart = (tabuStart+1) % tabuQueue.length;
+			tabuSize--;
+			tabu[j] = false;
+			if (sparse) {
+				insert(j);
+			}
+		}
+	}
+
+	/**
+	 * Insert item i into the bucket of its flip change
+	 */
+	private void insert(int i) {
+		int b = change(i) + offset;
+		bucket[i] = b;
+		prev[i] = -1;
+		next[i] = head[b];
+		if (head[b] != -1) {
+			prev[head[b]] = i;
+		}
+		head[b] = i;
+		if (b < minBucket) {
+			minBucket = b;
+		}
+	}
+
+	/**
+	 * Remove item i from its bucket
+	 */
+	private void remove(int i) {
+		if (prev[i] != -1) {
+			next[prev[i]] = next[i];
+		} else {
+			head[bucket[i]] = next[i];
+		}
+		if (next[i] != -1) {
+			prev[next[i]] = prev[i];
+		}
+	}
+
+	/**
+	 * Create a solution from the given values
+	 *
+	 * @param vals - (T) if item i is in the solution
+	 * @param solObj - objective of the solution
+	 * @return the created solution
+	 */
+	private UnconstrainedSol toSolution(boolean[] vals, long solObj) {
+		ArrayList<Integer> x = new ArrayList<Integer>();
+		ArrayList<Integer> r = new ArrayList<Integer>();
+		for (int i = 0; i < n; i++) {
+			if (vals[i]) {
+				x.add(i);
+			} else {
+				r.add(i);
+			}
+		}
+		return new UnconstrainedSol(ctx, x, r, solObj);
+	}
+}
@@ -4,10 +4,13 @@ import Problems.Fractional;
 import Problems.MaxProbability;
 import Problems.ProblemFactory;
 import Runner.TestLogger;
+import Runner.TraceRecorder;
 import Solutions.ProblemSol;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.logging.Level;
 
 /**
  * Genetic Algorithm Implementation
@@ -19,6 +22,8 @@ import java.util.Collections;
 public class genAlgo extends Metaheuristic{
 
 	private ArrayList<ProblemSol> population;
+	// Members of the population (duplicate checks by solution hash)
+	private HashSet<ProblemSol> popSet;
 	private int numZero;
 	private int removeAttempts;
 	private int numGens;
@@ -54,12 +59,14 @@ public class genAlgo extends Metaheuristic{
 
 		// Fill population with specified solution and random solutions
 		population = new ArrayList<ProblemSol>();
-		population.add(ps);
+		popSet = new HashSet<ProblemSol>();
+		population.add(current);
+		popSet.add(current);
 
 		ProblemSol ps2;
 		for (int i = 0; i < popSize-1; i++) {
-			ps2 = ProblemFactory.genRndSol();
-			boolean added = tryAdd(population, ps2);
+			ps2 = ProblemFactory.genRndSol(ctx);
+			boolean added = tryAdd(population, popSet, ps2);
 			if (!added) {
 				i--;
 			}
@@ -72,20 +79,103 @@ public class genAlgo extends Metaheuristic{
 	 * - Stores the best solution generated
 	 */
 	public void run() {
-		long start = System.nanoTime();
+		long start = startClock();
 		long end = start;
 		printPopulation(-1);
-		for (int i = 0; i < numGens && (end-start) < time; i++) {
-			updatePopulation();
-			printPopulation(i);
+		for (int i = 0; i < numGens && (end-start) < time && !stopped; i++) {
+			nextGeneration(i);
+
+			// Report a new elite
+			ProblemSol elite = getElite();
+			if (elite != null && elite.compareTo(best) > 0) {
+				best = elite;
+				improved(i);
+			}
+			// Trace generation (value: worst objective of the population)
+			trace(TraceRecorder.ITERATION, i, population.get(0).getObj());
 			end = System.nanoTime();
+			snapshot();
 		}
+		updateBest();
+	}
+
+	/**
+	 * Evolve the population by one generation
+	 * 
+	 * @param generation - generation number (for printing)
+	 */
+	void nextGeneration(int generation) {
+		updatePopulation();
+		printPopulation(generation);
+	}
+
+	/**
+	 * Snapshot the best individual (current: the initial solution)
+	 */
+	@Override
+	public void saveSnapshot() {
+		updateBest();
+		super.saveSnapshot();
+	}
+
+	/**
+	 * Restore the snapshot and add its solutions to the population
+	 */
+	@Override
+	public boolean resume() {
+		if (!super.resume()) {
+			return false;
+		}
+		immigrate(ProblemSol.copy(best));
+		immigrate(ProblemSol.copy(current));
+		return true;
+	}
+
+	/**
+	 * Store the best valid individual of the population as best
+	 */
+	void updateBest() {
+		ProblemSol elite = getElite();
+		if (elite != null) {
+			this.best = elite;
+		}
+	}
+
+	/**
+	 * Return the best valid individual of the population (null if none)
+	 */
+	ProblemSol getElite() {
 		for (int i = population.size()-1; i >= 0; i--) {
 			if (population.get(i).getValid()) {
-				this.best = population.get(i);
-				i = -1;
+				return population.get(i);
 			}
 		}
+		return null;
+	}
+
+	/**
+	 * Replace the worst individual with the immigrant (used by islandGA)
+	 * 
+	 * @param ps - immigrant solution
+	 * @return (T) if the immigrant was added, (F) if already in the population
+	 */
+	boolean immigrate(ProblemSol ps) {
+		if (popSet.contains(ps)) {
+			return false;
+		}
+		ProblemSol worst = population.set(0, ps);
+		popSet.add(ps);
+		// Keep the worst in the set if the elitist step kept a copy of it
+		// 	(equal solutions compare equal, so a copy follows it in order)
+		boolean copied = false;
+		for (int i = 1; i < population.size() && population.get(i).compareTo(worst) == 0 && !copied; i++) {
+			copied = population.get(i).equals(worst);
+		}
+		if (!copied) {
+			popSet.remove(worst);
+		}
+		Collections.sort(population);
+		return true;
 	}
 
 	/**
@@ -95,15 +185,18 @@ public class genAlgo extends Metaheuristic{
 	 */
 	private void updatePopulation() {
 		ArrayList<ProblemSol> newPop = new ArrayList<ProblemSol>();
+		HashSet<ProblemSol> newSet = new HashSet<ProblemSol>();
 		// 2-elitist strategy
 		int elitist = 0;
 		for (int i = population.size()-1; i >= 0 && elitist < 2; i--) {
 			if (population.get(i).getValid()) {
 				newPop.add(population.get(i));
+				newSet.add(population.get(i));
 				elitist++;
 			}
 		}
 		newPop.add(population.get(1));
+		newSet.add(population.get(1));
 		// Check for invalid solutions
 		for (ProblemSol ps: newPop) {
 			if (!ps.getValid()) {
@@ -118,17 +211,18 @@ public class genAlgo extends Metaheuristic{
 			while (!added && j < 30) {
 				ProblemSol ps = generateIndividual();
 				if (ps != null) {
-					added = tryAdd(newPop, ps);
+					added = tryAdd(newPop, newSet, ps);
 				}
 				j++;
 			}
 			// Otherwise, add a random solution
 			while (!added) {
-				ProblemSol ps = ProblemFactory.genRndSol();
-				added = tryAdd(newPop, ps);
+				ProblemSol ps = ProblemFactory.genRndSol(ctx);
+				added = tryAdd(newPop, newSet, ps);
 			}
 		}
 		population = newPop;
+		popSet = newSet;
 		Collections.sort(population);
 		numZero = 0;
 		removeAttempts = 0;
@@ -140,28 +234,31 @@ public class genAlgo extends Metaheuristic{
 	 * - Avoid too many invalid solutions (if allowed)
 	 * 
 	 * @param newPop - population to add solution to
+	 * @param newSet - members of newPop
 	 * @param ps - solution to add
 	 * @return (T) if solution added, (F) otherwise
 	 */ 
-	private boolean tryAdd(ArrayList<ProblemSol> newPop, ProblemSol ps) {
-		// Check for duplicate
-		if (newPop.contains(ps))  {
+	private boolean tryAdd(ArrayList<ProblemSol> newPop, HashSet<ProblemSol> newSet, ProblemSol ps) {
+		// Check for duplicate (full comparison only on a hash match)
+		if (newSet.contains(ps))  {
 			return false;
 		} else {
 			// Add only 4 invalid answers
-			if (ps.getHealing() && !ps.getValid() && ps.getX().size() > 0 && numZero < 4) {
+			if (ps.getHealing() && !ps.getValid() && ps.getXSize() > 0 && numZero < 4) {
 				newPop.add(ps);
+				newSet.add(ps);
 				numZero++;
 				return true;
 			} 
 			// If too many invalid answers, try healing and adding
-			else if (ps.getHealing() && !ps.getValid() && ps.getX().size() > 0 && numZero >= 4) {
+			else if (ps.getHealing() && !ps.getValid() && ps.getXSize() > 0 && numZero >= 4) {
 				ps.healSol();
-				return tryAdd(newPop,ps);
+				return tryAdd(newPop,newSet,ps);
 			}
 			// If valid, add
-			else if (ps.getValid() && ps.getX().size() > 0) {
+			else if (ps.getValid() && ps.getXSize() > 0) {
 				newPop.add(ps);
+				newSet.add(ps);
 				return true;
 			} else {
 				return false;
@@ -175,19 +272,24 @@ public class genAlgo extends Metaheuristic{
 	 * @param generation - current generation
 	 */
 	private void printPopulation(int generation) {
+		// Skip formatting the population when not logging
+		if (!TestLogger.logger.isLoggable(Level.INFO)) {
+			return;
+		}
 		TestLogger.logger.info("Generation " + generation + ":");
 		TestLogger.logger.info("  #   |    Population  Objective    | X array");
 		TestLogger.logger.info("------|-----------------------------|--------");
 		for (int i = 0; i < population.size(); i++) {
 			ProblemSol ps = population.get(i);
 			String s;
-			if (ProblemFactory.getProblem() instanceof MaxProbability || ProblemFactory.getProblem() instanceof Fractional) {
+			if (ps.getProblem() instanceof MaxProbability || ps.getProblem() instanceof Fractional) {
 				s = String.format(" %4d |   %10.4f (%b)   |",i,ps.getObj(), ps.getValid());
 			} else {
 				s = String.format(" %4d |   %10.0f (%b)   |",i,ps.getObj(), ps.getValid());
 			}
-			Collections.sort(ps.getX());
-			s = s + ps.getX().toString();
+			ArrayList<Integer> sortedX = new ArrayList<Integer>(ps.getX());
+			Collections.sort(sortedX);
+			s = s + sortedX.toString();
 			TestLogger.logger.info(s);
 			TestLogger.logger.info("------|-----------------------------|--------");
 		}
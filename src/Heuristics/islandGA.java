@@ -0,0 +1,179 @@
+package Heuristics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import Runner.TestLogger;
+import Solutions.ProblemSol;
+
+/**
+ * Island-model Genetic Algorithm
+ * - Evolves several genAlgo populations (islands) in parallel
+ * - Each island evolves with its own random stream
+ * - Every migration interval, islands send a copy of their elite
+ * 	to their neighbours (ring) or receive the overall elite (broadcast)
+ *
+ * @author midkiffj
+ */
+public class islandGA extends Metaheuristic {
+
+	// Migration topologies
+	public static final int RING = 0;
+	public static final int BROADCAST = 1;
+
+	private genAlgo[] islands;
+	private int migrationInterval;
+	private int topology;
+	private int numGens;
+	private long time;
+
+	/**
+	 * Setup one island per core with ring migration every 10 generations
+	 *
+	 * @param ps - initial solution
+	 * @param numGens - optional parameter for number of generations per island. Default: 500
+	 * @param time - optional time parameter for heuristic runtime. Default: 5min
+	 */
+	public islandGA(ProblemSol ps, int numGens, long time) {
+		this(ps, Runtime.getRuntime().availableProcessors(), 10, RING, numGens, time);
+	}
+
+	/**
+	 * Setup the islands and migration parameters
+	 *
+	 * @param ps - initial solution (seeds every island)
+	 * @param numIslands - number of populations
+	 * @param migrationInterval - generations between migrations
+	 * @param topology - RING or BROADCAST
+	 * @param numGens - optional parameter for number of generations per island. Default: 500
+	 * @param time - optional time parameter for heuristic runtime. Default: 5min
+	 */
+	public islandGA(ProblemSol ps, int numIslands, int migrationInterval, int topology, int numGens, long time) {
+		super(ps);
+		this.migrationInterval = Math.max(1, migrationInterval);
+		this.topology = topology;
+
+		// Set number of generations to run
+		if (numGens == -1) {
+			this.numGens = 500;
+		} else {
+			this.numGens = numGens;
+		}
+
+		// Set time to run
+		if (time == -1) {
+			this.time = 60000000000L*5;
+		} else {
+			this.time = time;
+		}
+
+		// Build the islands (sequentially, so setup is repeatable)
+		// 	Each island forks its own context from this one
+		islands = new genAlgo[Math.max(1, numIslands)];
+		for (int i = 0; i < islands.length; i++) {
+			islands[i] = new genAlgo(ProblemSol.copy(current), this.numGens, this.time);
+		}
+	}
+
+	/**
+	 * Evolve the islands in parallel between migrations
+	 * - Stores the best solution found by any island
+	 */
+	public void run() {
+		long start = startClock();
+		long deadline = start + time;
+		int threads = Math.min(islands.length, Runtime.getRuntime().availableProcessors());
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			int generation = 0;
+			while (generation < numGens && System.nanoTime() < deadline && !stopped) {
+				int epoch = Math.min(migrationInterval, numGens - generation);
+				List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+				for (genAlgo island: islands) {
+					tasks.add(Executors.callable(new Evolve(island, generation, epoch, deadline)));
+				}
+				for (Future<Object> f: pool.invokeAll(tasks)) {
+					f.get();
+				}
+				generation += epoch;
+				ProblemSol before = best;
+				migrate();
+				if (best != before) {
+					improved(generation);
+				}
+				TestLogger.logger.info("Migration after generation " + generation + " Best: " + best.getObj());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			System.err.println("Island GA interrupted");
+		} catch (ExecutionException e) {
+			System.err.println("Island GA failed: " + e.getCause());
+		} finally {
+			pool.shutdown();
+		}
+
+		// Store the best island solution (in this context)
+		for (genAlgo island: islands) {
+			island.updateBest();
+			if (island.getBest().compareTo(best) > 0) {
+				best = island.getBest();
+			}
+		}
+		best = ProblemSol.copy(best, ctx);
+		current = ProblemSol.copy(best);
+	}
+
+	/**
+	 * Exchange elites between the islands
+	 * - RING: island i receives the elite of island i-1
+	 * - BROADCAST: every island receives the overall elite
+	 */
+	private void migrate() {
+		ProblemSol[] elites = new ProblemSol[islands.length];
+		for (int i = 0; i < islands.length; i++) {
+			elites[i] = islands[i].getElite();
+			if (elites[i] != null && elites[i].compareTo(best) > 0) {
+				best = elites[i];
+			}
+		}
+		for (int i = 0; i < islands.length; i++) {
+			ProblemSol immigrant;
+			if (topology == BROADCAST) {
+				immigrant = best;
+			} else {
+				immigrant = elites[(i + islands.length - 1) % islands.length];
+			}
+			if (immigrant != null && immigrant != elites[i]) {
+				islands[i].immigrate(ProblemSol.copy(immigrant, islands[i].getContext()));
+			}
+		}
+	}
+
+	/**
+	 * Runs a number of generations of one island
+	 */
+	private static class Evolve implements Runnable {
+		private genAlgo island;
+		private int first;
+		private int count;
+		private long deadline;
+
+		private Evolve(genAlgo island, int first, int count, long deadline) {
+			this.island = island;
+			this.first = first;
+			this.count = count;
+			this.deadline = deadline;
+		}
+
+		public void run() {
+			for (int g = first; g < first + count && System.nanoTime() < deadline; g++) {
+				island.nextGeneration(g);
+			}
+		}
+	}
+}
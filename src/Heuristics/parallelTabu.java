@@ -0,0 +1,373 @@
+package Heuristics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import Problems.SolveContext;
+import Runner.TestLogger;
+import Solutions.ProblemSol;
+import Solutions.SwapMove;
+
+/**
+ * Cooperative multi-threaded Tabu Search
+ * - Runs several tabu search workers in parallel, each with its own
+ * 	tabu list, tabu duration and diversification schedule
+ * - Workers publish improvements to a shared (lock-free) elite pool
+ * - A worker that stays stuck after diversifying restarts
+ * 	from a random member of the pool
+ *
+ * @author midkiffj
+ */
+public class parallelTabu extends Metaheuristic {
+
+	private Worker[] workers;
+	private ElitePool pool;
+	private int maxIter;
+	private long time;
+
+	/**
+	 * Setup one worker per core (at least 2) sharing a pool of 2 elites per worker
+	 *
+	 * @param ps - initial solution
+	 * @param maxIter - optional parameter for number of iterations per worker. Default: 1mil
+	 * @param time - optional time parameter for heuristic runtime. Default: 5min
+	 */
+	public parallelTabu(ProblemSol ps, int maxIter, long time) {
+		this(ps, Math.max(2, Runtime.getRuntime().availableProcessors()), -1, maxIter, time);
+	}
+
+	/**
+	 * Setup the workers and elite pool
+	 *
+	 * @param ps - initial solution (starts every worker)
+	 * @param numWorkers - number of tabu search threads
+	 * @param poolSize - optional number of elites kept in the pool. Default: 2*numWorkers
+	 * @param maxIter - optional parameter for number of iterations per worker. Default: 1mil
+	 * @param time - optional time parameter for heuristic runtime. Default: 5min
+	 */
+	public parallelTabu(ProblemSol ps, int numWorkers, int poolSize, int maxIter, long time) {
+		super(ps);
+		int k = Math.max(1, numWorkers);
+		if (poolSize == -1) {
+			poolSize = 2*k;
+		}
+		pool = new ElitePool(Math.max(1, poolSize));
+		pool.publish(ProblemSol.copy(current));
+
+		// Default parameters
+		this.maxIter = 1000000;
+		this.time = 60000000000L*5;
+		if (maxIter != -1) {
+			this.maxIter = maxIter;
+		}
+		if (time != -1) {
+			this.time = time;
+		}
+
+		// Vary the tabu duration (7.5*log(n) +/- 1*log(n))
+		// 	and the diversification period (5n, 10n, 15n) per worker
+		workers = new Worker[k];
+		for (int w = 0; w < k; w++) {
+			int tabuDuration = (int)Math.round((6.5 + (w % 3))*Math.log(n));
+			int divPeriod = 5*n*((w % 3) + 1);
+			workers[w] = new Worker(w, current, tabuDuration, divPeriod, ctx.fork());
+		}
+	}
+
+	/**
+	 * Run the workers in parallel until the iteration or time limit
+	 * - Stores the best solution found by any worker
+	 */
+	public void run() {
+		long deadline = startClock() + time;
+		// One thread per worker: workers run for the whole time limit
+		ExecutorService threads = Executors.newFixedThreadPool(workers.length);
+		try {
+			List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+			for (Worker w: workers) {
+				w.deadline = deadline;
+				tasks.add(Executors.callable(w));
+			}
+			for (Future<Object> f: threads.invokeAll(tasks)) {
+				f.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			System.err.println("Parallel tabu search interrupted");
+		} catch (ExecutionException e) {
+			System.err.println("Parallel tabu search failed: " + e.getCause());
+		} finally {
+			threads.shutdown();
+		}
+
+		// Store the best worker/pool solution
+		for (Worker w: workers) {
+			if (w.best.compareTo(best) > 0) {
+				best = w.best;
+			}
+		}
+		ProblemSol elite = pool.best();
+		if (elite != null && elite.compareTo(best) > 0) {
+			best = elite;
+		}
+		best = ProblemSol.copy(best, ctx);
+		current = ProblemSol.copy(best);
+	}
+
+	/**
+	 * Fixed size pool of the best solutions published by the workers
+	 * - Members are never modified after publishing (readers copy them)
+	 * - Publishing replaces the worst member with compare-and-set,
+	 * 	retrying if another worker changed the pool meanwhile
+	 */
+	private static class ElitePool {
+		private AtomicReferenceArray<ProblemSol> elites;
+
+		private ElitePool(int size) {
+			elites = new AtomicReferenceArray<ProblemSol>(size);
+		}
+
+		/**
+		 * Add the solution if it is new and better than the worst member
+		 *
+		 * @param ps - solution to publish (must not be modified afterwards)
+		 * @return (T) if added
+		 */
+		private boolean publish(ProblemSol ps) {
+			while (true) {
+				// Find the worst (or an empty) slot
+				int worst = -1;
+				ProblemSol worstSol = null;
+				for (int i = 0; i < elites.length(); i++) {
+					ProblemSol e = elites.get(i);
+					if (e == null) {
+						worst = i;
+						worstSol = null;
+						break;
+					}
+					if (e.equals(ps)) {
+						return false;
+					}
+					if (worst == -1 || worstSol.compareTo(e) > 0) {
+						worst = i;
+						worstSol = e;
+					}
+				}
+				if (worstSol != null && ps.compareTo(worstSol) <= 0) {
+					return false;
+				}
+				if (elites.compareAndSet(worst, worstSol, ps)) {
+					return true;
+				}
+			}
+		}
+
+		/**
+		 * Return a random member (null if empty)
+		 */
+		private ProblemSol sample(Random rnd) {
+			int size = elites.length();
+			int start = rnd.nextInt(size);
+			for (int i = 0; i < size; i++) {
+				ProblemSol e = elites.get((start + i) % size);
+				if (e != null) {
+					return e;
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * Return the best member (null if empty)
+		 */
+		private ProblemSol best() {
+			ProblemSol b = null;
+			for (int i = 0; i < elites.length(); i++) {
+				ProblemSol e = elites.get(i);
+				if (e != null && (b == null || e.compareTo(b) > 0)) {
+					b = e;
+				}
+			}
+			return b;
+		}
+	}
+
+	/**
+	 * Tabu search thread (as tabuSearch) that shares
+	 * 	improvements through the elite pool
+	 */
+	private class Worker implements Runnable {
+		private int id;
+		private ProblemSol current;
+		private ProblemSol best;
+		private Random rnd;
+		// Solve context with the stream of this thread
+		private SolveContext context;
+		private int[][] tabuList;
+		private int shiftTabu;
+		private int tabuDuration;
+		private int divPeriod;
+		private long deadline;
+
+		private Worker(int id, ProblemSol start, int tabuDuration, int divPeriod, SolveContext context) {
+			this.id = id;
+			this.context = context;
+			this.rnd = context.getRnd();
+			this.current = ProblemSol.copy(start, context);
+			this.best = ProblemSol.copy(current);
+			this.tabuDuration = tabuDuration;
+			this.divPeriod = divPeriod;
+			this.tabuList = new int[n][n];
+			this.shiftTabu = 0;
+		}
+
+		public void run() {
+			int stuck = 0;
+			int bestNotUpdated = 0;
+			int diversified = 1;
+
+			for (int i = 1; i < maxIter && System.nanoTime() < deadline && !stopped; i++) {
+				// If best hasn't been updated, diversify (twice) then restart from the pool
+				if (bestNotUpdated >= divPeriod*diversified) {
+					bestNotUpdated = 0;
+					diversified++;
+					if (diversified > 3) {
+						restart(i);
+						diversified = 1;
+					} else {
+						diversify(i);
+					}
+				}
+
+				// Occasionally, check for a shift
+				boolean shifted = false;
+				if (shiftTabu < i) {
+					if (rnd.nextDouble() < 0.6) {
+						int change = current.shift();
+						// If shifted, a shift becomes tabu
+						if (change != -1) {
+							shiftTabu = i + (n/4);
+							shifted = true;
+						}
+					}
+				}
+
+				// Otherwise, do a swap
+				if (!shifted) {
+					SwapMove[] swap = current.tabuMutateMove(i,tabuList);
+					if (swap != null) {
+						SwapMove tabu = swap[0];
+						SwapMove nonTabu = swap[1];
+
+						boolean swapped = false;
+						// Take the tabu swap if it beats best (aspiration)
+						if (tabu != null && current.betterThan(tabu, best)) {
+							current.apply(tabu);
+							swapped = true;
+							makeSwapTabu(i);
+						}
+						// Otherwise, use nonTabu
+						if (!swapped && nonTabu != null) {
+							current.apply(nonTabu);
+							swapped = true;
+							makeSwapTabu(i);
+						}
+
+						// Otherwise, stuck. Attempt shift after tabu duration passed
+						if (!swapped) {
+							stuck++;
+							if (stuck > tabuDuration) {
+								current.shift();
+								stuck = 0;
+							}
+						} else {
+							stuck = 0;
+						}
+					}
+				}
+
+				// Check for invalid solution
+				if (!current.getValid()) {
+					current.healSol();
+				}
+
+				// Update Best (and share it)
+				if (current.compareTo(best) > 0) {
+					best = ProblemSol.copy(current);
+					ProblemSol shared = ProblemSol.copy(current);
+					pool.publish(shared);
+					offerBest(shared, i);
+					TestLogger.logger.info("Worker " + id + " best updated at iteration " + i + " to " + best.getObj());
+					bestNotUpdated = 0;
+				} else {
+					bestNotUpdated++;
+				}
+			}
+		}
+
+		/**
+		 * Attempt 20 best swaps (as tabuSearch) within the time limit
+		 *
+		 * @param iteration of the diversification
+		 */
+		private void diversify(int iteration) {
+			for (int d = 0; d < 20 && System.nanoTime() < deadline; d++) {
+				SwapMove swap = current.bestMutateMove();
+				if (swap != null) {
+					current.apply(swap);
+					if (!current.getValid()) {
+						current.healSol();
+					}
+					if (current.compareTo(best) > 0) {
+						best = ProblemSol.copy(current);
+						ProblemSol shared = ProblemSol.copy(current);
+						pool.publish(shared);
+						offerBest(shared, iteration);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Restart from a random pool member with a clear tabu list
+		 *
+		 * @param iteration of the restart
+		 */
+		private void restart(int iteration) {
+			ProblemSol elite = pool.sample(rnd);
+			if (elite == null) {
+				return;
+			}
+			current = ProblemSol.copy(elite, context);
+			if (current.compareTo(best) > 0) {
+				best = ProblemSol.copy(current);
+			}
+			for (int[] row: tabuList) {
+				for (int j = 0; j < row.length; j++) {
+					row[j] = 0;
+				}
+			}
+			shiftTabu = iteration;
+			TestLogger.logger.info("Worker " + id + " restarted from pool: " + current.getObj());
+		}
+
+		/**
+		 * Set swapping indexes i and j tabu
+		 *
+		 * @param iteration of the swap
+		 */
+		private void makeSwapTabu(int iteration) {
+			int i = current.getLastAdded();
+			int j = current.getLastRemoved();
+			tabuList[i][j] = iteration + tabuDuration;
+			tabuList[j][i] = iteration + tabuDuration;
+		}
+	}
+}
@@ -0,0 +1,225 @@
+package Heuristics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import Problems.SolveContext;
+import Runner.TestLogger;
+import Solutions.ProblemSol;
+import Solutions.SwapMove;
+
+/**
+ * Parallel Tempering (replica-exchange) Simulated Annealing
+ * - Runs K annealing chains at fixed temperatures in parallel
+ * - Temperatures form a geometric ladder below 0.3*initial objective
+ * - After every exchange interval, neighbouring chains swap temperatures
+ * 	with the replica-exchange (Metropolis) probability
+ *
+ * @author midkiffj
+ */
+public class replicaAnneal extends Metaheuristic {
+
+	private Replica[] replicas;
+	private int exchangeInterval;
+	private int maxIter;
+	private long time;
+
+	/**
+	 * Setup one chain per core (at least 2) exchanging every 100 iterations
+	 *
+	 * @param ps - initial solution
+	 * @param maxIter - optional parameter for number of iterations per chain. Default: 1mil
+	 * @param time - optional time parameter for heuristic runtime. Default: 5min
+	 */
+	public replicaAnneal(ProblemSol ps, int maxIter, long time) {
+		this(ps, Math.max(2, Runtime.getRuntime().availableProcessors()), 100, maxIter, time);
+	}
+
+	/**
+	 * Setup the chains and exchange parameters
+	 *
+	 * @param ps - initial solution (starts every chain)
+	 * @param numReplicas - number of chains (temperatures)
+	 * @param exchangeInterval - iterations between exchanges
+	 * @param maxIter - optional parameter for number of iterations per chain. Default: 1mil
+	 * @param time - optional time parameter for heuristic runtime. Default: 5min
+	 */
+	public replicaAnneal(ProblemSol ps, int numReplicas, int exchangeInterval, int maxIter, long time) {
+		super(ps);
+		this.exchangeInterval = Math.max(1, exchangeInterval);
+
+		// Default parameters
+		this.maxIter = 1000000;
+		this.time = 60000000000L*5;
+		if (maxIter != -1) {
+			this.maxIter = maxIter;
+		}
+		if (time != -1) {
+			this.time = time;
+		}
+
+		// Geometric temperature ladder from 0.3*obj (hottest)
+		// 	to 0.001 of it (coldest)
+		double hot = 0.3*current.getObj();
+		if (hot == 0) {
+			hot = 1;
+		}
+		int k = Math.max(1, numReplicas);
+		double step = k > 1 ? Math.pow(0.001, 1.0/(k-1)) : 1;
+		replicas = new Replica[k];
+		double T = hot;
+		for (int i = 0; i < k; i++) {
+			replicas[i] = new Replica(current, T, ctx.fork());
+			T = T * step;
+		}
+	}
+
+	/**
+	 * Run the chains in parallel between replica exchanges
+	 */
+	public void run() {
+		long start = startClock();
+		long deadline = start + time;
+		int threads = Math.min(replicas.length, Runtime.getRuntime().availableProcessors());
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			int iteration = 0;
+			int round = 0;
+			while (iteration < maxIter && System.nanoTime() < deadline && !stopped) {
+				int steps = Math.min(exchangeInterval, maxIter - iteration);
+				List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+				for (Replica rep: replicas) {
+					rep.first = iteration;
+					rep.steps = steps;
+					rep.deadline = deadline;
+					tasks.add(Executors.callable(rep));
+				}
+				for (Future<Object> f: pool.invokeAll(tasks)) {
+					f.get();
+				}
+				iteration += steps;
+
+				// Update Best
+				for (Replica rep: replicas) {
+					if (rep.best.compareTo(best) > 0) {
+						best = ProblemSol.copy(rep.best, ctx);
+						improved(iteration);
+						TestLogger.logger.info("Best updated (PT) at iteration " + iteration + " to " + best.getObj());
+					}
+				}
+
+				// Alternate exchanges of even and odd neighbour pairs
+				exchange(round % 2);
+				round++;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			System.err.println("Replica exchange interrupted");
+		} catch (ExecutionException e) {
+			System.err.println("Replica exchange failed: " + e.getCause());
+		} finally {
+			pool.shutdown();
+		}
+		// Coldest chain is the current solution
+		current = ProblemSol.copy(replicas[replicas.length-1].current, ctx);
+	}
+
+	/**
+	 * Attempt to swap the temperatures of chains (i, i+1) for i = first, first+2, ...
+	 * 	with probability min(1, exp((obj_{i+1} - obj_i)*(1/T_i - 1/T_{i+1})))
+	 *
+	 * @param first - first chain of the pairs (0 or 1)
+	 */
+	private void exchange(int first) {
+		for (int i = first; i + 1 < replicas.length; i += 2) {
+			Replica hot = replicas[i];
+			Replica cold = replicas[i+1];
+			double delta = (hot.current.getObj() - cold.current.getObj()) * (1/cold.T - 1/hot.T);
+			if (delta >= 0 || rnd.nextDouble() <= Math.exp(delta)) {
+				// Swap the temperatures and ladder slots (each chain keeps
+				// 	its state in its own context, no solution copies)
+				double T = hot.T;
+				hot.T = cold.T;
+				cold.T = T;
+				replicas[i] = cold;
+				replicas[i+1] = hot;
+			}
+		}
+	}
+
+	/**
+	 * Annealing chain at the temperature of its ladder slot
+	 */
+	private class Replica implements Runnable {
+		private ProblemSol current;
+		private ProblemSol best;
+		private double T;
+		private Random rnd;
+		// Solve context with the stream of this thread
+		private SolveContext context;
+		private int shiftTabu;
+
+		// Iterations of the next run
+		private int first;
+		private int steps;
+		private long deadline;
+
+		private Replica(ProblemSol start, double T, SolveContext context) {
+			this.T = T;
+			this.context = context;
+			this.rnd = context.getRnd();
+			this.current = ProblemSol.copy(start, context);
+			this.best = ProblemSol.copy(current);
+			this.shiftTabu = 0;
+		}
+
+		public void run() {
+			for (int iteration = first; iteration < first + steps && System.nanoTime() < deadline && !stopped; iteration++) {
+				// Occasionally, check for a shift
+				boolean shifted = false;
+				if (shiftTabu < iteration) {
+					if (rnd.nextDouble() < 0.6) {
+						int change = current.shift();
+						// If shifted, a shift becomes tabu
+						if (change != -1) {
+							shiftTabu = iteration + (n/4);
+							shifted = true;
+						}
+					}
+				}
+
+				if (!shifted) {
+					// Get swap mutation
+					SwapMove swap = current.mutateMove();
+					if (swap != null) {
+						// Accept improvements, otherwise accept with probability
+						if (current.improves(swap)) {
+							current.apply(swap);
+						} else {
+							double expProb = Math.exp((swap.obj - current.getObj())/T);
+							if (rnd.nextDouble() <= expProb) {
+								current.apply(swap);
+							}
+						}
+					}
+				}
+
+				// Heal solution if invalid
+				if (!current.getValid()) {
+					current.healSol();
+				}
+
+				// Update chain best
+				if (current.compareTo(best) > 0) {
+					best = ProblemSol.copy(current);
+				}
+			}
+		}
+	}
+}
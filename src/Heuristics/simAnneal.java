@@ -1,7 +1,8 @@
 package Heuristics;
 
-import Runner.TestLogger;
+import Runner.TraceRecorder;
 import Solutions.ProblemSol;
+import Solutions.SwapMove;
 
 /**
  * Simulated Annealing implementation
@@ -45,10 +46,10 @@ public class simAnneal extends Metaheuristic {
 		double a = 0.98;
 
 		int expZero = 0;
-		long start = System.nanoTime();
+		long start = startClock();
 		long end = start;
 		// Track time and iterations
-		for (int iteration = 0; iteration < maxIter && (end-start) < time; iteration++) {			
+		for (int iteration = 0; iteration < maxIter && (end-start) < time && !stopped; iteration++) {			
 			
 			// Occasionally, check for a shift
 			boolean shifted = false;
@@ -65,25 +66,24 @@ public class simAnneal extends Metaheuristic {
 
 			if (!shifted) {
 				// Get swap mutation
-				ProblemSol swap;
-				swap = current.mutate();
+				SwapMove swap = current.mutateMove();
 				if (swap != null) {
 					// Check if swap better than current
-					if (swap.compareTo(current) > 0) {
-						current = swap;
+					if (current.improves(swap)) {
+						current.apply(swap);
 					}
 					// Otherwise, calculate probability
 					else {
 						// Calculate probabilities and compare
-						double expProb = Math.exp((swap.getObj() - current.getObj())/T);
+						double expProb = Math.exp((swap.obj - current.getObj())/T);
 						// Check for when T gets too small
 						if (expProb == 0.0) {
 							expZero++;
 						}
-						TestLogger.logger.info("expProb: " + expProb + " expZero: " + expZero);
+						trace(TraceRecorder.PROB, iteration, expProb);
 						double rdmDub = rnd.nextDouble();
 						if (rdmDub <= expProb) {
-							current = swap;
+							current.apply(swap);
 						}
 					}
 				}
@@ -97,12 +97,12 @@ public class simAnneal extends Metaheuristic {
 			// Update Best
 			if (current.compareTo(best) > 0) {
 				best = ProblemSol.copy(current);
-				TestLogger.logger.info("Best updated (SIM) at iteration " + iteration + " to " + current.getObj());
+				improved(iteration);
+				trace(TraceRecorder.BEST, iteration, T);
 			}
 
 			// Update temp
 			T = T * a;
-			TestLogger.logger.info("Iteration: " + iteration + " T:" + T);
 
 			// Reset T after becomes too small
 			if (expZero > 20) {
@@ -110,12 +110,12 @@ public class simAnneal extends Metaheuristic {
 				expZero = 0;
 			}
 
-			// Print iteration info
-			TestLogger.logger.info(iteration + "- Cur: " + current.getObj() + " Best: " + best.getObj());
-			TestLogger.logger.info(current.getX().toString());
+			// Trace iteration info (value: T)
+			trace(TraceRecorder.ITERATION, iteration, T);
 
-			// Update time
+			// Update time and snapshot
 			end = System.nanoTime();
+			snapshot();
 		}
 	}
 
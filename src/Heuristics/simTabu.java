@@ -1,7 +1,8 @@
 package Heuristics;
 
-import Runner.TestLogger;
+import Runner.TraceRecorder;
 import Solutions.ProblemSol;
+import Solutions.SwapMove;
 
 /**
  * Simulated Annealing with a Tabu Search diversification
@@ -13,6 +14,8 @@ public class simTabu extends Metaheuristic {
 	private int maxIter;
 	private long time;
 	private int shiftTabu;
+	// Tabu search currently running (if any)
+	private volatile tabuSearch tabu;
 
 	/**
 	 * Initialize parameters and init solution
@@ -36,6 +39,18 @@ public class simTabu extends Metaheuristic {
 		}
 	}
 
+	/**
+	 * Stop simulated annealing and any running tabu search
+	 */
+	@Override
+	public void stop() {
+		super.stop();
+		tabuSearch ts = tabu;
+		if (ts != null) {
+			ts.stop();
+		}
+	}
+
 	/**
 	 * Run simulated annealing with tabu search when heuristic gets stuck
 	 */
@@ -45,26 +60,37 @@ public class simTabu extends Metaheuristic {
 		// Temperature/Alpha values
 		double T = 0.3*current.getObj();
 		double a = 0.98;
-		TestLogger.logger.info(""+current.getValid());
 
-		long start = System.nanoTime();
+		long start = startClock();
 		long end = start;
 		// Track time/iterations
-		for (int iteration = 0; iteration < maxIter && (end-start) < time; iteration++) {
+		for (int iteration = 0; iteration < maxIter && (end-start) < time && !stopped; iteration++) {
 			// If stuck, try tabu search on best solution
 			if (bestNotUpdated > n*2) {
-				TestLogger.logger.info("Starting Tabu Search");
+				trace(TraceRecorder.TABU_START, iteration, T);
 				tabuSearch ts = new tabuSearch(best, n, time - (end-start));
+				// Tabu search keeps the snapshot up to date while it runs
+				if (snapshotFile != null) {
+					ts.setSnapshot(snapshotFile, snapshotInterval);
+				}
+				// and records its own iterations to the trace
+				ts.setTrace(trace);
+				tabu = ts;
+				if (stopped) {
+					ts.stop();
+				}
 				ts.run();
+				tabu = null;
 
 				// Update current and best from tabu search
 				current = ts.getCurrent();
 				ProblemSol tsBest = ts.getBest();
 				if (tsBest.compareTo(best) > 0) {
 					best = ProblemSol.copy(tsBest);
+					improved(iteration);
 				}
-				TestLogger.logger.info("Returning to Sim Anneal");
 				T = 0.3*current.getObj();
+				trace(TraceRecorder.TABU_END, iteration, T);
 				bestNotUpdated = 0;
 			}
 
@@ -83,20 +109,19 @@ public class simTabu extends Metaheuristic {
 
 			if (!shifted) {
 				// Get swaps
-				ProblemSol swap;
-				swap = current.mutate();
+				SwapMove swap = current.mutateMove();
 				if (swap != null) {
 					// Check if swap better than current
-					if (swap.compareTo(current) > 0) {
-						current = swap;
+					if (current.improves(swap)) {
+						current.apply(swap);
 					}
 					// Otherwise, calculate probability
 					else {
 						// Calculate probabilities and compare
-						double expProb = Math.exp((swap.getObj() - current.getObj())/T);
+						double expProb = Math.exp((swap.obj - current.getObj())/T);
 						double rdmDub = rnd.nextDouble();
 						if (rdmDub <= expProb) {
-							current = swap;
+							current.apply(swap);
 						}
 					}
 				}
@@ -110,7 +135,8 @@ public class simTabu extends Metaheuristic {
 			// Update Best
 			if (current.compareTo(best) > 0) {
 				best = ProblemSol.copy(current);
-				TestLogger.logger.info("Best updated (SIM) at iteration " + iteration + " to " + current.getObj());
+				improved(iteration);
+				trace(TraceRecorder.BEST, iteration, T);
 				bestNotUpdated = 0;
 			} else {
 				bestNotUpdated++;
@@ -119,13 +145,11 @@ public class simTabu extends Metaheuristic {
 			// Update Temperature
 			T = T * a;
 
-			// Print iteration info
-			TestLogger.logger.info(iteration + "- Cur: " + current.getObj() + " Best: " + best.getObj());
-			TestLogger.logger.info(current.getX().toString());
-			TestLogger.logger.info(""+current.getValid());
+			// Trace iteration info (value: T)
+			trace(TraceRecorder.ITERATION, iteration, T);
 
 			end = System.nanoTime();
-
+			snapshot();
 		}
 	}
 }
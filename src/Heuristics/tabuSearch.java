@@ -1,7 +1,8 @@
 package Heuristics;
 
-import Runner.TestLogger;
+import Runner.TraceRecorder;
 import Solutions.ProblemSol;
+import Solutions.SwapMove;
 
 /**
  * Tabu Search implementation
@@ -49,36 +50,38 @@ public class tabuSearch extends Metaheuristic {
 		int stuck = 0;
 		int bestNotUpdated = 0;
 		int diversified = 1;
-		long start = System.nanoTime();
+		long start = startClock();
 		long end = start;
 		
 		// Track time/iterations
-		for (int i = 1; i < maxIter && (end-start) < time; i++) {
+		for (int i = 1; i < maxIter && (end-start) < time && !stopped; i++) {
 			// If best hasn't been updated, try to diversify
 			if (bestNotUpdated >= 10*n*diversified) {
 				bestNotUpdated = 0;
 				diversified++;
-				TestLogger.logger.info("Diversifying...");
+				double undiversified = current.getObj();
 				// Attempt 20 best swaps
 				for (int d = 0; d < 20; d++) {
 					// Get swap
-					ProblemSol swap = current.bestMutate();
+					SwapMove swap = current.bestMutateMove();
 					if (swap != null) {
 						// Update current
-						current = swap;
+						current.apply(swap);
 						if (!current.getValid()) {
-							TestLogger.logger.info("Healing...Current: " + current.getObj());
+							double unhealed = current.getObj();
 							current.healSol();
-							TestLogger.logger.info("New Current: " + current.getObj());
+							trace(TraceRecorder.HEAL, i, unhealed);
 						}
 						// Update best
 						if (current.compareTo(best) > 0) {
 							best = ProblemSol.copy(current);
-							TestLogger.logger.info("Best updated from diversification to " + current.getObj());
+							improved(i);
+							trace(TraceRecorder.BEST, i, Double.NaN);
 						}
 					}
 				}
-				TestLogger.logger.info("Div: " + current.getObj());
+				// Value: objective before diversifying
+				trace(TraceRecorder.DIVERSIFY, i, undiversified);
 			}
 
 			// Occasionally, check for a shift
@@ -96,31 +99,29 @@ public class tabuSearch extends Metaheuristic {
 
 			// Otherwise, do a swap
 			if (!shifted) {
-				ProblemSol[] swap = current.tabuMutate(i,tabuList);
+				SwapMove[] swap = current.tabuMutateMove(i,tabuList);
 				if (swap != null) {
-					ProblemSol tabu = swap[0];
-					ProblemSol nonTabu = swap[1];
+					SwapMove tabu = swap[0];
+					SwapMove nonTabu = swap[1];
 					
 					boolean swapped = false;
-					// Check if tabu swap better than best
-					if (tabu != null && tabu.compareTo(best) > 0) {
-						current = tabu;
+					// Take the tabu swap if it beats best (aspiration)
+					if (tabu != null && current.betterThan(tabu, best)) {
+						current.apply(tabu);
 						swapped = true;
 						makeSwapTabu(i);
 					}
 					// Otherwise, use nonTabu
-					else {
-						if (nonTabu != null) {
-							current = nonTabu;
-							swapped = true;
-							makeSwapTabu(i);
-						}
+					if (!swapped && nonTabu != null) {
+						current.apply(nonTabu);
+						swapped = true;
+						makeSwapTabu(i);
 					}
 
 					// Otherwise, stuck. Attempt shift after tabu duration passed
 					if (!swapped) {
-						TestLogger.logger.info("ERROR: Unable to Swap");
 						stuck++;
+						trace(TraceRecorder.STUCK, i, stuck);
 						if (stuck > tabuDuration) {
 							current.shift();
 							stuck = 0;
@@ -133,27 +134,28 @@ public class tabuSearch extends Metaheuristic {
 
 			// Check for invalid solution
 			if (!current.getValid()) {
-				TestLogger.logger.info("Healing...Current: " + current.getObj());
+				double unhealed = current.getObj();
 				current.healSol();
-				TestLogger.logger.info("New Current: " + current.getObj());
+				// Value: objective before healing
+				trace(TraceRecorder.HEAL, i, unhealed);
 			}
 
 			// Update Best
 			if (current.compareTo(best) > 0) {
 				best = ProblemSol.copy(current);
-				TestLogger.logger.info("Best updated at iteration " + i + " to " + current.getObj());
+				improved(i);
+				trace(TraceRecorder.BEST, i, Double.NaN);
 				bestNotUpdated = 0;
 			} else {
 				bestNotUpdated++;
 			}
 			
-			// Print iteration details
-			TestLogger.logger.info(i + "- Cur: " + current.getObj() + " Best: " + best.getObj());
-			TestLogger.logger.info(current.getX().toString());
-			TestLogger.logger.info("Xsize: " + current.getXSize());
+			// Trace iteration details
+			trace(TraceRecorder.ITERATION, i, Double.NaN);
 
-			// Update time
+			// Update time and snapshot
 			end = System.nanoTime();
+			snapshot();
 		}
 	}
 
@@ -163,8 +165,8 @@ public class tabuSearch extends Metaheuristic {
 	 * @param iteration of the swap
 	 */
 	private void makeSwapTabu(int iteration) {
-		int i = current.getX().get(current.getXSize()-1);
-		int j = current.getR().get(current.getRSize()-1);
+		int i = current.getLastAdded();
+		int j = current.getLastRemoved();
 		tabuList[i][j] = iteration + tabuDuration;
 		tabuList[j][i] = iteration + tabuDuration;
 	}
@@ -0,0 +1,178 @@
+package Problems;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parallel generation of the cubic objective coefficients
+ * - Row i (ci, cij and dijk with i as the smallest index) is drawn
+ * 	from its own SplittableRandom seeded by (seed, i)
+ * - Rows are split between fork-join tasks by their number of triples
+ * - Instances only depend on the seed, not on the number of cores
+ *
+ * Note: the rows are drawn differently than the sequential setup,
+ * 	so a seed gives a different instance in each mode. The mode is chosen
+ * 	per instance (Cubic/CubicMult parallelGen) and kept in its files.
+ *
+ * @author midkiffj
+ */
+public class CoefGenerator extends RecursiveAction {
+
+	private static final long serialVersionUID = 1L;
+
+	// Triples filled by a task before it stops splitting
+	private static final long MIN_WORK = 1 << 18;
+
+	// Shared setup
+	private int n;
+	private int seed;
+	private boolean negCoef;
+	private double density;
+	private int[] ci;
+	private int[][] cij;
+	private DijkTensor dijk;
+
+	// Rows [lo,hi) of this task and their contribution to tau
+	private int lo;
+	private int hi;
+	private int[] tau;
+
+	private CoefGenerator(CoefGenerator parent, int lo, int hi) {
+		this.n = parent.n;
+		this.seed = parent.seed;
+		this.negCoef = parent.negCoef;
+		this.density = parent.density;
+		this.ci = parent.ci;
+		this.cij = parent.cij;
+		this.dijk = parent.dijk;
+		this.lo = lo;
+		this.hi = hi;
+	}
+
+	private CoefGenerator(int n, int seed, boolean negCoef, double density,
+			int[] ci, int[][] cij, DijkTensor dijk) {
+		this.n = n;
+		this.seed = seed;
+		this.negCoef = negCoef;
+		this.density = density;
+		this.ci = ci;
+		this.cij = cij;
+		this.dijk = dijk;
+		this.lo = 0;
+		this.hi = n;
+	}
+
+	/**
+	 * Fill ci, the rows of cij and dijk in parallel
+	 *
+	 * @param n - number of items
+	 * @param seed - rnd seed
+	 * @param negCoef - allow negative coefficients
+	 * @param density - probability of non-zero coefficients
+	 * @param ci - array to fill (length n)
+	 * @param cij - row array to fill (length n-1, rows are allocated)
+	 * @param dijk - tensor to fill
+	 * @return tau (each item's potential contribution)
+	 */
+	public static int[] generate(int n, int seed, boolean negCoef, double density,
+			int[] ci, int[][] cij, DijkTensor dijk) {
+		CoefGenerator gen = new CoefGenerator(n, seed, negCoef, density, ci, cij, dijk);
+		ForkJoinPool.commonPool().invoke(gen);
+		return gen.tau;
+	}
+
+	/**
+	 * Return the random stream for (seed, i)
+	 * 	Streams i < n are used for the coefficient rows.
+	 *
+	 * @param seed - rnd seed
+	 * @param i - stream index
+	 */
+	public static SplittableRandom stream(int seed, int i) {
+		return new SplittableRandom(((long)seed << 32) | (i & 0xFFFFFFFFL));
+	}
+
+	/**
+	 * Return the number of (j,k) pairs filled by row i
+	 */
+	private long rowWork(int i) {
+		long r = n-i-1;
+		return 1 + r + r*(r-1)/2;
+	}
+
+	@Override
+	protected void compute() {
+		long work = 0;
+		for (int i = lo; i < hi; i++) {
+			work += rowWork(i);
+		}
+		// Fill small blocks directly
+		if (hi - lo == 1 || work <= MIN_WORK) {
+			tau = new int[n];
+			for (int i = lo; i < hi; i++) {
+				fillRow(i);
+			}
+			return;
+		}
+		// Otherwise split the rows into halves of equal work
+		int mid = lo;
+		long half = 0;
+		while (mid < hi-1 && half + rowWork(mid) <= work/2) {
+			half += rowWork(mid);
+			mid++;
+		}
+		if (mid == lo) {
+			mid++;
+		}
+		CoefGenerator left = new CoefGenerator(this, lo, mid);
+		CoefGenerator right = new CoefGenerator(this, mid, hi);
+		invokeAll(left, right);
+		tau = left.tau;
+		for (int i = 0; i < n; i++) {
+			tau[i] += right.tau[i];
+		}
+	}
+
+	/**
+	 * Fill ci, cij and dijk for row i from the row's stream
+	 */
+	private void fillRow(int i) {
+		SplittableRandom rnd = stream(seed, i);
+		ci[i] = coef(rnd);
+		tau[i] += ci[i];
+		if (i == n-1) {
+			return;
+		}
+		int[] row = new int[n-i];
+		for (int j = i+1; j < n; j++) {
+			if (rnd.nextDouble() <= density) {
+				row[j-i] = coef(rnd);
+			}
+			tau[i] += row[j-i];
+			tau[j] += row[j-i];
+			for (int k = j+1; k < n; k++) {
+				int d = 0;
+				if (rnd.nextDouble() <= density) {
+					d = coef(rnd);
+				}
+				dijk.setSorted(i,j,k,d);
+				tau[i] += d;
+				tau[j] += d;
+				tau[k] += d;
+			}
+		}
+		cij[i] = row;
+	}
+
+	/**
+	 * Draw a coefficient
+	 * 	negCoef ? [-100,100] : [0,100]
+	 */
+	private int coef(SplittableRandom rnd) {
+		if (negCoef) {
+			return rnd.nextInt(201) - 100;
+		}
+		return rnd.nextInt(101);
+	}
+}
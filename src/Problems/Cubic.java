@@ -2,9 +2,13 @@ package Problems;
 
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.Scanner;
 
 /**
@@ -16,21 +20,28 @@ import java.util.Scanner;
  * 
  * @author midkiffj
  */
-public class Cubic extends Knapsack {
+public class Cubic extends Knapsack implements CubicCoefs {
 	
 	// Cubic problem
 	private int n;
+	// Instance generation only (solutions draw from their solve context)
 	private Random rnd;
 	private int seed;
 	private boolean negCoef;
 	private double density;
+	// Coefficients drawn by the parallel generator (see CoefGenerator)
+	private boolean parallelGen;
 
 	// Coefficients
 	private int[] a;
 	private int b;
 	private int[] ci;
 	private int[][] cij;
-	private int[][][] dijk;
+	private DijkTensor dijk;
+	// Sparse lists (null when the dense coefficients are used)
+	private SparseCoefs sparse;
+	// File backing dijk off-heap (null when stored on the heap)
+	private String dijkFile;
 
 	// Cubic Mutation (ratio)
 	private int[] tau;
@@ -55,12 +66,56 @@ public class Cubic extends Knapsack {
 	 * @param density - probability of non-zero coefficients
 	 */
 	public Cubic(int n, boolean negCoef, int seed, double density) {
+		this(n, negCoef, seed, density, null, false);
+	}
+
+	/**
+	 * Constructor to initialize problem setup
+	 * 	with the chosen coefficient generator
+	 * 
+	 * @param n - number of items
+	 * @param negCoef - allow negative coefficeints
+	 * @param seed - rnd seed
+	 * @param density - probability of non-zero coefficients
+	 * @param parallelGen - (T) draw the coefficients in parallel (see CoefGenerator)
+	 */
+	public Cubic(int n, boolean negCoef, int seed, double density, boolean parallelGen) {
+		this(n, negCoef, seed, density, null, parallelGen);
+	}
+
+	/**
+	 * Constructor to initialize problem setup 
+	 * 	with dijk stored in a memory-mapped file
+	 * 
+	 * @param n - number of items
+	 * @param negCoef - allow negative coefficeints
+	 * @param seed - rnd seed
+	 * @param density - probability of non-zero coefficients
+	 * @param dijkFile - file to store dijk in (created or overwritten)
+	 */
+	public Cubic(int n, boolean negCoef, int seed, double density, String dijkFile) {
+		this(n, negCoef, seed, density, dijkFile, false);
+	}
+
+	/**
+	 * Constructor to initialize problem setup
+	 * 
+	 * @param n - number of items
+	 * @param negCoef - allow negative coefficeints
+	 * @param seed - rnd seed
+	 * @param density - probability of non-zero coefficients
+	 * @param dijkFile - file to store dijk in (null: on the heap)
+	 * @param parallelGen - (T) draw the coefficients in parallel (see CoefGenerator)
+	 */
+	public Cubic(int n, boolean negCoef, int seed, double density, String dijkFile, boolean parallelGen) {
 		super();
 		this.n = n;
 		this.negCoef = negCoef;
 		this.rnd = new Random(seed);
 		this.seed = seed;
 		this.density = density;
+		this.dijkFile = dijkFile;
+		this.parallelGen = parallelGen;
 		setup();
 	}
 
@@ -68,6 +123,10 @@ public class Cubic extends Knapsack {
 	 * Initialize the objective and knapsack constraint coefficients
 	 */
 	private void setup() {
+		if (parallelGen) {
+			setupParallel();
+			return;
+		}
 		int i,j,k;
 
 		// Define objective coefficient matrices
@@ -75,7 +134,7 @@ public class Cubic extends Knapsack {
 		a = new int[n];
 		ci = new int[n];
 		cij = new int[n-1][];
-		dijk = new int[n-1][][];
+		dijk = allocDijk();
 		tau = new int[n];
 		ratio = new double[n];
 
@@ -89,7 +148,6 @@ public class Cubic extends Knapsack {
 		for(i = 0; i < n; i++){
 			if (i < n-1) {
 				cij[i] = new int[n-i];
-				dijk[i] = new int[n-i][];
 			}
 			if (negCoef) {
 				ci[i] = rnd.nextInt(201) - 100;
@@ -104,7 +162,6 @@ public class Cubic extends Knapsack {
 			// Update tau (item contribution)
 			tau[i] += ci[i];
 			for (j = i+1; j < n; j++){
-				dijk[i][j-i] = new int[n-j];
 				if (rnd.nextDouble() <= density) {
 					if (negCoef) {
 						cij[i][j-i] = rnd.nextInt(201) - 100;
@@ -118,19 +175,19 @@ public class Cubic extends Knapsack {
 				tau[i] += cij[i][j-i];
 				tau[j] += cij[i][j-i];
 				for(k = j+1; k < n; k++) {
+					int d = 0;
 					if (rnd.nextDouble() <= density) {
 						if (negCoef) {
-							dijk[i][j-i][k-j] = rnd.nextInt(201) - 100;
+							d = rnd.nextInt(201) - 100;
 						} else {
-							dijk[i][j-i][k-j] = rnd.nextInt(101);
+							d = rnd.nextInt(101);
 						}
-					} else {
-						dijk[i][j-i][k-j] = 0;
 					}
+					dijk.setSorted(i,j,k,d);
 					// Update tau (item contribution)
-					tau[i] += dijk[i][j-i][k-j];
-					tau[j] += dijk[i][j-i][k-j];
-					tau[k] += dijk[i][j-i][k-j];
+					tau[i] += d;
+					tau[j] += d;
+					tau[k] += d;
 				}
 			}
 		}
@@ -143,6 +200,35 @@ public class Cubic extends Knapsack {
 
 		// b : [50,sum(a)]
 		b = rnd.nextInt(totalA-50+1)+50;
+
+		chooseStorage();
+	}
+
+	/**
+	 * Initialize the coefficients with the parallel row generator.
+	 * - Weights and capacity are drawn from stream n of the seed
+	 */
+	private void setupParallel() {
+		a = new int[n];
+		ci = new int[n];
+		cij = new int[n-1][];
+		dijk = allocDijk();
+		ratio = new double[n];
+		tau = CoefGenerator.generate(n, seed, negCoef, density, ci, cij, dijk);
+
+		// a : [1,50]
+		SplittableRandom wRnd = CoefGenerator.stream(seed, n);
+		int totalA = 0;
+		for (int i = 0; i < n; i++) {
+			a[i] = wRnd.nextInt(50)+1;
+			totalA += a[i];
+			ratio[i] = (double)(tau[i])/a[i];
+		}
+
+		// b : [50,sum(a)]
+		b = wRnd.nextInt(totalA-50+1)+50;
+
+		chooseStorage();
 	}
 
 	/**
@@ -150,8 +236,9 @@ public class Cubic extends Knapsack {
 	 * 
 	 * @param x - variables in solution
 	 * @param r - variables not in solution
+	 * @param rnd - random stream of the solve context
 	 */
-	public void genRndInit(ArrayList<Integer> x, ArrayList<Integer> r) {
+	public void genRndInit(ArrayList<Integer> x, ArrayList<Integer> r, Random rnd) {
 		// Reset lists
 		r.clear();
 		x.clear();
@@ -242,7 +329,7 @@ public class Cubic extends Knapsack {
 				for(Integer xj: r) {
 					// Check for knapsack feasibility
 					if (a[xj]-a[xi] <= b - totalAx) {
-						double newObj = swapObj(xi, xj, x, curObj);
+						double newObj = swapObj(xi, xj, x, inX, curObj);
 						double change = newObj - curObj;
 						if (change > maxChange) {
 							maxI = xi;
@@ -253,8 +340,8 @@ public class Cubic extends Knapsack {
 				}
 			}
 			// Determine the best shift
-			double[] add = tryAdd(x, r, curObj, totalAx);
-			double[] sub = trySub(x, curObj, totalAx);
+			double[] add = tryAdd(x, r, inX, curObj, totalAx);
+			double[] sub = trySub(x, inX, curObj, totalAx);
 			double addChange = add[0];
 			double subChange = sub[0];
 			// If an addition is better than a swap, do the addition
@@ -262,6 +349,7 @@ public class Cubic extends Knapsack {
 				int addI = (int)add[1];
 				x.add(addI);
 				r.remove(Integer.valueOf(addI));
+				inX[addI] = true;
 				curObj = curObj + add[0];
 				totalAx = totalAx + a[addI];
 			} 
@@ -270,6 +358,7 @@ public class Cubic extends Knapsack {
 				int subI = (int)sub[1];
 				x.remove(Integer.valueOf(subI));
 				r.add(subI);
+				inX[subI] = false;
 				curObj = curObj + sub[0];
 				totalAx = totalAx - a[subI];
 			} 
@@ -285,6 +374,8 @@ public class Cubic extends Knapsack {
 					r.remove(Integer.valueOf(maxJ));
 					x.remove(Integer.valueOf(maxI));
 					r.add(maxI);
+					inX[maxJ] = true;
+					inX[maxI] = false;
 					curObj = curObj + maxChange;
 					totalAx = totalAx + a[maxJ] - a[maxI];
 				}
@@ -299,16 +390,31 @@ public class Cubic extends Knapsack {
 	 */
 	public double getObj(ArrayList<Integer> x) {
 		int i,j,k;
+		// Sparse: each item's non-zero terms with the rest of the solution
+		if (sparse != null) {
+			boolean[] inX = new boolean[n];
+			long curObj = 0;
+			for (Integer xi: x) {
+				inX[xi] = true;
+				curObj += ci[xi];
+			}
+			return curObj + sparse.termsObj(x, inX);
+		}
+		// Sort the items to use the sorted coefficient accessors
+		int[] xs = new int[x.size()];
+		for (i = 0; i < xs.length; i++) {
+			xs[i] = x.get(i);
+		}
+		Arrays.sort(xs);
 		double curObj = 0;
-		for(i = 0; i < x.size(); i++){
-			int xi = x.get(i);
+		for(i = 0; i < xs.length; i++){
+			int xi = xs[i];
 			curObj += ci[xi];
-			for (j = i+1; j < x.size(); j++){
-				int xj = x.get(j);
-				curObj += this.getCij(xi, xj);
-				for(k = j+1; k < x.size(); k++) {
-					int xk = x.get(k);
-					curObj += this.getDijk(xi,xj,xk);
+			for (j = i+1; j < xs.length; j++){
+				int xj = xs[j];
+				curObj += cij[xi][xj-xi];
+				for(k = j+1; k < xs.length; k++) {
+					curObj += dijk.getSorted(xi,xj,xs[k]);
 				}
 			}
 		} 
@@ -322,13 +428,22 @@ public class Cubic extends Knapsack {
 	 * @param i - item to be removed
 	 * @param j - item to be added
 	 * @param curX - current solution
+	 * @param inX - (T) if item is in the solution
 	 * @param oldObj - current solution objective value
 	 * @return the new objective if i and j swapped
 	 */
-	private double swapObj(int i, int j, ArrayList<Integer> curX, double oldObj) {
+	private double swapObj(int i, int j, ArrayList<Integer> curX, boolean[] inX, double oldObj) {
 		// Calculate change in ci's
 		oldObj = oldObj - this.getCi(i);
 		oldObj = oldObj + this.getCi(j);
+		// Sparse: terms of i with the solution, terms of j without i
+		if (sparse != null) {
+			oldObj -= sparse.contribution(i, inX);
+			inX[i] = false;
+			oldObj += sparse.contribution(j, inX);
+			inX[i] = true;
+			return oldObj;
+		}
 		for (int k = 0; k < curX.size(); k++) {
 			int xk = curX.get(k);
 			if (xk != i) {
@@ -352,12 +467,13 @@ public class Cubic extends Knapsack {
 	 * Find the variable that most improves the objective when added
 	 *
 	 * @param curX - items in solution
+	 * @param inX - (T) if item is in the solution
 	 * @param r - items outside solution
 	 * @param curObj - current objective
 	 * @param totalA - current weight of knapsack
 	 * @return {change in objective,item to add} or {0,-1} if no improving shift found
 	 */
-	private double[] tryAdd(ArrayList<Integer> curX, ArrayList<Integer> r, double curObj, int totalA) {
+	private double[] tryAdd(ArrayList<Integer> curX, ArrayList<Integer> r, boolean[] inX, double curObj, int totalA) {
 		double maxChange = 0;
 		int maxI = -1;
 		// For each item
@@ -366,12 +482,16 @@ public class Cubic extends Knapsack {
 			if (totalA + a[i] <= b) {
 				// Calculate change in objective
 				double obj = curObj + this.getCi(i);
-				for (int j = 0; j < curX.size(); j++) {
-					int xj = curX.get(j);
-					obj += this.getCij(i,xj);
-					for (int k = j+1; k < curX.size(); k++) {
-						int xk = curX.get(k);
-						obj += this.getDijk(i,xj,xk);
+				if (sparse != null) {
+					obj += sparse.contribution(i, inX);
+				} else {
+					for (int j = 0; j < curX.size(); j++) {
+						int xj = curX.get(j);
+						obj += this.getCij(i,xj);
+						for (int k = j+1; k < curX.size(); k++) {
+							int xk = curX.get(k);
+							obj += this.getDijk(i,xj,xk);
+						}
 					}
 				}
 				// Update best change found
@@ -391,23 +511,28 @@ public class Cubic extends Knapsack {
 	 * Find the variable that most improves the objective when removed
 	 *
 	 * @param curX - items in solution
+	 * @param inX - (T) if item is in the solution
 	 * @param curObj - current objective
 	 * @param totalA - current weight of knapsack
 	 * @return {change in objective,item to add} or {0,-1} if no improving shift found
 	 */
-	private double[] trySub(ArrayList<Integer> curX, double curObj, int totalA) {
+	private double[] trySub(ArrayList<Integer> curX, boolean[] inX, double curObj, int totalA) {
 		double maxChange = 0;
 		int maxI = -1;
 		// For each item,
 		for(Integer i: curX) {
 			// Calculate the new objective
 			double obj = curObj - this.getCi(i);
-			for (int j = 0; j < curX.size(); j++) {
-				int xj = curX.get(j);
-				obj -= this.getCij(i,xj);
-				for (int k = j+1; k < curX.size(); k++) {
-					int xk = curX.get(k);
-					obj -= this.getDijk(i,xj,xk);
+			if (sparse != null) {
+				obj -= sparse.contribution(i, inX);
+			} else {
+				for (int j = 0; j < curX.size(); j++) {
+					int xj = curX.get(j);
+					obj -= this.getCij(i,xj);
+					for (int k = j+1; k < curX.size(); k++) {
+						int xk = curX.get(k);
+						obj -= this.getDijk(i,xj,xk);
+					}
 				}
 			}
 			// Update the best change in objective
@@ -426,6 +551,14 @@ public class Cubic extends Knapsack {
 		return n;
 	}
 
+	/**
+	 * Return (T) if the coefficients were drawn by the parallel generator
+	 * 	(a seed gives a different instance than the sequential setup)
+	 */
+	public boolean getParallelGen() {
+		return parallelGen;
+	}
+
 	public int getA(int i) {
 		return a[i];
 	}
@@ -439,6 +572,9 @@ public class Cubic extends Knapsack {
 	}
 
 	public int getCij(int i, int j) {
+		if (sparse != null) {
+			return sparse.getCij(i,j);
+		}
 		if (i == j) {
 			return 0;
 		} else if (i < j) {
@@ -449,27 +585,55 @@ public class Cubic extends Knapsack {
 	}
 
 	public int getDijk(int i, int j, int k) {
-		if (i == j || i == k || j == k)  {
-			return 0;
+		if (sparse != null) {
+			return sparse.getDijk(i,j,k);
 		}
-		if (i < j) {
-			if (j < k) {
-				return dijk[i][j-i][k-j];
-			} else if (k < i) {
-				return dijk[k][i-k][j-i];
-			} else {
-				return dijk[i][k-i][j-k];
-			}
-		} else if (j < i) {
-			if (i < k) {
-				return dijk[j][i-j][k-i];
-			} else if (k < j) {
-				return dijk[k][j-k][i-j];
-			} else {
-				return dijk[j][k-j][i-k];
+		return dijk.get(i,j,k);
+	}
+
+	/**
+	 * Return dijk for callers that already know i < j < k
+	 */
+	public int getDijkSorted(int i, int j, int k) {
+		if (sparse != null) {
+			return sparse.getDijkSorted(i,j,k);
+		}
+		return dijk.getSorted(i,j,k);
+	}
+
+	/**
+	 * Return the sparse coefficient lists or null if dense storage is used
+	 */
+	public SparseCoefs getSparse() {
+		return sparse;
+	}
+
+	/**
+	 * Allocate dijk in the mapped dijk file (if given) or on the heap
+	 * 	(sized for the generated range before the possibly parallel fill)
+	 */
+	private DijkTensor allocDijk() {
+		if (dijkFile != null) {
+			try {
+				return MappedDijkTensor.create(dijkFile, n);
+			} catch (IOException e) {
+				System.err.println("Error mapping file: " + dijkFile + " (storing dijk on the heap)");
+				dijkFile = null;
 			}
-		} else {
-			return 0;
+		}
+		return DijkTensor.create(n, negCoef ? -100 : 0, 100);
+	}
+
+	/**
+	 * Replace the dense cij and dijk with adjacency lists
+	 * 	if the measured density of dijk is low enough
+	 */
+	private void chooseStorage() {
+		sparse = null;
+		if (dijkFile == null && SparseCoefs.preferred(n, cij, dijk)) {
+			sparse = new SparseCoefs(n, cij, dijk);
+			cij = null;
+			dijk = null;
 		}
 	}
 
@@ -479,11 +643,16 @@ public class Cubic extends Knapsack {
 
 	/**
 	 * Setup a Cubic from the given file. 
-	 * It is assumed the file was generated with the toFile() method.
+	 * It is assumed the file was generated with the toFile() or toBinaryFile() method.
 	 * 
 	 * @param filename to be read
 	 */
 	public void readFromFile(String filename) {
+		// Binary files are mapped straight into the coefficient arrays
+		if (ProblemFile.isBinary(filename)) {
+			readBinary(filename);
+			return;
+		}
 		Scanner scr;
 		try {
 			scr = new Scanner(new FileInputStream(filename));
@@ -496,6 +665,13 @@ public class Cubic extends Knapsack {
 			negCoef = scr.nextBoolean();
 			density = scr.nextDouble();
 			scr.nextLine();
+			// Generator line (only written for the parallel generator)
+			parallelGen = false;
+			if (scr.hasNext("gen")) {
+				scr.next();
+				parallelGen = scr.next().equals("parallel");
+				scr.nextLine();
+			}
 
 			// Read Coefficient matrices
 			a = readArr(scr);
@@ -507,13 +683,30 @@ public class Cubic extends Knapsack {
 				cij[i] = readArr(scr);
 			}
 
-			dijk = new int[n-1][][];
-			for(int i = 0; i < n-1; i++){
-				dijk[i] = new int[n-i][];
-				for (int j = i+1; j < n; j++) {
-					dijk[i][j-i] = readArr(scr);
+			// Map the dijk file or read the dijk rows
+			if (scr.hasNext("dijk")) {
+				scr.next();
+				dijkFile = scr.nextLine().trim();
+				// The coefficients only exist in the dijk file: fail if it can't be mapped
+				try {
+					dijk = MappedDijkTensor.open(dijkFile, n);
+				} catch (IOException e) {
+					throw new UncheckedIOException("Error mapping dijk file " + dijkFile + " of " + filename, e);
+				}
+			} else {
+				// Range unknown until read: widen while reading
+				dijk = DijkTensor.create(n, 0, 0);
+				for(int i = 0; i < n-1; i++){
+					for (int j = i+1; j < n; j++) {
+						int[] dij = readArr(scr);
+						for (int k = j+1; k < n; k++) {
+							dijk = dijk.widen(dij[k-j]);
+							dijk.setSorted(i,j,k,dij[k-j]);
+						}
+					}
 				}
 			}
+			chooseStorage();
 
 			// Read mutation (ratio) values
 			tau = readArr(scr);
@@ -527,6 +720,40 @@ public class Cubic extends Knapsack {
 		}
 	}
 
+	/**
+	 * Setup a Cubic from the given binary file.
+	 * It is assumed the file was generated with the toBinaryFile() method.
+	 * 
+	 * @param filename to be read
+	 */
+	private void readBinary(String filename) {
+		try {
+			ProblemFile pf = ProblemFile.open(filename, ProblemFile.CUBIC);
+			n = pf.getN();
+			seed = pf.getSeed();
+			rnd = new Random(seed);
+			b = pf.getB();
+			negCoef = pf.getNegCoef();
+			density = pf.getDensity();
+			parallelGen = pf.getParallelGen();
+
+			// Coefficients
+			a = pf.readInts();
+			ci = pf.readInts();
+			cij = pf.readTriangle();
+			dijk = pf.readTensor();
+			chooseStorage();
+
+			// Mutation (ratio) values
+			tau = pf.readInts();
+			ratio = pf.readDoubles();
+			pf.close();
+		} catch (IOException e) {
+			System.err.println("Error reading file: " + filename);
+			System.err.println(e.getMessage());
+		}
+	}
+
 	/**
 	 * Read in an int array of coefficients
 	 * 
@@ -557,15 +784,32 @@ public class Cubic extends Knapsack {
 			pw.write(b + "\n");
 			pw.write(negCoef + "\n");
 			pw.write(density + "\n");
+			if (parallelGen) {
+				pw.write("gen parallel\n");
+			}
 			// Write coefficient matrices
 			writeArr(pw, a);
 			writeArr(pw, ci);
-			for (int i = 0; i < cij.length; i++) {
-				writeArr(pw, cij[i]);
+			for (int i = 0; i < n-1; i++) {
+				int[] ci_row = new int[n-i];
+				for (int j = i+1; j < n; j++) {
+					ci_row[j-i] = getCij(i,j);
+				}
+				writeArr(pw, ci_row);
 			}
-			for (int i = 0; i < dijk.length; i++) {
-				for (int j = 1; j < dijk[i].length; j++) {
-					writeArr(pw, dijk[i][j]);
+			// Mapped dijk is referenced by file name
+			if (dijkFile != null) {
+				((MappedDijkTensor)dijk).flush();
+				pw.write("dijk " + dijkFile + "\n");
+			} else {
+				for (int i = 0; i < n-1; i++) {
+					for (int j = i+1; j < n; j++) {
+						int[] dij = new int[n-j];
+						for (int k = j+1; k < n; k++) {
+							dij[k-j] = getDijkSorted(i,j,k);
+						}
+						writeArr(pw, dij);
+					}
 				}
 			}
 			// Write mutation (ratio) values
@@ -581,6 +825,48 @@ public class Cubic extends Knapsack {
 		}
 	}
 
+	/**
+	 * Write the problem to the specified binary file.
+	 * 
+	 * @param filename - to write to
+	 */
+	public void toBinaryFile(String filename) {
+		try {
+			ProblemFile pf = ProblemFile.create(filename, ProblemFile.CUBIC, n, 0, seed, b, negCoef, parallelGen, density);
+			pf.writeInts(a);
+			pf.writeInts(ci);
+			writeBinaryCoefs(pf);
+			pf.writeInts(tau);
+			pf.writeDoubles(ratio);
+			pf.close();
+		} catch (IOException e) {
+			System.err.println("Error writing file: " + filename);
+			System.err.println(e.getMessage());
+		}
+	}
+
+	/**
+	 * Write the cij upper triangle and the packed dijk blocks
+	 * 
+	 * @param pf - binary file to write to
+	 */
+	private void writeBinaryCoefs(ProblemFile pf) throws IOException {
+		pf.writeInt(n*(n-1)/2);
+		for (int i = 0; i < n; i++) {
+			for (int j = i+1; j < n; j++) {
+				pf.writeInt(getCij(i,j));
+			}
+		}
+		pf.writeInt((int)((long)n*(n-1)*(n-2)/6));
+		for (int i = 0; i < n; i++) {
+			for (int j = i+1; j < n; j++) {
+				for (int k = j+1; k < n; k++) {
+					pf.writeInt(getDijkSorted(i,j,k));
+				}
+			}
+		}
+	}
+
 	/**
 	 * Write the given coefficient array with the writer
 	 * 
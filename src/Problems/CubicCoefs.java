@@ -0,0 +1,28 @@
+package Problems;
+
+/**
+ * Coefficient accessors shared by the cubic problems
+ * 	(objective: sum ci*xi + sum cij*xi*xj + sum dijk*xi*xj*xk)
+ *
+ * @author midkiffj
+ */
+public interface CubicCoefs {
+
+	public int getN();
+
+	public int getCi(int i);
+
+	public int getCij(int i, int j);
+
+	public int getDijk(int i, int j, int k);
+
+	/**
+	 * Return dijk for callers that already know i < j < k
+	 */
+	public int getDijkSorted(int i, int j, int k);
+
+	/**
+	 * Return the sparse coefficient lists or null if dense storage is used
+	 */
+	public SparseCoefs getSparse();
+}
@@ -2,9 +2,12 @@ package Problems;
 
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.Scanner;
 
 /**
@@ -16,22 +19,27 @@ import java.util.Scanner;
  * 
  * @author midkiffj
  */
-public class CubicMult extends MultipleKnapsack {
+public class CubicMult extends MultipleKnapsack implements CubicCoefs {
 
 	// CMKP Problem
 	private int n;
 	private int m;
+	// Instance generation only (solutions draw from their solve context)
 	private Random rnd;
 	private int seed;
 	private boolean negCoef;
 	private double density;
+	// Coefficients drawn by the parallel generator (see CoefGenerator)
+	private boolean parallelGen;
 
 	// Coefficients
 	private int[][] a;
 	private int[] b;
 	private int[] ci;
 	private int[][] cij;
-	private int[][][] dijk;
+	private DijkTensor dijk;
+	// Sparse lists (null when the dense coefficients are used)
+	private SparseCoefs sparse;
 
 	// Mutation values
 	private int[] tau;
@@ -57,6 +65,21 @@ public class CubicMult extends MultipleKnapsack {
 	 * @param density - probability of non-zero coefficients
 	 */
 	public CubicMult(int n, int m, boolean negCoef, int seed, double density) {
+		this(n, m, negCoef, seed, density, false);
+	}
+
+	/**
+	 * Setup a problem with the specificiations
+	 * 	and the chosen coefficient generator
+	 * 
+	 * @param n - number of items
+	 * @param m - number of knapsacks
+	 * @param negCoef - allow negative coefficients
+	 * @param seed - rnd seed
+	 * @param density - probability of non-zero coefficients
+	 * @param parallelGen - (T) draw the coefficients in parallel (see CoefGenerator)
+	 */
+	public CubicMult(int n, int m, boolean negCoef, int seed, double density, boolean parallelGen) {
 		super();
 		this.n = n;
 		this.m = m;
@@ -64,6 +87,7 @@ public class CubicMult extends MultipleKnapsack {
 		this.rnd = new Random(seed);
 		this.seed = seed;
 		this.density = density;
+		this.parallelGen = parallelGen;
 		setup();
 	}
 
@@ -71,6 +95,10 @@ public class CubicMult extends MultipleKnapsack {
 	 * Initialize the objective and knapsack constraint coefficients
 	 */
 	private void setup() {
+		if (parallelGen) {
+			setupParallel();
+			return;
+		}
 		int i,j,k;
 
 		// Define objective coefficient matrices
@@ -78,7 +106,7 @@ public class CubicMult extends MultipleKnapsack {
 		a = new int[m][n];
 		ci = new int[n];
 		cij = new int[n-1][];
-		dijk = new int[n-1][][];
+		dijk = DijkTensor.create(n, negCoef ? -100 : 0, 100);
 		tau = new int[n];
 		ratio = new double[n];
 
@@ -92,7 +120,6 @@ public class CubicMult extends MultipleKnapsack {
 		for(i = 0; i < n; i++){
 			if (i < n-1) {
 				cij[i] = new int[n-i];
-				dijk[i] = new int[n-i][];
 			}
 			if (negCoef) {
 				ci[i] = rnd.nextInt(201) - 100;
@@ -108,7 +135,6 @@ public class CubicMult extends MultipleKnapsack {
 			// Update item potential contribution
 			tau[i] += ci[i];
 			for (j = i+1; j < n; j++){
-				dijk[i][j-i] = new int[n-j];
 				if (rnd.nextDouble() <= density) {
 					if (negCoef) {
 						cij[i][j-i] = rnd.nextInt(201) - 100;
@@ -122,19 +148,19 @@ public class CubicMult extends MultipleKnapsack {
 				tau[i] += cij[i][j-i];
 				tau[j] += cij[i][j-i];
 				for(k = j+1; k < n; k++) {
+					int d = 0;
 					if (rnd.nextDouble() <= density) {
 						if (negCoef) {
-							dijk[i][j-i][k-j] = rnd.nextInt(201) - 100;
+							d = rnd.nextInt(201) - 100;
 						} else {
-							dijk[i][j-i][k-j] = rnd.nextInt(101);
+							d = rnd.nextInt(101);
 						}
-					} else {
-						dijk[i][j-i][k-j] = 0;
 					}
+					dijk.setSorted(i,j,k,d);
 					// Update item potential contribution
-					tau[i] += dijk[i][j-i][k-j];
-					tau[j] += dijk[i][j-i][k-j];
-					tau[k] += dijk[i][j-i][k-j];
+					tau[i] += d;
+					tau[j] += d;
+					tau[k] += d;
 				}
 			}
 		}
@@ -152,6 +178,49 @@ public class CubicMult extends MultipleKnapsack {
 		for (j = 0; j < m; j++) {
 			b[j] = rnd.nextInt(totalA[j]-50+1)+50;
 		}
+
+		chooseStorage();
+	}
+
+	/**
+	 * Initialize the coefficients with the parallel row generator.
+	 * - Weights and capacities are drawn from stream n of the seed
+	 */
+	private void setupParallel() {
+		int i,j;
+		a = new int[m][n];
+		ci = new int[n];
+		cij = new int[n-1][];
+		dijk = DijkTensor.create(n, negCoef ? -100 : 0, 100);
+		ratio = new double[n];
+		tau = CoefGenerator.generate(n, seed, negCoef, density, ci, cij, dijk);
+
+		// a : [1,50]
+		SplittableRandom wRnd = CoefGenerator.stream(seed, n);
+		int[] totalA = new int[m];
+		for (i = 0; i < n; i++) {
+			for (j = 0; j < m; j++) {
+				a[j][i] = wRnd.nextInt(50)+1;
+				totalA[j] += a[j][i];
+			}
+		}
+
+		// Calculate ratio for each item as the average of the knapsack ratios
+		for (i = 0; i < n; i++) {
+			double sumRatios = 0;
+			for (j = 0; j < m; j++) {
+				sumRatios += (double)(tau[i])/a[j][i];
+			}
+			ratio[i] = sumRatios/m;
+		}
+
+		// b : [50,sum(a)]
+		b = new int[m];
+		for (j = 0; j < m; j++) {
+			b[j] = wRnd.nextInt(totalA[j]-50+1)+50;
+		}
+
+		chooseStorage();
 	}
 
 	/**
@@ -159,8 +228,9 @@ public class CubicMult extends MultipleKnapsack {
 	 * 
 	 * @param x - items in the solution
 	 * @param r - items outside of the solution
+	 * @param rnd - random stream of the solve context
 	 */
-	public void genRndInit(ArrayList<Integer> x, ArrayList<Integer> r) {
+	public void genRndInit(ArrayList<Integer> x, ArrayList<Integer> r, Random rnd) {
 		// Reset lists
 		r.clear();
 		x.clear();
@@ -246,7 +316,7 @@ public class CubicMult extends MultipleKnapsack {
 				for(Integer xj: r) {
 					// Check for knapsack feasibility
 					if (swapTotalA(totalAx,xi,xj)) {
-						double newObj = swapObj(xi, xj, x, curObj);
+						double newObj = swapObj(xi, xj, x, inX, curObj);
 						double change = newObj - curObj;
 						if (change > maxChange) {
 							maxI = xi;
@@ -257,8 +327,8 @@ public class CubicMult extends MultipleKnapsack {
 				}
 			}
 			// Check for an improving add or removal
-			double[] add = tryAdd(x, r, curObj, totalAx);
-			double[] sub = trySub(x, curObj, totalAx);
+			double[] add = tryAdd(x, r, inX, curObj, totalAx);
+			double[] sub = trySub(x, inX, curObj, totalAx);
 			double addChange = add[0];
 			double subChange = sub[0];
 			// If addition is better than swap,
@@ -266,6 +336,7 @@ public class CubicMult extends MultipleKnapsack {
 				int addI = (int)add[1];
 				x.add(addI);
 				r.remove(Integer.valueOf(addI));
+				inX[addI] = true;
 				curObj = curObj + add[0];
 				addA(addI,totalAx);
 			} 
@@ -274,6 +345,7 @@ public class CubicMult extends MultipleKnapsack {
 				int subI = (int)sub[1];
 				x.remove(Integer.valueOf(subI));
 				r.add(subI);
+				inX[subI] = false;
 				curObj = curObj + sub[0];
 				removeA(subI,totalAx);
 			} 
@@ -287,6 +359,8 @@ public class CubicMult extends MultipleKnapsack {
 					r.remove(Integer.valueOf(maxJ));
 					x.remove(Integer.valueOf(maxI));
 					r.add(maxI);
+					inX[maxJ] = true;
+					inX[maxI] = false;
 					curObj = curObj + maxChange;
 					removeA(maxI,totalAx);
 					addA(maxJ,totalAx);
@@ -300,12 +374,13 @@ public class CubicMult extends MultipleKnapsack {
 	 * Find the variable that most improves the objective when added
 	 *
 	 * @param curX - items in solution
+	 * @param inX - (T) if item is in the solution
 	 * @param r - items outside solution
 	 * @param curObj - current objective
 	 * @param totalA - current weight of knapsack
 	 * @return {change in objective,item to add} or {0,-1} if no improving shift found
 	 */
-	private double[] tryAdd(ArrayList<Integer> curX, ArrayList<Integer> r, double curObj, int[] totalA) {
+	private double[] tryAdd(ArrayList<Integer> curX, ArrayList<Integer> r, boolean[] inX, double curObj, int[] totalA) {
 		double maxChange = 0;
 		int maxI = -1;
 		// Check all items
@@ -314,12 +389,16 @@ public class CubicMult extends MultipleKnapsack {
 			if (addTotalA(totalA,i)) {
 				// Calculate change in objective
 				double obj = curObj + this.getCi(i);
-				for (int j = 0; j < curX.size(); j++) {
-					int xj = curX.get(j);
-					obj += this.getCij(i,xj);
-					for (int k = j+1; k < curX.size(); k++) {
-						int xk = curX.get(k);
-						obj += this.getDijk(i,xj,xk);
+				if (sparse != null) {
+					obj += sparse.contribution(i, inX);
+				} else {
+					for (int j = 0; j < curX.size(); j++) {
+						int xj = curX.get(j);
+						obj += this.getCij(i,xj);
+						for (int k = j+1; k < curX.size(); k++) {
+							int xk = curX.get(k);
+							obj += this.getDijk(i,xj,xk);
+						}
 					}
 				}
 				// Update the best change in objective
@@ -340,23 +419,28 @@ public class CubicMult extends MultipleKnapsack {
 	 * Find the variable that most improves the objective when removed
 	 *
 	 * @param curX - items in solution
+	 * @param inX - (T) if item is in the solution
 	 * @param curObj - current objective
 	 * @param totalA - current weight of knapsack
 	 * @return {change in objective,item to add} or {0,-1} if no improving shift found
 	 */
-	private double[] trySub(ArrayList<Integer> curX, double curObj, int[] totalA) {
+	private double[] trySub(ArrayList<Integer> curX, boolean[] inX, double curObj, int[] totalA) {
 		double maxChange = 0;
 		int maxI = -1;
 		// Check all removals
 		for(Integer i: curX) {
 			// Calculate the new objective
 			double obj = curObj - this.getCi(i);
-			for (int j = 0; j < curX.size(); j++) {
-				int xj = curX.get(j);
-				obj -= this.getCij(i,xj);
-				for (int k = j+1; k < curX.size(); k++) {
-					int xk = curX.get(k);
-					obj -= this.getDijk(i,xj,xk);
+			if (sparse != null) {
+				obj -= sparse.contribution(i, inX);
+			} else {
+				for (int j = 0; j < curX.size(); j++) {
+					int xj = curX.get(j);
+					obj -= this.getCij(i,xj);
+					for (int k = j+1; k < curX.size(); k++) {
+						int xk = curX.get(k);
+						obj -= this.getDijk(i,xj,xk);
+					}
 				}
 			}
 			// Update the best change in objective found
@@ -423,12 +507,21 @@ public class CubicMult extends MultipleKnapsack {
 	 * @param i - item to remove
 	 * @param j - item to add
 	 * @param curX - current solution
+	 * @param inX - (T) if item is in the solution
 	 * @param oldObj - current objective
 	 * @return new objective value
 	 */
-	private double swapObj(int i, int j, ArrayList<Integer> curX, double oldObj) {
+	private double swapObj(int i, int j, ArrayList<Integer> curX, boolean[] inX, double oldObj) {
 		oldObj = oldObj - this.getCi(i);
 		oldObj = oldObj + this.getCi(j);
+		// Sparse: terms of i with the solution, terms of j without i
+		if (sparse != null) {
+			oldObj -= sparse.contribution(i, inX);
+			inX[i] = false;
+			oldObj += sparse.contribution(j, inX);
+			inX[i] = true;
+			return oldObj;
+		}
 		for (int k = 0; k < curX.size(); k++) {
 			int xk = curX.get(k);
 			if (xk != i) {
@@ -453,16 +546,31 @@ public class CubicMult extends MultipleKnapsack {
 	 */
 	public double getObj(ArrayList<Integer> x) {
 		int i,j,k;
+		// Sparse: each item's non-zero terms with the rest of the solution
+		if (sparse != null) {
+			boolean[] inX = new boolean[n];
+			long curObj = 0;
+			for (Integer xi: x) {
+				inX[xi] = true;
+				curObj += ci[xi];
+			}
+			return curObj + sparse.termsObj(x, inX);
+		}
+		// Sort the items to use the sorted coefficient accessors
+		int[] xs = new int[x.size()];
+		for (i = 0; i < xs.length; i++) {
+			xs[i] = x.get(i);
+		}
+		Arrays.sort(xs);
 		double curObj = 0;
-		for(i = 0; i < x.size(); i++){
-			int xi = x.get(i);
+		for(i = 0; i < xs.length; i++){
+			int xi = xs[i];
 			curObj += ci[xi];
-			for (j = i+1; j < x.size(); j++){
-				int xj = x.get(j);
-				curObj += this.getCij(xi, xj);
-				for(k = j+1; k < x.size(); k++) {
-					int xk = x.get(k);
-					curObj += this.getDijk(xi,xj,xk);
+			for (j = i+1; j < xs.length; j++){
+				int xj = xs[j];
+				curObj += cij[xi][xj-xi];
+				for(k = j+1; k < xs.length; k++) {
+					curObj += dijk.getSorted(xi,xj,xs[k]);
 				}
 			}
 		} 
@@ -473,6 +581,14 @@ public class CubicMult extends MultipleKnapsack {
 		return n;
 	}
 
+	/**
+	 * Return (T) if the coefficients were drawn by the parallel generator
+	 * 	(a seed gives a different instance than the sequential setup)
+	 */
+	public boolean getParallelGen() {
+		return parallelGen;
+	}
+
 	public int getM() {
 		return m;
 	}
@@ -490,6 +606,9 @@ public class CubicMult extends MultipleKnapsack {
 	}
 
 	public int getCij(int i, int j) {
+		if (sparse != null) {
+			return sparse.getCij(i,j);
+		}
 		if (i == j) {
 			return 0;
 		} else if (i < j) {
@@ -500,27 +619,39 @@ public class CubicMult extends MultipleKnapsack {
 	}
 
 	public int getDijk(int i, int j, int k) {
-		if (i == j || i == k || j == k)  {
-			return 0;
+		if (sparse != null) {
+			return sparse.getDijk(i,j,k);
 		}
-		if (i < j) {
-			if (j < k) {
-				return dijk[i][j-i][k-j];
-			} else if (k < i) {
-				return dijk[k][i-k][j-i];
-			} else {
-				return dijk[i][k-i][j-k];
-			}
-		} else if (j < i) {
-			if (i < k) {
-				return dijk[j][i-j][k-i];
-			} else if (k < j) {
-				return dijk[k][j-k][i-j];
-			} else {
-				return dijk[j][k-j][i-k];
-			}
-		} else {
-			return 0;
+		return dijk.get(i,j,k);
+	}
+
+	/**
+	 * Return dijk for callers that already know i < j < k
+	 */
+	public int getDijkSorted(int i, int j, int k) {
+		if (sparse != null) {
+			return sparse.getDijkSorted(i,j,k);
+		}
+		return dijk.getSorted(i,j,k);
+	}
+
+	/**
+	 * Return the sparse coefficient lists or null if dense storage is used
+	 */
+	public SparseCoefs getSparse() {
+		return sparse;
+	}
+
+	/**
+	 * Replace the dense cij and dijk with adjacency lists
+	 * 	if the measured density of dijk is low enough
+	 */
+	private void chooseStorage() {
+		sparse = null;
+		if (SparseCoefs.preferred(n, cij, dijk)) {
+			sparse = new SparseCoefs(n, cij, dijk);
+			cij = null;
+			dijk = null;
 		}
 	}
 
@@ -530,11 +661,16 @@ public class CubicMult extends MultipleKnapsack {
 
 	/**
 	 * Setup a CMKP from the given file. 
-	 * It is assumed the file was generated with the toFile() method.
+	 * It is assumed the file was generated with the toFile() or toBinaryFile() method.
 	 * 
 	 * @param filename to be read
 	 */
 	public void readFromFile(String filename) {
+		// Binary files are mapped straight into the coefficient arrays
+		if (ProblemFile.isBinary(filename)) {
+			readBinary(filename);
+			return;
+		}
 		Scanner scr;
 		try {
 			scr = new Scanner(new FileInputStream(filename));
@@ -549,6 +685,13 @@ public class CubicMult extends MultipleKnapsack {
 			negCoef = scr.nextBoolean();
 			density = scr.nextDouble();
 			scr.nextLine();
+			// Generator line (only written for the parallel generator)
+			parallelGen = false;
+			if (scr.hasNext("gen")) {
+				scr.next();
+				parallelGen = scr.next().equals("parallel");
+				scr.nextLine();
+			}
 
 			// Coefficients
 			a = new int[m][];
@@ -563,13 +706,18 @@ public class CubicMult extends MultipleKnapsack {
 				cij[i] = readArr(scr);
 			}
 
-			dijk = new int[n-1][][];
+			// Range unknown until read: widen while reading
+			dijk = DijkTensor.create(n, 0, 0);
 			for(int i = 0; i < n-1; i++){
-				dijk[i] = new int[n-i][];
 				for (int j = i+1; j < n; j++) {
-					dijk[i][j-i] = readArr(scr);
+					int[] dij = readArr(scr);
+					for (int k = j+1; k < n; k++) {
+						dijk = dijk.widen(dij[k-j]);
+						dijk.setSorted(i,j,k,dij[k-j]);
+					}
 				}
 			}
+			chooseStorage();
 
 			// Mutation values
 			tau = readArr(scr);
@@ -582,6 +730,41 @@ public class CubicMult extends MultipleKnapsack {
 		}
 	}
 
+	/**
+	 * Setup a CubicMult from the given binary file.
+	 * It is assumed the file was generated with the toBinaryFile() method.
+	 * 
+	 * @param filename to be read
+	 */
+	private void readBinary(String filename) {
+		try {
+			ProblemFile pf = ProblemFile.open(filename, ProblemFile.CUBIC_MULT);
+			n = pf.getN();
+			m = pf.getM();
+			seed = pf.getSeed();
+			rnd = new Random(seed);
+			negCoef = pf.getNegCoef();
+			density = pf.getDensity();
+			parallelGen = pf.getParallelGen();
+			b = pf.readInts();
+
+			// Coefficients
+			a = pf.readMatrix(m, n);
+			ci = pf.readInts();
+			cij = pf.readTriangle();
+			dijk = pf.readTensor();
+			chooseStorage();
+
+			// Mutation values
+			tau = pf.readInts();
+			ratio = pf.readDoubles();
+			pf.close();
+		} catch (IOException e) {
+			System.err.println("Error reading file: " + filename);
+			System.err.println(e.getMessage());
+		}
+	}
+
 	/**
 	 * Read in an int array of coefficients
 	 * 
@@ -613,18 +796,29 @@ public class CubicMult extends MultipleKnapsack {
 			writeArr(pw, b);
 			pw.write(negCoef + "\n");
 			pw.write(density + "\n");
+			if (parallelGen) {
+				pw.write("gen parallel\n");
+			}
 			
 			// Coefficients
 			for (int i = 0; i < m; i++) {
 				writeArr(pw, a[i]);
 			}
 			writeArr(pw, ci);
-			for (int i = 0; i < cij.length; i++) {
-				writeArr(pw, cij[i]);
+			for (int i = 0; i < n-1; i++) {
+				int[] ci_row = new int[n-i];
+				for (int j = i+1; j < n; j++) {
+					ci_row[j-i] = getCij(i,j);
+				}
+				writeArr(pw, ci_row);
 			}
-			for (int i = 0; i < dijk.length; i++) {
-				for (int j = 1; j < dijk[i].length; j++) {
-					writeArr(pw, dijk[i][j]);
+			for (int i = 0; i < n-1; i++) {
+				for (int j = i+1; j < n; j++) {
+					int[] dij = new int[n-j];
+					for (int k = j+1; k < n; k++) {
+						dij[k-j] = getDijkSorted(i,j,k);
+					}
+					writeArr(pw, dij);
 				}
 			}
 			
@@ -641,6 +835,49 @@ public class CubicMult extends MultipleKnapsack {
 		}
 	}
 
+	/**
+	 * Write the problem to the specified binary file.
+	 * 
+	 * @param filename - to write to
+	 */
+	public void toBinaryFile(String filename) {
+		try {
+			ProblemFile pf = ProblemFile.create(filename, ProblemFile.CUBIC_MULT, n, m, seed, 0, negCoef, parallelGen, density);
+			pf.writeInts(b);
+			pf.writeMatrix(a);
+			pf.writeInts(ci);
+			writeBinaryCoefs(pf);
+			pf.writeInts(tau);
+			pf.writeDoubles(ratio);
+			pf.close();
+		} catch (IOException e) {
+			System.err.println("Error writing file: " + filename);
+			System.err.println(e.getMessage());
+		}
+	}
+
+	/**
+	 * Write the cij upper triangle and the packed dijk blocks
+	 * 
+	 * @param pf - binary file to write to
+	 */
+	private void writeBinaryCoefs(ProblemFile pf) throws IOException {
+		pf.writeInt(n*(n-1)/2);
+		for (int i = 0; i < n; i++) {
+			for (int j = i+1; j < n; j++) {
+				pf.writeInt(getCij(i,j));
+			}
+		}
+		pf.writeInt((int)((long)n*(n-1)*(n-2)/6));
+		for (int i = 0; i < n; i++) {
+			for (int j = i+1; j < n; j++) {
+				for (int k = j+1; k < n; k++) {
+					pf.writeInt(getDijkSorted(i,j,k));
+				}
+			}
+		}
+	}
+
 	/**
 	 * Write the given coefficient array with the writer
 	 * 
@@ -0,0 +1,336 @@
+package Problems;
+
+import java.nio.IntBuffer;
+
+/**
+ * Packed storage of the cubic coefficients dijk
+ * - Stores the upper tetrahedron (i < j < k) in one contiguous array
+ * - Indexed with closed-form offsets (no per-row arrays)
+ * - Values are kept in the narrowest of byte/short/int that holds
+ * 	the coefficient range, one subclass per width (no per-read branch)
+ * - The width is fixed when the tensor is created (create) and only changed
+ * 	by widen, which returns a wider copy (single-threaded readers of
+ * 	coefficients with an unknown range); parallel fills need a known range
+ *
+ * @author midkiffj
+ */
+public abstract class DijkTensor {
+
+	private int n;
+
+	// Closed-form offsets: index(i,j,k) = rowOff[i] + pairOff[j] + k
+	private int[] rowOff;
+	private int[] pairOff;
+
+	/**
+	 * Create an all-zero tensor for n items with coefficients in [min,max]
+	 *
+	 * @param n - number of items
+	 * @param min - smallest coefficient
+	 * @param max - largest coefficient
+	 */
+	public static DijkTensor create(int n, int min, int max) {
+		if (min == (byte)min && max == (byte)max) {
+			return new ByteTensor(n);
+		} else if (min == (short)min && max == (short)max) {
+			return new ShortTensor(n);
+		}
+		return new IntTensor(n);
+	}
+
+	/**
+	 * Setup the offsets for n items
+	 *
+	 * @param n - number of items
+	 */
+	protected DijkTensor(int n) {
+		this.n = n;
+		long size = choose3(n);
+		if (size > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Too many items for a packed tensor: " + n);
+		}
+		rowOff = new int[n];
+		pairOff = new int[n];
+		for (int i = 0; i < n; i++) {
+			// (triples starting before i) - (pairs starting before i+1)
+			rowOff[i] = (int)(choose3(n) - choose3(n-i) - pairs(i+1));
+			// (pairs starting before j) - (j+1)
+			pairOff[i] = (int)(pairs(i) - i - 1);
+		}
+	}
+
+	/**
+	 * Return the number of (j,k) pairs with j < k and j < i
+	 */
+	private long pairs(long i) {
+		return i*(2L*n-i-1)/2;
+	}
+
+	/**
+	 * Return m choose 3
+	 */
+	private static long choose3(long m) {
+		if (m < 3) {
+			return 0;
+		}
+		return m*(m-1)*(m-2)/6;
+	}
+
+	public int getN() {
+		return n;
+	}
+
+	/**
+	 * Return the number of stored coefficients (n choose 3)
+	 */
+	public long size() {
+		return choose3(n);
+	}
+
+	/**
+	 * Return the array index of dijk
+	 * 	(assumes i < j < k)
+	 */
+	public final int index(int i, int j, int k) {
+		return rowOff[i] + pairOff[j] + k;
+	}
+
+	/**
+	 * Return dijk for any ordering of i,j,k (0 if any are equal)
+	 */
+	public int get(int i, int j, int k) {
+		int lo = Math.min(i, Math.min(j, k));
+		int hi = Math.max(i, Math.max(j, k));
+		int mid = i + j + k - lo - hi;
+		if (lo == mid || mid == hi) {
+			return 0;
+		}
+		return getSorted(lo, mid, hi);
+	}
+
+	/**
+	 * Return a tensor that holds val: this tensor if val fits its width,
+	 * 	otherwise a copy with the narrowest width that holds val
+	 * - Not thread-safe: the copy misses writes made to this tensor meanwhile
+	 *
+	 * @param val - coefficient to be stored
+	 */
+	public DijkTensor widen(int val) {
+		if (fits(val)) {
+			return this;
+		}
+		DijkTensor wide;
+		if (val == (short)val) {
+			wide = new ShortTensor(n);
+		} else {
+			wide = new IntTensor(n);
+		}
+		int size = (int)size();
+		for (int idx = 0; idx < size; idx++) {
+			wide.write(idx, read(idx));
+		}
+		return wide;
+	}
+
+	/**
+	 * Return the bytes used per coefficient (1, 2 or 4)
+	 */
+	public abstract int getWidth();
+
+	/**
+	 * Return (T) if val can be stored in this tensor
+	 */
+	public abstract boolean fits(int val);
+
+	/**
+	 * Return dijk for sorted indexes (i < j < k)
+	 */
+	public abstract int getSorted(int i, int j, int k);
+
+	/**
+	 * Set dijk for sorted indexes (i < j < k)
+	 * 	(val must fit the width, see widen)
+	 */
+	public abstract void setSorted(int i, int j, int k, int val);
+
+	/**
+	 * Copy the remaining coefficients of src into the packed array
+	 * 	starting at index from (in index() order)
+	 */
+	public void load(int from, IntBuffer src) {
+		for (int idx = from; src.hasRemaining(); idx++) {
+			write(idx, src.get());
+		}
+	}
+
+	/**
+	 * Return the number of non-zero coefficients
+	 */
+	public long countNonZero() {
+		long count = 0;
+		int size = (int)size();
+		for (int idx = 0; idx < size; idx++) {
+			if (read(idx) != 0) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Return the coefficient at the array index
+	 */
+	protected abstract int read(int idx);
+
+	/**
+	 * Store the coefficient at the array index
+	 */
+	protected abstract void write(int idx, int val);
+
+	/**
+	 * Reject a coefficient that does not fit the width
+	 */
+	protected void tooWide(int val) {
+		throw new IllegalArgumentException("Coefficient " + val + " does not fit a " + getWidth() + "-byte tensor");
+	}
+
+	/**
+	 * Coefficients in [-128,127]
+	 */
+	private static class ByteTensor extends DijkTensor {
+
+		private byte[] d;
+
+		ByteTensor(int n) {
+			super(n);
+			d = new byte[(int)size()];
+		}
+
+		@Override
+		public int getWidth() {
+			return 1;
+		}
+
+		@Override
+		public boolean fits(int val) {
+			return val == (byte)val;
+		}
+
+		@Override
+		public int getSorted(int i, int j, int k) {
+			return d[index(i,j,k)];
+		}
+
+		@Override
+		public void setSorted(int i, int j, int k, int val) {
+			write(index(i,j,k), val);
+		}
+
+		@Override
+		protected int read(int idx) {
+			return d[idx];
+		}
+
+		@Override
+		protected void write(int idx, int val) {
+			if (val != (byte)val) {
+				tooWide(val);
+			}
+			d[idx] = (byte)val;
+		}
+	}
+
+	/**
+	 * Coefficients in [-32768,32767]
+	 */
+	private static class ShortTensor extends DijkTensor {
+
+		private short[] d;
+
+		ShortTensor(int n) {
+			super(n);
+			d = new short[(int)size()];
+		}
+
+		@Override
+		public int getWidth() {
+			return 2;
+		}
+
+		@Override
+		public boolean fits(int val) {
+			return val == (short)val;
+		}
+
+		@Override
+		public int getSorted(int i, int j, int k) {
+			return d[index(i,j,k)];
+		}
+
+		@Override
+		public void setSorted(int i, int j, int k, int val) {
+			write(index(i,j,k), val);
+		}
+
+		@Override
+		protected int read(int idx) {
+			return d[idx];
+		}
+
+		@Override
+		protected void write(int idx, int val) {
+			if (val != (short)val) {
+				tooWide(val);
+			}
+			d[idx] = (short)val;
+		}
+	}
+
+	/**
+	 * Any int coefficients
+	 */
+	private static class IntTensor extends DijkTensor {
+
+		private int[] d;
+
+		IntTensor(int n) {
+			super(n);
+			d = new int[(int)size()];
+		}
+
+		@Override
+		public int getWidth() {
+			return 4;
+		}
+
+		@Override
+		public boolean fits(int val) {
+			return true;
+		}
+
+		@Override
+		public int getSorted(int i, int j, int k) {
+			return d[index(i,j,k)];
+		}
+
+		@Override
+		public void setSorted(int i, int j, int k, int val) {
+			d[index(i,j,k)] = val;
+		}
+
+		@Override
+		public void load(int from, IntBuffer src) {
+			src.get(d, from, src.remaining());
+		}
+
+		@Override
+		protected int read(int idx) {
+			return d[idx];
+		}
+
+		@Override
+		protected void write(int idx, int val) {
+			d[idx] = val;
+		}
+	}
+}
@@ -2,6 +2,7 @@ package Problems;
 
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Random;
@@ -24,6 +25,7 @@ public class Fractional extends Knapsack {
 	// Setup
 	private int n;
 	private int m;
+	// Instance generation only (solutions draw from their solve context)
 	private Random rnd;
 	private int seed;
 	private boolean negCoef;
@@ -161,7 +163,8 @@ public class Fractional extends Knapsack {
 		r.clear();
 		x.clear();
 		
-		FractionalFillUp fpu = new FractionalFillUp(this);
+		// Fill up in a context of its own (repeatable: stream 0)
+		FractionalFillUp fpu = new FractionalFillUp(new SolveContext(this));
 		fpu.run();
 		FractionalSol fs = (FractionalSol) fpu.getResult();
 		
@@ -179,8 +182,9 @@ public class Fractional extends Knapsack {
 	 * 
 	 * @param x - items in the solution
 	 * @param r - items outside of the solution
+	 * @param rnd - random stream of the solve context
 	 */
-	public void genRndInit(ArrayList<Integer> x, ArrayList<Integer> r) {
+	public void genRndInit(ArrayList<Integer> x, ArrayList<Integer> r, Random rnd) {
 		r.clear();
 		x.clear();
 		int totalAx = 0;
@@ -314,11 +318,16 @@ public class Fractional extends Knapsack {
 
 	/**
 	 * Setup a Fractional from the given file. 
-	 * It is assumed the file was generated with the toFile() method.
+	 * It is assumed the file was generated with the toFile() or toBinaryFile() method.
 	 * 
 	 * @param filename to be read
 	 */
 	public void readFromFile(String filename) {
+		// Binary files are mapped straight into the coefficient arrays
+		if (ProblemFile.isBinary(filename)) {
+			readBinary(filename);
+			return;
+		}
 		Scanner scr;
 		try {
 			scr = new Scanner(new FileInputStream(filename));
@@ -364,6 +373,36 @@ public class Fractional extends Knapsack {
 		}
 	}
 
+	/**
+	 * Setup a Fractional from the given binary file.
+	 * It is assumed the file was generated with the toBinaryFile() method.
+	 * 
+	 * @param filename to be read
+	 */
+	private void readBinary(String filename) {
+		try {
+			ProblemFile pf = ProblemFile.open(filename, ProblemFile.FRACTIONAL);
+			n = pf.getN();
+			seed = pf.getSeed();
+			rnd = new Random(seed);
+			negCoef = pf.getNegCoef();
+			m = pf.getM();
+
+			// Coefficients
+			b = pf.getB();
+			a = pf.readInts();
+			numConst = pf.readInts();
+			denConst = pf.readInts();
+			c = pf.readMatrix(m, n);
+			d = pf.readMatrix(m, n);
+			calcTauRatio();
+			pf.close();
+		} catch (IOException e) {
+			System.err.println("Error reading file: " + filename);
+			System.err.println(e.getMessage());
+		}
+	}
+
 	/**
 	 * Read in an int array of coefficients
 	 * 
@@ -413,6 +452,26 @@ public class Fractional extends Knapsack {
 		}
 	}
 
+	/**
+	 * Write the problem to the specified binary file.
+	 * 
+	 * @param filename - to write to
+	 */
+	public void toBinaryFile(String filename) {
+		try {
+			ProblemFile pf = ProblemFile.create(filename, ProblemFile.FRACTIONAL, n, m, seed, b, negCoef, 0);
+			pf.writeInts(a);
+			pf.writeInts(numConst);
+			pf.writeInts(denConst);
+			pf.writeMatrix(c);
+			pf.writeMatrix(d);
+			pf.close();
+		} catch (IOException e) {
+			System.err.println("Error writing file: " + filename);
+			System.err.println(e.getMessage());
+		}
+	}
+
 	/**
 	 * Write the given coefficient array with the writer
 	 * 
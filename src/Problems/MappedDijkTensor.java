@@ -0,0 +1,154 @@
+package Problems;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Cubic coefficients dijk stored off-heap in a memory-mapped file
+ * - Same packed layout as DijkTensor (little-endian ints)
+ * - Mapped in chunks since a single mapping is limited to 2 GB
+ * - Read-only mappings are shared through the page cache
+ *
+ * @author midkiffj
+ */
+public class MappedDijkTensor extends DijkTensor {
+
+	// Ints per mapped chunk (1 GB)
+	private static final int CHUNK_BITS = 28;
+	private static final int CHUNK_MASK = (1 << CHUNK_BITS) - 1;
+
+	private String filename;
+	private MappedByteBuffer[] maps;
+	private IntBuffer[] chunks;
+
+	/**
+	 * Create a new all-zero tensor backed by the given file
+	 * 	(the file is created or truncated)
+	 *
+	 * @param filename - file to map
+	 * @param n - number of items
+	 */
+	public static MappedDijkTensor create(String filename, int n) throws IOException {
+		return new MappedDijkTensor(filename, n, true);
+	}
+
+	/**
+	 * Map an existing tensor file read-only
+	 *
+	 * @param filename - file to map
+	 * @param n - number of items
+	 */
+	public static MappedDijkTensor open(String filename, int n) throws IOException {
+		return new MappedDijkTensor(filename, n, false);
+	}
+
+	private MappedDijkTensor(String filename, int n, boolean writable) throws IOException {
+		super(n);
+		this.filename = filename;
+		long size = size();
+		int numChunks = (int)((size + CHUNK_MASK) >>> CHUNK_BITS);
+		maps = new MappedByteBuffer[numChunks];
+		chunks = new IntBuffer[numChunks];
+		try (RandomAccessFile raf = new RandomAccessFile(filename, writable ? "rw" : "r")) {
+			if (writable) {
+				raf.setLength(0);
+				raf.setLength(4*size);
+			} else if (raf.length() != 4*size) {
+				throw new IOException("Unexpected length of " + filename + " for n = " + n);
+			}
+			FileChannel fc = raf.getChannel();
+			FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+			for (int c = 0; c < numChunks; c++) {
+				long start = (long)c << CHUNK_BITS;
+				long len = Math.min(size - start, 1L << CHUNK_BITS);
+				maps[c] = fc.map(mode, 4*start, 4*len);
+				maps[c].order(ByteOrder.LITTLE_ENDIAN);
+				chunks[c] = maps[c].asIntBuffer();
+			}
+		}
+	}
+
+	public String getFilename() {
+		return filename;
+	}
+
+	@Override
+	public int getWidth() {
+		return 4;
+	}
+
+	@Override
+	public boolean fits(int val) {
+		return true;
+	}
+
+	@Override
+	protected int read(int idx) {
+		return chunks[idx >>> CHUNK_BITS].get(idx & CHUNK_MASK);
+	}
+
+	@Override
+	protected void write(int idx, int val) {
+		chunks[idx >>> CHUNK_BITS].put(idx & CHUNK_MASK, val);
+	}
+
+	/**
+	 * Return dijk for sorted indexes (i < j < k)
+	 */
+	@Override
+	public int getSorted(int i, int j, int k) {
+		int idx = index(i,j,k);
+		return chunks[idx >>> CHUNK_BITS].get(idx & CHUNK_MASK);
+	}
+
+	/**
+	 * Set dijk for sorted indexes (i < j < k)
+	 */
+	@Override
+	public void setSorted(int i, int j, int k, int val) {
+		int idx = index(i,j,k);
+		chunks[idx >>> CHUNK_BITS].put(idx & CHUNK_MASK, val);
+	}
+
+	/**
+	 * Copy the remaining coefficients of src into the mapped file
+	 * 	starting at index from (in index() order)
+	 */
+	@Override
+	public void load(int from, IntBuffer src) {
+		for (int idx = from; src.hasRemaining(); idx++) {
+			chunks[idx >>> CHUNK_BITS].put(idx & CHUNK_MASK, src.get());
+		}
+	}
+
+	/**
+	 * Return the number of non-zero coefficients
+	 */
+	@Override
+	public long countNonZero() {
+		long count = 0;
+		for (IntBuffer chunk: chunks) {
+			for (int i = 0; i < chunk.limit(); i++) {
+				if (chunk.get(i) != 0) {
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Write any changes back to the file
+	 */
+	public void flush() {
+		for (MappedByteBuffer map: maps) {
+			if (!map.isReadOnly()) {
+				map.force();
+			}
+		}
+	}
+}
@@ -2,6 +2,7 @@ package Problems;
 
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Random;
@@ -22,6 +23,7 @@ public class MaxProbability extends Knapsack {
 
 	// Setup values
 	private int n;
+	// Instance generation only (solutions draw from their solve context)
 	private Random rnd;
 	private int seed;
 	private boolean negCoef;
@@ -266,8 +268,9 @@ public class MaxProbability extends Knapsack {
 	 * 
 	 * @param x solution variables
 	 * @param r unused variables
+	 * @param rnd random stream of the solve context
 	 */
-	public void genRndInit(ArrayList<Integer> x, ArrayList<Integer> r) {
+	public void genRndInit(ArrayList<Integer> x, ArrayList<Integer> r, Random rnd) {
 		boolean valid = false;
 		while (!valid) {
 			// Solution lists
@@ -522,11 +525,16 @@ public class MaxProbability extends Knapsack {
 
 	/**
 	 * Setup a Max Probability from the given file. 
-	 * It is assumed the file was generated with the toFile() method.
+	 * It is assumed the file was generated with the toFile() or toBinaryFile() method.
 	 * 
 	 * @param filename to be read
 	 */
 	public void readFromFile(String filename) {
+		// Binary files are mapped straight into the coefficient arrays
+		if (ProblemFile.isBinary(filename)) {
+			readBinary(filename);
+			return;
+		}
 		Scanner scr;
 		try {
 			scr = new Scanner(new FileInputStream(filename));
@@ -562,6 +570,34 @@ public class MaxProbability extends Knapsack {
 		}
 	}
 
+	/**
+	 * Setup a MaxProbability from the given binary file.
+	 * It is assumed the file was generated with the toBinaryFile() method.
+	 * 
+	 * @param filename to be read
+	 */
+	private void readBinary(String filename) {
+		try {
+			ProblemFile pf = ProblemFile.open(filename, ProblemFile.MAX_PROBABILITY);
+			n = pf.getN();
+			seed = pf.getSeed();
+			rnd = new Random(seed);
+			negCoef = pf.getNegCoef();
+
+			// Coefficients
+			b = pf.getB();
+			t = pf.readDoubles()[0];
+			a = pf.readInts();
+			u = pf.readInts();
+			s = pf.readInts();
+			calcTauRatio();
+			pf.close();
+		} catch (IOException e) {
+			System.err.println("Error reading file: " + filename);
+			System.err.println(e.getMessage());
+		}
+	}
+
 	/**
 	 * Read in an int array of coefficients
 	 * 
@@ -604,6 +640,26 @@ public class MaxProbability extends Knapsack {
 		}
 	}
 
+	/**
+	 * Write the problem to the specified binary file.
+	 * 
+	 * @param filename - to write to
+	 */
+	public void toBinaryFile(String filename) {
+		try {
+			ProblemFile pf = ProblemFile.create(filename, ProblemFile.MAX_PROBABILITY, n, 0, seed, b, negCoef, 0);
+			double[] target = {t};
+			pf.writeDoubles(target);
+			pf.writeInts(a);
+			pf.writeInts(u);
+			pf.writeInts(s);
+			pf.close();
+		} catch (IOException e) {
+			System.err.println("Error writing file: " + filename);
+			System.err.println(e.getMessage());
+		}
+	}
+
 	/**
 	 * Write the given coefficient array with the writer
 	 * 
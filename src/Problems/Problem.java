@@ -1,17 +1,66 @@
 package Problems;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+import Solutions.ratioNode;
 
 /**
  * Problem super class.
- * - Sets the problem in the problem factory
+ * - Ranks the items by ratio for the solutions
+ * - Solved through a SolveContext (see ProblemFactory)
  * 
  * @author midkiffj
  */
 public abstract class Problem {
 
-	protected Problem() {
-		ProblemFactory.setProblem(this);
+	// Items sorted by increasing ratio (ties by item) and the rank of each item
+	// 	(built on first use; ratios are fixed per instance)
+	private volatile int[] itemAt;
+	private volatile int[] rankOf;
+
+	/**
+	 * Return the items sorted by increasing ratio (ties by item)
+	 */
+	public int[] getRatioOrder() {
+		if (itemAt == null) {
+			rankRatios();
+		}
+		return itemAt;
+	}
+
+	/**
+	 * Return the position of each item in the ratio order
+	 */
+	public int[] getRatioRank() {
+		if (rankOf == null) {
+			rankRatios();
+		}
+		return rankOf;
+	}
+
+	/**
+	 * Sort the items by ratio
+	 * 	(threads racing here build identical arrays)
+	 */
+	private void rankRatios() {
+		int n = getN();
+		ArrayList<ratioNode> ratio = new ArrayList<ratioNode>();
+		for (int i = 0; i < n; i++) {
+			ratio.add(new ratioNode(i, getRatio(i)));
+		}
+		// Stable sort keeps equal ratios in item order
+		Collections.sort(ratio);
+		int[] rank = new int[n];
+		int[] item = new int[n];
+		for (int k = 0; k < n; k++) {
+			int i = ratio.get(k).x;
+			rank[i] = k;
+			item[k] = i;
+		}
+		rankOf = rank;
+		itemAt = item;
 	}
 	
 	public abstract double getObj(ArrayList<Integer> x);
@@ -22,6 +71,14 @@ public abstract class Problem {
 	
 	public abstract void genInit(ArrayList<Integer> x, ArrayList<Integer> r);
 	
-	public abstract void genRndInit(ArrayList<Integer> x, ArrayList<Integer> r);
+	/**
+	 * Fill x and r with a random solution
+	 * 	(drawn from the given stream, not the instance generator's)
+	 *
+	 * @param x - items in the solution
+	 * @param r - items outside of the solution
+	 * @param rnd - random stream of the solve context
+	 */
+	public abstract void genRndInit(ArrayList<Integer> x, ArrayList<Integer> r, Random rnd);
 	
 }
@@ -5,60 +5,40 @@ import java.util.ArrayList;
 import Solutions.*;
 
 /**
- * ProblemFactory used to store the current problem
- * - Accessor/Setter for problem
- * - Generate solutions for the problem
+ * ProblemFactory used to generate solutions
+ * 	for the problem of a solve context
  * 
  * @author midkiffj
  */
 public class ProblemFactory {
-
-	// Global problem
-	private static Problem problem;
-	
-	/**
-	 * Update the global problem
-	 * 
-	 * @param problem
-	 */
-	public static void setProblem(Problem problem) {
-		ProblemFactory.problem = problem;
-	}
-	
-	/**
-	 * Get the global problem.
-	 * 
-	 * @return problem to use
-	 */
-	public static Problem getProblem() {
-		return problem;
-	}
 	
 	/**
 	 * Generate a random solution and return the correct ProblemSol sub-type
 	 * 
+	 * @param ctx - solve context of the solution
 	 * @return ProblemSol containing solution
 	 */
-	public static ProblemSol genRndSol() {
+	public static ProblemSol genRndSol(SolveContext ctx) {
 		// Generate Solution
 		ArrayList<Integer> x = new ArrayList<Integer>();
 		ArrayList<Integer> r = new ArrayList<Integer>();
-		problem.genRndInit(x, r);
+		Problem problem = ctx.getProblem();
+		problem.genRndInit(x, r, ctx.getRnd());
 		// Return correct solution based off of the problem
 		if (problem instanceof Cubic) {
-			return new CubicSol(x,r);
+			return new CubicSol(ctx,x,r);
 		} 
 		else if (problem instanceof CubicMult) {
-			return new CubicMultSol(x,r);
+			return new CubicMultSol(ctx,x,r);
 		} 
 		else if (problem instanceof MaxProbability) {
-			return new MaxProbabilitySol(x,r);
+			return new MaxProbabilitySol(ctx,x,r);
 		} 
 		else if (problem instanceof Fractional) {
-			return new FractionalSol(x,r);
+			return new FractionalSol(ctx,x,r);
 		}
 		else if (problem instanceof Unconstrained) {
-			return new UnconstrainedSol(x,r);
+			return new UnconstrainedSol(ctx,x,r);
 		}
 		return null;
 	}
@@ -66,28 +46,30 @@ public class ProblemFactory {
 	/**
 	 * Generate an incumbent solution and return the correct ProblemSol sub-type
 	 * 
+	 * @param ctx - solve context of the solution
 	 * @return ProblemSol containing solution
 	 */
-	public static ProblemSol genInitSol() {
+	public static ProblemSol genInitSol(SolveContext ctx) {
 		// Generate the problem
 		ArrayList<Integer> x = new ArrayList<Integer>();
 		ArrayList<Integer> r = new ArrayList<Integer>();
+		Problem problem = ctx.getProblem();
 		problem.genInit(x, r);
 		// Return correct solution based off of the problem
 		if (problem instanceof Cubic) {
-			return new CubicSol(x,r);
+			return new CubicSol(ctx,x,r);
 		} 
 		else if (problem instanceof CubicMult) {
-			return new CubicMultSol(x,r);
+			return new CubicMultSol(ctx,x,r);
 		} 
 		else if (problem instanceof MaxProbability) {
-			return new MaxProbabilitySol(x,r);
+			return new MaxProbabilitySol(ctx,x,r);
 		}
 		else if (problem instanceof Fractional) {
-			return new FractionalSol(x,r);
+			return new FractionalSol(ctx,x,r);
 		}
 		else if (problem instanceof Unconstrained) {
-			return new UnconstrainedSol(x,r);
+			return new UnconstrainedSol(ctx,x,r);
 		}
 		return null;
 	}
@@ -0,0 +1,427 @@
+package Problems;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Versioned binary problem file
+ * - Header: magic, version, type, n, m, seed, b, flags, density
+ * 	(flags: negCoef, parallel coefficient generator; version 1 files
+ * 	only hold negCoef and are still read)
+ * - Followed by little-endian blocks (element count then values)
+ * - Blocks are memory-mapped and bulk copied into the coefficient arrays
+ * - Converter from the text files (main)
+ *
+ * @author midkiffj
+ */
+public class ProblemFile {
+
+	// "KNAP" read as a little-endian int
+	public static final int MAGIC = 0x50414E4B;
+	public static final int VERSION = 2;
+	// Extension used for binary copies of text problem files
+	public static final String EXT = ".bin";
+
+	// Problem types
+	public static final int CUBIC = 1;
+	public static final int CUBIC_MULT = 2;
+	public static final int FRACTIONAL = 3;
+	public static final int MAX_PROBABILITY = 4;
+	public static final int UNCONSTRAINED = 5;
+
+	private static final int HEADER_BYTES = 40;
+	// Header flags
+	private static final int NEG_COEF = 1;
+	private static final int PARALLEL_GEN = 2;
+	// Bytes buffered while writing and mapped at once while reading tensors
+	private static final int BUFFER_BYTES = 1 << 22;
+
+	// Header
+	private int type;
+	private int n;
+	private int m;
+	private int seed;
+	private int b;
+	private boolean negCoef;
+	private boolean parallelGen;
+	private double density;
+
+	private RandomAccessFile raf;
+	private FileChannel fc;
+	// Write buffer (null when reading)
+	private ByteBuffer buf;
+	// Read position
+	private long pos;
+
+	private ProblemFile(String filename, boolean write) throws IOException {
+		raf = new RandomAccessFile(filename, write ? "rw" : "r");
+		fc = raf.getChannel();
+	}
+
+	/**
+	 * Create a binary problem file and write the header
+	 *
+	 * @param filename - file to write (created or overwritten)
+	 * @param type - problem type
+	 * @param n - number of items
+	 * @param m - number of constraints/ratios (0 if not used)
+	 * @param seed - rnd seed
+	 * @param b - knapsack capacity (0 if not used)
+	 * @param negCoef - negative coefficients allowed
+	 * @param density - probability of non-zero coefficients (0 if not used)
+	 */
+	public static ProblemFile create(String filename, int type, int n, int m, int seed, int b,
+			boolean negCoef, double density) throws IOException {
+		return create(filename, type, n, m, seed, b, negCoef, false, density);
+	}
+
+	/**
+	 * Create a binary problem file and write the header
+	 *
+	 * @param filename - file to write (created or overwritten)
+	 * @param type - problem type
+	 * @param n - number of items
+	 * @param m - number of constraints/ratios (0 if not used)
+	 * @param seed - rnd seed
+	 * @param b - knapsack capacity (0 if not used)
+	 * @param negCoef - negative coefficients allowed
+	 * @param parallelGen - coefficients drawn by the parallel generator (see CoefGenerator)
+	 * @param density - probability of non-zero coefficients (0 if not used)
+	 */
+	public static ProblemFile create(String filename, int type, int n, int m, int seed, int b,
+			boolean negCoef, boolean parallelGen, double density) throws IOException {
+		ProblemFile pf = new ProblemFile(filename, true);
+		pf.raf.setLength(0);
+		pf.type = type;
+		pf.n = n;
+		pf.m = m;
+		pf.seed = seed;
+		pf.b = b;
+		pf.negCoef = negCoef;
+		pf.parallelGen = parallelGen;
+		pf.density = density;
+		pf.buf = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		pf.writeInt(MAGIC);
+		pf.writeInt(VERSION);
+		pf.writeInt(type);
+		pf.writeInt(n);
+		pf.writeInt(m);
+		pf.writeInt(seed);
+		pf.writeInt(b);
+		pf.writeInt((negCoef ? NEG_COEF : 0) | (parallelGen ? PARALLEL_GEN : 0));
+		pf.writeDouble(density);
+		return pf;
+	}
+
+	/**
+	 * Open a binary problem file and read the header
+	 *
+	 * @param filename - file to read
+	 * @param type - expected problem type
+	 */
+	public static ProblemFile open(String filename, int type) throws IOException {
+		ProblemFile pf = new ProblemFile(filename, false);
+		ByteBuffer header = pf.map(HEADER_BYTES);
+		if (header.getInt() != MAGIC) {
+			pf.close();
+			throw new IOException(filename + " is not a binary problem file");
+		}
+		int version = header.getInt();
+		if (version < 1 || version > VERSION) {
+			pf.close();
+			throw new IOException(filename + " has unsupported version " + version);
+		}
+		pf.type = header.getInt();
+		if (pf.type != type) {
+			pf.close();
+			throw new IOException(filename + " has problem type " + pf.type + ", expected " + type);
+		}
+		pf.n = header.getInt();
+		pf.m = header.getInt();
+		pf.seed = header.getInt();
+		pf.b = header.getInt();
+		int flags = header.getInt();
+		pf.negCoef = (flags & NEG_COEF) != 0;
+		pf.parallelGen = (flags & PARALLEL_GEN) != 0;
+		pf.density = header.getDouble();
+		return pf;
+	}
+
+	/**
+	 * Return true if the file starts with the binary file magic number
+	 *
+	 * @param filename - file to check
+	 */
+	public static boolean isBinary(String filename) {
+		try (RandomAccessFile raf = new RandomAccessFile(filename, "r")) {
+			if (raf.length() < HEADER_BYTES) {
+				return false;
+			}
+			return Integer.reverseBytes(raf.readInt()) == MAGIC;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	public int getType() {
+		return type;
+	}
+
+	public int getN() {
+		return n;
+	}
+
+	public int getM() {
+		return m;
+	}
+
+	public int getSeed() {
+		return seed;
+	}
+
+	public int getB() {
+		return b;
+	}
+
+	public boolean getNegCoef() {
+		return negCoef;
+	}
+
+	/**
+	 * Return (T) if the coefficients were drawn by the parallel generator
+	 */
+	public boolean getParallelGen() {
+		return parallelGen;
+	}
+
+	public double getDensity() {
+		return density;
+	}
+
+	/*
+	 * Writing
+	 */
+
+	/**
+	 * Write a single int (e.g. a block length followed by streamed values)
+	 */
+	public void writeInt(int val) throws IOException {
+		if (buf.remaining() < 4) {
+			flush();
+		}
+		buf.putInt(val);
+	}
+
+	private void writeDouble(double val) throws IOException {
+		if (buf.remaining() < 8) {
+			flush();
+		}
+		buf.putDouble(val);
+	}
+
+	/**
+	 * Write an int block
+	 */
+	public void writeInts(int[] arr) throws IOException {
+		writeInt(arr.length);
+		for (int i = 0; i < arr.length; i++) {
+			writeInt(arr[i]);
+		}
+	}
+
+	/**
+	 * Write a double block
+	 */
+	public void writeDoubles(double[] arr) throws IOException {
+		writeInt(arr.length);
+		for (int i = 0; i < arr.length; i++) {
+			writeDouble(arr[i]);
+		}
+	}
+
+	/**
+	 * Write the m x n matrix as one block (row-major)
+	 */
+	public void writeMatrix(int[][] arr) throws IOException {
+		int len = 0;
+		for (int i = 0; i < arr.length; i++) {
+			len += arr[i].length;
+		}
+		writeInt(len);
+		for (int i = 0; i < arr.length; i++) {
+			for (int j = 0; j < arr[i].length; j++) {
+				writeInt(arr[i][j]);
+			}
+		}
+	}
+
+	private void flush() throws IOException {
+		buf.flip();
+		while (buf.hasRemaining()) {
+			fc.write(buf);
+		}
+		buf.clear();
+	}
+
+	/*
+	 * Reading
+	 */
+
+	/**
+	 * Map the next len bytes of the file
+	 */
+	private ByteBuffer map(long len) throws IOException {
+		ByteBuffer bb = fc.map(FileChannel.MapMode.READ_ONLY, pos, len);
+		bb.order(ByteOrder.LITTLE_ENDIAN);
+		pos += len;
+		return bb;
+	}
+
+	/**
+	 * Read a single int
+	 */
+	public int readInt() throws IOException {
+		return map(4).getInt();
+	}
+
+	/**
+	 * Read an int block
+	 */
+	public int[] readInts() throws IOException {
+		int[] arr = new int[readInt()];
+		if (arr.length > 0) {
+			map(4L*arr.length).asIntBuffer().get(arr);
+		}
+		return arr;
+	}
+
+	/**
+	 * Read a double block
+	 */
+	public double[] readDoubles() throws IOException {
+		double[] arr = new double[readInt()];
+		if (arr.length > 0) {
+			map(8L*arr.length).asDoubleBuffer().get(arr);
+		}
+		return arr;
+	}
+
+	/**
+	 * Read a block written by writeMatrix into rows of the given length
+	 *
+	 * @param rows - number of rows
+	 * @param cols - number of columns
+	 */
+	public int[][] readMatrix(int rows, int cols) throws IOException {
+		int len = readInt();
+		if (len != rows*cols) {
+			throw new IOException("Unexpected matrix block length " + len);
+		}
+		int[][] arr = new int[rows][cols];
+		if (len > 0) {
+			IntBuffer ib = map(4L*len).asIntBuffer();
+			for (int i = 0; i < rows; i++) {
+				ib.get(arr[i]);
+			}
+		}
+		return arr;
+	}
+
+	/**
+	 * Read the upper triangle of cij (i < j, row-major)
+	 * 	into the jagged rows cij[i][j-i] used by the problems
+	 */
+	public int[][] readTriangle() throws IOException {
+		int len = readInt();
+		if (len != n*(n-1)/2) {
+			throw new IOException("Unexpected triangle block length " + len);
+		}
+		int[][] cij = new int[Math.max(n-1,0)][];
+		IntBuffer ib = len > 0 ? map(4L*len).asIntBuffer() : null;
+		for (int i = 0; i < n-1; i++) {
+			cij[i] = new int[n-i];
+			ib.get(cij[i], 1, n-i-1);
+		}
+		return cij;
+	}
+
+	/**
+	 * Read the packed dijk block into a tensor of the narrowest width
+	 * 	that holds its coefficients (range found in a first pass)
+	 */
+	public DijkTensor readTensor() throws IOException {
+		int len = readInt();
+		long size = (long)n*(n-1)*(n-2)/6;
+		if (len != size) {
+			throw new IOException("Unexpected tensor block length " + len);
+		}
+		int piece = BUFFER_BYTES/4;
+		long start = pos;
+		int min = 0;
+		int max = 0;
+		for (int from = 0; from < len; from += piece) {
+			IntBuffer ib = map(4L*Math.min(piece, len-from)).asIntBuffer();
+			while (ib.hasRemaining()) {
+				int d = ib.get();
+				min = Math.min(min, d);
+				max = Math.max(max, d);
+			}
+		}
+		pos = start;
+		DijkTensor dijk = DijkTensor.create(n, min, max);
+		for (int from = 0; from < len; from += piece) {
+			dijk.load(from, map(4L*Math.min(piece, len-from)).asIntBuffer());
+		}
+		return dijk;
+	}
+
+	/**
+	 * Finish writing (if needed) and close the file
+	 */
+	public void close() throws IOException {
+		if (buf != null) {
+			flush();
+		}
+		raf.close();
+	}
+
+	/**
+	 * Convert a text problem file to the binary format
+	 *
+	 * @param args - problem type (cubic, cm, fractional, mp, unconstrained), text file, binary file
+	 */
+	public static void main(String[] args) {
+		if (args.length != 3) {
+			System.err.println("Usage: ProblemFile <cubic|cm|fractional|mp|unconstrained> textFile binaryFile");
+			return;
+		}
+		convert(args[0], args[1], args[2]);
+	}
+
+	/**
+	 * Convert a text problem file to the binary format
+	 *
+	 * @param type - problem type (cubic, cm, fractional, mp, unconstrained)
+	 * @param textFile - file written by toFile()
+	 * @param binFile - file to write with toBinaryFile()
+	 */
+	public static void convert(String type, String textFile, String binFile) {
+		if (type.equals("cubic")) {
+			new Cubic(textFile).toBinaryFile(binFile);
+		} else if (type.equals("cm")) {
+			new CubicMult(textFile).toBinaryFile(binFile);
+		} else if (type.equals("fractional")) {
+			new Fractional(textFile).toBinaryFile(binFile);
+		} else if (type.equals("mp")) {
+			new MaxProbability(textFile).toBinaryFile(binFile);
+		} else if (type.equals("unconstrained")) {
+			new Unconstrained(textFile).toBinaryFile(binFile);
+		} else {
+			System.err.println("Unknown problem type: " + type);
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package Problems;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import Runner.RndGen;
+import Runner.SplitRandom;
+
+/**
+ * Solve context: the problem being solved, its random stream and settings
+ * - Passed explicitly: solutions take the context they are created in
+ * 	(copies keep the context of the original unless copied into another)
+ * - Heuristics fork the context of their initial solution
+ * - Separate contexts can solve separate problems at once
+ * - Random streams are not thread-safe: threads working on the same
+ * 	solve use forks of its context, each with its own stream
+ * - Forking is thread-safe and leaves the stream untouched: fork k of a
+ * 	context always gets the same stream (derived from the context's key)
+ *
+ * @author midkiffj
+ */
+public class SolveContext {
+
+	private final Problem problem;
+	private final Random rnd;
+	// Stream key (see RndGen) and forks made so far
+	private final long key;
+	private final AtomicLong forks = new AtomicLong();
+	private boolean useHealing = false;
+	// Recompute the kept solution totals on getValid and report drift (debugging)
+	private boolean auditTotals = false;
+
+	/**
+	 * Create a context for the problem with random stream 0
+	 * 	(one solve at a time, e.g. the test beds and exact methods)
+	 *
+	 * @param problem - problem to solve
+	 */
+	public SolveContext(Problem problem) {
+		this(problem, 0);
+	}
+
+	/**
+	 * Create a context for the problem with the given random stream
+	 *
+	 * @param problem - problem to solve
+	 * @param stream - stream id of the master seed
+	 * 	(e.g. the job # for concurrent solves, see RndGen.stream)
+	 */
+	public SolveContext(Problem problem, long stream) {
+		this(problem, RndGen.key(stream), null);
+	}
+
+	/**
+	 * Create a context with the stream of the given key
+	 * 	(settings copied from parent, if any)
+	 */
+	private SolveContext(Problem problem, long key, SolveContext parent) {
+		this.problem = problem;
+		this.key = key;
+		rnd = new SplitRandom(key);
+		if (parent != null) {
+			useHealing = parent.useHealing;
+			auditTotals = parent.auditTotals;
+		}
+	}
+
+	/**
+	 * Create a context for the same problem and settings
+	 * 	with its own random stream (one per thread/replica)
+	 * - Thread-safe; does not draw from this context's stream
+	 */
+	public SolveContext fork() {
+		return new SolveContext(problem, RndGen.childKey(key, forks.incrementAndGet()), this);
+	}
+
+	public Problem getProblem() {
+		return problem;
+	}
+
+	public Random getRnd() {
+		return rnd;
+	}
+
+	public boolean getHealing() {
+		return useHealing;
+	}
+
+	public void setHealing(boolean useHeal) {
+		useHealing = useHeal;
+	}
+
+	public boolean getAuditTotals() {
+		return auditTotals;
+	}
+
+	public void setAuditTotals(boolean audit) {
+		auditTotals = audit;
+	}
+}
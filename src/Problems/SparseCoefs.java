@@ -0,0 +1,295 @@
+package Problems;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Sparse storage of the quadratic (cij) and cubic (dijk) coefficients
+ * - Per-item adjacency lists of the non-zero terms containing the item
+ * - Lists are sorted by partner(s) for binary search lookups
+ * - Cubic partner pairs (j,k) with j < k are packed as (j << 16 | k)
+ *
+ * @author midkiffj
+ */
+public class SparseCoefs {
+
+	// Bytes per non-zero in the lists: each dijk is stored for all three
+	// 	of its items and each cij for both (int key + int value per item)
+	public static final int CUBIC_BYTES = 24;
+	public static final int QUAD_BYTES = 16;
+	// Use the lists when the measured dijk density is at most this: the gain
+	// 	updates and objectives walk only the non-zero terms, which is faster than
+	// 	walking every dense (i,j,k) below about half density (even though the
+	// 	lists take up to 24/width times the dense bytes)
+	public static final double MAX_DENSITY = 0.5;
+	// Fraction of the heap the dense and list storage may take together
+	// 	while the lists are built (otherwise only use lists that save memory)
+	public static final double MAX_HEAP = 0.5;
+
+	private int n;
+
+	// Quadratic terms of item i: partner qj[i][t] and value qv[i][t]
+	private int[][] qj;
+	private int[][] qv;
+
+	// Cubic terms of item i: packed partner pair dKey[i][t] and value dv[i][t]
+	private int[][] dKey;
+	private int[][] dv;
+
+	/**
+	 * Return true if the given coefficients should be stored as adjacency lists:
+	 * - the lists take fewer bytes than the dense storage, or
+	 * - the measured dijk density is at most MAX_DENSITY (faster iteration)
+	 * 	and both storages fit in MAX_HEAP of the heap while the lists are built
+	 *
+	 * @param n - number of items
+	 * @param cij - upper triangular quadratic coefficients (cij[i][j-i])
+	 * @param dijk - dense cubic coefficients
+	 */
+	public static boolean preferred(int n, int[][] cij, DijkTensor dijk) {
+		if (n < 3 || n > (1 << 16)) {
+			return false;
+		}
+		long quads = 0;
+		for (int i = 0; i < n-1; i++) {
+			for (int j = i+1; j < n; j++) {
+				if (cij[i][j-i] != 0) {
+					quads++;
+				}
+			}
+		}
+		long cubics = dijk.countNonZero();
+		double dense = denseBytes(n, dijk.getWidth());
+		double lists = (double)CUBIC_BYTES*cubics + (double)QUAD_BYTES*quads;
+		if (lists <= dense) {
+			return true;
+		}
+		double density = (double)cubics / dijk.size();
+		return density <= MAX_DENSITY && dense + lists <= MAX_HEAP*Runtime.getRuntime().maxMemory();
+	}
+
+	/**
+	 * Estimate the peak bytes of the coefficients of a problem of size n
+	 * 	with the given density (dense and list storage while the lists are built)
+	 *
+	 * @param n - number of items
+	 * @param density - expected density of cij and dijk
+	 */
+	public static long peakBytes(int n, double density) {
+		double dense = denseBytes(n, 1);
+		if (density > MAX_DENSITY) {
+			return (long)dense;
+		}
+		double lists = density*(CUBIC_BYTES*((double)n*(n-1)*(n-2)/6) + QUAD_BYTES*((double)n*(n-1)/2));
+		return (long)(dense + lists);
+	}
+
+	/**
+	 * Return the bytes of the dense storage (width bytes per dijk, 4 per cij)
+	 */
+	private static double denseBytes(int n, int width) {
+		return (double)width*n*(n-1)*(n-2)/6 + 4.0*n*(n-1)/2;
+	}
+
+	/**
+	 * Build the adjacency lists from the dense coefficients
+	 *
+	 * @param n - number of items
+	 * @param cij - upper triangular quadratic coefficients (cij[i][j-i])
+	 * @param dijk - dense cubic coefficients
+	 */
+	public SparseCoefs(int n, int[][] cij, DijkTensor dijk) {
+		this.n = n;
+		int i,j,k;
+
+		// Count the non-zero terms of each item
+		int[] qCount = new int[n];
+		int[] dCount = new int[n];
+		for (i = 0; i < n; i++) {
+			for (j = i+1; j < n; j++) {
+				if (cij[i][j-i] != 0) {
+					qCount[i]++;
+					qCount[j]++;
+				}
+				for (k = j+1; k < n; k++) {
+					if (dijk.getSorted(i,j,k) != 0) {
+						dCount[i]++;
+						dCount[j]++;
+						dCount[k]++;
+					}
+				}
+			}
+		}
+		qj = new int[n][];
+		qv = new int[n][];
+		dKey = new int[n][];
+		dv = new int[n][];
+		for (i = 0; i < n; i++) {
+			qj[i] = new int[qCount[i]];
+			qv[i] = new int[qCount[i]];
+			dKey[i] = new int[dCount[i]];
+			dv[i] = new int[dCount[i]];
+		}
+
+		// Fill the lists in lexicographic (i,j,k) order,
+		// 	which leaves every item's partners sorted
+		Arrays.fill(qCount, 0);
+		Arrays.fill(dCount, 0);
+		for (i = 0; i < n; i++) {
+			for (j = i+1; j < n; j++) {
+				int c = cij[i][j-i];
+				if (c != 0) {
+					addQuad(i, j, c, qCount);
+					addQuad(j, i, c, qCount);
+				}
+				for (k = j+1; k < n; k++) {
+					int d = dijk.getSorted(i,j,k);
+					if (d != 0) {
+						addCubic(i, j, k, d, dCount);
+						addCubic(j, i, k, d, dCount);
+						addCubic(k, i, j, d, dCount);
+					}
+				}
+			}
+		}
+	}
+
+	private void addQuad(int i, int j, int c, int[] count) {
+		qj[i][count[i]] = j;
+		qv[i][count[i]] = c;
+		count[i]++;
+	}
+
+	private void addCubic(int i, int j, int k, int d, int[] count) {
+		dKey[i][count[i]] = (j << 16) | k;
+		dv[i][count[i]] = d;
+		count[i]++;
+	}
+
+	public int getN() {
+		return n;
+	}
+
+	public int getCij(int i, int j) {
+		int t = Arrays.binarySearch(qj[i], j);
+		if (t < 0) {
+			return 0;
+		}
+		return qv[i][t];
+	}
+
+	/**
+	 * Return dijk for any ordering of i,j,k (0 if any are equal)
+	 */
+	public int getDijk(int i, int j, int k) {
+		int lo = Math.min(i, Math.min(j, k));
+		int hi = Math.max(i, Math.max(j, k));
+		int mid = i + j + k - lo - hi;
+		if (lo == mid || mid == hi) {
+			return 0;
+		}
+		return getDijkSorted(lo, mid, hi);
+	}
+
+	/**
+	 * Return dijk for sorted indexes (i < j < k)
+	 */
+	public int getDijkSorted(int i, int j, int k) {
+		int t = Arrays.binarySearch(dKey[i], (j << 16) | k);
+		if (t < 0) {
+			return 0;
+		}
+		return dv[i][t];
+	}
+
+	/*
+	 * Adjacency list accessors
+	 */
+
+	public int getQuadSize(int i) {
+		return qj[i].length;
+	}
+
+	public int getQuadPartner(int i, int t) {
+		return qj[i][t];
+	}
+
+	public int getQuadValue(int i, int t) {
+		return qv[i][t];
+	}
+
+	public int getCubicSize(int i) {
+		return dKey[i].length;
+	}
+
+	public int getCubicFirst(int i, int t) {
+		return dKey[i][t] >>> 16;
+	}
+
+	public int getCubicSecond(int i, int t) {
+		return dKey[i][t] & 0xFFFF;
+	}
+
+	public int getCubicValue(int i, int t) {
+		return dv[i][t];
+	}
+
+	/**
+	 * Calculate the quadratic and cubic terms of item i
+	 * 	with partners in the solution (i itself is never a partner)
+	 *
+	 * @param i - item
+	 * @param inX - (T) if item is in the solution
+	 * @return sum of cij and dijk with j,k in the solution
+	 */
+	public long contribution(int i, boolean[] inX) {
+		long sum = 0;
+		int[] qji = qj[i];
+		int[] qvi = qv[i];
+		for (int t = 0; t < qji.length; t++) {
+			if (inX[qji[t]]) {
+				sum += qvi[t];
+			}
+		}
+		int[] dKeyi = dKey[i];
+		int[] dvi = dv[i];
+		for (int t = 0; t < dKeyi.length; t++) {
+			int key = dKeyi[t];
+			if (inX[key >>> 16] && inX[key & 0xFFFF]) {
+				sum += dvi[t];
+			}
+		}
+		return sum;
+	}
+
+	/**
+	 * Calculate the quadratic and cubic terms of the solution
+	 * 	(each term counted once, from its smallest item)
+	 *
+	 * @param x - items in the solution
+	 * @param inX - (T) if item is in the solution
+	 * @return sum of cij and dijk over the solution
+	 */
+	public long termsObj(ArrayList<Integer> x, boolean[] inX) {
+		long sum = 0;
+		for (Integer i: x) {
+			int[] qji = qj[i];
+			int[] qvi = qv[i];
+			for (int t = 0; t < qji.length; t++) {
+				if (qji[t] > i && inX[qji[t]]) {
+					sum += qvi[t];
+				}
+			}
+			int[] dKeyi = dKey[i];
+			int[] dvi = dv[i];
+			// Sorted pairs: terms with i smallest are at the end
+			for (int t = dKeyi.length-1; t >= 0 && (dKeyi[t] >>> 16) > i; t--) {
+				int key = dKeyi[t];
+				if (inX[key >>> 16] && inX[key & 0xFFFF]) {
+					sum += dvi[t];
+				}
+			}
+		}
+		return sum;
+	}
+}
@@ -2,8 +2,10 @@ package Problems;
 
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Random;
 import java.util.Scanner;
 
@@ -19,6 +21,7 @@ import java.util.Scanner;
 public class Unconstrained extends Problem {
 	// Setup
 	private int n;
+	// Instance generation only (solutions draw from their solve context)
 	private Random rnd;
 	private int seed;
 	private boolean negCoef;
@@ -28,7 +31,11 @@ public class Unconstrained extends Problem {
 	private int c;
 	private int[] ci;
 	private int[][] cij;
-	private int[][][] dijk;
+	private DijkTensor dijk;
+	// Non-zero dijk and sparse lists of the coefficients
+	// 	(built on first use and shared by the heuristics, -1/null until then)
+	private long dijkNonZero = -1;
+	private SparseCoefs sparse;
 	
 	// Mutations
 	private int[] tau;
@@ -77,7 +84,24 @@ public class Unconstrained extends Problem {
 		this.c = c;
 		this.ci = ci;
 		this.cij = cij;
-		this.dijk = dijk;
+		int min = 0;
+		int max = 0;
+		for (int i = 0; i < n-1; i++) {
+			for (int j = i+1; j < n; j++) {
+				for (int k = j+1; k < n; k++) {
+					min = Math.min(min, dijk[i][j-i][k-j]);
+					max = Math.max(max, dijk[i][j-i][k-j]);
+				}
+			}
+		}
+		this.dijk = DijkTensor.create(n, min, max);
+		for (int i = 0; i < n-1; i++) {
+			for (int j = i+1; j < n; j++) {
+				for (int k = j+1; k < n; k++) {
+					this.dijk.setSorted(i,j,k,dijk[i][j-i][k-j]);
+				}
+			}
+		}
 		calcTau();
 	}
 	
@@ -93,9 +117,10 @@ public class Unconstrained extends Problem {
 				tau[i] += cij[i][j-i];
 				tau[j] += cij[i][j-i];
 				for(k = j+1; k < n; k++) {
-					tau[i] += dijk[i][j-i][k-j];
-					tau[j] += dijk[i][j-i][k-j];
-					tau[k] += dijk[i][j-i][k-j];
+					int d = dijk.getSorted(i,j,k);
+					tau[i] += d;
+					tau[j] += d;
+					tau[k] += d;
 				}
 			}
 		}
@@ -110,7 +135,7 @@ public class Unconstrained extends Problem {
 		// Define objective coefficient matrices
 		ci = new int[n];
 		cij = new int[n-1][];
-		dijk = new int[n-1][][];
+		dijk = DijkTensor.create(n, negCoef ? -100 : 0, 100);
 		tau = new int[n];
 
 		// Fill matrices with randomized coefficients
@@ -123,7 +148,6 @@ public class Unconstrained extends Problem {
 		for(i = 0; i < n; i++){
 			if (i < n-1) {
 				cij[i] = new int[n-i];
-				dijk[i] = new int[n-i][];
 			}
 			if (negCoef) {
 				ci[i] = rnd.nextInt(201) - 100;
@@ -134,7 +158,6 @@ public class Unconstrained extends Problem {
 			// Update tau (item contribution)
 			tau[i] += ci[i];
 			for (j = i+1; j < n; j++){
-				dijk[i][j-i] = new int[n-j];
 				if (rnd.nextDouble() <= density) {
 					if (negCoef) {
 						cij[i][j-i] = rnd.nextInt(201) - 100;
@@ -148,19 +171,19 @@ public class Unconstrained extends Problem {
 				tau[i] += cij[i][j-i];
 				tau[j] += cij[i][j-i];
 				for(k = j+1; k < n; k++) {
+					int d = 0;
 					if (rnd.nextDouble() <= density) {
 						if (negCoef) {
-							dijk[i][j-i][k-j] = rnd.nextInt(201) - 100;
+							d = rnd.nextInt(201) - 100;
 						} else {
-							dijk[i][j-i][k-j] = rnd.nextInt(101);
+							d = rnd.nextInt(101);
 						}
-					} else {
-						dijk[i][j-i][k-j] = 0;
 					}
+					dijk.setSorted(i,j,k,d);
 					// Update tau (item contribution)
-					tau[i] += dijk[i][j-i][k-j];
-					tau[j] += dijk[i][j-i][k-j];
-					tau[k] += dijk[i][j-i][k-j];
+					tau[i] += d;
+					tau[j] += d;
+					tau[k] += d;
 				}
 			}
 		}
@@ -168,8 +191,12 @@ public class Unconstrained extends Problem {
 
 	/**
 	 * Randomly generate a solution to the cubic
+	 * 
+	 * @param x - variables in solution
+	 * @param r - variables not in solution
+	 * @param rnd - random stream of the solve context
 	 */
-	public void genRndInit(ArrayList<Integer> x, ArrayList<Integer> r) {
+	public void genRndInit(ArrayList<Integer> x, ArrayList<Integer> r, Random rnd) {
 		int xSize = rnd.nextInt(n);
 		for (int i = 0; i < n; i++) {
 			r.add(i);
@@ -197,16 +224,21 @@ public class Unconstrained extends Problem {
 	 */
 	public double getObj(ArrayList<Integer> x) {
 		int i,j,k;
+		// Sort the items to use the sorted coefficient accessors
+		int[] xs = new int[x.size()];
+		for (i = 0; i < xs.length; i++) {
+			xs[i] = x.get(i);
+		}
+		Arrays.sort(xs);
 		double curObj = c;
-		for(i = 0; i < x.size(); i++){
-			int xi = x.get(i);
+		for(i = 0; i < xs.length; i++){
+			int xi = xs[i];
 			curObj += ci[xi];
-			for (j = i+1; j < x.size(); j++){
-				int xj = x.get(j);
-				curObj += this.getCij(xi, xj);
-				for(k = j+1; k < x.size(); k++) {
-					int xk = x.get(k);
-					curObj += this.getDijk(xi,xj,xk);
+			for (j = i+1; j < xs.length; j++){
+				int xj = xs[j];
+				curObj += cij[xi][xj-xi];
+				for(k = j+1; k < xs.length; k++) {
+					curObj += dijk.getSorted(xi,xj,xs[k]);
 				}
 			}
 		} 
@@ -236,28 +268,36 @@ public class Unconstrained extends Problem {
 	}
 
 	public int getDijk(int i, int j, int k) {
-		if (i == j || i == k || j == k)  {
-			return 0;
+		return dijk.get(i,j,k);
+	}
+
+	/**
+	 * Return dijk for callers that already know i < j < k
+	 */
+	public int getDijkSorted(int i, int j, int k) {
+		return dijk.getSorted(i,j,k);
+	}
+
+	/**
+	 * Return the number of non-zero dijk (counted once per problem)
+	 */
+	public synchronized long getDijkNonZero() {
+		if (dijkNonZero == -1) {
+			dijkNonZero = dijk.countNonZero();
 		}
-		if (i < j) {
-			if (j < k) {
-				return dijk[i][j-i][k-j];
-			} else if (k < i) {
-				return dijk[k][i-k][j-i];
-			} else {
-				return dijk[i][k-i][j-k];
-			}
-		} else if (j < i) {
-			if (i < k) {
-				return dijk[j][i-j][k-i];
-			} else if (k < j) {
-				return dijk[k][j-k][i-j];
-			} else {
-				return dijk[j][k-j][i-k];
-			}
-		} else {
-			return 0;
+		return dijkNonZero;
+	}
+
+	/**
+	 * Return the coefficients as sparse adjacency lists
+	 * 	(built once per problem, the dense coefficients are kept)
+	 * - Check getDijkNonZero first: the lists take 24 bytes per non-zero dijk
+	 */
+	public synchronized SparseCoefs getSparse() {
+		if (sparse == null) {
+			sparse = new SparseCoefs(n, cij, dijk);
 		}
+		return sparse;
 	}
 	
 	public int getTau(int i) {
@@ -270,11 +310,16 @@ public class Unconstrained extends Problem {
 
 	/**
 	 * Setup an Unconstrained from the given file. 
-	 * It is assumed the file was generated with the toFile() method.
+	 * It is assumed the file was generated with the toFile() or toBinaryFile() method.
 	 * 
 	 * @param filename to be read
 	 */
 	public void readFromFile(String filename) {
+		// Binary files are mapped straight into the coefficient arrays
+		if (ProblemFile.isBinary(filename)) {
+			readBinary(filename);
+			return;
+		}
 		Scanner scr;
 		try {
 			scr = new Scanner(new FileInputStream(filename));
@@ -296,11 +341,15 @@ public class Unconstrained extends Problem {
 				cij[i] = readArr(scr);
 			}
 
-			dijk = new int[n-1][][];
+			// Range unknown until read: widen while reading
+			dijk = DijkTensor.create(n, 0, 0);
 			for(int i = 0; i < n-1; i++){
-				dijk[i] = new int[n-i][];
 				for (int j = i+1; j < n; j++) {
-					dijk[i][j-i] = readArr(scr);
+					int[] dij = readArr(scr);
+					for (int k = j+1; k < n; k++) {
+						dijk = dijk.widen(dij[k-j]);
+						dijk.setSorted(i,j,k,dij[k-j]);
+					}
 				}
 			}
 		} catch (FileNotFoundException e) {
@@ -308,6 +357,34 @@ public class Unconstrained extends Problem {
 		}
 	}
 
+	/**
+	 * Setup a Unconstrained from the given binary file.
+	 * It is assumed the file was generated with the toBinaryFile() method.
+	 * 
+	 * @param filename to be read
+	 */
+	private void readBinary(String filename) {
+		try {
+			ProblemFile pf = ProblemFile.open(filename, ProblemFile.UNCONSTRAINED);
+			n = pf.getN();
+			seed = pf.getSeed();
+			rnd = new Random(seed);
+			negCoef = pf.getNegCoef();
+			density = pf.getDensity();
+
+			// Coefficients
+			c = pf.readInts()[0];
+			ci = pf.readInts();
+			cij = pf.readTriangle();
+			dijk = pf.readTensor();
+			calcTau();
+			pf.close();
+		} catch (IOException e) {
+			System.err.println("Error reading file: " + filename);
+			System.err.println(e.getMessage());
+		}
+	}
+
 	/**
 	 * Read in an int array of coefficients
 	 * 
@@ -344,9 +421,13 @@ public class Unconstrained extends Problem {
 			for (int i = 0; i < cij.length; i++) {
 				writeArr(pw, cij[i]);
 			}
-			for (int i = 0; i < dijk.length; i++) {
-				for (int j = 1; j < dijk[i].length; j++) {
-					writeArr(pw, dijk[i][j]);
+			for (int i = 0; i < n-1; i++) {
+				for (int j = i+1; j < n; j++) {
+					int[] dij = new int[n-j];
+					for (int k = j+1; k < n; k++) {
+						dij[k-j] = dijk.getSorted(i,j,k);
+					}
+					writeArr(pw, dij);
 				}
 			}
 
@@ -356,6 +437,47 @@ public class Unconstrained extends Problem {
 		}
 	}
 
+	/**
+	 * Write the problem to the specified binary file.
+	 * 
+	 * @param filename - to write to
+	 */
+	public void toBinaryFile(String filename) {
+		try {
+			ProblemFile pf = ProblemFile.create(filename, ProblemFile.UNCONSTRAINED, n, 0, seed, 0, negCoef, density);
+			int[] constant = {c};
+			pf.writeInts(constant);
+			pf.writeInts(ci);
+			writeBinaryCoefs(pf);
+			pf.close();
+		} catch (IOException e) {
+			System.err.println("Error writing file: " + filename);
+			System.err.println(e.getMessage());
+		}
+	}
+
+	/**
+	 * Write the cij upper triangle and the packed dijk blocks
+	 * 
+	 * @param pf - binary file to write to
+	 */
+	private void writeBinaryCoefs(ProblemFile pf) throws IOException {
+		pf.writeInt(n*(n-1)/2);
+		for (int i = 0; i < n; i++) {
+			for (int j = i+1; j < n; j++) {
+				pf.writeInt(getCij(i,j));
+			}
+		}
+		pf.writeInt((int)((long)n*(n-1)*(n-2)/6));
+		for (int i = 0; i < n; i++) {
+			for (int j = i+1; j < n; j++) {
+				for (int k = j+1; k < n; k++) {
+					pf.writeInt(getDijkSorted(i,j,k));
+				}
+			}
+		}
+	}
+
 	/**
 	 * Write the given coefficient array with the writer
 	 * 
@@ -10,7 +10,11 @@ import Constructive.CubicMultGreedyMax;
 import ExactMethods.CubicMult_Forrester;
 import Problems.CubicMult;
 import Problems.ProblemFactory;
+import Problems.ProblemFile;
+import Problems.SolveContext;
+import Problems.SparseCoefs;
 import Solutions.CubicMultSol;
+import Solutions.ProblemSol;
 
 /**
  * Cubic Multiple Knapsack test bed runner
@@ -29,6 +33,8 @@ public class CubicMultTest extends ProblemTest {
 	boolean generate;
 	boolean runHeuristics;
 	boolean runMIP;
+	// Generate with the parallel coefficient generator
+	private boolean parallelGen = false;
 
 	// Folders
 	private static final String incuFolder = "incumbents/cm/";
@@ -50,6 +56,17 @@ public class CubicMultTest extends ProblemTest {
 		runMIP = mip;
 	}
 
+	/**
+	 * Toggle generating the test bed with the parallel coefficient generator
+	 * 	(a seed gives a different instance than the sequential setup;
+	 * 	the generator is recorded in the problem files)
+	 * 
+	 * @param useParallel - (T) draw the coefficients in parallel
+	 */
+	public void setParallelGen(boolean useParallel) {
+		parallelGen = useParallel;
+	}
+
 	@Override
 	/**
 	 * (non-Javadoc)
@@ -84,19 +101,21 @@ public class CubicMultTest extends ProblemTest {
 						int n = probSizes[j];
 						seed++;
 
-						CubicMult cm1 = new CubicMult(n,m,false,seed,density);
-						CubicMultSol cms1 = (CubicMultSol)ProblemFactory.genInitSol();
+						CubicMult cm1 = new CubicMult(n,m,false,seed,density,parallelGen);
+						CubicMultSol cms1 = (CubicMultSol)ProblemFactory.genInitSol(new SolveContext(cm1));
 						String file1 = n+"_"+m+"_"+density+"_false_"+k;
 						cm1.toFile(probFolder+file1);
+						cm1.toBinaryFile(probFolder+file1+ProblemFile.EXT);
 						cms1.writeSolution(incuFolder+file1+"inc.txt");
 
 						testObj.put(file1, cm1.getObj(test));
 
 						seed++;
-						CubicMult cm2 = new CubicMult(n,m,true,seed,density);
-						CubicMultSol cms2 = (CubicMultSol)ProblemFactory.genInitSol();
+						CubicMult cm2 = new CubicMult(n,m,true,seed,density,parallelGen);
+						CubicMultSol cms2 = (CubicMultSol)ProblemFactory.genInitSol(new SolveContext(cm2));
 						String file2 = n+"_"+m+"_"+density+"_true_"+k;
 						cm2.toFile(probFolder+file2);
+						cm2.toBinaryFile(probFolder+file2+ProblemFile.EXT);
 						cms2.writeSolution(incuFolder+file2+"inc.txt");
 
 						testObj.put(file2, cm2.getObj(test));
@@ -121,14 +140,14 @@ public class CubicMultTest extends ProblemTest {
 
 						String file1 = n+"_"+m+"_"+density+"_false_"+k;
 						System.out.println(file1);
-						CubicMult cm1 = new CubicMult(probFolder+file1);
+						CubicMult cm1 = new CubicMult(probFile(probFolder+file1));
 						if(cm1.getObj(test) != testObj.get(file1)) {
 							System.err.println(file1 + " incorrect");
 						}
 
 						String file2 = n+"_"+m+"_"+density+"_true_"+k;
 						System.out.println(file2);
-						CubicMult cm2 = new CubicMult(probFolder+file2);
+						CubicMult cm2 = new CubicMult(probFile(probFolder+file2));
 						if(cm2.getObj(test) != testObj.get(file2)) {
 							System.err.println(file2 + " incorrect");
 						}
@@ -147,7 +166,9 @@ public class CubicMultTest extends ProblemTest {
 		PrintWriter pw;
 		pw = new PrintWriter(resFolder+"cubMultHeuristics.csv");
 		pw = new PrintWriter(pw,true);
-		pw.println("n,m,density,#,negCoef,incumbent,GA,SA,ST,TS");
+		pw.println("n,m,density,#,negCoef,incumbent,"+HeuristicRunner.getHeader());
+		JobScheduler js = new JobScheduler();
+		js.setJournal(openJournal(resFolder+"cubMultHeuristics.csv"));
 		for (int m: knapsacks) {
 			for (int i = 0; i < densities.length; i++) {
 				double density = densities[i];
@@ -155,49 +176,45 @@ public class CubicMultTest extends ProblemTest {
 					int n = probSizes[j];
 					for (int k = 0; k < K; k++) {
 						String file1 = n+"_"+m+"_"+density+"_false_"+k;
-						TestLogger.setFile("cm/"+file1);
-						System.out.println("--"+file1+"--");
-						@SuppressWarnings("unused")
-						CubicMult c1 = new CubicMult(probFolder+file1);
-						CubicMultSol cs1 = new CubicMultSol(incuFolder+file1+"inc.txt");
-						double incumbent1 = cs1.getObj();
-
-						String result1;
-						HeuristicRunner hr1 = new HeuristicRunner(cs1);
-						result1 = hr1.getResults();
-
-
 						if (k == 0) {
-							pw.println(n+","+m+","+density+","+k+",false,"+incumbent1+","+result1);
+							js.add(new HeuristicJob(file1, "cm/"+file1, n+","+m+","+density+","+k+",false,", n, density), pw);
 						} else {
-							pw.println(",,,"+k+",false,"+incumbent1+","+result1);
+							js.add(new HeuristicJob(file1, "cm/"+file1, ",,,"+k+",false,", n, density), pw);
 						}
 					}
 					for (int k = 0; k < K; k++) {
 						String file2 = n+"_"+m+"_"+density+"_true_"+k;
-						TestLogger.setFile("cm/"+file2);
-						System.out.println("--"+file2+"--");
-						@SuppressWarnings("unused")
-						CubicMult c2 = new CubicMult(probFolder+file2);
-						CubicMultSol cs2 = new CubicMultSol(incuFolder+file2+"inc.txt");
-						double incumbent2 = cs2.getObj();
-
-						String result2;
-						HeuristicRunner hr2 = new HeuristicRunner(cs2);
-						result2 = hr2.getResults();
-
 						if (k == 0) {
-							pw.println(n+","+m+","+density+","+k+",true,"+incumbent2+","+result2);
+							js.add(new HeuristicJob(file2, "cm/"+file2, n+","+m+","+density+","+k+",true,", n, density), pw);
 						} else {
-							pw.println(",,,"+k+",true,"+incumbent2+","+result2);
+							js.add(new HeuristicJob(file2, "cm/"+file2, ",,,"+k+",true,", n, density), pw);
 						}
 					}
 				}
 			}
 		}
+		js.run();
 		pw.close();
 	}
 
+	@Override
+	/**
+	 * (non-Javadoc)
+	 * @see Runner.ProblemTest#loadInstance(java.lang.String, long)
+	 */
+	protected ProblemSol loadInstance(String file, long stream) {
+		CubicMult cm = new CubicMult(probFile(probFolder+file));
+		return new CubicMultSol(new SolveContext(cm, stream), incuFolder+file+"inc.txt");
+	}
+
+	@Override
+	/**
+	 * Cubic coefficients (dense n^3/6 bytes, plus the lists of sparse instances) plus the solutions
+	 */
+	protected long jobMemory(int n, double density) {
+		return SparseCoefs.peakBytes(n, density) + jobMemory(n);
+	}
+
 	@Override
 	/**
 	 * (non-Javadoc)
@@ -209,6 +226,8 @@ public class CubicMultTest extends ProblemTest {
 		pw = new PrintWriter(resFolder+"cubMultMIP.csv");
 		pw = new PrintWriter(pw,true);
 		pw.println("n,m,density,#,negCoef,incumbent,MIP,gap,bestBound,timeout");
+		// Instances solved by an interrupted sweep keep their journaled rows
+		SweepJournal journal = openJournal(resFolder+"cubMultMIP.csv");
 		for (int m: knapsacks) {
 			for (int i = 0; i < densities.length; i++) {
 				double density = densities[i];
@@ -216,10 +235,12 @@ public class CubicMultTest extends ProblemTest {
 					int n = probSizes[j];
 					for (int k = 0; k < K; k++) {
 						String file1 = n+"_"+m+"_"+density+"_false_"+k;
+						if (writeJournaled(pw, journal, file1)) {
+							continue;
+						}
 						System.out.println("--"+file1+"--");
-						@SuppressWarnings("unused")
-						CubicMult c1 = new CubicMult(probFolder+file1);
-						CubicMultSol cs1 = new CubicMultSol(incuFolder+file1+"inc.txt");
+						CubicMult c1 = new CubicMult(probFile(probFolder+file1));
+						CubicMultSol cs1 = new CubicMultSol(new SolveContext(c1), incuFolder+file1+"inc.txt");
 						double incumbent1 = cs1.getObj();
 
 						String[] args1 = {file1};
@@ -234,17 +255,19 @@ public class CubicMultTest extends ProblemTest {
 						double bestBound1 = (gap1*result1)+result1;
 
 						if (k == 0) {
-							pw.println(n+","+m+","+density+","+k+",false,"+incumbent1+","+result1+","+gap1+","+bestBound1+","+timeout1);
+							writeRow(pw, journal, file1, n+","+m+","+density+","+k+",false,"+incumbent1+","+result1+","+gap1+","+bestBound1+","+timeout1);
 						} else {
-							pw.println(",,,"+k+",false,"+incumbent1+","+result1+","+gap1+","+bestBound1+","+timeout1);
+							writeRow(pw, journal, file1, ",,,"+k+",false,"+incumbent1+","+result1+","+gap1+","+bestBound1+","+timeout1);
 						}
 					}
 					for (int k = 0; k < K; k++) {
 						String file2 = n+"_"+m+"_"+density+"_true_"+k;
+						if (writeJournaled(pw, journal, file2)) {
+							continue;
+						}
 						System.out.println("--"+file2+"--");
-						@SuppressWarnings("unused")
-						CubicMult c2 = new CubicMult(probFolder+file2);
-						CubicMultSol cs2 = new CubicMultSol(incuFolder+file2+"inc.txt");
+						CubicMult c2 = new CubicMult(probFile(probFolder+file2));
+						CubicMultSol cs2 = new CubicMultSol(new SolveContext(c2), incuFolder+file2+"inc.txt");
 						double incumbent2 = cs2.getObj();
 
 						String[] args2 = {file2};
@@ -259,15 +282,19 @@ public class CubicMultTest extends ProblemTest {
 						double bestBound2 = (gap2*result2)+result2;
 
 						if (k == 0) {
-							pw.println(n+","+m+","+density+","+k+",true,"+incumbent2+","+result2+","+gap2+","+bestBound2+","+timeout2);
+							writeRow(pw, journal, file2, n+","+m+","+density+","+k+",true,"+incumbent2+","+result2+","+gap2+","+bestBound2+","+timeout2);
 						} else {
-							pw.println(",,,"+k+",true,"+incumbent2+","+result2+","+gap2+","+bestBound2+","+timeout2);
+							writeRow(pw, journal, file2, ",,,"+k+",true,"+incumbent2+","+result2+","+gap2+","+bestBound2+","+timeout2);
 						}
 					}
 				}
 			}
 		}
 		pw.close();
+		// Sweep complete: drop the journal
+		if (journal != null) {
+			journal.finish();
+		}
 	}
 
 
@@ -290,7 +317,7 @@ public class CubicMultTest extends ProblemTest {
 					for (int k = 0; k < K; k++) {
 						String file1 = n+"_"+m+"_"+density+"_false_"+k;
 						System.out.println("--"+file1+"--");
-						CubicMult c1 = new CubicMult(probFolder+file1);
+						CubicMult c1 = new CubicMult(probFile(probFolder+file1));
 
 						String result1;
 						result1 = runConst(c1);
@@ -304,7 +331,7 @@ public class CubicMultTest extends ProblemTest {
 					for (int k = 0; k < K; k++) {
 						String file2 = n+"_"+m+"_"+density+"_true_"+k;
 						System.out.println("--"+file2+"--");
-						CubicMult c2 = new CubicMult(probFolder+file2);
+						CubicMult c2 = new CubicMult(probFile(probFolder+file2));
 
 						String result2;
 						result2 = runConst(c2);
@@ -328,33 +355,34 @@ public class CubicMultTest extends ProblemTest {
 	 * @param CubicMult problem for constructing solutions
 	 */
 	private static String runConst(CubicMult cm) {
+		SolveContext ctx = new SolveContext(cm);
 		System.out.println("--Starting Inc");
 		long start = System.nanoTime();
-		CubicMultSol ks1 = (CubicMultSol)ProblemFactory.genInitSol();
+		CubicMultSol ks1 = (CubicMultSol)ProblemFactory.genInitSol(ctx);
 		long end = System.nanoTime();
 		double incObj = ks1.getObj();
 		double incTime = (double)(end-start)/60000000000L;
 		
 		System.out.println("--Starting Greedy");
-		CubicMultGreedy cg = new CubicMultGreedy(cm);
+		CubicMultGreedy cg = new CubicMultGreedy(ctx);
 		cg.run();
 		double greedy = cg.getResult().getObj();
 		double greedyTime = cg.getTime();
 		
 		System.out.println("--Starting GreedyMax");
-		CubicMultGreedyMax cgm = new CubicMultGreedyMax(cm);
+		CubicMultGreedyMax cgm = new CubicMultGreedyMax(ctx);
 		cgm.run();
 		double greedyMax = cg.getResult().getObj();
 		double greedyMaxTime = cg.getTime();
 
 		System.out.println("--Starting Fill");
-		CubicMultFillUp cfu = new CubicMultFillUp(cm);
+		CubicMultFillUp cfu = new CubicMultFillUp(ctx);
 		cfu.run();
 		double fill = cfu.getResult().getObj();
 		double fillTime = cfu.getTime();
 
 		System.out.println("--Starting Hybrid");
-		CubicMultGreedyFill cgf = new CubicMultGreedyFill(cm);
+		CubicMultGreedyFill cgf = new CubicMultGreedyFill(ctx);
 		cgf.run();
 		double hybrid = cgf.getResult().getObj();
 		double hybridTime = cgf.getTime();
@@ -11,8 +11,12 @@ import Constructive.CubicGreedyMax;
 import ExactMethods.Cubic_Forrester;
 import Problems.Cubic;
 import Problems.ProblemFactory;
+import Problems.ProblemFile;
+import Problems.SolveContext;
+import Problems.SparseCoefs;
 import Solutions.CubicSol;
 import Solutions.KnapsackSol;
+import Solutions.ProblemSol;
 
 /**
  * Cubic test bed runner
@@ -30,6 +34,8 @@ public class CubicTest extends ProblemTest {
 	private boolean generate;
 	private boolean runHeuristics;
 	private boolean runMIP;
+	// Generate with the parallel coefficient generator
+	private boolean parallelGen = false;
 
 	// Folders
 	private static final String incuFolder = "incumbents/cubic/";
@@ -51,6 +57,17 @@ public class CubicTest extends ProblemTest {
 		runMIP = mip;
 	}
 
+	/**
+	 * Toggle generating the test bed with the parallel coefficient generator
+	 * 	(a seed gives a different instance than the sequential setup;
+	 * 	the generator is recorded in the problem files)
+	 * 
+	 * @param useParallel - (T) draw the coefficients in parallel
+	 */
+	public void setParallelGen(boolean useParallel) {
+		parallelGen = useParallel;
+	}
+
 	@Override
 	/**
 	 * (non-Javadoc)
@@ -83,21 +100,23 @@ public class CubicTest extends ProblemTest {
 				for (int j = 0; j < probSizes.length; j++) {
 					int n = probSizes[j];
 					seed++;
-					Cubic c1 = new Cubic(n,false,seed,density);
-					KnapsackSol ks1 = (KnapsackSol)ProblemFactory.genInitSol();
+					Cubic c1 = new Cubic(n,false,seed,density,parallelGen);
+					KnapsackSol ks1 = (KnapsackSol)ProblemFactory.genInitSol(new SolveContext(c1));
 					String file1 = n+"_"+density+"_false_"+k;
 					System.out.println("--"+file1+"--");
 					c1.toFile(probFolder+file1);
+					c1.toBinaryFile(probFolder+file1+ProblemFile.EXT);
 					ks1.writeSolution(incuFolder+file1+"inc.txt");
 
 					testObj.put(file1, c1.getObj(test));
 
 					seed++;
-					Cubic c2 = new Cubic(n,true,seed,density);
-					KnapsackSol ks2 = (KnapsackSol)ProblemFactory.genInitSol();
+					Cubic c2 = new Cubic(n,true,seed,density,parallelGen);
+					KnapsackSol ks2 = (KnapsackSol)ProblemFactory.genInitSol(new SolveContext(c2));
 					String file2 = n+"_"+density+"_true_"+k;
 					System.out.println("--"+file2+"--");
 					c2.toFile(probFolder+file2);
+					c2.toBinaryFile(probFolder+file2+ProblemFile.EXT);
 					ks2.writeSolution(incuFolder+file2+"inc.txt");
 
 					testObj.put(file2, c2.getObj(test));
@@ -119,13 +138,13 @@ public class CubicTest extends ProblemTest {
 					int n = probSizes[j];
 
 					String file1 = n+"_"+density+"_false_"+k;
-					Cubic c1 = new Cubic(probFolder+file1);
+					Cubic c1 = new Cubic(probFile(probFolder+file1));
 					if(c1.getObj(test) != testObj.get(file1)) {
 						System.err.println(file1 + " incorrect");
 					}
 
 					String file2 = n+"_"+density+"_true_"+k;
-					Cubic c2 = new Cubic(probFolder+file2);
+					Cubic c2 = new Cubic(probFile(probFolder+file2));
 					if(c2.getObj(test) != testObj.get(file2)) {
 						System.err.println(file2 + " incorrect");
 					}
@@ -143,56 +162,53 @@ public class CubicTest extends ProblemTest {
 		PrintWriter pw;
 		pw = new PrintWriter(resFolder+"cubHeuristics.csv");
 		pw = new PrintWriter(pw,true);
-		pw.println("n,density,#,negCoef,incumbent,GA,SA,ST,TS");
+		pw.println("n,density,#,negCoef,incumbent,"+HeuristicRunner.getHeader());
+		JobScheduler js = new JobScheduler();
+		js.setJournal(openJournal(resFolder+"cubHeuristics.csv"));
 		for (int i = 0; i < densities.length; i++) {
 			double density = densities[i];
 			for (int j = 0; j < probSizes.length; j++) {
 				int n = probSizes[j];
 				for (int k = 0; k < K; k++) {
 					String file1 = n+"_"+density+"_false_"+k;
-					TestLogger.setFile("cubic/"+file1);
-					System.out.println("--"+file1+"--");
-					@SuppressWarnings("unused")
-					Cubic c1 = new Cubic(probFolder+file1);
-					CubicSol cs1 = new CubicSol(incuFolder+file1+"inc.txt");
-					double incumbent1 = cs1.getObj();
-
-					String result1;
-					HeuristicRunner hr1 = new HeuristicRunner(cs1);
-					result1 = hr1.getResults();
-
-
 					if (k == 0) {
-						pw.println(n+","+density+","+k+",false,"+incumbent1+","+result1);
+						js.add(new HeuristicJob(file1, "cubic/"+file1, n+","+density+","+k+",false,", n, density), pw);
 					} else {
-						pw.println(",,"+k+",false,"+incumbent1+","+result1);
+						js.add(new HeuristicJob(file1, "cubic/"+file1, ",,"+k+",false,", n, density), pw);
 					}
 				}
 				for (int k = 0; k < K; k++) {
 					String file2 = n+"_"+density+"_true_"+k;
-					TestLogger.setFile("cubic/"+file2);
-					System.out.println("--"+file2+"--");
-					@SuppressWarnings("unused")
-					Cubic c2 = new Cubic(probFolder+file2);
-					CubicSol cs2 = new CubicSol(incuFolder+file2+"inc.txt");
-					double incumbent2 = cs2.getObj();
-
-					String result2;
-					HeuristicRunner hr2 = new HeuristicRunner(cs2);
-					result2 = hr2.getResults();
-
-
 					if (k == 0) {
-						pw.println(n+","+density+","+k+",true,"+incumbent2+","+result2);
+						js.add(new HeuristicJob(file2, "cubic/"+file2, n+","+density+","+k+",true,", n, density), pw);
 					} else {
-						pw.println(",,"+k+",true,"+incumbent2+","+result2);
+						js.add(new HeuristicJob(file2, "cubic/"+file2, ",,"+k+",true,", n, density), pw);
 					}
 				}
 			}
 		}
+		js.run();
 		pw.close();
 	}
 
+	@Override
+	/**
+	 * (non-Javadoc)
+	 * @see Runner.ProblemTest#loadInstance(java.lang.String, long)
+	 */
+	protected ProblemSol loadInstance(String file, long stream) {
+		Cubic c = new Cubic(probFile(probFolder+file));
+		return new CubicSol(new SolveContext(c, stream), incuFolder+file+"inc.txt");
+	}
+
+	@Override
+	/**
+	 * Cubic coefficients (dense n^3/6 bytes, plus the lists of sparse instances) plus the solutions
+	 */
+	protected long jobMemory(int n, double density) {
+		return SparseCoefs.peakBytes(n, density) + jobMemory(n);
+	}
+
 	@Override
 	/**
 	 * (non-Javadoc)
@@ -203,22 +219,26 @@ public class CubicTest extends ProblemTest {
 		PrintWriter pw = new PrintWriter(resFolder+"cubMIP.csv");
 		pw = new PrintWriter(pw,true);
 		pw.println("n,density,#,negCoef,incumbent,MIP,gap,bestBound,timeout");
+		// Instances solved by an interrupted sweep keep their journaled rows
+		SweepJournal journal = openJournal(resFolder+"cubMIP.csv");
 		for (int i = 0; i < densities.length; i++) {
 			double density = densities[i];
 			for (int j = 0; j < probSizes.length; j++) {
 				int n = probSizes[j];
 				for (int k = 0; k < K; k++) {
+					String file1 = n+"_"+density+"_false_"+k;
+					if (writeJournaled(pw, journal, file1)) {
+						continue;
+					}
 					long result1 = -1;
 					double incObj1 = -1;
 					String timeout1 = "";
 					double gap1 = -1;
 					double bestBound1 = -1;
 					if (n <= 200) {
-						String file1 = n+"_"+density+"_false_"+k;
 						System.out.println("---"+file1+"---");
-						@SuppressWarnings("unused")
-						Cubic c1 = new Cubic(probFolder+file1);
-						CubicSol cs1 = new CubicSol(incuFolder+file1+"inc.txt");
+						Cubic c1 = new Cubic(probFile(probFolder+file1));
+						CubicSol cs1 = new CubicSol(new SolveContext(c1), incuFolder+file1+"inc.txt");
 						incObj1 = cs1.getObj();
 						String[] args1 = {file1};
 
@@ -232,23 +252,25 @@ public class CubicTest extends ProblemTest {
 					}
 
 					if (k == 0) {
-						pw.println(n+","+density+","+k+",false,"+incObj1+","+result1+","+gap1+","+bestBound1+","+timeout1);
+						writeRow(pw, journal, file1, n+","+density+","+k+",false,"+incObj1+","+result1+","+gap1+","+bestBound1+","+timeout1);
 					} else {
-						pw.println(",,"+k+",false,"+incObj1+","+result1+","+gap1+","+bestBound1+","+timeout1);
+						writeRow(pw, journal, file1, ",,"+k+",false,"+incObj1+","+result1+","+gap1+","+bestBound1+","+timeout1);
 					}
 				}
 				for (int k = 0; k < K; k++) {
+					String file2 = n+"_"+density+"_true_"+k;
+					if (writeJournaled(pw, journal, file2)) {
+						continue;
+					}
 					long result2 = -1;
 					double incObj2 = -1;
 					String timeout2 = "";
 					double gap2 = -1;
 					double bestBound2 = -1;
 					if (n <= 200) {
-						String file2 = n+"_"+density+"_true_"+k;
 						System.out.println("---"+file2+"---");
-						@SuppressWarnings("unused")
-						Cubic c2 = new Cubic(probFolder+file2);
-						CubicSol cs2 = new CubicSol(incuFolder+file2+"inc.txt");
+						Cubic c2 = new Cubic(probFile(probFolder+file2));
+						CubicSol cs2 = new CubicSol(new SolveContext(c2), incuFolder+file2+"inc.txt");
 						incObj2 = cs2.getObj();
 						String[] args2 = {file2};
 
@@ -262,14 +284,18 @@ public class CubicTest extends ProblemTest {
 					}
 
 					if (k == 0) {
-						pw.println(n+","+density+","+k+",true,"+incObj2+","+result2+","+gap2+","+bestBound2+","+timeout2);
+						writeRow(pw, journal, file2, n+","+density+","+k+",true,"+incObj2+","+result2+","+gap2+","+bestBound2+","+timeout2);
 					} else {
-						pw.println(",,"+k+",true,"+incObj2+","+result2+","+gap2+","+bestBound2+","+timeout2);
+						writeRow(pw, journal, file2, ",,"+k+",true,"+incObj2+","+result2+","+gap2+","+bestBound2+","+timeout2);
 					}
 				}
 			}
 		}
 		pw.close();
+		// Sweep complete: drop the journal
+		if (journal != null) {
+			journal.finish();
+		}
 	}
 
 	/**
@@ -290,7 +316,7 @@ public class CubicTest extends ProblemTest {
 					String file1 = n+"_"+density+"_false_"+k;
 					TestLogger.setFile("cubic/"+file1);
 					System.out.println("--"+file1+"--");
-					Cubic c1 = new Cubic(probFolder+file1);
+					Cubic c1 = new Cubic(probFile(probFolder+file1));
 
 					String result1;
 					result1 = runConst(c1);
@@ -306,7 +332,7 @@ public class CubicTest extends ProblemTest {
 					String file2 = n+"_"+density+"_true_"+k;
 					TestLogger.setFile("cubic/"+file2);
 					System.out.println("--"+file2+"--");
-					Cubic c2 = new Cubic(probFolder+file2);
+					Cubic c2 = new Cubic(probFile(probFolder+file2));
 
 					String result2;
 					result2 = runConst(c2);
@@ -330,9 +356,10 @@ public class CubicTest extends ProblemTest {
 	 * @param Cubic problem to solve
 	 */
 	private static String runConst(Cubic c) {
+		SolveContext ctx = new SolveContext(c);
 		System.out.println("--Starting Inc");
 		long start = System.nanoTime();
-		KnapsackSol ks1 = (KnapsackSol)ProblemFactory.genInitSol();
+		KnapsackSol ks1 = (KnapsackSol)ProblemFactory.genInitSol(ctx);
 		long end = System.nanoTime();
 		double incObj = ks1.getObj();
 		double incTime = (double)(end-start)/60000000000L;
@@ -341,20 +368,20 @@ public class CubicTest extends ProblemTest {
 		double cdpTime = -1;
 		if (c.getN() <= 200) {
 			System.out.println("--Starting DP");
-			CubicDP cdp = new CubicDP(c);
+			CubicDP cdp = new CubicDP(ctx);
 			cdp.run();
 			cdpBest = cdp.getResult().getObj();
 			cdpTime = cdp.getTime();
 		}
 
 		System.out.println("--Starting Greedy");
-		CubicGreedy cg = new CubicGreedy(c);
+		CubicGreedy cg = new CubicGreedy(ctx);
 		cg.run();
 		double greedy = cg.getResult().getObj();
 		double greedyTime = cg.getTime();
 
 		System.out.println("--Starting GreedyMax");
-		CubicGreedyMax cgm = new CubicGreedyMax(c);
+		CubicGreedyMax cgm = new CubicGreedyMax(ctx);
 		cgm.run();
 		double greedyMax = cgm.getResult().getObj();
 		double greedyMaxTime = cgm.getTime();
@@ -363,7 +390,7 @@ public class CubicTest extends ProblemTest {
 		double fillTime = -1;
 		if (c.getN() <= 200) {
 			System.out.println("--Starting Fill");
-			CubicFillUp cfu = new CubicFillUp(c);
+			CubicFillUp cfu = new CubicFillUp(ctx);
 			cfu.run();
 			fill = cfu.getResult().getObj();
 			fillTime = cfu.getTime();
@@ -373,7 +400,7 @@ public class CubicTest extends ProblemTest {
 		double hybridTime = -1;
 		if (c.getN() <= 200) {
 			System.out.println("--Starting Hybrid");
-			CubicGreedyFill cgf = new CubicGreedyFill(c);
+			CubicGreedyFill cgf = new CubicGreedyFill(ctx);
 			cgf.run();
 			hybrid = cgf.getResult().getObj();
 			hybridTime = cgf.getTime();
@@ -402,10 +429,9 @@ public class CubicTest extends ProblemTest {
 					String file1 = n+"_"+density+"_false_"+k;
 					System.out.println("--"+file1+"--");
 
-					@SuppressWarnings("unused")
-					Cubic c1 = new Cubic(probFolder+file1);
+					Cubic c1 = new Cubic(probFile(probFolder+file1));
 					long start = System.nanoTime();
-					KnapsackSol ks1 = (KnapsackSol)ProblemFactory.genInitSol();
+					KnapsackSol ks1 = (KnapsackSol)ProblemFactory.genInitSol(new SolveContext(c1));
 					long end = System.nanoTime();
 					double incumbent1 = ks1.getObj();
 					double duration1 = (double)(end-start)/60000000000L;
@@ -421,10 +447,9 @@ public class CubicTest extends ProblemTest {
 					String file2 = n+"_"+density+"_true_"+k;
 					System.out.println("--"+file2+"--");
 
-					@SuppressWarnings("unused")
-					Cubic c2 = new Cubic(probFolder+file2);
+					Cubic c2 = new Cubic(probFile(probFolder+file2));
 					long start = System.nanoTime();
-					KnapsackSol ks2 = (KnapsackSol)ProblemFactory.genInitSol();
+					KnapsackSol ks2 = (KnapsackSol)ProblemFactory.genInitSol(new SolveContext(c2));
 					long end = System.nanoTime();
 					double incumbent2 = ks2.getObj();
 					double duration2 = (double)(end-start)/60000000000L;
@@ -448,7 +473,7 @@ public class CubicTest extends ProblemTest {
 		PrintWriter pw;
 		pw = new PrintWriter(resFolder+"cubHealHeuristics.csv");
 		pw = new PrintWriter(pw,true);
-		pw.println("n,density,#,negCoef,incumbent,GA,SA,ST,TS");
+		pw.println("n,density,#,negCoef,incumbent,"+HeuristicRunner.getHeader());
 		for (int i = 0; i < densities.length; i++) {
 			double density = densities[i];
 			for (int j = 0; j < probSizes.length; j++) {
@@ -457,9 +482,8 @@ public class CubicTest extends ProblemTest {
 					String file1 = n+"_"+density+"_false_"+k;
 					TestLogger.setFile("cubic/"+file1);
 					System.out.println("--"+file1+"--");
-					@SuppressWarnings("unused")
-					Cubic c1 = new Cubic(probFolder+file1);
-					CubicSol cs1 = new CubicSol(incuFolder+file1+"inc.txt");
+					Cubic c1 = new Cubic(probFile(probFolder+file1));
+					CubicSol cs1 = new CubicSol(new SolveContext(c1), incuFolder+file1+"inc.txt");
 					cs1.setHealing(true);
 					double incumbent1 = cs1.getObj();
 
@@ -479,9 +503,8 @@ public class CubicTest extends ProblemTest {
 					String file2 = n+"_"+density+"_true_"+k;
 					TestLogger.setFile("cubic/"+file2);
 					System.out.println("--"+file2+"--");
-					@SuppressWarnings("unused")
-					Cubic c2 = new Cubic(probFolder+file2);
-					CubicSol cs2 = new CubicSol(incuFolder+file2+"inc.txt");
+					Cubic c2 = new Cubic(probFile(probFolder+file2));
+					CubicSol cs2 = new CubicSol(new SolveContext(c2), incuFolder+file2+"inc.txt");
 					cs2.setHealing(true);
 					double incumbent2 = cs2.getObj();
 
@@ -2,6 +2,7 @@ package Runner;
 
 import java.io.FileNotFoundException;
 import java.io.PrintWriter;
+import java.util.ArrayList;
 
 import Constructive.FractionalDP;
 import Constructive.FractionalFillUp;
@@ -12,7 +13,10 @@ import Constructive.FractionalIncumbent;
 import ExactMethods.Fractional_Borrero;
 import Problems.Fractional;
 import Problems.ProblemFactory;
+import Problems.ProblemFile;
+import Problems.SolveContext;
 import Solutions.FractionalSol;
+import Solutions.ProblemSol;
 
 /**
  * Fractional test bed runner
@@ -100,11 +104,12 @@ public class FractionalTest extends ProblemTest {
 							String file1 = subFolder+n+"_"+m+"_false_"+i;
 							System.out.println("--"+file1+"--");
 							Fractional f1 = new Fractional(n, m, false, seed++, ln, ld);
-							FractionalSol fs1 = (FractionalSol)ProblemFactory.genInitSol();
+							FractionalSol fs1 = (FractionalSol)ProblemFactory.genInitSol(new SolveContext(f1));
 							if (!fs1.getValid()) {
 								System.err.println("Invalid answer:" + file1);
 							}
 							f1.toFile(probFolder+file1);
+							f1.toBinaryFile(probFolder+file1+ProblemFile.EXT);
 							fs1.writeSolution(incuFolder+file1+"inc.txt");
 
 							testObj.put(file1, f1.getObj(test));
@@ -126,40 +131,45 @@ public class FractionalTest extends ProblemTest {
 	 * @see Runner.ProblemTest#runHeuristics()
 	 */
 	public void runHeuristics() throws FileNotFoundException {
-		PrintWriter pw;
+		// One schedule for all four sub-folders (one csv each)
+		JobScheduler js = new JobScheduler();
+		js.setJournal(openJournal(resFolder+"fractionalHeuristics.csv"));
+		ArrayList<PrintWriter> writers = new ArrayList<PrintWriter>();
 		for (boolean ln: numSize) {
 			for (boolean ld: denSize) {
 				String subFolder = numDenFolder(ln,ld);
-				pw = new PrintWriter(resFolder+subFolder+"fractionalHeuristics.csv");
+				PrintWriter pw = new PrintWriter(resFolder+subFolder+"fractionalHeuristics.csv");
 				pw = new PrintWriter(pw,true);
-				pw.println("n,m,#,incumbent,GA,SA,ST,TS");
+				pw.println("n,m,#,incumbent,"+HeuristicRunner.getHeader());
+				writers.add(pw);
 				for (int n: probSizes) {
 					for (int m: mSizes) {
 						for (int i = 0; i < num; i++) {
 							String file1 = subFolder+n+"_"+m+"_false_"+i;
-							@SuppressWarnings("unused")
-							Fractional f1 = new Fractional(probFolder+file1);
-							FractionalSol fs1 = new FractionalSol(incuFolder+file1+"inc.txt");
-							double incumbent1 = fs1.getObj();
-
-							TestLogger.setFile("fractional/"+file1);
-							System.out.println("--"+file1+"--");
-
-							HeuristicRunner hr = new HeuristicRunner(fs1);
-							String result1 = hr.getResults();
-
-
 							if (i == 0) {
-								pw.println(n+","+m+","+i+","+incumbent1+","+result1);
+								js.add(new HeuristicJob(file1, "fractional/"+file1, n+","+m+","+i+",", n), pw);
 							} else {
-								pw.println(",,"+i+","+incumbent1+","+result1);
+								js.add(new HeuristicJob(file1, "fractional/"+file1, ",,"+i+",", n), pw);
 							}
 						}
 					}
 				}
-				pw.close();
 			}
 		}
+		js.run();
+		for (PrintWriter pw: writers) {
+			pw.close();
+		}
+	}
+
+	@Override
+	/**
+	 * (non-Javadoc)
+	 * @see Runner.ProblemTest#loadInstance(java.lang.String, long)
+	 */
+	protected ProblemSol loadInstance(String file, long stream) {
+		Fractional f = new Fractional(probFile(probFolder+file));
+		return new FractionalSol(new SolveContext(f, stream), incuFolder+file+"inc.txt");
 	}
 
 	@Override
@@ -175,14 +185,18 @@ public class FractionalTest extends ProblemTest {
 				pw = new PrintWriter(resFolder+subFolder+"fractionalMIP.csv");
 				pw = new PrintWriter(pw,true);
 				pw.println("n,m,#,incumbent,mip,gap,bestBound,timeout");
+				// Instances solved by an interrupted sweep keep their journaled rows
+				SweepJournal journal = openJournal(resFolder+subFolder+"fractionalMIP.csv");
 				for (int n: probSizes) {
 					for (int m: mSizes) {
 						for (int i = 0; i < num; i++) {
 							String file1 = subFolder+n+"_"+m+"_false_"+i;
+							if (writeJournaled(pw, journal, file1)) {
+								continue;
+							}
 							System.out.println("--"+file1+"--");
-							@SuppressWarnings("unused")
-							Fractional f1 = new Fractional(probFolder+file1);
-							FractionalSol fs1 = new FractionalSol(incuFolder+file1+"inc.txt");
+							Fractional f1 = new Fractional(probFile(probFolder+file1));
+							FractionalSol fs1 = new FractionalSol(new SolveContext(f1), incuFolder+file1+"inc.txt");
 							double incumbent1 = fs1.getObj();
 
 							String[] args = {file1};
@@ -197,14 +211,18 @@ public class FractionalTest extends ProblemTest {
 							double bestBound1 = (gap1*result1)+result1;
 
 							if (i == 0) {
-								pw.println(n+","+m+","+i+","+incumbent1+","+result1+","+gap1+","+bestBound1+","+timeout1);
+								writeRow(pw, journal, file1, n+","+m+","+i+","+incumbent1+","+result1+","+gap1+","+bestBound1+","+timeout1);
 							} else {
-								pw.println(",,"+i+","+incumbent1+","+result1+","+gap1+","+bestBound1+","+timeout1);
+								writeRow(pw, journal, file1, ",,"+i+","+incumbent1+","+result1+","+gap1+","+bestBound1+","+timeout1);
 							}
 						}
 					}
 				}
 				pw.close();
+				// Sweep complete: drop the journal
+				if (journal != null) {
+					journal.finish();
+				}
 			}
 		}
 	}
@@ -221,41 +239,42 @@ public class FractionalTest extends ProblemTest {
 					for (int m: mSizes) {
 						for (int i = 0; i < num; i++) {
 							String file1 = subFolder+n+"_"+m+"_false_"+i;
-							Fractional f1 = new Fractional(probFolder+file1);
+							Fractional f1 = new Fractional(probFile(probFolder+file1));
+							SolveContext ctx = new SolveContext(f1);
 							System.out.println("--"+file1+"--");
 							
 							System.out.println("--Incumbent--");
-							FractionalIncumbent fi = new FractionalIncumbent(f1);
+							FractionalIncumbent fi = new FractionalIncumbent(ctx);
 							fi.run();
 							String incumbent1 = "" + fi.getResult().getObj();
 							String incTime = "" + fi.getTime();
 
 							System.out.println("--Greedy--");
-							FractionalGreedy fg = new FractionalGreedy(f1);
+							FractionalGreedy fg = new FractionalGreedy(ctx);
 							fg.run();
 							String greedyObj = "" + fg.getResult().getObj();
 							String greedyTime = "" + fg.getTime();
 
 							System.out.println("--GreedyMax--");
-							FractionalGreedyMax fgm = new FractionalGreedyMax(f1);
+							FractionalGreedyMax fgm = new FractionalGreedyMax(ctx);
 							fgm.run();
 							String greedyMaxObj = "" + fgm.getResult().getObj();
 							String greedyMaxTime = "" + fgm.getTime();
 
 							System.out.println("--FillUp--");
-							FractionalFillUp ff = new FractionalFillUp(f1);
+							FractionalFillUp ff = new FractionalFillUp(ctx);
 							ff.run();
 							String fillObj = "" + ff.getResult().getObj();
 							String fillTime = "" + ff.getTime();
 							
 							System.out.println("--GreedyFill--");
-							FractionalGreedyFill fgf = new FractionalGreedyFill(f1);
+							FractionalGreedyFill fgf = new FractionalGreedyFill(ctx);
 							fgf.run();
 							String greedyFillObj = "" + fgf.getResult().getObj();
 							String greedyFillTime = "" + fgf.getTime();
 
 							System.out.println("--DP--");
-							FractionalDP fdp = new FractionalDP(f1);
+							FractionalDP fdp = new FractionalDP(ctx);
 							fdp.run();
 							String dpObj = "" + fdp.getResult().getObj();
 							String dpTime = "" + fdp.getTime();
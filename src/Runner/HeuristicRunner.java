@@ -1,73 +1,461 @@
 package Runner;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 import Heuristics.*;
 import Solutions.ProblemSol;
+import Solutions.UnconstrainedSol;
 
 /**
- * Heuristic Runner 
- * - Runs all heuristics on a given problem
- * - Creates a comma-delimited string of the heuristic best solutions 
- * 
+ * Heuristic Runner
+ * - Runs the selected heuristics on a given problem
+ * 	(default: GA, SA, ST, TS; see setHeuristics for the parallel ones)
+ * - Creates a comma-delimited string of the heuristic best solutions
+ * - Portfolio mode runs the heuristics at once on separate threads
+ * 	(optionally racing: all stop once one reaches a target objective)
+ * - Optionally snapshots the heuristics of a named instance, so
+ * 	a rerun after a crash resumes from the snapshots
+ * 	(heuristics that finished are journaled and not run again)
+ * - Traces each heuristic run when TestLogger tracing is on
+ *
  * @author midkiffj
  *
  */
 public class HeuristicRunner {
-	
+
+	// Heuristics that can be run (logger names): the serial heuristics,
+	// 	island GA, replica-exchange SA and parallel tabu search
+	private static final String[] available = {"GA", "SA", "ST", "TS", "IGA", "PT", "PTS"};
+	// Heuristics to run (logger names and result order)
+	private static String[] names = {"GA", "SA", "ST", "TS"};
+
+	// Portfolio (concurrent) mode and racing target
+	private static boolean portfolio = false;
+	private static boolean racing = false;
+	private static double target;
+
+	// Snapshot folder (null: no snapshots) and interval (ns)
+	private static String snapshotFolder = null;
+	private static long snapshotInterval;
+
+	private String name;
 	private String results;
+	private String times;
+	// Heuristics of the instance that finished (null: no snapshots)
+	private SweepJournal journal;
 
 	/**
 	 * Run all heuristics an initial solution
-	 * 
+	 *
 	 * @param ps - initial solution for heuristics
 	 */
 	public HeuristicRunner(ProblemSol ps) {
-		// Update logger for each heuristic and run
-		TestLogger.setLogger("GA");
-		genAlgo ga = new genAlgo(ps,-1,-1);
-		System.out.println("--GA--");
-		String gas = run(ga);
-		
-		TestLogger.setLogger("SA");
-		simAnneal sa = new simAnneal(ps,-1,-1);
-		System.out.println("--SA--");
-		String sas = run(sa);
-		
-		TestLogger.setLogger("ST");
-		simTabu st = new simTabu(ps,-1,-1);
-		System.out.println("--ST--");
-		String sts = run(st);
-
-		TestLogger.setLogger("TS");
-		tabuSearch ts = new tabuSearch(ps,-1,-1);
-		System.out.println("--TS--");
-		String tss = run(ts);
-		
-		// Compile heuristic results
-		results = "";
-		results += gas + ",";
-		results += sas + ",";
-		results += sts + ",";
-		results += tss + ",";
+		this(ps, null);
+	}
+
+	/**
+	 * Run all heuristics an initial solution of the named instance
+	 * - With snapshots on, each heuristic resumes from its snapshot
+	 * 	(if any); a finished heuristic is journaled, its snapshot deleted,
+	 * 	and it is not run again (journal deleted once all have run)
+	 *
+	 * @param ps - initial solution for heuristics
+	 * @param name - instance name (snapshot file prefix, e.g. problem file)
+	 */
+	public HeuristicRunner(ProblemSol ps, String name) {
+		this.name = name;
+		journal = openJournal();
+		boolean complete = false;
+		try {
+			if (portfolio) {
+				complete = runPortfolio(ps);
+			} else {
+				runSequential(ps);
+				complete = true;
+			}
+		} finally {
+			// All heuristics finished: drop the journal (kept for a rerun otherwise)
+			if (journal != null) {
+				if (complete) {
+					journal.finish();
+				} else {
+					journal.close();
+				}
+			}
+		}
 	}
-	
+
+	/**
+	 * Select the heuristics to run (in result order); unknown names are skipped
+	 * - GA: genAlgo, SA: simAnneal, ST: simTabu, TS: tabuSearch
+	 * - IGA: islandGA, PT: replicaAnneal, PTS: parallelTabu
+	 *
+	 * @param selected - names of the heuristics
+	 */
+	public static void setHeuristics(String... selected) {
+		ArrayList<String> chosen = new ArrayList<String>();
+		for (String h: selected) {
+			if (!Arrays.asList(available).contains(h)) {
+				System.err.println("Unknown heuristic: " + h);
+			} else if (!chosen.contains(h)) {
+				chosen.add(h);
+			}
+		}
+		if (chosen.isEmpty()) {
+			System.err.println("No heuristics selected (keeping " + getHeader() + ")");
+			return;
+		}
+		names = chosen.toArray(new String[chosen.size()]);
+	}
+
+	/**
+	 * Return the comma-delimited names of the selected heuristics
+	 * 	(result columns, e.g. "GA,SA,ST,TS")
+	 */
+	public static String getHeader() {
+		String header = "";
+		for (int h = 0; h < names.length; h++) {
+			if (h > 0) {
+				header += ",";
+			}
+			header += names[h];
+		}
+		return header;
+	}
+
+	/**
+	 * Toggle running the heuristics concurrently (portfolio mode)
+	 *
+	 * @param usePortfolio - (T) run the selected heuristics at once on separate threads
+	 */
+	public static void setPortfolio(boolean usePortfolio) {
+		portfolio = usePortfolio;
+	}
+
+	/**
+	 * Race the portfolio: stop every heuristic once one finds
+	 * 	a valid solution at least as good as the target
+	 * 	(at most the target for Unconstrained problems)
+	 *
+	 * @param objective - target objective (or known bound)
+	 */
+	public static void setTarget(double objective) {
+		racing = true;
+		target = objective;
+	}
+
+	/**
+	 * Run the portfolio until each heuristic's own limits
+	 */
+	public static void clearTarget() {
+		racing = false;
+	}
+
+	/**
+	 * Snapshot the heuristics of named instances while they run
+	 * - Files: folder + name + "_" + heuristic + "_cur.txt"/"_best.txt"
+	 * - A resumed heuristic restarts its full time/iteration limits
+	 * 	from the snapshot solutions
+	 * - Finished heuristics: folder + name + "_done.journal"
+	 * 	(result and run time, reused instead of running them again)
+	 *
+	 * @param folder - snapshot folder (null: no snapshots)
+	 * @param interval - time between snapshots (ns)
+	 */
+	public static void setSnapshots(String folder, long interval) {
+		snapshotFolder = folder;
+		snapshotInterval = interval;
+	}
+
 	public String getResults() {
 		return results;
 	}
-	
+
+	/**
+	 * Return the comma-delimited run times (min) in the results order
+	 */
+	public String getTimes() {
+		return times;
+	}
+
+	/**
+	 * Run the heuristics one after another from the initial solution
+	 * 	(heuristics that finished in an earlier run are not created)
+	 *
+	 * @param ps - initial solution for heuristics
+	 */
+	private void runSequential(ProblemSol ps) {
+		double[] duration = new double[names.length];
+		results = "";
+		for (int h = 0; h < names.length; h++) {
+			// Update logger for each heuristic and run
+			TestLogger.setLogger(names[h]);
+			System.out.println("--" + names[h] + "--");
+			String res = finished(h, duration);
+			if (res == null) {
+				res = run(create(h, ps), duration, h);
+			}
+			results += res + ",";
+		}
+		setTimes(duration);
+	}
+
 	/**
 	 * Runs a given heuristic and returns the best solution
-	 * 
+	 *
 	 * @param m - metaheuristic to run
+	 * @param duration - run times (min) of the heuristics
+	 * @param h - index of m in the results
 	 * @result String containing best objective found
 	 */
-	private String run(Metaheuristic m) {
+	private String run(Metaheuristic m, double[] duration, int h) {
+		prepare(m, h);
 		long start = System.nanoTime();
-		m.run();
+		try {
+			m.run();
+		} finally {
+			closeTrace(m);
+		}
 		long end = System.nanoTime();
-		double duration = (double)(end-start)/60000000000L;
-		System.out.println("Time taken(min): " + duration);
+		duration[h] = (double)(end-start)/60000000000L;
+		System.out.println("Time taken(min): " + duration[h]);
+		String res = result(m);
+		record(m, h, res, duration[h]);
+		return res;
+	}
+
+	/**
+	 * Create heuristic h (see names) from the initial solution
+	 *
+	 * @param h - index of the heuristic in the results
+	 * @param ps - initial solution for heuristics
+	 */
+	private static Metaheuristic create(int h, ProblemSol ps) {
+		String heuristic = names[h];
+		if (heuristic.equals("GA")) {
+			return new genAlgo(ps,-1,-1);
+		} else if (heuristic.equals("SA")) {
+			return new simAnneal(ps,-1,-1);
+		} else if (heuristic.equals("ST")) {
+			return new simTabu(ps,-1,-1);
+		} else if (heuristic.equals("IGA")) {
+			return new islandGA(ps,-1,-1);
+		} else if (heuristic.equals("PT")) {
+			return new replicaAnneal(ps,-1,-1);
+		} else if (heuristic.equals("PTS")) {
+			return new parallelTabu(ps,-1,-1);
+		} else {
+			return new tabuSearch(ps,-1,-1);
+		}
+	}
+
+	/**
+	 * Run all heuristics at once from the initial solution
+	 * - Heuristics are created one after another (repeatable setup)
+	 * - Output and results keep the sequential order
+	 *
+	 * @param ps - initial solution for heuristics
+	 * @return (T) if every heuristic finished (none failed or was interrupted)
+	 */
+	private boolean runPortfolio(ProblemSol ps) {
+		// Heuristics share one log while running concurrently
+		TestLogger.setLogger("PF");
+		// Heuristics that finished in an earlier run are not created (null)
+		double[] duration = new double[names.length];
+		String[] res = new String[names.length];
+		Metaheuristic[] hs = new Metaheuristic[names.length];
+		for (int h = 0; h < hs.length; h++) {
+			res[h] = finished(h, duration);
+			if (res[h] == null) {
+				hs[h] = create(h, ps);
+				prepare(hs[h], h);
+			}
+		}
+
+		// Racing: stop every heuristic once one reports a best at the target
+		if (racing) {
+			Race race = new Race(hs);
+			for (Metaheuristic m: hs) {
+				if (m != null) {
+					m.addListener(race);
+				}
+			}
+		}
+
+		// Start each heuristic on its own thread
+		Timed[] tasks = new Timed[hs.length];
+		ExecutorService pool = Executors.newFixedThreadPool(hs.length);
+		for (int h = 0; h < hs.length; h++) {
+			if (hs[h] != null) {
+				tasks[h] = new Timed(hs[h]);
+				pool.execute(tasks[h]);
+			}
+		}
+		pool.shutdown();
+
+		// Wait for all (an interrupt stops the running ones, but they are
+		// 	still waited for, so no heuristic is compiled while running)
+		boolean interrupted = false;
+		while (!pool.isTerminated()) {
+			try {
+				pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+			} catch (InterruptedException e) {
+				if (!interrupted) {
+					System.err.println("Portfolio interrupted");
+					for (Timed task: tasks) {
+						if (task != null && !task.done) {
+							task.interrupted = true;
+							task.m.stop();
+						}
+					}
+				}
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+
+		// Compile heuristic results (in sequential order)
+		boolean complete = true;
+		results = "";
+		for (int h = 0; h < hs.length; h++) {
+			System.out.println("--" + names[h] + "--");
+			if (hs[h] != null) {
+				duration[h] = (double)tasks[h].duration/60000000000L;
+				System.out.println("Time taken(min): " + duration[h]);
+				res[h] = result(hs[h]);
+				// Failed/interrupted heuristics resume from their snapshot on the next run
+				if (tasks[h].failed != null) {
+					System.err.println(names[h] + " failed: " + tasks[h].failed);
+					complete = false;
+				} else if (tasks[h].interrupted) {
+					System.err.println(names[h] + " interrupted");
+					complete = false;
+				} else {
+					record(hs[h], h, res[h], duration[h]);
+				}
+			}
+			results += res[h] + ",";
+		}
+		setTimes(duration);
+		return complete;
+	}
+
+	/**
+	 * Open the journal of the heuristics that finished on the
+	 * 	named instance (null if not snapshotting)
+	 */
+	private SweepJournal openJournal() {
+		if (snapshotFolder == null || name == null) {
+			return null;
+		}
+		String filename = snapshotFolder + name + "_done.journal";
+		try {
+			return new SweepJournal(filename);
+		} catch (IOException e) {
+			System.err.println("Unable to open journal " + filename + ": " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Return the result of heuristic h if it finished in an earlier run
+	 * 	(its run time is set in duration), otherwise null
+	 *
+	 * @param h - index of the heuristic in the results
+	 * @param duration - run times (min) of the heuristics
+	 */
+	private String finished(int h, double[] duration) {
+		if (journal == null || !journal.isDone(names[h])) {
+			return null;
+		}
+		// Row: result,run time (min)
+		String row = journal.getRow(names[h]);
+		int comma = row.lastIndexOf(',');
+		try {
+			duration[h] = Double.parseDouble(row.substring(comma+1));
+		} catch (NumberFormatException e) {
+			System.err.println("Invalid journal entry of " + names[h] + ": " + row);
+			return null;
+		}
+		String res = row.substring(0, comma);
+		System.out.println("Finished " + names[h] + " in an earlier run (best: " + res + ")");
+		return res;
+	}
+
+	/**
+	 * Journal the result of a finished heuristic and drop its snapshot
+	 * 	(the journal is written first, so a crash in between keeps the result)
+	 *
+	 * @param m - metaheuristic that has run
+	 * @param h - index of m in the results
+	 * @param res - result of m
+	 * @param duration - run time of m (min)
+	 */
+	private void record(Metaheuristic m, int h, String res, double duration) {
+		if (journal == null) {
+			return;
+		}
+		journal.record(names[h], res + "," + duration);
+		m.clearSnapshot();
+	}
+
+	/**
+	 * Set up the trace and snapshot of heuristic h and
+	 * 	resume from its snapshot (if any)
+	 *
+	 * @param m - metaheuristic to run
+	 * @param h - index of m in the results
+	 */
+	private void prepare(Metaheuristic m, int h) {
+		m.setTrace(TestLogger.openTrace(names[h]));
+		if (snapshotFolder == null || name == null) {
+			return;
+		}
+		m.setSnapshot(snapshotFolder + name + "_" + names[h], snapshotInterval);
+		if (m.resume()) {
+			System.out.println("Resumed " + names[h] + " from snapshot (best: " + m.getBestObj() + ")");
+		}
+	}
+
+	/**
+	 * Close the trace of a heuristic that has run (if tracing)
+	 */
+	private static void closeTrace(Metaheuristic m) {
+		if (m.getTrace() != null) {
+			m.getTrace().close();
+			m.setTrace(null);
+		}
+	}
+
+	/**
+	 * Return (T) if the solution is valid and meets the racing target
+	 */
+	private static boolean reached(ProblemSol ps) {
+		if (ps == null || !ps.getValid()) {
+			return false;
+		}
+		if (ps instanceof UnconstrainedSol) {
+			return ps.getObj() <= target;
+		}
+		return ps.getObj() >= target;
+	}
+
+	/**
+	 * Return the best objective found by the heuristic
+	 * 	("INVALID" if the best solution is invalid)
+	 *
+	 * @param m - metaheuristic that has been run
+	 */
+	private String result(Metaheuristic m) {
 		String best = ""+m.getBestObj();
-		
+
 		// Detect invalid solution
 		ProblemSol ps = m.getBest();
 		if (ps.getValid()) {
@@ -77,4 +465,75 @@ public class HeuristicRunner {
 			return "INVALID";
 		}
 	}
+
+	/**
+	 * Compile the comma-delimited run times
+	 */
+	private void setTimes(double[] duration) {
+		times = "";
+		for (double d: duration) {
+			times += d + ",";
+		}
+	}
+
+	/**
+	 * Stops the portfolio once a heuristic reports a best at the target
+	 * 	(listens on the best-event thread, not the search threads;
+	 * 	heuristics that finished in an earlier run are null)
+	 */
+	private static class Race implements BestListener {
+		private Metaheuristic[] hs;
+		private boolean raced = false;
+
+		private Race(Metaheuristic[] hs) {
+			this.hs = hs;
+		}
+
+		public void bestUpdated(BestEvent event) {
+			if (raced || !reached(event.getSolution())) {
+				return;
+			}
+			raced = true;
+			for (int h = 0; h < hs.length; h++) {
+				if (hs[h] == event.getSource()) {
+					System.out.println(names[h] + " reached target: " + target);
+				}
+			}
+			for (Metaheuristic m: hs) {
+				if (m != null) {
+					m.stop();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Runs a heuristic and records its run time (ns)
+	 * 	and anything it threw (e.g. OutOfMemoryError)
+	 */
+	private static class Timed implements Runnable {
+		private Metaheuristic m;
+		private long duration;
+		private Throwable failed;
+		// Finished (own limits, race or failure) / stopped by an interrupt
+		private volatile boolean done = false;
+		private volatile boolean interrupted = false;
+
+		private Timed(Metaheuristic m) {
+			this.m = m;
+		}
+
+		public void run() {
+			long start = System.nanoTime();
+			try {
+				m.run();
+			} catch (Throwable t) {
+				failed = t;
+			} finally {
+				closeTrace(m);
+				duration = System.nanoTime() - start;
+				done = true;
+			}
+		}
+	}
 }
@@ -37,9 +37,8 @@ public class HeuristicTest {
 
 		// Update problem to test here
 		String file = "SN-LD/100_1_false_1";
-		@SuppressWarnings("unused")
 		Problem p = new Fractional("problems/fractional/"+file);
-		ProblemSol ps = new FractionalSol("incumbents/fractional/"+file+"inc.txt");
+		ProblemSol ps = new FractionalSol(new SolveContext(p), "incumbents/fractional/"+file+"inc.txt");
 
 
 		testAll(ps);
@@ -60,6 +59,8 @@ public class HeuristicTest {
 		boolean runAll = true;
 
 		if (runAll) {
+			// Change the heuristics run here (see HeuristicRunner.setHeuristics)
+			HeuristicRunner.setHeuristics("GA", "SA", "ST", "TS", "IGA", "PT", "PTS");
 			HeuristicRunner hr = new HeuristicRunner(ps);
 			System.out.println(hr.getResults());
 		}
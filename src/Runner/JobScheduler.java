@@ -0,0 +1,279 @@
+package Runner;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs independent test bed jobs on a bounded worker pool
+ * - Jobs start largest (estimated memory) first, so the big instances
+ * 	run alongside the small ones instead of straggling at the end
+ * - A job starts once a worker is free and its memory fits in the heap budget
+ * 	(jobs start in that order, so small jobs never overtake a waiting big one)
+ * - Result rows are written in the order the jobs were added
+ * - Each job solves in its own solve context with random stream
+ * 	RndGen.stream(job #) (passed to run), so results do not depend on the schedule
+ * - With a journal, finished jobs are recorded as they complete and
+ * 	jobs recorded by an earlier (interrupted) run are skipped
+ * - A job that fails (any Throwable, e.g. OutOfMemoryError) writes its
+ * 	failed row and the others keep running; failed rows are not journaled
+ *
+ * @author midkiffj
+ */
+public class JobScheduler {
+
+	// Worker threads (default: one per core)
+	private static int workers = Runtime.getRuntime().availableProcessors();
+	// Fraction of the max heap the running jobs may use
+	private static double heapFraction = 0.75;
+
+	private ArrayList<Job> jobs;
+	private ArrayList<PrintWriter> writers;
+	private SweepJournal journal;
+
+	/**
+	 * Test bed job (e.g. one instance run on the metaheuristics)
+	 */
+	public static abstract class Job {
+		private String key;
+		private long memory;
+
+		/**
+		 * @param memory - estimated heap use of the job (bytes)
+		 */
+		public Job(long memory) {
+			this(null, memory);
+		}
+
+		/**
+		 * @param key - journal key of the job (unique within the sweep)
+		 * @param memory - estimated heap use of the job (bytes)
+		 */
+		public Job(String key, long memory) {
+			this.key = key;
+			this.memory = memory;
+		}
+
+		public String getKey() {
+			return key;
+		}
+
+		public long getMemory() {
+			return memory;
+		}
+
+		/**
+		 * Run the job (in its own solve context)
+		 *
+		 * @param stream - random stream of the job's context (RndGen.stream id)
+		 * @return result row to write
+		 */
+		public abstract String run(long stream) throws Exception;
+
+		/**
+		 * Return the row written when the job fails
+		 *
+		 * @param t - failure of run()
+		 */
+		public String failedRow(Throwable t) {
+			if (key == null) {
+				return "failed";
+			}
+			return key + ",failed";
+		}
+	}
+
+	/**
+	 * Create an empty schedule
+	 */
+	public JobScheduler() {
+		jobs = new ArrayList<Job>();
+		writers = new ArrayList<PrintWriter>();
+	}
+
+	/**
+	 * Set the number of worker threads (1: run the jobs one at a time)
+	 *
+	 * @param numWorkers - number of jobs to run at once
+	 */
+	public static void setWorkers(int numWorkers) {
+		workers = Math.max(1, numWorkers);
+	}
+
+	public static int getWorkers() {
+		return workers;
+	}
+
+	/**
+	 * Journal finished jobs (keyed jobs only) and skip the jobs it holds
+	 * - The journal is deleted once every job has a row, otherwise closed
+	 *
+	 * @param sweepJournal - completion journal (null: none)
+	 */
+	public void setJournal(SweepJournal sweepJournal) {
+		journal = sweepJournal;
+	}
+
+	/**
+	 * Add a job whose row is written to the given writer
+	 *
+	 * @param job - job to run
+	 * @param pw - writer for the result row
+	 */
+	public void add(Job job, PrintWriter pw) {
+		jobs.add(job);
+		writers.add(pw);
+	}
+
+	/**
+	 * Run all jobs and write their rows (in the order added)
+	 * - Failed jobs are reported and write their failed row
+	 *
+	 * @return (T) if every job finished and wrote its row
+	 */
+	public boolean run() {
+		int count = jobs.size();
+		final String[] rows = new String[count];
+		boolean[] done = new boolean[count];
+		final boolean[] failed = new boolean[count];
+
+		// Rows of the jobs journaled by an earlier run
+		ArrayList<Integer> pending = new ArrayList<Integer>();
+		for (int j = 0; j < count; j++) {
+			String key = jobs.get(j).getKey();
+			if (journal != null && key != null && journal.isDone(key)) {
+				rows[j] = journal.getRow(key);
+				done[j] = true;
+			} else {
+				pending.add(j);
+			}
+		}
+		if (pending.size() < count) {
+			System.out.println("Skipping " + (count-pending.size()) + " journaled jobs");
+		}
+
+		// Start order: decreasing memory (stable, so ties keep the added order)
+		Integer[] order = pending.toArray(new Integer[pending.size()]);
+		Arrays.sort(order, new Comparator<Integer>() {
+			public int compare(Integer a, Integer b) {
+				return Long.compare(jobs.get(b).getMemory(), jobs.get(a).getMemory());
+			}
+		});
+
+		int threads = Math.max(1, Math.min(workers, order.length));
+		if (threads > 1) {
+			// TestLogger has one global log file (restored after the run)
+			if (TestLogger.getUseLog() || TestLogger.getUseTrace()) {
+				System.err.println("Logging disabled while running " + threads + " jobs at once");
+			}
+			TestLogger.setConcurrent(true);
+		}
+		long budget = (long)(Runtime.getRuntime().maxMemory() * heapFraction);
+		long free = budget;
+
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		ExecutorCompletionService<Integer> finished = new ExecutorCompletionService<Integer>(pool);
+		int written = 0;
+		try {
+			int next = 0;
+			int running = 0;
+			while (true) {
+				// Write the finished rows that are next in order
+				while (written < count && done[written]) {
+					if (rows[written] != null) {
+						writers.get(written).println(rows[written]);
+					}
+					written++;
+				}
+				if (written == count) {
+					break;
+				}
+
+				// Start jobs while a worker is free and the next job fits
+				while (next < order.length && running < threads) {
+					int j = order[next];
+					long memory = Math.min(jobs.get(j).getMemory(), budget);
+					if (running > 0 && memory > free) {
+						break;
+					}
+					free -= memory;
+					finished.submit(new Task(j, jobs.get(j), rows, failed));
+					running++;
+					next++;
+				}
+
+				// Wait for a job to finish
+				int j = finished.take().get();
+				running--;
+				free += Math.min(jobs.get(j).getMemory(), budget);
+				done[j] = true;
+
+				// Journal the row before it is written
+				String key = jobs.get(j).getKey();
+				if (journal != null && key != null && rows[j] != null && !failed[j]) {
+					journal.record(key, rows[j]);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			System.err.println("Job scheduler interrupted");
+		} catch (ExecutionException e) {
+			System.err.println("Job scheduler failed: " + e.getCause());
+		} finally {
+			pool.shutdown();
+			if (threads > 1) {
+				TestLogger.setConcurrent(false);
+			}
+		}
+
+		// Keep the journal until every job finished
+		boolean complete = (written == count);
+		for (int j = 0; j < count && complete; j++) {
+			complete = (rows[j] != null && !failed[j]);
+		}
+		if (journal != null) {
+			if (complete) {
+				journal.finish();
+			} else {
+				journal.close();
+			}
+		}
+		return complete;
+	}
+
+	/**
+	 * Runs job j with random stream j and stores its row
+	 * 	(or its failed row, so the scheduler keeps draining the other jobs)
+	 */
+	private static class Task implements Callable<Integer> {
+		private int j;
+		private Job job;
+		private String[] rows;
+		private boolean[] failed;
+
+		private Task(int j, Job job, String[] rows, boolean[] failed) {
+			this.j = j;
+			this.job = job;
+			this.rows = rows;
+			this.failed = failed;
+		}
+
+		public Integer call() {
+			try {
+				rows[j] = job.run(j);
+			} catch (Throwable t) {
+				System.err.println("Job " + j + " failed: " + t);
+				t.printStackTrace();
+				failed[j] = true;
+				rows[j] = job.failedRow(t);
+			}
+			return j;
+		}
+	}
+}
@@ -9,6 +9,8 @@ import Heuristics.Metaheuristic;
 import Heuristics.genAlgo;
 import Problems.MaxProbability;
 import Problems.ProblemFactory;
+import Problems.ProblemFile;
+import Problems.SolveContext;
 import Solutions.MaxProbabilitySol;
 import Solutions.ProblemSol;
 
@@ -80,13 +82,14 @@ public class MaxProbTest extends ProblemTest {
 				for (int p: possibleP) {
 					for (int k: possibleK) {
 						MaxProbability mp = new MaxProbability(n, false, i+n, k, p);
-						MaxProbabilitySol mps = (MaxProbabilitySol)ProblemFactory.genInitSol();
+						MaxProbabilitySol mps = (MaxProbabilitySol)ProblemFactory.genInitSol(new SolveContext(mp));
 						String file = n+"_P"+p+"_K"+k+"_"+i;
 						System.out.println(file);
 						if (!mps.getValid()) {
 							System.err.println("Invalid answer:" + file);
 						}
 						mp.toFile(probFolder+file);
+						mp.toBinaryFile(probFolder+file+ProblemFile.EXT);
 						mps.writeSolution(incuFolder+file+"inc.txt");
 
 						testObj.put(file, mp.getObj(test));
@@ -110,34 +113,37 @@ public class MaxProbTest extends ProblemTest {
 		PrintWriter pw;
 		pw = new PrintWriter(resFolder+"maxProbHeuristics.csv");
 		pw = new PrintWriter(pw,true);
-		pw.println("n,#,P,K,incumbent,GA,SA,ST,TS");
+		pw.println("n,#,P,K,incumbent,"+HeuristicRunner.getHeader());
+		JobScheduler js = new JobScheduler();
+		js.setJournal(openJournal(resFolder+"maxProbHeuristics.csv"));
 		for (int n: sizes) {
 			for (int i = 0; i < num; i++) {
 				for (int p: possibleP) {
 					for (int k: possibleK) {
 						String file = n+"_P"+p+"_K"+k+"_"+i;
-						@SuppressWarnings("unused")
-						MaxProbability mp2 = new MaxProbability(probFolder+file);
-						MaxProbabilitySol mps = new MaxProbabilitySol(incuFolder+file+"inc.txt");
-						TestLogger.setFile("mp/"+file);
-						System.out.println("--"+file+"--");
-						double incumbent1 = mps.getObj();
-
-						HeuristicRunner hr = new HeuristicRunner(mps);
-						String result1 = hr.getResults();
-
 						if (k == 65) {
-							pw.println(n+","+i+","+p+","+k+","+incumbent1+","+result1);
+							js.add(new HeuristicJob(file, "mp/"+file, n+","+i+","+p+","+k+",", n), pw);
 						} else {
-							pw.println(",,,"+k+","+incumbent1+","+result1);
+							js.add(new HeuristicJob(file, "mp/"+file, ",,,"+k+",", n), pw);
 						}
 					}
 				}
 			}
 		}
+		js.run();
 		pw.close();
 	}
 
+	@Override
+	/**
+	 * (non-Javadoc)
+	 * @see Runner.ProblemTest#loadInstance(java.lang.String, long)
+	 */
+	protected ProblemSol loadInstance(String file, long stream) {
+		MaxProbability mp = new MaxProbability(probFile(probFolder+file));
+		return new MaxProbabilitySol(new SolveContext(mp, stream), incuFolder+file+"inc.txt");
+	}
+
 	@Override
 	/**
 	 * (non-Javadoc)
@@ -148,15 +154,19 @@ public class MaxProbTest extends ProblemTest {
 		pw = new PrintWriter(resFolder+"maxProbMIP.csv");
 		pw = new PrintWriter(pw,true);
 		pw.println("n,#,P,K,incumbent,MIP,gap,bestBound,timeout");
+		// Instances solved by an interrupted sweep keep their journaled rows
+		SweepJournal journal = openJournal(resFolder+"maxProbMIP.csv");
 		for (int n: sizes) {
 			for (int i = 0; i < num; i++) {
 				for (int p: possibleP) {
 					for (int k: possibleK) {
 						String file = n+"_P"+p+"_K"+k+"_"+i;
+						if (writeJournaled(pw, journal, file)) {
+							continue;
+						}
 						System.out.println("--"+file+"--");
-						@SuppressWarnings("unused")
-						MaxProbability mp = new MaxProbability(probFolder+file);
-						MaxProbabilitySol mps = new MaxProbabilitySol(incuFolder+file+"inc.txt");
+						MaxProbability mp = new MaxProbability(probFile(probFolder+file));
+						MaxProbabilitySol mps = new MaxProbabilitySol(new SolveContext(mp), incuFolder+file+"inc.txt");
 						double incumbent1 = mps.getObj();
 
 						String[] args = {file};
@@ -171,15 +181,19 @@ public class MaxProbTest extends ProblemTest {
 						double bestBound1 = (gap1*result1)+result1;
 
 						if (k == 65) {
-							pw.println(n+","+i+","+p+","+k+","+incumbent1+","+result1+","+gap1+","+bestBound1+","+timeout);
+							writeRow(pw, journal, file, n+","+i+","+p+","+k+","+incumbent1+","+result1+","+gap1+","+bestBound1+","+timeout);
 						} else {
-							pw.println(",,,"+k+","+incumbent1+","+result1+","+gap1+","+bestBound1+","+timeout);
+							writeRow(pw, journal, file, ",,,"+k+","+incumbent1+","+result1+","+gap1+","+bestBound1+","+timeout);
 						}
 					}
 				}
 			}
 		}
 		pw.close();
+		// Sweep complete: drop the journal
+		if (journal != null) {
+			journal.finish();
+		}
 	}
 
 	/**
@@ -197,9 +211,8 @@ public class MaxProbTest extends ProblemTest {
 				for (int p: possibleP) {
 					for (int k: possibleK) {
 						String file = n+"_P"+p+"_K"+k+"_"+i;
-						@SuppressWarnings("unused")
-						MaxProbability mp = new MaxProbability(probFolder+file);
-						MaxProbabilitySol mps = new MaxProbabilitySol(incuFolder+file+"inc.txt");
+						MaxProbability mp = new MaxProbability(probFile(probFolder+file));
+						MaxProbabilitySol mps = new MaxProbabilitySol(new SolveContext(mp), incuFolder+file+"inc.txt");
 						TestLogger.setFile("mp/"+file);
 						System.out.println("--"+file+"--");
 						double incumbent1 = mps.getObj();
@@ -260,17 +273,18 @@ public class MaxProbTest extends ProblemTest {
 				for (int p: possibleP) {
 					for (int k: possibleK) {
 						String file = n+"_P"+p+"_K"+k+"_"+i;
-						MaxProbability mp = new MaxProbability(probFolder+file);
+						MaxProbability mp = new MaxProbability(probFile(probFolder+file));
+						SolveContext ctx = new SolveContext(mp);
 						System.out.println("--"+file+"--");
 
 						System.out.println("--UMax--");
-						MaxProbUMax mpum = new MaxProbUMax(mp, false);
+						MaxProbUMax mpum = new MaxProbUMax(ctx, false);
 						mpum.run();
 						String uMaxObj = "" + mpum.getResult().getObj();
 						String uMaxTime = "" + mpum.getTime();
 						
 						System.out.println("--UMaxCplex--");
-						MaxProbUMax mpumc = new MaxProbUMax(mp, true);
+						MaxProbUMax mpumc = new MaxProbUMax(ctx, true);
 						mpumc.run();
 						String uMaxCObj = "" + mpumc.getResult().getObj();
 						String uMaxCTime = "" + mpumc.getTime();
@@ -1,14 +1,22 @@
 package Runner;
 
+import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.HashMap;
 
+import Problems.ProblemFile;
+import Solutions.ProblemSol;
+
 /**
  * Superclass for testing problems
  * - Stores dummy array list for testing objective calculations
  * - Initializes dummy hashmap for tested objective values while testing
  * - Toggles the test logger usage
+ * - Builds the metaheuristic jobs of the test bed sweeps
+ * - Journals the sweeps (metaheuristics, MIP) so an interrupted sweep resumes where it stopped
  * 
  * @author midkiffj
  */
@@ -16,6 +24,9 @@ public abstract class ProblemTest {
 	public static HashMap<String,Double> testObj;
 	public static ArrayList<Integer> test;
 
+	// Resume interrupted sweeps from their journals
+	private static boolean resume = true;
+
 	/**
 	 * Create dummy variables and sets the logger usage
 	 * 
@@ -30,6 +41,168 @@ public abstract class ProblemTest {
 		TestLogger.setUseLog(useLog);
 	}
 	
+	/**
+	 * Return the binary copy of the problem file if it exists,
+	 * 	otherwise the text file itself
+	 * 
+	 * @param filename - text problem file
+	 */
+	protected static String probFile(String filename) {
+		String binFile = filename + ProblemFile.EXT;
+		if (new File(binFile).exists()) {
+			return binFile;
+		}
+		return filename;
+	}
+
+	/**
+	 * Toggle journaling the metaheuristic and MIP sweeps
+	 * 
+	 * @param useResume - (T) skip the instances an interrupted sweep finished
+	 */
+	public static void setResume(boolean useResume) {
+		resume = useResume;
+	}
+
+	/**
+	 * Open the completion journal of a sweep (null if not resuming)
+	 * 
+	 * @param resultFile - result file of the sweep (journal: resultFile.journal)
+	 */
+	protected static SweepJournal openJournal(String resultFile) {
+		if (!resume) {
+			return null;
+		}
+		String filename = resultFile + ".journal";
+		try {
+			SweepJournal journal = new SweepJournal(filename);
+			if (journal.size() > 0) {
+				System.out.println("Resuming sweep: " + journal.size() + " instances journaled in " + filename);
+			}
+			return journal;
+		} catch (IOException e) {
+			System.err.println("Unable to open journal " + filename + ": " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Write the row of an instance finished by an earlier (interrupted) sweep
+	 *
+	 * @param pw - result writer
+	 * @param journal - sweep journal (null if not resuming)
+	 * @param key - instance key
+	 * @return (T) if the instance was journaled (row written)
+	 */
+	protected static boolean writeJournaled(PrintWriter pw, SweepJournal journal, String key) {
+		if (journal == null || !journal.isDone(key)) {
+			return false;
+		}
+		pw.println(journal.getRow(key));
+		return true;
+	}
+
+	/**
+	 * Write the row of a finished instance and journal it (if resuming)
+	 *
+	 * @param pw - result writer
+	 * @param journal - sweep journal (null if not resuming)
+	 * @param key - instance key
+	 * @param row - result row
+	 */
+	protected static void writeRow(PrintWriter pw, SweepJournal journal, String key, String row) {
+		pw.println(row);
+		if (journal != null) {
+			journal.record(key, row);
+		}
+	}
+
+	/**
+	 * Read a test bed problem and its incumbent solution
+	 * 	(in a new solve context of the problem)
+	 * 
+	 * @param file - test bed file name (without folders)
+	 * @param stream - random stream of the solve context (RndGen.stream id)
+	 * @return incumbent solution of the problem
+	 */
+	protected abstract ProblemSol loadInstance(String file, long stream);
+
+	/**
+	 * Estimate the heap used to run the metaheuristics on a problem of size n
+	 * 	(coefficients plus a population of solutions with n x n swap tables)
+	 * 
+	 * @param n - problem size
+	 */
+	protected long jobMemory(int n) {
+		return 256L*n*n;
+	}
+
+	/**
+	 * Estimate the heap used to run the metaheuristics on a problem of size n
+	 * 	whose coefficients have the given density
+	 * 
+	 * @param n - problem size
+	 * @param density - density of the coefficients
+	 */
+	protected long jobMemory(int n, double density) {
+		return jobMemory(n);
+	}
+
+	/**
+	 * Test bed instance run on the metaheuristics (see JobScheduler)
+	 * - Row: given prefix, incumbent objective, heuristic results
+	 * - Journal key and heuristic snapshot name: the file name
+	 */
+	protected class HeuristicJob extends JobScheduler.Job {
+		private String file;
+		private String logFile;
+		private String prefix;
+
+		/**
+		 * @param file - test bed file name
+		 * @param logFile - test logger file
+		 * @param prefix - row columns before the incumbent
+		 * @param n - problem size
+		 */
+		public HeuristicJob(String file, String logFile, String prefix, int n) {
+			this(file, logFile, prefix, jobMemory(n));
+		}
+
+		/**
+		 * @param file - test bed file name
+		 * @param logFile - test logger file
+		 * @param prefix - row columns before the incumbent
+		 * @param n - problem size
+		 * @param density - density of the coefficients
+		 */
+		public HeuristicJob(String file, String logFile, String prefix, int n, double density) {
+			this(file, logFile, prefix, jobMemory(n, density));
+		}
+
+		private HeuristicJob(String file, String logFile, String prefix, long memory) {
+			super(file, memory);
+			this.file = file;
+			this.logFile = logFile;
+			this.prefix = prefix;
+		}
+
+		public String run(long stream) {
+			// Log file of the instance (kept global while jobs run at once)
+			TestLogger.setFile(logFile);
+			System.out.println("--"+file+"--");
+			ProblemSol ps = loadInstance(file, stream);
+			double incumbent = ps.getObj();
+
+			HeuristicRunner hr = new HeuristicRunner(ps, file);
+			return prefix+incumbent+","+hr.getResults();
+		}
+
+		@Override
+		public String failedRow(Throwable t) {
+			return prefix+"failed";
+		}
+	}
+
 	/**
 	 * Run the specified methods on the test bed
 	 * 
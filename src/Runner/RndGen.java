@@ -1,18 +1,70 @@
 package Runner;
 
-import java.util.Random;
-
 /**
- * Random object for heuristics and problem solutions.
- * 
+ * Random streams for heuristics and problem solutions.
+ * - Every stream derives from one master seed (default: 1234)
+ * - Each solve context holds its stream (see SolveContext)
+ * - stream(id) gives an independent stream per solve/job,
+ * 	childKey(key, k) the key of a context's k-th fork (per thread/replica)
+ *
  * @author midkiffj
  *
  */
 public class RndGen {
-	
-	private static Random rnd = new Random(1234);
-	
-	public static Random getRnd() {
-		return rnd;
+
+	// Master seed of all streams
+	private static long seed = 1234;
+
+	/**
+	 * Update the master seed (streams requested afterwards derive from it)
+	 *
+	 * @param masterSeed - seed of all streams
+	 */
+	public static void setSeed(long masterSeed) {
+		seed = masterSeed;
+	}
+
+	public static long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Return stream id of the master seed
+	 * 	- The same (seed, id) always gives the same stream,
+	 * 	regardless of the order streams are requested in
+	 *
+	 * @param id - stream number (e.g. solve/job index)
+	 */
+	public static SplitRandom stream(long id) {
+		return new SplitRandom(key(id));
+	}
+
+	/**
+	 * Return the seed (key) of stream id of the master seed
+	 *
+	 * @param id - stream number
+	 */
+	public static long key(long id) {
+		return mix(seed ^ mix(id));
+	}
+
+	/**
+	 * Return the key of child k of the stream with the given key
+	 * 	(a pure function: no stream is advanced)
+	 *
+	 * @param key - key of the parent stream
+	 * @param k - child number (1, 2, ...)
+	 */
+	public static long childKey(long key, long k) {
+		return mix(key + mix(k * 0x9e3779b97f4a7c15L));
+	}
+
+	/**
+	 * SplitMix64 finalizer (spreads nearby seeds/ids apart)
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
 	}
 }
@@ -0,0 +1,65 @@
+package Runner;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Random stream backed by a SplittableRandom (SplitMix64)
+ * - Drop-in Random for heuristics and solutions, without the
+ * 	atomic seed updates of java.util.Random
+ * - Child streams are created from derived seeds (see RndGen.childKey)
+ * - Not thread-safe: use one stream per thread
+ *
+ * @author midkiffj
+ */
+public class SplitRandom extends Random {
+
+	private static final long serialVersionUID = 1L;
+
+	private SplittableRandom sr;
+
+	/**
+	 * Create a stream from the given seed
+	 *
+	 * @param seed - stream seed
+	 */
+	public SplitRandom(long seed) {
+		// Random(seed) calls setSeed
+		super(seed);
+	}
+
+	@Override
+	public void setSeed(long seed) {
+		sr = new SplittableRandom(seed);
+	}
+
+	@Override
+	protected int next(int bits) {
+		return (int)(sr.nextLong() >>> (64 - bits));
+	}
+
+	@Override
+	public int nextInt() {
+		return sr.nextInt();
+	}
+
+	@Override
+	public int nextInt(int bound) {
+		return sr.nextInt(bound);
+	}
+
+	@Override
+	public long nextLong() {
+		return sr.nextLong();
+	}
+
+	@Override
+	public double nextDouble() {
+		return sr.nextDouble();
+	}
+
+	@Override
+	public boolean nextBoolean() {
+		return sr.nextBoolean();
+	}
+}
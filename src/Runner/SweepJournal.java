@@ -0,0 +1,124 @@
+package Runner;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+
+/**
+ * Completion journal of a test bed sweep
+ * - One line per finished instance: key (e.g. file name), tab, result row
+ * - Each line is synced to disk before the next instance is recorded,
+ * 	so a restarted sweep skips the instances that finished
+ * - A line torn by a crash is dropped when the journal is reopened
+ * - Delete the journal to rerun a sweep from scratch
+ *
+ * @author midkiffj
+ */
+public class SweepJournal {
+
+	private String filename;
+	private RandomAccessFile raf;
+	private HashMap<String,String> rows;
+
+	/**
+	 * Open (or create) the journal and read its finished instances
+	 *
+	 * @param filename - journal file
+	 * @throws IOException
+	 */
+	public SweepJournal(String filename) throws IOException {
+		this.filename = filename;
+		rows = new HashMap<String,String>();
+		File parent = new File(filename).getAbsoluteFile().getParentFile();
+		if (parent != null) {
+			parent.mkdirs();
+		}
+		raf = new RandomAccessFile(filename, "rw");
+
+		// Read the complete lines
+		byte[] bytes = new byte[(int)raf.length()];
+		raf.readFully(bytes);
+		int end = bytes.length;
+		while (end > 0 && bytes[end-1] != '\n') {
+			end--;
+		}
+		String text = new String(bytes, 0, end, StandardCharsets.UTF_8);
+		for (String line: text.split("\n")) {
+			int tab = line.indexOf('\t');
+			if (tab > 0) {
+				rows.put(line.substring(0, tab), line.substring(tab+1));
+			}
+		}
+
+		// Drop a torn last line and append after the complete ones
+		if (end < bytes.length) {
+			System.err.println("Dropping incomplete journal entry: " + filename);
+			raf.setLength(end);
+		}
+		raf.seek(end);
+	}
+
+	/**
+	 * Return (T) if the instance finished in an earlier sweep
+	 *
+	 * @param key - instance key
+	 */
+	public synchronized boolean isDone(String key) {
+		return rows.containsKey(key);
+	}
+
+	/**
+	 * Return the recorded row of the instance (null if not finished)
+	 *
+	 * @param key - instance key
+	 */
+	public synchronized String getRow(String key) {
+		return rows.get(key);
+	}
+
+	/**
+	 * Return the number of finished instances
+	 */
+	public synchronized int size() {
+		return rows.size();
+	}
+
+	/**
+	 * Record a finished instance and sync it to disk
+	 *
+	 * @param key - instance key (no tabs/newlines)
+	 * @param row - result row (no newlines)
+	 */
+	public synchronized void record(String key, String row) {
+		rows.put(key, row);
+		try {
+			raf.write((key + "\t" + row + "\n").getBytes(StandardCharsets.UTF_8));
+			raf.getFD().sync();
+		} catch (IOException e) {
+			System.err.println("Error writing journal " + filename + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Close the journal (kept for the next sweep)
+	 */
+	public synchronized void close() {
+		try {
+			raf.close();
+		} catch (IOException e) {
+			System.err.println("Error closing journal " + filename + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Close and delete the journal once every instance of the sweep finished
+	 */
+	public synchronized void finish() {
+		close();
+		if (!new File(filename).delete()) {
+			System.err.println("Unable to delete journal: " + filename);
+		}
+	}
+}
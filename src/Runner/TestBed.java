@@ -19,10 +19,15 @@ public class TestBed {
 	private static boolean f = false;
 	private static boolean mp = false;
 
+	// Select the metaheuristics run on the test beds
+	// 	(GA, SA, ST, TS and the parallel IGA, PT, PTS; see HeuristicRunner)
+	private static String[] heuristics = {"GA", "SA", "ST", "TS"};
+
 	/**
 	 * Runs the selected problems
 	 */
 	public static void main(String[] args) {
+		HeuristicRunner.setHeuristics(heuristics);
 		if (c) {
 			mainCubic();
 		}
@@ -40,6 +45,7 @@ public class TestBed {
 	/**
 	 * Run the cubic test bed
 	 * - g: generate the test bed
+	 * - parGen: generate with the parallel coefficient generator
 	 * - rh: run the metaheuristics
 	 * - mip: run the MIP formulation
 	 * - log: use the testlogger
@@ -55,7 +61,9 @@ public class TestBed {
 		boolean inc = false;
 		boolean constr = false;
 		boolean heal = false;
+		boolean parGen = false;
 		CubicTest ct = new CubicTest(g,rh,mip,log);
+		ct.setParallelGen(parGen);
 		try {
 			ct.run();
 			if (inc) {
@@ -76,6 +84,7 @@ public class TestBed {
 	/**
 	 * Run the cubic multiple knapsack test bed
 	 * - g: generate the test bed
+	 * - parGen: generate with the parallel coefficient generator
 	 * - rh: run the metaheuristics
 	 * - mip: run the MIP formulation
 	 * - log: use the testlogger
@@ -87,7 +96,9 @@ public class TestBed {
 		boolean mip = false;
 		boolean log = false;
 		boolean constr = false;
+		boolean parGen = false;
 		CubicMultTest cmt = new CubicMultTest(g,rh,mip,log);
+		cmt.setParallelGen(parGen);
 		try {
 			cmt.run();
 			if (constr) {
@@ -1,6 +1,7 @@
 package Runner;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.logging.FileHandler;
 import java.util.logging.Handler;
 import java.util.logging.Level;
@@ -10,14 +11,25 @@ import java.util.logging.SimpleFormatter;
 
 /**
  * JUL Logger for Heuristics
+ * - Per-iteration details go to binary traces (TraceRecorder) instead
+ * 	when tracing is on: logging/file/test.trace
+ * - Concurrent mode (jobs running at once share the global logger):
+ * 	logging and tracing are off and the logger is not switched
  * @author midkiffj
  *
  */
 public class TestLogger {
 
-	public static Logger logger = Logger.getLogger("test"); 
+	public static volatile Logger logger = Logger.getLogger("test"); 
 	private static String filename = "test";
-	private static boolean useLog = true;
+	private static volatile boolean useLog = true;
+	private static volatile boolean useTrace = false;
+
+	// Concurrent mode and the logger and flags it restores
+	private static boolean concurrent = false;
+	private static Logger savedLogger;
+	private static boolean savedLog;
+	private static boolean savedTrace;
 
 	/**
 	 *  Toggle logging (for larger tests)
@@ -27,22 +39,95 @@ public class TestLogger {
 	public static void setUseLog(boolean useLg) {
 		useLog = useLg;
 	}
+
+	public static boolean getUseLog() {
+		return useLog;
+	}
+
+	/**
+	 * Toggle the binary iteration traces of the heuristics
+	 * 
+	 * @param useTr - (T) trace each heuristic run
+	 */
+	public static void setUseTrace(boolean useTr) {
+		useTrace = useTr;
+	}
+
+	public static boolean getUseTrace() {
+		return useTrace;
+	}
+
+	/**
+	 * Toggle concurrent mode: turns logging and tracing off and keeps a
+	 * 	silent logger (setFile and setLogger are ignored) until toggled
+	 * 	off, which restores the logger and the logging and tracing flags
+	 * 
+	 * @param useConcurrent - (T) jobs are about to run at once
+	 */
+	public static synchronized void setConcurrent(boolean useConcurrent) {
+		if (useConcurrent == concurrent) {
+			return;
+		}
+		if (useConcurrent) {
+			savedLogger = logger;
+			savedLog = useLog;
+			savedTrace = useTrace;
+			useLog = false;
+			useTrace = false;
+			logger = Logger.getLogger("concurrent");
+			logger.setLevel(Level.OFF);
+		} else {
+			logger = savedLogger;
+			useLog = savedLog;
+			useTrace = savedTrace;
+		}
+		concurrent = useConcurrent;
+	}
+
+	public static synchronized boolean getConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * Open the trace of a heuristic run (null if not tracing)
+	 * 
+	 * @param test - heuristic being used
+	 */
+	public static TraceRecorder openTrace(String test) {
+		if (!useTrace) {
+			return null;
+		}
+		String traceFile = "logging/"+filename+"/"+test+".trace";
+		try {
+			return new TraceRecorder(traceFile);
+		} catch (IOException e) {
+			System.err.println("Unable to open trace " + traceFile + ": " + e.getMessage());
+			return null;
+		}
+	}
 	
 	/**
-	 * Update the file for logging
+	 * Update the file for logging (ignored in concurrent mode)
 	 * 
 	 * @param file - problem being tested
 	 */
-	public static void setFile(String file) {
+	public static synchronized void setFile(String file) {
+		if (concurrent) {
+			return;
+		}
 		filename = file;
 	}
 
 	/**
 	 * Get a unique logger for each test and update logging file
+	 * 	(ignored in concurrent mode)
 	 * 
 	 * @param test - heuristic being used
 	 */
-	public static void setLogger(String test) {
+	public static synchronized void setLogger(String test) {
+		if (concurrent) {
+			return;
+		}
 		logger = Logger.getLogger(filename+test);
 		// Set logger level
 		if (!useLog) {
@@ -0,0 +1,109 @@
+package Runner;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Offline decoder of TraceRecorder files
+ * - Writes one comma-delimited row per record:
+ * 	time(ns),iteration,type,valid,xSize,current,best,value
+ * - Usage: TraceDecoder <trace file> [csv file (default: stdout)]
+ *
+ * @author midkiffj
+ */
+public class TraceDecoder {
+
+	public static void main(String[] args) {
+		if (args.length < 1) {
+			System.err.println("Usage: TraceDecoder <trace file> [csv file]");
+			return;
+		}
+		try {
+			PrintWriter pw;
+			if (args.length > 1) {
+				pw = new PrintWriter(args[1]);
+			} else {
+				pw = new PrintWriter(System.out);
+			}
+			decode(args[0], pw);
+			pw.close();
+		} catch (IOException e) {
+			System.err.println("Error decoding trace " + args[0] + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Decode the trace file into comma-delimited rows
+	 *
+	 * @param filename - trace file
+	 * @param pw - writer for the rows
+	 * @return number of records decoded
+	 * @throws IOException
+	 */
+	public static long decode(String filename, PrintWriter pw) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(filename)));
+		try {
+			// Header
+			if (in.readInt() != TraceRecorder.MAGIC) {
+				throw new IOException("not a trace file");
+			}
+			int version = in.readInt();
+			if (version != TraceRecorder.VERSION) {
+				throw new IOException("unsupported trace version " + version);
+			}
+			int recordSize = in.readInt();
+			long startMillis = in.readLong();
+			pw.println("# start(ms): " + startMillis);
+			pw.println("time(ns),iteration,type,valid,xSize,current,best,value");
+
+			// Records (a torn last record is ignored)
+			long count = 0;
+			byte[] extra = new byte[Math.max(0, recordSize - TraceRecorder.RECORD_SIZE)];
+			while (true) {
+				long time;
+				try {
+					time = in.readLong();
+				} catch (EOFException e) {
+					break;
+				}
+				try {
+					long iteration = in.readLong();
+					short type = in.readShort();
+					short flags = in.readShort();
+					int xSize = in.readInt();
+					double current = in.readDouble();
+					double best = in.readDouble();
+					double value = in.readDouble();
+					in.readFully(extra);
+
+					String name;
+					if (type >= 0 && type < TraceRecorder.TYPES.length) {
+						name = TraceRecorder.TYPES[type];
+					} else {
+						name = "" + type;
+					}
+					if (type == TraceRecorder.END) {
+						pw.println(time + "," + iteration + "," + name + ",,,,,");
+						if (iteration > 0) {
+							System.err.println(filename + ": " + iteration + " records dropped while recording");
+						}
+					} else {
+						boolean valid = (flags & TraceRecorder.VALID) != 0;
+						pw.println(time + "," + iteration + "," + name + "," + valid + "," + xSize + "," + current + "," + best + "," + value);
+					}
+					count++;
+				} catch (EOFException e) {
+					System.err.println(filename + ": incomplete last record");
+					break;
+				}
+			}
+			return count;
+		} finally {
+			in.close();
+		}
+	}
+}
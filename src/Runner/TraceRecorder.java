@@ -0,0 +1,220 @@
+package Runner;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Binary trace of a heuristic run
+ * - Fixed size records of primitives (no strings) are written into
+ * 	a preallocated ring buffer by the search thread
+ * - A flusher thread writes the ring to the trace file in the background
+ * - If the flusher falls behind, records are dropped (counted in the
+ * 	END record) instead of blocking the search
+ * - One recording thread per recorder
+ * - Decode a trace with TraceDecoder
+ *
+ * File: header (magic, version, record size, start time (ms)), then records:
+ * 	time (ns since start), iteration, type, flags, xSize,
+ * 	current objective, best objective, value (type specific)
+ *
+ * @author midkiffj
+ */
+public class TraceRecorder {
+
+	public static final int MAGIC = 0x4B545243;
+	public static final int VERSION = 1;
+	public static final int HEADER_SIZE = 20;
+	public static final int RECORD_SIZE = 48;
+
+	// Record types (value: see the heuristic)
+	public static final short ITERATION = 0;
+	public static final short PROB = 1;
+	public static final short HEAL = 2;
+	public static final short BEST = 3;
+	public static final short DIVERSIFY = 4;
+	public static final short STUCK = 5;
+	public static final short TABU_START = 6;
+	public static final short TABU_END = 7;
+	public static final short END = 8;
+	public static final String[] TYPES = {"ITERATION", "PROB", "HEAL", "BEST", "DIVERSIFY",
+			"STUCK", "TABU_START", "TABU_END", "END"};
+
+	// Record flags
+	public static final short VALID = 1;
+
+	// Records per ring (power of 2)
+	private static int capacity = 1 << 16;
+	// Flush period of the flusher thread (ns)
+	private static final long FLUSH_PERIOD = 20000000L;
+
+	private String filename;
+	private FileChannel channel;
+	private ByteBuffer ring;
+	private int size;
+	private long start;
+	// Records recorded (tail) and written (head)
+	private long recorded = 0;
+	private AtomicLong tail = new AtomicLong();
+	private volatile long head = 0;
+	private long dropped = 0;
+	private volatile boolean closed = false;
+	private Thread flusher;
+
+	/**
+	 * Create the trace file and start its flusher thread
+	 *
+	 * @param filename - trace file
+	 * @throws IOException
+	 */
+	public TraceRecorder(String filename) throws IOException {
+		this.filename = filename;
+		File parent = new File(filename).getAbsoluteFile().getParentFile();
+		if (parent != null) {
+			parent.mkdirs();
+		}
+		channel = new FileOutputStream(filename).getChannel();
+		size = capacity;
+		ring = ByteBuffer.allocateDirect(size*RECORD_SIZE);
+		start = System.nanoTime();
+
+		// Header
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		header.putInt(MAGIC);
+		header.putInt(VERSION);
+		header.putInt(RECORD_SIZE);
+		header.putLong(System.currentTimeMillis());
+		header.flip();
+		write(header);
+
+		flusher = new Thread(new Runnable() {
+			public void run() {
+				while (!closed) {
+					flush();
+					LockSupport.parkNanos(FLUSH_PERIOD);
+				}
+			}
+		}, "trace-flusher");
+		flusher.setDaemon(true);
+		flusher.start();
+	}
+
+	/**
+	 * Set the ring size of new recorders
+	 *
+	 * @param records - records per ring (rounded up to a power of 2)
+	 */
+	public static void setCapacity(int records) {
+		int c = 1;
+		while (c < records) {
+			c <<= 1;
+		}
+		capacity = c;
+	}
+
+	/**
+	 * Record an event (never blocks; dropped if the ring is full)
+	 *
+	 * @param type - record type
+	 * @param iteration - iteration of the heuristic
+	 * @param current - current objective
+	 * @param best - best objective
+	 * @param value - type specific value (e.g. temperature, probability)
+	 * @param xSize - number of items in the current solution
+	 * @param valid - (T) if the current solution is valid
+	 */
+	public void record(short type, long iteration, double current, double best, double value, int xSize, boolean valid) {
+		long t = recorded;
+		long h = head;
+		if (t - h >= size) {
+			dropped++;
+			return;
+		}
+		int pos = (int)(t & (size-1)) * RECORD_SIZE;
+		ring.putLong(pos, System.nanoTime() - start);
+		ring.putLong(pos+8, iteration);
+		ring.putShort(pos+16, type);
+		ring.putShort(pos+18, valid ? VALID : 0);
+		ring.putInt(pos+20, xSize);
+		ring.putDouble(pos+24, current);
+		ring.putDouble(pos+32, best);
+		ring.putDouble(pos+40, value);
+		recorded = t+1;
+		tail.lazySet(t+1);
+
+		// Wake the flusher once the ring is half full
+		if (t - h == size/2) {
+			LockSupport.unpark(flusher);
+		}
+	}
+
+	/**
+	 * Return the records dropped so far (ring full)
+	 */
+	public long getDropped() {
+		return dropped;
+	}
+
+	/**
+	 * Flush the remaining records, add the END record
+	 * 	(iteration: records dropped) and close the file
+	 * - Call from the recording thread once the run is over
+	 */
+	public void close() {
+		closed = true;
+		LockSupport.unpark(flusher);
+		try {
+			flusher.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		flush();
+		ByteBuffer end = ByteBuffer.allocate(RECORD_SIZE);
+		end.putLong(System.nanoTime() - start);
+		end.putLong(dropped);
+		end.putShort(END);
+		end.position(RECORD_SIZE);
+		end.flip();
+		write(end);
+		try {
+			channel.close();
+		} catch (IOException e) {
+			System.err.println("Error closing trace " + filename + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Write the recorded records from the ring to the file
+	 */
+	private synchronized void flush() {
+		long h = head;
+		long t = tail.get();
+		while (h < t) {
+			int first = (int)(h & (size-1));
+			int count = (int)Math.min(t - h, size - first);
+			ByteBuffer chunk = ring.duplicate();
+			chunk.limit((first+count)*RECORD_SIZE);
+			chunk.position(first*RECORD_SIZE);
+			write(chunk);
+			h += count;
+			head = h;
+		}
+	}
+
+	/**
+	 * Write the buffer to the file
+	 */
+	private void write(ByteBuffer buf) {
+		try {
+			while (buf.hasRemaining()) {
+				channel.write(buf);
+			}
+		} catch (IOException e) {
+			System.err.println("Error writing trace " + filename + ": " + e.getMessage());
+		}
+	}
+}
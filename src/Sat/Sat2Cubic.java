@@ -9,7 +9,8 @@ import java.util.logging.ConsoleHandler;
 import java.util.logging.Handler;
 
 import ExactMethods.Unconstrained_Forrester;
-import Heuristics.tabuSearch;
+import Heuristics.flipSearch;
+import Problems.SolveContext;
 import Problems.Unconstrained;
 import Runner.TestLogger;
 import Runner.TestLogger.sf;
@@ -36,7 +37,7 @@ public class Sat2Cubic {
 	/**
 	 * Read in a DIMAC cnf format 3-SAT problem, 
 	 * 	translate it into an Unconstrained Cubic,
-	 * 	run it with an exact method, and test it with tabu search.
+	 * 	run it with an exact method, and test it with one-flip tabu search.
 	 * 
 	 * @param args - unused
 	 */
@@ -104,8 +105,8 @@ public class Sat2Cubic {
 	        ch.setFormatter(formatter);
 			
 	        // Run desired heuristic
-			UnconstrainedSol us = new UnconstrainedSol();
-			tabuSearch h = new tabuSearch(us, -1, -1);
+			UnconstrainedSol us = new UnconstrainedSol(new SolveContext(unc));
+			flipSearch h = new flipSearch(us, -1, -1);
 			h.run();
 
 			scr.close();
@@ -0,0 +1,285 @@
+package Solutions;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import Problems.CubicCoefs;
+import Problems.SparseCoefs;
+
+/**
+ * Incremental objective changes of a cubic solution
+ * - gain[i] : change in objective if i is added (i not in x) or lost if i is removed (i in x)
+ * - w[i][j] : cij + sum(dijk) over k in x (i,j,k distinct)
+ * - Built on swap evaluation once n swaps were evaluated directly
+ * 	(the O(|x|*n^2) build then costs no more than the direct evaluations did)
+ * - Copies share w until one of them changes it (copy on write)
+ * - Dropped before bulk edits (crossover, genetic mutation),
+ * 	which then change the objective directly in O(|x|^2) per item
+ * 	(O(nonzeros of the item) with sparse coefficients)
+ *
+ * @author midkiffj
+ */
+public class CubicGains {
+
+	private CubicCoefs c;
+	private int n;
+	private int[] gain;
+	private int[][] w;
+	// Holders of w (cloned before a shared w is changed)
+	private AtomicInteger wHolders;
+	// Swaps evaluated without the gains
+	private int directSwaps;
+
+	/**
+	 * Create gains (not built) for the problem coefficients
+	 *
+	 * @param c - problem coefficients
+	 */
+	public CubicGains(CubicCoefs c) {
+		this.c = c;
+		n = c.getN();
+	}
+
+	/**
+	 * Copy the gains, sharing w until either copy changes it
+	 *
+	 * @param cg - gains to copy
+	 */
+	public CubicGains(CubicGains cg) {
+		c = cg.c;
+		n = cg.n;
+		directSwaps = cg.directSwaps;
+		if (cg.gain != null) {
+			gain = cg.gain.clone();
+			w = cg.w;
+			wHolders = cg.wHolders;
+			wHolders.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Discard the gains (e.g. before a bulk edit of the solution)
+	 */
+	public void clear() {
+		if (gain != null) {
+			wHolders.decrementAndGet();
+		}
+		gain = null;
+		w = null;
+		wHolders = null;
+		directSwaps = 0;
+	}
+
+	/**
+	 * Return the change in objective if item i is removed from
+	 * 	and item j is added to the solution
+	 *
+	 * @param ps - solution
+	 * @param i - item to remove
+	 * @param j - item to add
+	 */
+	public double swapChange(ProblemSol ps, int i, int j) {
+		if (gain == null) {
+			if (directSwaps < n) {
+				directSwaps++;
+				return directSwapChange(ps, i, j);
+			}
+			build(ps);
+		}
+		return gain[j] - gain[i] - w[i][j];
+	}
+
+	/**
+	 * Return the change in objective if item i is added to the solution
+	 *
+	 * @param ps - solution
+	 * @param i - item to add
+	 */
+	public double addChange(ProblemSol ps, int i) {
+		if (gain == null) {
+			return directChange(ps, i);
+		}
+		return gain[i];
+	}
+
+	/**
+	 * Return the change in objective if item i is removed from the solution
+	 *
+	 * @param ps - solution
+	 * @param i - item to remove
+	 */
+	public double subChange(ProblemSol ps, int i) {
+		if (gain == null) {
+			return -directChange(ps, i);
+		}
+		return -gain[i];
+	}
+
+	/**
+	 * Update the gains (if built) when item k enters (sign = 1)
+	 * 	or leaves (sign = -1) the solution.
+	 * 	Note: w[k][l] does not depend on k being in the solution.
+	 *
+	 * @param k - item added or removed
+	 * @param sign - 1 if added, -1 if removed
+	 */
+	public void update(int k, int sign) {
+		if (gain == null) {
+			return;
+		}
+		for (int l = 0; l < n; l++) {
+			if (l != k) {
+				gain[l] += sign*w[k][l];
+			}
+		}
+		// Sparse: only the non-zero dijk containing k
+		SparseCoefs sp = c.getSparse();
+		if (sp != null) {
+			if (sp.getCubicSize(k) > 0) {
+				own();
+			}
+			for (int t = 0; t < sp.getCubicSize(k); t++) {
+				int i = sp.getCubicFirst(k,t);
+				int j = sp.getCubicSecond(k,t);
+				w[i][j] += sign*sp.getCubicValue(k,t);
+				w[j][i] = w[i][j];
+			}
+			return;
+		}
+		// Pairs (i,j) around k use the sorted coefficient accessor
+		own();
+		for (int i = 0; i < k; i++) {
+			int[] wi = w[i];
+			for (int j = i+1; j < k; j++) {
+				wi[j] += sign*c.getDijkSorted(i,j,k);
+				w[j][i] = wi[j];
+			}
+			for (int j = k+1; j < n; j++) {
+				wi[j] += sign*c.getDijkSorted(i,k,j);
+				w[j][i] = wi[j];
+			}
+		}
+		for (int i = k+1; i < n; i++) {
+			int[] wi = w[i];
+			for (int j = i+1; j < n; j++) {
+				wi[j] += sign*c.getDijkSorted(k,i,j);
+				w[j][i] = wi[j];
+			}
+		}
+	}
+
+	/**
+	 * Build the gain vector and interaction matrix for the solution
+	 * - Starts from the empty solution and adds each item in x
+	 */
+	private void build(ProblemSol ps) {
+		gain = new int[n];
+		w = new int[n][n];
+		wHolders = new AtomicInteger(1);
+		SparseCoefs sp = c.getSparse();
+		for (int i = 0; i < n; i++) {
+			gain[i] = c.getCi(i);
+			if (sp != null) {
+				for (int t = 0; t < sp.getQuadSize(i); t++) {
+					w[i][sp.getQuadPartner(i,t)] = sp.getQuadValue(i,t);
+				}
+			} else {
+				for (int j = i+1; j < n; j++) {
+					w[i][j] = c.getCij(i,j);
+					w[j][i] = w[i][j];
+				}
+			}
+		}
+		for (int k = 0; k < ps.getXSize(); k++) {
+			update(ps.getXItem(k), 1);
+		}
+	}
+
+	/**
+	 * Clone w if it is shared with a copy
+	 */
+	private void own() {
+		if (wHolders.get() > 1) {
+			int[][] shared = w;
+			w = new int[n][];
+			for (int i = 0; i < n; i++) {
+				w[i] = shared[i].clone();
+			}
+			wHolders.decrementAndGet();
+			wHolders = new AtomicInteger(1);
+		}
+	}
+
+	/**
+	 * Return the objective contribution of item i with the other items in x
+	 * 	(O(|x|^2) from the coefficients, O(nonzeros of i) from sparse lists)
+	 */
+	private double directChange(ProblemSol ps, int i) {
+		SparseCoefs sp = c.getSparse();
+		if (sp != null) {
+			return sparseChange(sp, ps, i, -1);
+		}
+		double change = c.getCi(i);
+		int size = ps.getXSize();
+		for (int k = 0; k < size; k++) {
+			int xk = ps.getXItem(k);
+			if (xk != i) {
+				change += c.getCij(i,xk);
+				for (int l = k+1; l < size; l++) {
+					int xl = ps.getXItem(l);
+					if (xl != i) {
+						change += c.getDijk(i,xk,xl);
+					}
+				}
+			}
+		}
+		return change;
+	}
+
+	/**
+	 * Return the swap change from the coefficients
+	 * 	(contributions of i and j with x - {i}, O(|x|^2))
+	 */
+	private double directSwapChange(ProblemSol ps, int i, int j) {
+		SparseCoefs sp = c.getSparse();
+		if (sp != null) {
+			return sparseChange(sp, ps, j, i) - sparseChange(sp, ps, i, -1);
+		}
+		double change = c.getCi(j) - c.getCi(i);
+		int size = ps.getXSize();
+		for (int k = 0; k < size; k++) {
+			int xk = ps.getXItem(k);
+			if (xk != i) {
+				change += c.getCij(j,xk) - c.getCij(i,xk);
+				for (int l = k+1; l < size; l++) {
+					int xl = ps.getXItem(l);
+					if (xl != i) {
+						change += c.getDijk(j,xk,xl) - c.getDijk(i,xk,xl);
+					}
+				}
+			}
+		}
+		return change;
+	}
+
+	/**
+	 * Return the objective contribution of item i with the items in x - {skip}
+	 * 	from the sparse lists of i
+	 */
+	private double sparseChange(SparseCoefs sp, ProblemSol ps, int i, int skip) {
+		double change = c.getCi(i);
+		for (int t = 0; t < sp.getQuadSize(i); t++) {
+			int k = sp.getQuadPartner(i,t);
+			if (k != skip && ps.getXVals(k)) {
+				change += sp.getQuadValue(i,t);
+			}
+		}
+		for (int t = 0; t < sp.getCubicSize(i); t++) {
+			int k = sp.getCubicFirst(i,t);
+			int l = sp.getCubicSecond(i,t);
+			if (k != skip && l != skip && ps.getXVals(k) && ps.getXVals(l)) {
+				change += sp.getCubicValue(i,t);
+			}
+		}
+		return change;
+	}
+}
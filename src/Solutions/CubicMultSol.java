@@ -8,6 +8,7 @@ import java.util.Collections;
 import java.util.Scanner;
 
 import Problems.CubicMult;
+import Problems.SolveContext;
 
 /**
  * Solution class for a Cubic Multiple Knapsack Problem
@@ -18,25 +19,33 @@ import Problems.CubicMult;
  */
 public class CubicMultSol extends MultKnapsackSol {
 
-	private static CubicMult cm;
+	private CubicMult cm;
+
+	// Incremental swap evaluation
+	private CubicGains gains;
 
 	/**
 	 * Construct a solution by relying on the super class
+	 * 
+	 * @param ctx - solve context of the solution
 	 */
-	public CubicMultSol() {
-		super();
+	public CubicMultSol(SolveContext ctx) {
+		super(ctx);
 		cm = (CubicMult)p;
+		gains = new CubicGains(cm);
 		updateValid();
 	}
 
 	/**
 	 * Construct a solution from the given file
 	 * 
+	 * @param ctx - solve context of the solution
 	 * @param filename to read
 	 */
-	public CubicMultSol(String filename) {
-		super(filename);
+	public CubicMultSol(SolveContext ctx, String filename) {
+		super(ctx, filename);
 		cm = (CubicMult)p;
+		gains = new CubicGains(cm);
 		updateValid();
 	}
 
@@ -48,43 +57,50 @@ public class CubicMultSol extends MultKnapsackSol {
 	public CubicMultSol(CubicMultSol cms) {
 		super((MultKnapsackSol)cms);
 		cm = (CubicMult)p;
+		gains = new CubicGains(cms.gains);
 		updateValid();
 	}
 
 	/**
 	 * Construct a solution with the given xVals
 	 * 
+	 * @param ctx - solve context of the solution
 	 * @param xVals (T) if item i is in the solutions
 	 */
-	public CubicMultSol(boolean[] xVals) {
-		super(xVals);
+	public CubicMultSol(SolveContext ctx, boolean[] xVals) {
+		super(ctx, xVals);
 		cm = (CubicMult)p;
+		gains = new CubicGains(cm);
 		updateValid();
 	}
 
 	/**
 	 * Construct a solution with the given solution lists
 	 * 
+	 * @param ctx - solve context of the solution
 	 * @param x - list of items in solution
 	 * @param r - list of items not in solution
 	 */
-	public CubicMultSol(ArrayList<Integer> x, ArrayList<Integer> r) {
-		super(x,r);
+	public CubicMultSol(SolveContext ctx, ArrayList<Integer> x, ArrayList<Integer> r) {
+		super(ctx, x,r);
 		cm = (CubicMult)p;
+		gains = new CubicGains(cm);
 		updateValid();
 	}
 
 	/**
 	 * Construct a solution with the given solution lists, objective, and knapsack weight
 	 * 
+	 * @param ctx - solve context of the solution
 	 * @param x - list of items in solution
 	 * @param r - list of items not in solution
 	 * @param obj - objective of the solution
 	 * @param totalA - weights of the solution
 	 */
-	public CubicMultSol(ArrayList<Integer> x, ArrayList<Integer> r, double obj, int[] totalA) {
-		super(x,r,obj,totalA);
+	public CubicMultSol(SolveContext ctx, ArrayList<Integer> x, ArrayList<Integer> r, double obj, int[] totalA) {
+		super(ctx, x,r,obj,totalA);
 		cm = (CubicMult)p;
+		gains = new CubicGains(cm);
 		updateValid();
 	}
 
@@ -92,7 +108,6 @@ public class CubicMultSol extends MultKnapsackSol {
 	 * Update the validity of the solution
 	 */
 	public void updateValid() {
-		calcTotalA();
 		int[] totalA = getTotalA();
 		boolean valid = true;
 		for (int i = 0; i < m && valid; i++) {
@@ -113,7 +128,7 @@ public class CubicMultSol extends MultKnapsackSol {
 	 * @param j - item to add
 	 */
 	public void swap(int i, int j) {
-		setObj(swapObj(i,j, getX(), getObj()));
+		setObj(swapObj(i,j));
 		addA(j);
 		removeA(i);
 		addI(j);
@@ -129,37 +144,45 @@ public class CubicMultSol extends MultKnapsackSol {
 	 * @return calculated objective
 	 */
 	public double swapObj(int i, int j) {
-		return swapObj(i,j,getX(),getObj());
+		return getObj() + gains.swapChange(this, i, j);
 	}
 
 	/**
-	 * Calculate the objective if item i is remove from the solution
-	 * 	and item j is added to the solution.
+	 * Swaps are evaluated from the maintained gains in (amortized) constant time
+	 */
+	@Override
+	public boolean constantSwapObj() {
+		return true;
+	}
+
+	/**
+	 * Discard the gains before a bulk edit (rebuilt for swap evaluation)
+	 */
+	@Override
+	public void dropGains() {
+		gains.clear();
+	}
+
+	/**
+	 * Add variable i to the solution lists and update the gains (if built)
 	 * 
-	 * @param i - item to remove
-	 * @param j - item to add
-	 * @param curX - current solution list
-	 * @param oldObj - current objective
-	 * @return calculated objective
+	 * @param i - the item to add
 	 */
-	private double swapObj(int i, int j, ArrayList<Integer> curX, double oldObj) {
-		oldObj = oldObj - cm.getCi(i);
-		oldObj = oldObj + cm.getCi(j);
-		for (int k = 0; k < curX.size(); k++) {
-			int xk = curX.get(k);
-			if (xk != i) {
-				oldObj = oldObj - cm.getCij(i,xk);
-				oldObj = oldObj + cm.getCij(j,xk);
-				for (int l = k+1; l < curX.size(); l++) {
-					int xl = curX.get(l);
-					if (xl != i) {
-						oldObj = oldObj - cm.getDijk(i,xk,xl);
-						oldObj = oldObj + cm.getDijk(j,xk,xl);
-					}
-				}
-			}
-		}
-		return oldObj;
+	@Override
+	public void addI(int i) {
+		super.addI(i);
+		gains.update(i, 1);
+	}
+
+	/**
+	 * Remove variable i from the solution lists and update the gains (if built)
+	 * 
+	 * @param i - the item to remove
+	 */
+	@Override
+	public void removeI(int i) {
+		super.removeI(i);
+		gains.update(i, -1);
 	}
 
 	/**
@@ -168,7 +191,7 @@ public class CubicMultSol extends MultKnapsackSol {
 	 * @return the item added or -1 if none added
 	 */
 	public int tryAdd() {
-		int index = tryAdd(getTotalA(), getX(), getR(), false);
+		int index = tryAdd(getTotalA(), false);
 		if (index != -1) {
 			addX(index);
 		}
@@ -181,7 +204,7 @@ public class CubicMultSol extends MultKnapsackSol {
 	 * @return the item removed or -1 if none added
 	 */
 	public int trySub() {
-		int index = trySub(getX(), false);
+		int index = trySub(false);
 		if (index != -1) {
 			removeX(index);
 		}
@@ -193,18 +216,17 @@ public class CubicMultSol extends MultKnapsackSol {
 	 * - Add the maxRatio item
 	 * 
 	 * @param totalA - current knapsack weight
-	 * @param x - solution list
-	 * @param r - list of items not in the solution
 	 * @param improveOnly - only remove an item if it improves the objective
 	 * @return the item to add or -1 if none to add
 	 */
-	private int tryAdd(int[] totalA, ArrayList<Integer> x, ArrayList<Integer> r, boolean improveOnly) {
-		if (x.size() == n) {
+	private int tryAdd(int[] totalA, boolean improveOnly) {
+		if (getXSize() == n) {
 			return -1;
 		}
 		double maxRatio = -1*Double.MAX_VALUE;
 		int maxI = -1;
-		for (Integer i: r) {
+		for (int k = 0; k < getRSize(); k++) {
+			int i = getRItem(k);
 			if (addTotalA(totalA,i)) {
 				double ratio = cm.getRatio(i);
 				if (ratio > maxRatio) {
@@ -233,12 +255,11 @@ public class CubicMultSol extends MultKnapsackSol {
 	 * Try to remove an item from the given solution
 	 * - Remove the minRatio item
 	 * 
-	 * @param x - solution list
 	 * @param improveOnly - only remove an item if it improves the objective
 	 * @return the item to remove or -1 if none to remove
 	 */
-	private int trySub(ArrayList<Integer> x, boolean improveOnly) {
-		if (x.size() <= 1) {
+	private int trySub(boolean improveOnly) {
+		if (getXSize() <= 1) {
 			return -1;
 		}
 		int minI = minRatio(0);
@@ -264,9 +285,9 @@ public class CubicMultSol extends MultKnapsackSol {
 	 * @param i - item to add
 	 */
 	public void addX(int i) {
+		setObj(addObj(i));
 		addI(i);
 		addA(i);
-		setObj(addObj(i));
 	}
 	
 	/**
@@ -275,9 +296,9 @@ public class CubicMultSol extends MultKnapsackSol {
 	 * @param i - item to remove
 	 */
 	public void removeX(int i) {
+		setObj(subObj(i));
 		removeI(i);
 		removeA(i);
-		setObj(subObj(i));
 	}
 
 	/**
@@ -287,21 +308,7 @@ public class CubicMultSol extends MultKnapsackSol {
 	 * @return calculated objective
 	 */
 	private double subObj(int i) {
-		ArrayList<Integer> curX = getX();
-		double oldObj = getObj() - cm.getCi(i);
-		for (int k = 0; k < curX.size(); k++) {
-			int xk = curX.get(k);
-			if (xk != i) {
-				oldObj = oldObj - cm.getCij(i,xk);
-				for (int l = k+1; l < curX.size(); l++) {
-					int xl = curX.get(l);
-					if (xl != i) {
-						oldObj = oldObj - cm.getDijk(i,xk,xl);
-					}
-				}
-			}
-		}
-		return oldObj;
+		return getObj() + gains.subChange(this, i);
 	}
 
 	/**
@@ -311,21 +318,7 @@ public class CubicMultSol extends MultKnapsackSol {
 	 * @return calculated objective
 	 */
 	private double addObj(int i) {
-		ArrayList<Integer> curX = getX();
-		double oldObj = getObj() + cm.getCi(i);
-		for (int k = 0; k < curX.size(); k++) {
-			int xk = curX.get(k);
-			if (xk != i) {
-				oldObj = oldObj + cm.getCij(i,xk);
-				for (int l = k+1; l < curX.size(); l++) {
-					int xl = curX.get(l);
-					if (xl != i) {
-						oldObj = oldObj + cm.getDijk(i,xk,xl);
-					}
-				}
-			}
-		}
-		return oldObj;
+		return getObj() + gains.addChange(this, i);
 	}
 
 	@Override
@@ -345,7 +338,8 @@ public class CubicMultSol extends MultKnapsackSol {
 		while(!this.getValid()) {
 			double maxObj = -1*Double.MAX_VALUE;
 			int maxI = -1;
-			for (Integer i: this.getX()) {
+			for (int k = 0; k < getXSize(); k++) {
+				int i = getXItem(k);
 				double newObj = subObj(i);
 				if (newObj > maxObj) {
 					maxObj = newObj;
@@ -385,8 +379,9 @@ public class CubicMultSol extends MultKnapsackSol {
 				pw.write(totalA[i] + " ");
 			}
 			pw.write("\n");
-			Collections.sort(getX());
-			for (Integer i: getX()) {
+			ArrayList<Integer> sortedX = new ArrayList<Integer>(getX());
+			Collections.sort(sortedX);
+			for (Integer i: sortedX) {
 				pw.write(i + " ");
 			}
 			pw.close();
@@ -425,6 +420,10 @@ public class CubicMultSol extends MultKnapsackSol {
 				setTotalA(readTotalA);
 				setX(readX);
 				setR(readR);
+				// Read by the super constructor before the gains exist
+				if (gains != null) {
+					gains.clear();
+				}
 			}
 		} catch (FileNotFoundException e) {
 			System.err.println("Error finding file: " + filename);
@@ -8,6 +8,7 @@ import java.util.Collections;
 import java.util.Scanner;
 
 import Problems.Cubic;
+import Problems.SolveContext;
 
 /**
  * Solution class for a Cubic Problem
@@ -18,25 +19,33 @@ import Problems.Cubic;
  */
 public class CubicSol extends KnapsackSol {
 
-	private static Cubic c;
+	private Cubic c;
+
+	// Incremental swap evaluation
+	private CubicGains gains;
 
 	/**
 	 * Construct a solution by relying on the super class
+	 * 
+	 * @param ctx - solve context of the solution
 	 */
-	public CubicSol() {
-		super();
+	public CubicSol(SolveContext ctx) {
+		super(ctx);
 		c = (Cubic)p;
+		gains = new CubicGains(c);
 		updateValid();
 	}
 
 	/**
 	 * Construct a solution from the given file
 	 * 
+	 * @param ctx - solve context of the solution
 	 * @param filename to read
 	 */
-	public CubicSol(String filename) {
-		super(filename);
+	public CubicSol(SolveContext ctx, String filename) {
+		super(ctx, filename);
 		c = (Cubic)p;
+		gains = new CubicGains(c);
 		updateValid();
 	}
 
@@ -48,43 +57,50 @@ public class CubicSol extends KnapsackSol {
 	public CubicSol(CubicSol cs) {
 		super((KnapsackSol)cs);
 		c = (Cubic)p;
+		gains = new CubicGains(cs.gains);
 		updateValid();
 	}
 
 	/**
 	 * Construct a solution with the given xVals
 	 * 
+	 * @param ctx - solve context of the solution
 	 * @param xVals (T) if item i is in the solutions
 	 */
-	public CubicSol(boolean[] xVals) {
-		super(xVals);
+	public CubicSol(SolveContext ctx, boolean[] xVals) {
+		super(ctx, xVals);
 		c = (Cubic)p;
+		gains = new CubicGains(c);
 		updateValid();
 	}
 
 	/**
 	 * Construct a solution with the given solution lists
 	 * 
+	 * @param ctx - solve context of the solution
 	 * @param x - list of items in solution
 	 * @param r - list of items not in solution
 	 */
-	public CubicSol(ArrayList<Integer> x, ArrayList<Integer> r) {
-		super(x,r);
+	public CubicSol(SolveContext ctx, ArrayList<Integer> x, ArrayList<Integer> r) {
+		super(ctx, x,r);
 		c = (Cubic)p;
+		gains = new CubicGains(c);
 		updateValid();
 	}
 
 	/**
 	 * Construct a solution with the given solution lists, objective, and knapsack weight
 	 * 
+	 * @param ctx - solve context of the solution
 	 * @param x - list of items in solution
 	 * @param r - list of items not in solution
 	 * @param obj - objective of the solution
 	 * @param totalA - weight of the solution
 	 */
-	public CubicSol(ArrayList<Integer> x, ArrayList<Integer> r, double obj, int totalA) {
-		super(x,r,obj,totalA);
+	public CubicSol(SolveContext ctx, ArrayList<Integer> x, ArrayList<Integer> r, double obj, int totalA) {
+		super(ctx, x,r,obj,totalA);
 		c = (Cubic)p;
+		gains = new CubicGains(c);
 		updateValid();
 	}
 
@@ -92,7 +108,6 @@ public class CubicSol extends KnapsackSol {
 	 * Update the validity of the solution
 	 */
 	public void updateValid() {
-		calcTotalA();
 		if (getTotalA() <= c.getB()) {
 			setValid(true);
 		} else {
@@ -126,37 +141,45 @@ public class CubicSol extends KnapsackSol {
 	 * @return calculated objective
 	 */
 	public double swapObj(int i, int j) {
-		return swapObj(i,j,getX(),getObj());
+		return getObj() + gains.swapChange(this, i, j);
 	}
 
 	/**
-	 * Calculate the objective if item i is remove from the solution
-	 * 	and item j is added to the solution.
+	 * Swaps are evaluated from the maintained gains in (amortized) constant time
+	 */
+	@Override
+	public boolean constantSwapObj() {
+		return true;
+	}
+
+	/**
+	 * Discard the gains before a bulk edit (rebuilt for swap evaluation)
+	 */
+	@Override
+	public void dropGains() {
+		gains.clear();
+	}
+
+	/**
+	 * Add variable i to the solution lists and update the gains (if built)
 	 * 
-	 * @param i - item to remove
-	 * @param j - item to add
-	 * @param curX - current solution list
-	 * @param oldObj - current objective
-	 * @return calculated objective
+	 * @param i - the item to add
 	 */
-	private double swapObj(int i, int j, ArrayList<Integer> curX, double oldObj) {
-		oldObj = oldObj - c.getCi(i);
-		oldObj = oldObj + c.getCi(j);
-		for (int k = 0; k < curX.size(); k++) {
-			int xk = curX.get(k);
-			if (xk != i) {
-				oldObj = oldObj - c.getCij(i,xk);
-				oldObj = oldObj + c.getCij(j,xk);
-				for (int l = k+1; l < curX.size(); l++) {
-					int xl = curX.get(l);
-					if (xl != i) {
-						oldObj = oldObj - c.getDijk(i,xk,xl);
-						oldObj = oldObj + c.getDijk(j,xk,xl);
-					}
-				}
-			}
-		}
-		return oldObj;
+	@Override
+	public void addI(int i) {
+		super.addI(i);
+		gains.update(i, 1);
+	}
+
+	/**
+	 * Remove variable i from the solution lists and update the gains (if built)
+	 * 
+	 * @param i - the item to remove
+	 */
+	@Override
+	public void removeI(int i) {
+		super.removeI(i);
+		gains.update(i, -1);
 	}
 
 	/**
@@ -165,7 +188,7 @@ public class CubicSol extends KnapsackSol {
 	 * @return the item added or -1 if none added
 	 */
 	public int tryAdd() {
-		int index = tryAdd(getTotalA(), getX(), getR(), false);
+		int index = tryAdd(getTotalA(), false);
 		if (index != -1) {
 			addX(index);
 		}
@@ -178,7 +201,7 @@ public class CubicSol extends KnapsackSol {
 	 * @return the item removed or -1 if none added
 	 */
 	public int trySub() {
-		int index = trySub(getX(), false);
+		int index = trySub(false);
 		if (index != -1) {
 			removeX(index);
 		}
@@ -190,18 +213,17 @@ public class CubicSol extends KnapsackSol {
 	 * - Add the maxRatio item
 	 * 
 	 * @param totalA - current knapsack weight
-	 * @param x - solution list
-	 * @param r - list of items not in the solution
 	 * @param improveOnly - only remove an item if it improves the objective
 	 * @return the item to add or -1 if none to add
 	 */
-	private int tryAdd(int totalA, ArrayList<Integer> x, ArrayList<Integer> r, boolean improveOnly) {
-		if (x.size() == n) {
+	private int tryAdd(int totalA, boolean improveOnly) {
+		if (getXSize() == n) {
 			return -1;
 		}
 		double maxRatio = -1*Double.MAX_VALUE;
 		int maxI = -1;
-		for (Integer i: r) {
+		for (int k = 0; k < getRSize(); k++) {
+			int i = getRItem(k);
 			if (totalA + c.getA(i) <= getB()) {
 				double ratio = c.getRatio(i);
 				if (ratio > maxRatio) {
@@ -230,12 +252,11 @@ public class CubicSol extends KnapsackSol {
 	 * Try to remove an item from the given solution
 	 * - Remove the minRatio item
 	 * 
-	 * @param x - solution list
 	 * @param improveOnly - only remove an item if it improves the objective
 	 * @return the item to remove or -1 if none to remove
 	 */
-	private int trySub(ArrayList<Integer> x, boolean improveOnly) {
-		if (x.size() <= 1) {
+	private int trySub(boolean improveOnly) {
+		if (getXSize() <= 1) {
 			return -1;
 		}
 		int minI = minRatio(0);
@@ -261,9 +282,9 @@ public class CubicSol extends KnapsackSol {
 	 * @param i - the item to add
 	 */
 	public void addX(int i) {
+		setObj(addObj(i));
 		addI(i);
 		addA(i);
-		setObj(addObj(i));
 	}
 	
 	/**
@@ -272,9 +293,9 @@ public class CubicSol extends KnapsackSol {
 	 * @param i - the item to remove
 	 */
 	public void removeX(int i) {
+		setObj(subObj(i));
 		removeI(i);
 		removeA(i);
-		setObj(subObj(i));
 	}
 
 	/**
@@ -284,21 +305,7 @@ public class CubicSol extends KnapsackSol {
 	 * @return calculated objective
 	 */
 	private double subObj(int i) {
-		double oldObj = getObj() - c.getCi(i);
-		ArrayList<Integer> curX = getX();
-		for (int k = 0; k < curX.size(); k++) {
-			int xk = curX.get(k);
-			if (xk != i) {
-				oldObj = oldObj - c.getCij(i,xk);
-				for (int l = k+1; l < curX.size(); l++) {
-					int xl = curX.get(l);
-					if (xl != i) {
-						oldObj = oldObj - c.getDijk(i,xk,xl);
-					}
-				}
-			}
-		}
-		return oldObj;
+		return getObj() + gains.subChange(this, i);
 	}
 
 	/**
@@ -308,21 +315,7 @@ public class CubicSol extends KnapsackSol {
 	 * @return calculated objective
 	 */
 	private double addObj(int i) {
-		double oldObj = getObj() + c.getCi(i);
-		ArrayList<Integer> curX = getX();
-		for (int k = 0; k < curX.size(); k++) {
-			int xk = curX.get(k);
-			if (xk != i) {
-				oldObj = oldObj + c.getCij(i,xk);
-				for (int l = k+1; l < curX.size(); l++) {
-					int xl = curX.get(l);
-					if (xl != i) {
-						oldObj = oldObj + c.getDijk(i,xk,xl);
-					}
-				}
-			}
-		}
-		return oldObj;
+		return getObj() + gains.addChange(this, i);
 	}
 
 	@Override
@@ -342,7 +335,8 @@ public class CubicSol extends KnapsackSol {
 		while(!this.getValid()) {
 			double maxObj = -1*Double.MAX_VALUE;
 			int maxI = -1;
-			for (Integer i: this.getX()) {
+			for (int k = 0; k < getXSize(); k++) {
+				int i = getXItem(k);
 				double newObj = subObj(i);
 				if (newObj > maxObj) {
 					maxObj = newObj;
@@ -364,9 +358,7 @@ public class CubicSol extends KnapsackSol {
 	private void healSolRatio() {
 		while(!this.getValid()) {
 			int j = minRatio(0);
-			removeI(j);
-			setObj(subObj(j));
-			removeA(j);
+			removeX(j);
 		}
 	}
 
@@ -380,8 +372,9 @@ public class CubicSol extends KnapsackSol {
 			PrintWriter pw = new PrintWriter(filename);
 			pw.write(getObj() + "\n");
 			pw.write(getTotalA() + "\n");
-			Collections.sort(getX());
-			for (Integer i: getX()) {
+			ArrayList<Integer> sortedX = new ArrayList<Integer>(getX());
+			Collections.sort(sortedX);
+			for (Integer i: sortedX) {
 				pw.write(i + " ");
 			}
 			pw.close();
@@ -417,6 +410,10 @@ public class CubicSol extends KnapsackSol {
 				setTotalA(readTotalA);
 				setX(readX);
 				setR(readR);
+				// Read by the super constructor before the gains exist
+				if (gains != null) {
+					gains.clear();
+				}
 			}
 		} catch (FileNotFoundException e) {
 			System.err.println("Error finding file: " + filename);
@@ -8,6 +8,7 @@ import java.util.Collections;
 import java.util.Scanner;
 
 import Problems.Fractional;
+import Problems.SolveContext;
 
 /**
  * Solution class for a Fractional Problem
@@ -18,16 +19,18 @@ import Problems.Fractional;
  */
 public class FractionalSol extends KnapsackSol {
 
-	private static Fractional f;
+	private Fractional f;
 
 	private long[] num;
 	private long[] den;
 
 	/**
 	 * Construct a solution by relying on the super class
+	 * 
+	 * @param ctx - solve context of the solution
 	 */
-	public FractionalSol() {
-		super();
+	public FractionalSol(SolveContext ctx) {
+		super(ctx);
 		f = (Fractional)p;
 		setNum(f.getNum());
 		setDen(f.getDen());
@@ -37,10 +40,11 @@ public class FractionalSol extends KnapsackSol {
 	/**
 	 * Construct a solution from the given file
 	 * 
+	 * @param ctx - solve context of the solution
 	 * @param filename to read
 	 */
-	public FractionalSol(String filename) {
-		super(filename);
+	public FractionalSol(SolveContext ctx, String filename) {
+		super(ctx, filename);
 		f = (Fractional)p;
 		updateValid();
 	}
@@ -61,6 +65,7 @@ public class FractionalSol extends KnapsackSol {
 	/**
 	 * Construct a solution with the given solution lists, objective, and knapsack weight
 	 * 
+	 * @param ctx - solve context of the solution
 	 * @param x - list of items in solution
 	 * @param r - list of items not in solution
 	 * @param obj - objective of the solution
@@ -68,8 +73,8 @@ public class FractionalSol extends KnapsackSol {
 	 * @param num - numerator values
 	 * @param den - denominator values
 	 */
-	public FractionalSol(ArrayList<Integer> x, ArrayList<Integer> r, double obj, int totalA, long[] num, long[] den) {
-		super(x,r,obj,totalA);
+	public FractionalSol(SolveContext ctx, ArrayList<Integer> x, ArrayList<Integer> r, double obj, int totalA, long[] num, long[] den) {
+		super(ctx, x,r,obj,totalA);
 		f = (Fractional)p;
 		setNum(num);
 		setDen(num);
@@ -79,10 +84,11 @@ public class FractionalSol extends KnapsackSol {
 	/**
 	 * Construct a solution with the given xVals
 	 * 
+	 * @param ctx - solve context of the solution
 	 * @param xVals (T) if item i is in the solutions
 	 */
-	public FractionalSol(boolean[] newXVals) {
-		super(newXVals);
+	public FractionalSol(SolveContext ctx, boolean[] newXVals) {
+		super(ctx, newXVals);
 		f = (Fractional)p;
 		setNum(f.getNum());
 		setDen(f.getDen());
@@ -92,11 +98,12 @@ public class FractionalSol extends KnapsackSol {
 	/**
 	 * Construct a solution with the given solution lists
 	 * 
+	 * @param ctx - solve context of the solution
 	 * @param x - list of items in solution
 	 * @param r - list of items not in solution
 	 */
-	public FractionalSol(ArrayList<Integer> x, ArrayList<Integer> r) {
-		super(x,r);
+	public FractionalSol(SolveContext ctx, ArrayList<Integer> x, ArrayList<Integer> r) {
+		super(ctx, x,r);
 		f = (Fractional)p;
 		setNum(f.getNum());
 		setDen(f.getDen());
@@ -107,7 +114,6 @@ public class FractionalSol extends KnapsackSol {
 	 * Update the validity of the solution
 	 */
 	public void updateValid() {
-		calcTotalA();
 		if (getTotalA() <= f.getB()) {
 			setValid(true);
 		} else {
@@ -229,7 +235,7 @@ public class FractionalSol extends KnapsackSol {
 	 * @return the item added or -1 if none added
 	 */
 	public int tryAdd() {
-		int index = tryAdd(getTotalA(), getX(), getR(), false, num, den);
+		int index = tryAdd(getTotalA(), false, num, den);
 		if (index != -1) {
 			addX(index);
 		}
@@ -242,7 +248,7 @@ public class FractionalSol extends KnapsackSol {
 	 * @return the item removed or -1 if none added
 	 */
 	public int trySub() {
-		int index = trySub(getX(), false, num, den);
+		int index = trySub(false, num, den);
 		if (index != -1) {
 			removeX(index);
 		}
@@ -254,23 +260,21 @@ public class FractionalSol extends KnapsackSol {
 	 * - Add the maxRatio item
 	 * 
 	 * @param totalA - current knapsack weight
-	 * @param x - solution list
-	 * @param r - list of items not in the solution
 	 * @param improveOnly - only remove an item if it improves the objective
 	 * @param num - current numerator values
 	 * @param den - current denominator values
 	 * @return the item to add or -1 if none to add
 	 */
-	private int tryAdd(int totalA, ArrayList<Integer> x, ArrayList<Integer> r, 
-			boolean improveOnly, long[] num, long[] den) {
-		if (r.size() < 1) {
+	private int tryAdd(int totalA, boolean improveOnly, long[] num, long[] den) {
+		if (getRSize() < 1) {
 			return -1;
 		}
 
 		int b = this.getB();
 		double maxRatio = Double.MIN_VALUE;
 		int maxI = -1;
-		for (Integer i: r) {
+		for (int k = 0; k < getRSize(); k++) {
+			int i = getRItem(k);
 			if (totalA + f.getA(i) <= b) {
 				double ratio = f.getRatio(i);
 				if (ratio > maxRatio) {
@@ -300,14 +304,13 @@ public class FractionalSol extends KnapsackSol {
 	 * Try to remove an item from the given solution
 	 * - Remove the minRatio item
 	 * 
-	 * @param x - solution list
 	 * @param improveOnly - only remove an item if it improves the objective
 	 * @param num - current numerator values
 	 * @param den - current denominator values
 	 * @return the item to remove or -1 if none to remove
 	 */
-	private int trySub(ArrayList<Integer> x, boolean improveOnly, long[] num, long[] den) {
-		if (x.size() <= 1) {
+	private int trySub(boolean improveOnly, long[] num, long[] den) {
+		if (getXSize() <= 1) {
 			return -1;
 		}
 		int minI = minRatio(0);
@@ -471,7 +474,8 @@ public class FractionalSol extends KnapsackSol {
 		while(!this.getValid()) {
 			double maxObj = -1*Double.MAX_VALUE;
 			int maxI = -1;
-			for (Integer i: this.getX()) {
+			for (int k = 0; k < getXSize(); k++) {
+				int i = getXItem(k);
 				double newObj = subObj(i, num, den);
 				if (newObj > maxObj) {
 					maxObj = newObj;
@@ -523,8 +527,9 @@ public class FractionalSol extends KnapsackSol {
 				pw.write(den[i] + " ");
 			}
 			pw.write("\n");
-			Collections.sort(getX());
-			for (Integer i: getX()) {
+			ArrayList<Integer> sortedX = new ArrayList<Integer>(getX());
+			Collections.sort(sortedX);
+			for (Integer i: sortedX) {
 				pw.write(i + " ");
 			}
 			pw.close();
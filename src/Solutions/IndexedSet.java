@@ -0,0 +1,102 @@
+package Solutions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Set of the items 0..n-1 with constant time add, remove,
+ * 	membership and indexed (random) access
+ * - items[0..size) holds the members (in no particular order)
+ * - pos[i] is the index of item i in items (-1 if not a member)
+ * - Removing an item moves the last member into its slot
+ *
+ * @author midkiffj
+ */
+public class IndexedSet {
+
+	private int[] items;
+	private int[] pos;
+	private int size;
+
+	/**
+	 * Create an empty set for items 0..n-1
+	 *
+	 * @param n - number of items
+	 */
+	public IndexedSet(int n) {
+		items = new int[n];
+		pos = new int[n];
+		Arrays.fill(pos, -1);
+		size = 0;
+	}
+
+	/**
+	 * Create a set with the same members (and order) as the given set
+	 *
+	 * @param s - set to copy
+	 */
+	public IndexedSet(IndexedSet s) {
+		items = s.items.clone();
+		pos = s.pos.clone();
+		size = s.size;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Return the kth member (0 <= k < size())
+	 */
+	public int get(int k) {
+		return items[k];
+	}
+
+	public boolean contains(int i) {
+		return pos[i] != -1;
+	}
+
+	/**
+	 * Add item i to the end of the set (no change if already a member)
+	 */
+	public void add(int i) {
+		if (pos[i] != -1) {
+			return;
+		}
+		items[size] = i;
+		pos[i] = size;
+		size++;
+	}
+
+	/**
+	 * Remove item i from the set (no change if not a member)
+	 */
+	public void remove(int i) {
+		int k = pos[i];
+		if (k == -1) {
+			return;
+		}
+		size--;
+		int last = items[size];
+		items[k] = last;
+		pos[last] = k;
+		pos[i] = -1;
+	}
+
+	/**
+	 * Remove all members
+	 */
+	public void clear() {
+		for (int k = 0; k < size; k++) {
+			pos[items[k]] = -1;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Return the members as a new read-only list (in set order)
+	 */
+	public ArrayList<Integer> toList() {
+		return new ReadOnlyList(items, size);
+	}
+}
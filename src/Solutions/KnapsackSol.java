@@ -2,6 +2,7 @@ package Solutions;
 import java.util.ArrayList;
 
 import Problems.Knapsack;
+import Problems.SolveContext;
 
 /**
  * Abstract knapsack solution class for knapsack interaction
@@ -10,17 +11,23 @@ import Problems.Knapsack;
  */
 public abstract class KnapsackSol extends ProblemSol {
 
-	private static Knapsack k;
+	private Knapsack k;
 	private int totalA;
 	private int b;
 
 	/**
 	 * Construct a solution by generating an incumbent solution
+	 * 
+	 * @param ctx - solve context of the solution
 	 */
-	public KnapsackSol() {
-		super();
+	public KnapsackSol(SolveContext ctx) {
+		super(ctx);
 		k = (Knapsack)p;
-		k.genInit(getX(), getR());
+		ArrayList<Integer> initX = new ArrayList<Integer>();
+		ArrayList<Integer> initR = new ArrayList<Integer>();
+		k.genInit(initX, initR);
+		setX(initX);
+		setR(initR);
 		for (Integer i: getX()) {
 			setXVals(i,true);
 		}
@@ -32,10 +39,11 @@ public abstract class KnapsackSol extends ProblemSol {
 	/**
 	 * Construct a solution from the given file
 	 * 
+	 * @param ctx - solve context of the solution
 	 * @param filename to read
 	 */
-	public KnapsackSol(String filename) {
-		super();
+	public KnapsackSol(SolveContext ctx, String filename) {
+		super(ctx);
 		k = (Knapsack)p;
 		readSolution(filename);
 		for (Integer i : getX()) {
@@ -50,13 +58,9 @@ public abstract class KnapsackSol extends ProblemSol {
 	 * @param ks the solution to copy
 	 */
 	public KnapsackSol(KnapsackSol ks) {
-		super();
+		super(ks);
 		k = (Knapsack)p;
-		setX(ks.getX());
-		setR(ks.getR());
-		for (Integer i : getX()) {
-			setXVals(i,true);
-		}
+		copyLists(ks);
 		setObj(ks.getObj());
 		totalA = ks.getTotalA();
 		updateB();
@@ -65,10 +69,11 @@ public abstract class KnapsackSol extends ProblemSol {
 	/**
 	 * Construct a solution with the given xVals
 	 * 
+	 * @param ctx - solve context of the solution
 	 * @param xVals (T) if item i is in the solutions
 	 */
-	public KnapsackSol(boolean[] xVals) {
-		super();
+	public KnapsackSol(SolveContext ctx, boolean[] xVals) {
+		super(ctx);
 		k = (Knapsack)p;
 		ArrayList<Integer> x = new ArrayList<Integer>();
 		ArrayList<Integer> r = new ArrayList<Integer>();
@@ -90,11 +95,12 @@ public abstract class KnapsackSol extends ProblemSol {
 	/**
 	 * Construct a solution with the given solution lists
 	 * 
+	 * @param ctx - solve context of the solution
 	 * @param x - list of items in solution
 	 * @param r - list of items not in solution
 	 */
-	public KnapsackSol(ArrayList<Integer> x, ArrayList<Integer> r) {
-		super();
+	public KnapsackSol(SolveContext ctx, ArrayList<Integer> x, ArrayList<Integer> r) {
+		super(ctx);
 		k = (Knapsack)p;
 		setX(x);
 		setR(r);
@@ -109,13 +115,14 @@ public abstract class KnapsackSol extends ProblemSol {
 	/**
 	 * Construct a solution with the given solution lists, objective, and knapsack weight
 	 * 
+	 * @param ctx - solve context of the solution
 	 * @param x - list of items in solution
 	 * @param r - list of items not in solution
 	 * @param obj - objective of the solution
 	 * @param totalA - weight of the solution
 	 */
-	public KnapsackSol(ArrayList<Integer> x, ArrayList<Integer> r, double obj, int totalA) {
-		super();
+	public KnapsackSol(SolveContext ctx, ArrayList<Integer> x, ArrayList<Integer> r, double obj, int totalA) {
+		super(ctx);
 		k = (Knapsack)p;
 		setX(x);
 		setR(r);
@@ -133,7 +140,7 @@ public abstract class KnapsackSol extends ProblemSol {
 	 * 	- Otherwise, problem.getB()
 	 */
 	private void updateB() {
-		if (useHealing) {
+		if (getHealing()) {
 			b = Integer.MAX_VALUE;
 		} else {
 			b = k.getB();
@@ -151,6 +158,18 @@ public abstract class KnapsackSol extends ProblemSol {
 		setTotalA(totalA);
 	}
 
+	/**
+	 * Recompute the knapsack weight and report if the kept weight drifted
+	 */
+	@Override
+	public void checkTotals() {
+		int keptA = totalA;
+		calcTotalA();
+		if (keptA != totalA) {
+			System.err.println("Knapsack weight drifted: kept " + keptA + ", actual " + totalA);
+		}
+	}
+
 	public int getTotalA() {
 		return totalA;
 	}
@@ -9,6 +9,7 @@ import java.util.Scanner;
 
 import ExactMethods.Knapsack_Frac;
 import Problems.MaxProbability;
+import Problems.SolveContext;
 
 /**
  * Solution class for a Max Probability Problem
@@ -19,7 +20,7 @@ import Problems.MaxProbability;
  */
 public class MaxProbabilitySol extends KnapsackSol {
 
-	private static MaxProbability mp;
+	private MaxProbability mp;
 
 	private double num;
 	private double den;
@@ -27,9 +28,11 @@ public class MaxProbabilitySol extends KnapsackSol {
 
 	/**
 	 * Construct a solution by relying on the super class
+	 * 
+	 * @param ctx - solve context of the solution
 	 */
-	public MaxProbabilitySol() {
-		super();
+	public MaxProbabilitySol(SolveContext ctx) {
+		super(ctx);
 		mp = (MaxProbability)p;
 		num = mp.getNum();
 		den = mp.getDen();
@@ -40,10 +43,11 @@ public class MaxProbabilitySol extends KnapsackSol {
 	/**
 	 * Construct a solution from the given file
 	 * 
+	 * @param ctx - solve context of the solution
 	 * @param filename to read
 	 */
-	public MaxProbabilitySol(String filename) {
-		super(filename);
+	public MaxProbabilitySol(SolveContext ctx, String filename) {
+		super(ctx, filename);
 		mp = (MaxProbability)p;
 		updateValid();
 	}
@@ -65,6 +69,7 @@ public class MaxProbabilitySol extends KnapsackSol {
 	/**
 	 * Construct a solution with the given solution lists, objective, and knapsack weight
 	 * 
+	 * @param ctx - solve context of the solution
 	 * @param x - list of items in solution
 	 * @param r - list of items not in solution
 	 * @param obj - objective of the solution
@@ -73,8 +78,8 @@ public class MaxProbabilitySol extends KnapsackSol {
 	 * @param num - solution numerator value
 	 * @param den - solution denominator value
 	 */
-	public MaxProbabilitySol(ArrayList<Integer> x, ArrayList<Integer> r, double obj, int totalA, double num, double den) {
-		super(x,r,obj,totalA);
+	public MaxProbabilitySol(SolveContext ctx, ArrayList<Integer> x, ArrayList<Integer> r, double obj, int totalA, double num, double den) {
+		super(ctx, x,r,obj,totalA);
 		mp = (MaxProbability)p;
 		calcTotalU();
 		this.num = num;
@@ -85,10 +90,11 @@ public class MaxProbabilitySol extends KnapsackSol {
 	/**
 	 * Construct a solution with the given xVals
 	 * 
+	 * @param ctx - solve context of the solution
 	 * @param xVals (T) if item i is in the solutions
 	 */
-	public MaxProbabilitySol(boolean[] newXVals) {
-		super(newXVals);
+	public MaxProbabilitySol(SolveContext ctx, boolean[] newXVals) {
+		super(ctx, newXVals);
 		mp = (MaxProbability)p;
 		calcTotalU();
 		num = mp.getNum();
@@ -99,11 +105,12 @@ public class MaxProbabilitySol extends KnapsackSol {
 	/**
 	 * Construct a solution with the given solution lists
 	 * 
+	 * @param ctx - solve context of the solution
 	 * @param x - list of items in solution
 	 * @param r - list of items not in solution
 	 */
-	public MaxProbabilitySol(ArrayList<Integer> x, ArrayList<Integer> r) {
-		super(x,r);
+	public MaxProbabilitySol(SolveContext ctx, ArrayList<Integer> x, ArrayList<Integer> r) {
+		super(ctx, x,r);
 		mp = (MaxProbability)p;
 		calcTotalU();
 		num = mp.getNum();
@@ -121,11 +128,24 @@ public class MaxProbabilitySol extends KnapsackSol {
 		}
 	}
 	
+	/**
+	 * Recompute the knapsack weight and profit
+	 * 	and report if either kept total drifted
+	 */
+	@Override
+	public void checkTotals() {
+		super.checkTotals();
+		int keptU = totalU;
+		calcTotalU();
+		if (keptU != totalU) {
+			System.err.println("Solution profit drifted: kept " + keptU + ", actual " + totalU);
+		}
+	}
+
 	/**
 	 * Update the validity of the solution
 	 */
 	public void updateValid() {
-		calcTotalU();
 		if (getTotalA() <= mp.getB() && totalU >= mp.getT()) {
 			setValid(true);
 		} else {
@@ -254,7 +274,7 @@ public class MaxProbabilitySol extends KnapsackSol {
 	 * @return the item added or -1 if none added
 	 */
 	public int tryAdd() {
-		int index = tryAdd(getTotalA(), getX(), getR(), false, num, den);
+		int index = tryAdd(getTotalA(), false, num, den);
 		if (index != -1) {
 			addX(index);
 		}
@@ -267,7 +287,7 @@ public class MaxProbabilitySol extends KnapsackSol {
 	 * @return the item removed or -1 if none added
 	 */
 	public int trySub() {
-		int index = trySub(totalU, getX(), false, num, den);
+		int index = trySub(totalU, false, num, den);
 		if (index != -1) {
 			removeX(index);
 		}
@@ -279,23 +299,21 @@ public class MaxProbabilitySol extends KnapsackSol {
 	 * - Add the maxRatio item
 	 * 
 	 * @param totalA - current knapsack weight
-	 * @param x - solution list
-	 * @param r - list of items not in the solution
 	 * @param improveOnly - only remove an item if it improves the objective
 	 * @param num - current numerator values
 	 * @param den - current denominator values
 	 * @return the item to add or -1 if none to add
 	 */
-	private int tryAdd(int totalA, ArrayList<Integer> x, ArrayList<Integer> r, 
-			boolean improveOnly, double num, double den) {
-		if (r.size() < 1) {
+	private int tryAdd(int totalA, boolean improveOnly, double num, double den) {
+		if (getRSize() < 1) {
 			return -1;
 		}
 
 		int maxI = -1;
 		int b = this.getB();
 		double maxRatio = -1*Double.MAX_VALUE;
-		for (Integer i: r) {
+		for (int k = 0; k < getRSize(); k++) {
+			int i = getRItem(k);
 			if (totalA + mp.getA(i) <= b) {
 				double ratio = mp.getRatio(i);
 				if (ratio > maxRatio) {
@@ -309,7 +327,7 @@ public class MaxProbabilitySol extends KnapsackSol {
 			return -1;
 		}
 		if (improveOnly) {
-			double change = addObj(maxI, x, num, den);
+			double change = addObj(maxI, num, den);
 			if (change > (num*num)/den) {
 				return maxI;
 			} else {
@@ -324,22 +342,22 @@ public class MaxProbabilitySol extends KnapsackSol {
 	 * Try to remove an item from the given solution
 	 * - Remove the minRatio item
 	 * 
-	 * @param x - solution list
 	 * @param improveOnly - only remove an item if it improves the objective
 	 * @param num - current numerator values
 	 * @param den - current denominator values
 	 * @return the item to remove or -1 if none to remove
 	 */
-	private int trySub(int totalU, ArrayList<Integer> x, boolean improveOnly, 
+	private int trySub(int totalU, boolean improveOnly, 
 			double num, double den) {
-		if (x.size() <= 1) {
+		if (getXSize() <= 1) {
 			return -1;
 		}
 
 		int minI = -1;
 		double t = mp.getT();
 		double minRatio = Double.MAX_VALUE;
-		for (Integer i: x) {
+		for (int k = 0; k < getXSize(); k++) {
+			int i = getXItem(k);
 			if (totalU - mp.getU(i) >= t) {
 				double ratio = mp.getRatio(i);
 				if (ratio < minRatio) {
@@ -353,7 +371,7 @@ public class MaxProbabilitySol extends KnapsackSol {
 			return -1;
 		}
 		if (improveOnly) {
-			double change = subObj(minI, x, num, den);
+			double change = subObj(minI, num, den);
 			if (change > (num*num)/den) {
 				return minI;
 			} else {
@@ -373,7 +391,7 @@ public class MaxProbabilitySol extends KnapsackSol {
 		addI(i);
 		addA(i);
 		addU(i);
-		setObj(addObj(i, getX(), num, den));
+		setObj(addObj(i, num, den));
 		num = addNum(i, num);
 		den = addDen(i, den);
 	}
@@ -387,7 +405,7 @@ public class MaxProbabilitySol extends KnapsackSol {
 		removeI(i);
 		removeA(i);
 		removeU(i);
-		setObj(subObj(i, getX(), num, den));
+		setObj(subObj(i, num, den));
 		num = subNum(i, num);
 		den = subDen(i, den);
 	}
@@ -400,8 +418,7 @@ public class MaxProbabilitySol extends KnapsackSol {
 	 * @param den - denominator values
 	 * @return calculated objective
 	 */
-	private double subObj(int i, ArrayList<Integer> x, double num,
-			double den) {
+	private double subObj(int i, double num, double den) {
 		num -= mp.getU(i);
 		den -= mp.getS(i);
 		return (num*num)/den;
@@ -415,8 +432,7 @@ public class MaxProbabilitySol extends KnapsackSol {
 	 * @param den - denominator values
 	 * @return calculated objective
 	 */
-	private double addObj(int i, ArrayList<Integer> x, double num,
-			double den) {
+	private double addObj(int i, double num, double den) {
 		num += mp.getU(i);
 		den += mp.getS(i);
 		return (num*num)/den;
@@ -504,8 +520,8 @@ public class MaxProbabilitySol extends KnapsackSol {
 		ArrayList<ratioNode> ratio = computeRatios(x, r);
 
 		while (ratio.size() > 0 && newTotalA < mp.getB()) {
-			int i = rnd.nextInt(ratio.size());
-			int j = rnd.nextInt(ratio.size());
+			int i = rnd().nextInt(ratio.size());
+			int j = rnd().nextInt(ratio.size());
 			i = Math.max(i,j);
 			ratioNode rni = ratio.remove(i);
 			if (newTotalA + mp.getA(rni.x) <= getB()) {
@@ -530,7 +546,7 @@ public class MaxProbabilitySol extends KnapsackSol {
 			int rTarget = (int) (mp.getT() - newTotalU);
 			ArrayList<Integer> toAdd = bestFill(r,rB,rTarget);
 			if (toAdd == null) {
-				return new MaxProbabilitySol(mps2.getX(),mps2.getR());
+				return new MaxProbabilitySol(getContext(),mps2.getX(),mps2.getR());
 			}
 			for (Integer i: toAdd) {
 				x.add(i);
@@ -544,7 +560,7 @@ public class MaxProbabilitySol extends KnapsackSol {
 			System.err.println("Infeasible generated");
 		}
 
-		return new MaxProbabilitySol(x,r);
+		return new MaxProbabilitySol(getContext(),x,r);
 	}
 
 	/**
@@ -555,7 +571,7 @@ public class MaxProbabilitySol extends KnapsackSol {
 	 */
 	public ProblemSol genMutate(int removeAttempts) {
 		MaxProbabilitySol newMP = new MaxProbabilitySol(this);
-		if (rnd.nextDouble() < 0.5) {
+		if (rnd().nextDouble() < 0.5) {
 			if (newMP.getRSize() == 0) {
 				newMP.shift();
 			} else {
@@ -587,7 +603,7 @@ public class MaxProbabilitySol extends KnapsackSol {
 			s = x.size()-1;
 		}
 		for (int i = 0; i < s; i++) {
-			int j = rnd.nextInt(x.size());
+			int j = rnd().nextInt(x.size());
 			r.add(x.remove(j));
 		}
 
@@ -604,8 +620,8 @@ public class MaxProbabilitySol extends KnapsackSol {
 		ArrayList<ratioNode> ratio = computeRatios(x, r);
 
 		while (ratio.size() > 0 && newTotalA < mp.getB()) {
-			int i = rnd.nextInt(ratio.size());
-			int j = rnd.nextInt(ratio.size());
+			int i = rnd().nextInt(ratio.size());
+			int j = rnd().nextInt(ratio.size());
 			i = Math.max(i,j);
 			ratioNode rni = ratio.get(i);
 			if (newTotalA + mp.getA(rni.x) <= getB()) {
@@ -635,7 +651,7 @@ public class MaxProbabilitySol extends KnapsackSol {
 			int rTarget = (int) (mp.getT() - newTotalU);
 			ArrayList<Integer> toAdd = bestFill(r,rB,rTarget);
 			if (toAdd == null) {
-				return new MaxProbabilitySol(mps.getX(),mps.getR());
+				return new MaxProbabilitySol(getContext(),mps.getX(),mps.getR());
 			}
 			for (Integer i: toAdd) {
 				x.add(i);
@@ -650,7 +666,7 @@ public class MaxProbabilitySol extends KnapsackSol {
 		}
 
 		// Calculate obj of new solution
-		return new MaxProbabilitySol(x,r);
+		return new MaxProbabilitySol(getContext(),x,r);
 	}
 
 	/**
@@ -703,8 +719,9 @@ public class MaxProbabilitySol extends KnapsackSol {
 		while(!this.getValid()) {
 			double maxObj = -1*Double.MAX_VALUE;
 			int maxI = -1;
-			for (Integer i: this.getX()) {
-				double newObj = subObj(i, getX(), num, den);
+			for (int k = 0; k < getXSize(); k++) {
+				int i = getXItem(k);
+				double newObj = subObj(i, num, den);
 				if (newObj > maxObj && totalU - mp.getU(i) >= mp.getT()) {
 					maxObj = newObj;
 					maxI = i;
@@ -733,7 +750,11 @@ public class MaxProbabilitySol extends KnapsackSol {
 			if (totalU - mp.getU(j) >= mp.getT()) {
 				removeX(j);
 			} else {
-				mp.genRndInit(getX(), getR());
+				ArrayList<Integer> initX = new ArrayList<Integer>();
+				ArrayList<Integer> initR = new ArrayList<Integer>();
+				mp.genRndInit(initX, initR, rnd());
+				setX(initX);
+				setR(initR);
 				for (Integer i: getX()) {
 					setXVals(i,true);
 				}
@@ -778,8 +799,9 @@ public class MaxProbabilitySol extends KnapsackSol {
 			pw.write(den + "\n");
 			pw.write(getTotalA() + "\n");
 			pw.write(totalU + "\n");
-			Collections.sort(getX());
-			for (Integer i: getX()) {
+			ArrayList<Integer> sortedX = new ArrayList<Integer>(getX());
+			Collections.sort(sortedX);
+			for (Integer i: sortedX) {
 				pw.write(i + " ");
 			}
 			pw.close();
@@ -1,6 +1,7 @@
 package Solutions;
 import java.util.ArrayList;
 import Problems.MultipleKnapsack;
+import Problems.SolveContext;
 
 /**
  * Abstract multiple knapsack solution class for knapsack interaction
@@ -16,11 +17,17 @@ public abstract class MultKnapsackSol extends ProblemSol {
 
 	/**
 	 * Construct a solution by generating an incumbent solution
+	 * 
+	 * @param ctx - solve context of the solution
 	 */
-	public MultKnapsackSol() {
-		super();
+	public MultKnapsackSol(SolveContext ctx) {
+		super(ctx);
 		m = mk.getM();
-		mk.genInit(getX(), getR());
+		ArrayList<Integer> initX = new ArrayList<Integer>();
+		ArrayList<Integer> initR = new ArrayList<Integer>();
+		mk.genInit(initX, initR);
+		setX(initX);
+		setR(initR);
 		for (Integer i: getX()) {
 			setXVals(i,true);
 		}
@@ -32,11 +39,13 @@ public abstract class MultKnapsackSol extends ProblemSol {
 	/**
 	 * Construct a solution from the given file
 	 * 
+	 * @param ctx - solve context of the solution
 	 * @param filename to read
 	 */
-	public MultKnapsackSol(String filename) {
-		super();
+	public MultKnapsackSol(SolveContext ctx, String filename) {
+		super(ctx);
 		m = mk.getM();
+		calcTotalA();
 		readSolution(filename);
 		for (Integer i : getX()) {
 			setXVals(i,true);
@@ -50,13 +59,9 @@ public abstract class MultKnapsackSol extends ProblemSol {
 	 * @param mks the solution to copy
 	 */
 	public MultKnapsackSol(MultKnapsackSol mks) {
-		super();
+		super(mks);
 		m = mk.getM();
-		setX(mks.getX());
-		setR(mks.getR());
-		for (Integer i : mks.getX()) {
-			setXVals(i,true);
-		}
+		copyLists(mks);
 		setObj(mks.getObj());
 		setTotalA(mks.getTotalA());
 		updateB();
@@ -65,10 +70,11 @@ public abstract class MultKnapsackSol extends ProblemSol {
 	/**
 	 * Construct a solution with the given xVals
 	 * 
+	 * @param ctx - solve context of the solution
 	 * @param xVals (T) if item i is in the solutions
 	 */
-	public MultKnapsackSol(boolean[] xVals) {
-		super();
+	public MultKnapsackSol(SolveContext ctx, boolean[] xVals) {
+		super(ctx);
 		m = mk.getM();
 		ArrayList<Integer> x = new ArrayList<Integer>();
 		ArrayList<Integer> r = new ArrayList<Integer>();
@@ -90,11 +96,12 @@ public abstract class MultKnapsackSol extends ProblemSol {
 	/**
 	 * Construct a solution with the given solution lists
 	 * 
+	 * @param ctx - solve context of the solution
 	 * @param x - list of items in solution
 	 * @param r - list of items not in solution
 	 */
-	public MultKnapsackSol(ArrayList<Integer> x, ArrayList<Integer> r) {
-		super();
+	public MultKnapsackSol(SolveContext ctx, ArrayList<Integer> x, ArrayList<Integer> r) {
+		super(ctx);
 		m = mk.getM();
 		setX(x);
 		setR(r);
@@ -109,13 +116,14 @@ public abstract class MultKnapsackSol extends ProblemSol {
 	/**
 	 * Construct a solution with the given solution lists, objective, and knapsack weight
 	 * 
+	 * @param ctx - solve context of the solution
 	 * @param x - list of items in solution
 	 * @param r - list of items not in solution
 	 * @param obj - objective of the solution
 	 * @param totalA - weights of the solution
 	 */
-	public MultKnapsackSol(ArrayList<Integer> x, ArrayList<Integer> r, double obj, int[] totalA) {
-		super();
+	public MultKnapsackSol(SolveContext ctx, ArrayList<Integer> x, ArrayList<Integer> r, double obj, int[] totalA) {
+		super(ctx);
 		m = mk.getM();
 		setX(x);
 		setR(r);
@@ -134,7 +142,7 @@ public abstract class MultKnapsackSol extends ProblemSol {
 	 */
 	private void updateB() {
 		b = new int[m];
-		if (useHealing) {
+		if (getHealing()) {
 			for (int i = 0; i < m; i++) {
 				b[i] = Integer.MAX_VALUE;
 			}
@@ -157,6 +165,20 @@ public abstract class MultKnapsackSol extends ProblemSol {
 		}
 	}
 
+	/**
+	 * Recompute the knapsack weights and report if any kept weight drifted
+	 */
+	@Override
+	public void checkTotals() {
+		int[] keptA = totalA;
+		calcTotalA();
+		for (int i = 0; i < m; i++) {
+			if (keptA[i] != totalA[i]) {
+				System.err.println("Knapsack " + i + " weight drifted: kept " + keptA[i] + ", actual " + totalA[i]);
+			}
+		}
+	}
+
 	public int[] getTotalA() {
 		return totalA;
 	}
@@ -6,12 +6,11 @@ import java.util.Comparator;
 import java.util.Random;
 
 import Problems.Problem;
-import Problems.ProblemFactory;
-import Runner.RndGen;
+import Problems.SolveContext;
 
 /**
  * Superclass for problem solutions
- * - Keeps track of problem object and problem size
+ * - Keeps track of solve context, problem object and problem size
  * - Performs mutations on solutions (unless overridden)
  * - Sets usage of healing/repair algorithms
  * - Compares and copies solutions
@@ -20,41 +19,111 @@ import Runner.RndGen;
  */
 public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<ProblemSol>{
 
-	static Problem p = ProblemFactory.getProblem();
-	static int n = p.getN();
-	static boolean useHealing = false;
-	static Random rnd = RndGen.getRnd();
+	// Solve context (problem, random stream, settings) of the solution
+	private SolveContext ctx;
+	Problem p;
+	int n;
+
+	// Items sorted by increasing ratio (ties by item) and the rank of each item
+	private int[] rankOf;
+	private int[] itemAt;
 	
-	private ArrayList<Integer> x;
-	private ArrayList<Integer> r;
+	private IndexedSet x;
+	private IndexedSet r;
+	// Ratio ranks of the items in x and r (kth min/max ratio queries)
+	private RankedSet xRanks;
+	private RankedSet rRanks;
+	// List copies of x and r returned by getX/getR (rebuilt after changes)
+	private ArrayList<Integer> xList;
+	private ArrayList<Integer> rList;
 	private boolean[] xVals;
+	// XOR of the keys of the items in x
+	private long hash;
+	// Items moved by the last addI/removeI
+	private int lastAdded = -1;
+	private int lastRemoved = -1;
 	private boolean valid;
 	private double obj;
 
 	/**
-	 * Create solution lists and update global problem
+	 * Create solution lists for the problem of the solve context
+	 * 
+	 * @param ctx - solve context of the solution
 	 */
-	public ProblemSol() {
-		updateProblem();
-		x = new ArrayList<Integer>();
-		r = new ArrayList<Integer>();
-		xVals = new boolean[n];
+	public ProblemSol(SolveContext ctx) {
+		this(ctx, ctx.getProblem());
 	}
 
 	/**
-	 * Updates global problem and number of variables
+	 * Create solution lists in the solve context of the given solution
+	 * 	(used by copies, which may be made on other threads)
+	 *
+	 * @param ps - solution with the context to use
 	 */
-	private void updateProblem() {
-		p = ProblemFactory.getProblem();
+	public ProblemSol(ProblemSol ps) {
+		this(ps.ctx, ps.p);
+	}
+
+	private ProblemSol(SolveContext ctx, Problem p) {
+		this.ctx = ctx;
+		this.p = p;
 		n = p.getN();
+		rankOf = p.getRatioRank();
+		itemAt = p.getRatioOrder();
+		x = new IndexedSet(n);
+		r = new IndexedSet(n);
+		xRanks = new RankedSet(n);
+		rRanks = new RankedSet(n);
+		xVals = new boolean[n];
+	}
+
+	/**
+	 * Random stream of the solution's solve context
+	 * 	(threads work on solutions copied into their own context, see copy)
+	 */
+	Random rnd() {
+		return ctx.getRnd();
+	}
+
+	/**
+	 * Random 64-bit key of item i (Zobrist hashing of the solution set)
+	 * 	- SplitMix64 of the item: fixed, and does not consume rnd
+	 */
+	private static long itemKey(int i) {
+		long z = (i+1) * 0x9e3779b97f4a7c15L;
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
 	}
 
+	/**
+	 * Set the usage of healing for the solutions of the solve context
+	 */
 	public void setHealing(boolean useHeal) {
-		useHealing = useHeal;
+		ctx.setHealing(useHeal);
 	}
 
 	public boolean getHealing() {
-		return useHealing;
+		return ctx.getHealing();
+	}
+
+	/**
+	 * Set audit mode for the solutions of the solve context
+	 */
+	public void setAuditTotals(boolean audit) {
+		ctx.setAuditTotals(audit);
+	}
+
+	public boolean getAuditTotals() {
+		return ctx.getAuditTotals();
+	}
+
+	public SolveContext getContext() {
+		return ctx;
+	}
+
+	public Problem getProblem() {
+		return p;
 	}
 
 	//**********************
@@ -77,30 +146,87 @@ public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<P
 
 	/**
 	 * Get the entire solution array
+	 * 	(a read-only list, cached and shared with copies until the solution
+	 * 	changes; use setX or addI/removeI to change the solution)
 	 */
 	public ArrayList<Integer> getX() {
-		return x;
+		if (xList == null) {
+			xList = x.toList();
+		}
+		return xList;
 	}
 	
 	/**
 	 * Set the entire solution array
 	 */
 	public void setX(ArrayList<Integer> newX) {
-		x = new ArrayList<Integer>(newX);
+		x.clear();
+		xRanks.clear();
+		hash = 0;
+		for (Integer i: newX) {
+			if (!x.contains(i)) {
+				hash ^= itemKey(i);
+			}
+			x.add(i);
+			xRanks.add(rankOf[i]);
+		}
+		xList = null;
+	}
+
+	/**
+	 * Copy the solution lists of the given solution
+	 * 	(set copies; the read-only lists of x and r are shared)
+	 *
+	 * @param ps - solution to copy
+	 */
+	protected void copyLists(ProblemSol ps) {
+		x = new IndexedSet(ps.x);
+		r = new IndexedSet(ps.r);
+		xRanks = new RankedSet(ps.xRanks);
+		rRanks = new RankedSet(ps.rRanks);
+		xVals = ps.xVals.clone();
+		hash = ps.hash;
+		xList = ps.xList;
+		rList = ps.rList;
 	}
 
 	/**
 	 * Get the entire unused variable array
+	 * 	(a read-only list, cached and shared with copies until the solution
+	 * 	changes; use setR or addI/removeI to change the solution)
 	 */
 	public ArrayList<Integer> getR() {
-		return r;
+		if (rList == null) {
+			rList = r.toList();
+		}
+		return rList;
 	}
 	
 	/**
 	 * Set the entire solution array
 	 */
 	public void setR(ArrayList<Integer> newR) {
-		r = new ArrayList<Integer>(newR);
+		r.clear();
+		rRanks.clear();
+		for (Integer i: newR) {
+			r.add(i);
+			rRanks.add(rankOf[i]);
+		}
+		rList = null;
+	}
+
+	/**
+	 * Return the kth item in the solution (0 <= k < getXSize())
+	 */
+	public int getXItem(int k) {
+		return x.get(k);
+	}
+
+	/**
+	 * Return the kth unused item (0 <= k < getRSize())
+	 */
+	public int getRItem(int k) {
+		return r.get(k);
 	}
 
 	/**
@@ -117,6 +243,28 @@ public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<P
 		return r.size();
 	}
 
+	/**
+	 * Return the Zobrist hash of the solution 
+	 * 	(XOR of random item keys, equal for equal item sets)
+	 */
+	public long getHash() {
+		return hash;
+	}
+
+	/**
+	 * Return the item added by the last addI (-1 if none)
+	 */
+	public int getLastAdded() {
+		return lastAdded;
+	}
+
+	/**
+	 * Return the item removed by the last removeI (-1 if none)
+	 */
+	public int getLastRemoved() {
+		return lastRemoved;
+	}
+
 	/**
 	 * Return xVals[i] where xVals[i] = true iff i is in the solution
 	 */
@@ -133,8 +281,12 @@ public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<P
 	
 	/**
 	 * Return if the solution is feasible/valid
+	 * 	(constant time from the totals kept by addX/removeX/swap)
 	 */
 	public boolean getValid() {
+		if (ctx.getAuditTotals()) {
+			checkTotals();
+		}
 		updateValid();
 		return valid;
 	}
@@ -151,6 +303,13 @@ public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<P
 	 */
 	public abstract void updateValid();
 
+	/**
+	 * Recompute the totals kept for feasibility from the solution lists,
+	 * 	reporting any that drifted (audit mode)
+	 */
+	public void checkTotals() {
+	}
+
 	
 	//*****************
 	// Mutation Methods
@@ -161,8 +320,16 @@ public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<P
 	 */
 	public void addI(int i) {
 		xVals[i] = true;
+		if (!x.contains(i)) {
+			hash ^= itemKey(i);
+		}
 		x.add(i);
-		r.remove(Integer.valueOf(i));
+		r.remove(i);
+		xRanks.add(rankOf[i]);
+		rRanks.remove(rankOf[i]);
+		xList = null;
+		rList = null;
+		lastAdded = i;
 	}
 	
 	/**
@@ -170,8 +337,16 @@ public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<P
 	 */
 	public void removeI(int i) {
 		xVals[i] = false;
+		if (x.contains(i)) {
+			hash ^= itemKey(i);
+		}
 		r.add(i);
-		x.remove(Integer.valueOf(i));
+		x.remove(i);
+		rRanks.add(rankOf[i]);
+		xRanks.remove(rankOf[i]);
+		xList = null;
+		rList = null;
+		lastRemoved = i;
 	}
 	
 	/**
@@ -193,7 +368,106 @@ public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<P
 	 * Calculate the objective if i and j are swapped
 	 */
 	public abstract double swapObj(int i, int j);
+
+	/**
+	 * Return if swapObj runs in constant time 
+	 * 	(a full best swap scan stays practical on large problems)
+	 */
+	public boolean constantSwapObj() {
+		return false;
+	}
+
+	/**
+	 * Discard state kept for incremental swap evaluation before a bulk edit
+	 * 	(rebuilt once swaps are evaluated again)
+	 */
+	public void dropGains() {
+	}
 	
+	/**
+	 * Create the move that removes item i from the solution and adds item j
+	 * 	(evaluated, but not applied)
+	 * 
+	 * @param i - item to remove
+	 * @param j - item to add
+	 * @return move with the objective after the swap
+	 */
+	public SwapMove swapMove(int i, int j) {
+		return new SwapMove(i, j, swapObj(i, j));
+	}
+
+	/**
+	 * Apply the move to this solution
+	 * 
+	 * @param m - move to apply
+	 */
+	public void apply(SwapMove m) {
+		swap(m.i, m.j);
+	}
+
+	/**
+	 * Undo the move (last applied to this solution)
+	 * 
+	 * @param m - move to undo
+	 */
+	public void undo(SwapMove m) {
+		swap(m.j, m.i);
+	}
+
+	/**
+	 * Return true if applying the move gives a better solution
+	 * 	(same order as compareTo, moves always keep the solution feasible)
+	 * 
+	 * @param m - evaluated move
+	 */
+	public boolean improves(SwapMove m) {
+		return !getValid() || m.obj > getObj();
+	}
+
+	/**
+	 * Return true if applying the move gives a better solution than o
+	 * 	(same order as compareTo, from the move's objective and swapValid,
+	 * 	so tabu aspiration is checked without applying the move)
+	 * 
+	 * @param m - evaluated move
+	 * @param o - solution to compare with (e.g. best)
+	 */
+	public boolean betterThan(SwapMove m, ProblemSol o) {
+		boolean valid = swapValid(m.i, m.j);
+		if (valid == o.getValid()) {
+			return m.obj > o.getObj();
+		}
+		return valid;
+	}
+
+	/**
+	 * Return a copy of this solution with the move applied
+	 * 	(null if there is no move)
+	 */
+	private ProblemSol copyWith(SwapMove m) {
+		if (m == null) {
+			return null;
+		}
+		ProblemSol result = ProblemSol.copy(this);
+		result.apply(m);
+		return result;
+	}
+
+	/**
+	 * Return copies of this solution with the moves applied
+	 * 	(null entries for missing moves)
+	 */
+	private ProblemSol[] copyWith(SwapMove[] moves) {
+		if (moves == null) {
+			return null;
+		}
+		ProblemSol[] results = new ProblemSol[moves.length];
+		for (int k = 0; k < moves.length; k++) {
+			results[k] = copyWith(moves[k]);
+		}
+		return results;
+	}
+
 	/**
 	 * Perform a mutation given the current iteration number and tabu list
 	 * 
@@ -202,14 +476,24 @@ public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<P
 	 * @return {best tabu solution, best nontabu solution}
 	 */
 	public ProblemSol[] tabuMutate(int iteration, int[][] tabuList) {
+		return copyWith(tabuMutateMove(iteration, tabuList));
+	}
+
+	/**
+	 * Find a mutation given the current iteration number and tabu list
+	 * 
+	 * @param iteration - current iteration
+	 * @param tabuList - current tabu list
+	 * @return {best tabu move, best nontabu move}
+	 */
+	public SwapMove[] tabuMutateMove(int iteration, int[][] tabuList) {
 		if (getRSize() == 0 || getXSize() == 0) {
 			return null;
 		}
-		if (rnd.nextDouble() < 0.6) {
+		if (rnd().nextDouble() < 0.6) {
 			return maxMinSwap(iteration, tabuList);
 		} else {
-			ProblemSol[] ratioSwap = ratioMutate(iteration, tabuList);
-			return ratioSwap;
+			return ratioMutate(iteration, tabuList);
 		}
 	}
 
@@ -219,19 +503,22 @@ public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<P
 	 * @return mutated solution
 	 */
 	public ProblemSol mutate() {
+		return copyWith(mutateMove());
+	}
+
+	/**
+	 * Find a mutation of the solution
+	 * 
+	 * @return move (null if none found)
+	 */
+	public SwapMove mutateMove() {
 		if (getRSize() == 0 || getXSize() == 0) {
 			return null;
 		}
-		if (rnd.nextDouble() < 0.6) {
-			ProblemSol[] ret = maxMinSwap(1, new int[n][n]);
-			if (ret == null) {
-				return null;
-			} else {
-				return ret[0];
-			}
+		if (rnd().nextDouble() < 0.6) {
+			return maxMinSwap();
 		} else {
-			ProblemSol ratioSwap = ratioMutate();
-			return ratioSwap;
+			return ratioMutate();
 		}
 	}
 
@@ -241,22 +528,22 @@ public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<P
 	 * @return mutated solution
 	 */
 	public ProblemSol bestMutate() {
+		return copyWith(bestMutateMove());
+	}
+
+	/**
+	 * Find the best mutation (swap) possible
+	 * 
+	 * @return move (null if none found)
+	 */
+	public SwapMove bestMutateMove() {
 		if (getRSize() == 0 || getXSize() == 0) {
 			return null;
 		}
-		if (p.getN() >= 500) {
-			ProblemSol[] fs = firstSwap(1, new int[n][n]);
-			if (fs != null) {
-				return fs[0];
-			}
-			return null;
-		}
-		ProblemSol[] bs = bestSwap(1, new int[n][n]);
-		if (bs != null) {
-			return bs[0];
-		} else {
-			return null;
+		if (p.getN() >= 500 && !constantSwapObj()) {
+			return firstSwap();
 		}
+		return bestSwap();
 	}
 
 	/**
@@ -270,7 +557,7 @@ public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<P
 		if (getRSize() == 0 || getXSize() == 0) {
 			return null;
 		}
-		return bestSwap(iteration, tabuList);
+		return copyWith(bestSwap(iteration, tabuList));
 	}
 
 	/**
@@ -283,17 +570,18 @@ public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<P
 	 */
 	public ProblemSol crossover(ProblemSol ps2) {
 		ProblemSol newPS = ProblemSol.copy(this);
+		newPS.dropGains();
 		for (int i = 0; i < n; i++) {
 			if (this.getXVals(i) != ps2.getXVals(i) && this.getXVals(i)) {
 				newPS.removeX(i);
 			} 
 		}
 
-		ArrayList<ratioNode> ratio = computeRatios(newPS.getX(), newPS.getR());
+		ArrayList<ratioNode> ratio = newPS.computeRatios();
 
 		while (ratio.size() > 0 && newPS.getValid()) {
-			int i = rnd.nextInt(ratio.size());
-			int j = rnd.nextInt(ratio.size());
+			int i = rnd().nextInt(ratio.size());
+			int j = rnd().nextInt(ratio.size());
 			i = Math.max(i,j);
 			ratioNode rni = ratio.remove(i);
 			if (newPS.addValid(rni.x)) {
@@ -311,11 +599,15 @@ public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<P
 	 */
 	public ProblemSol genMutate(int removeAttempts) {
 		ProblemSol newPS = ProblemSol.copy(this);
-		if (rnd.nextDouble() < 0.5) {
+		if (rnd().nextDouble() < 0.5) {
 			if (newPS.getRSize() == 0) {
 				newPS.shift();
 			} else {
-				return newPS.mutate();
+				SwapMove m = newPS.mutateMove();
+				if (m == null) {
+					return null;
+				}
+				newPS.apply(m);
 			}
 		} else {
 			newPS = genMutate2(newPS, removeAttempts);
@@ -335,18 +627,19 @@ public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<P
 	 */
 	private ProblemSol genMutate2(ProblemSol ps, int removeAttempts) {
 		// Remove s items from the solution
+		ps.dropGains();
 		int s = removeAttempts;
 		if (s >= getXSize()) {
 			s = getXSize()-1;
 		}
 		for (int i = 0; i < s; i++) {
-			int j = rnd.nextInt(ps.getXSize());
-			j = ps.getX().get(j);
+			int j = rnd().nextInt(ps.getXSize());
+			j = ps.getXItem(j);
 			ps.removeX(j);
 		}
 
 		// Compute ratios
-		ArrayList<ratioNode> ratio = computeRatios(ps.getX(), ps.getR());
+		ArrayList<ratioNode> ratio = ps.computeRatios();
 		Collections.sort(ratio);
 
 		// Add max-ratio items until knapsack full
@@ -359,6 +652,21 @@ public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<P
 		return ps;
 	}
 
+	/**
+	 * Create a sorted list of ratioNodes for the items not in this solution
+	 * 
+	 * @return list of ratioNodes
+	 */
+	private ArrayList<ratioNode> computeRatios() {
+		ArrayList<ratioNode> ratio = new ArrayList<ratioNode>(getRSize());
+		for (int k = 0; k < getRSize(); k++) {
+			int i = getRItem(k);
+			ratio.add(new ratioNode(i, p.getRatio(i)));
+		}
+		Collections.sort(ratio);
+		return ratio;
+	}
+
 	/**
 	 * Create a list of ratioNodes for the given solution lists
 	 * 
@@ -384,10 +692,10 @@ public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<P
 	 */
 	@SuppressWarnings("unused")
 	private ProblemSol swapMutate() {
-		if (rnd.nextDouble() < 0.8) {
-			return ratioMutate();
+		if (rnd().nextDouble() < 0.8) {
+			return copyWith(ratioMutate());
 		} else {
-			return bestRatioMutate();
+			return copyWith(bestRatioMutate());
 		}
 	}
 	
@@ -396,57 +704,51 @@ public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<P
 	 * - Find the minRatio item in the solution
 	 * - Swap it with a random item outside the solution
 	 * 
-	 * @return mutated solution
+	 * @return move (null if none found)
 	 */
-	private ProblemSol ratioMutate() {
-		ProblemSol result = null;
-		boolean found = false;
+	private SwapMove ratioMutate() {
 		int min = 0;
-		ArrayList<Integer> curR = getR();
-		while (!found && min < getXSize()) {
+		while (min < getXSize()) {
 			// Get index of min ratio
 			int i = minRatio(min);
 
 			// Swap with a random node and return
-			int j = rnd.nextInt(getRSize());
-			j = curR.get(j);
+			int j = rnd().nextInt(getRSize());
+			j = getRItem(j);
 			int rndCount = 0;
 			while (!swapValid(i,j) && rndCount < 10) {
-				j = rnd.nextInt(getRSize());
-				j = curR.get(j);
+				j = rnd().nextInt(getRSize());
+				j = getRItem(j);
 				rndCount++;
 			}
 
 			if (swapValid(i,j)) {
-				result = ProblemSol.copy(this);
-				result.swap(i, j);
-				found = true;
+				return swapMove(i, j);
 			}
 
 			min++;
 		}
 
-		return result;
+		return null;
 	}
 
 	/**
 	 * Perform the best ratio mutation by swapping the minimum ratio item 
 	 * 	with the item j in R that best improves the objective.
 	 * 
-	 * @return mutated solution
+	 * @return move (null if none found)
 	 */
-	private ProblemSol bestRatioMutate() {
-		ProblemSol result = null;
-		boolean found = false;
+	private SwapMove bestRatioMutate() {
 		int min = 0;
-		while (!found && min < getXSize()) {
+		while (min < getXSize()) {
 			// Get index of min ratio
 			int i = minRatio(min);
 
 			// Swap with all nodes and return best
 			double maxObj = -1;
 			int maxJ = -1;
-			for (Integer j: getR()) {
+			for (int k = 0; k < getRSize(); k++) {
+				int j = getRItem(k);
 				double newObj = swapObj(i, j);
 				if (newObj > maxObj && swapValid(i,j)) {
 					maxObj = newObj;
@@ -454,15 +756,46 @@ public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<P
 				}
 			}
 			if (maxJ != -1) {
-				result = ProblemSol.copy(this);
-				result.swap(i, maxJ);
-				found = true;
+				return new SwapMove(i, maxJ, maxObj);
 			}
 
 			min++;
 		}
 
-		return result;
+		return null;
+	}
+
+	/**
+	 * Perform a maxMin swap by swap the min ratio item from the solution
+	 * 	with the max ratio item outside the solution
+	 * 	(no tabu list, used by mutate)
+	 * 
+	 * @return move (null if no swap is feasible)
+	 */
+	private SwapMove maxMinSwap() {
+		int i = minRatio(0);
+		int j = maxRatio(0);
+		int ki = 0;
+		int kj = 0;
+		boolean changeI = true;
+		while (!swapValid(i,j) && ki < getXSize()) {
+			if (changeI) {
+				ki++;
+				i = minRatio(ki);
+				changeI = !changeI;
+			}
+			kj++;
+			j = maxRatio(kj);
+			if (kj >= getRSize()-1) {
+				kj = -1;
+				changeI = !changeI;
+			}
+		}
+
+		if (!swapValid(i,j)) {
+			return null;
+		}
+		return swapMove(i, j);
 	}
 
 	/**
@@ -471,15 +804,12 @@ public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<P
 	 * 
 	 * @param iteration - current tabu search iteration
 	 * @param tabuList - tabu list
-	 * @return {tabu mutated solution, nontabu mutated solution}
+	 * @return {tabu move, nontabu move}
 	 */
-	private ProblemSol[] maxMinSwap(int iteration, int[][] tabuList) {
+	private SwapMove[] maxMinSwap(int iteration, int[][] tabuList) {
 		// Store nontabu and best tabu swaps
-		int ni = -1;
-		int nj = -1;
-		int bi = -1;
-		int bj = -1;
-		double bObj = Integer.MIN_VALUE;
+		SwapMove nonTabu = null;
+		SwapMove best = null;
 
 		int i = minRatio(0);
 		int j = maxRatio(0);
@@ -504,13 +834,9 @@ public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<P
 			return null;
 		}
 
-		double newObj = swapObj(i, j);
-		bi = i;
-		bj = j;
-		bObj = newObj;
+		best = swapMove(i, j);
 		if (tabuList[i][j] < iteration) {
-			ni = i;
-			nj = j;
+			nonTabu = best;
 		} else {
 			boolean newMin = false;
 			while (tabuList[i][j] >= iteration && !swapValid(i,j) && ki < getXSize()) {
@@ -526,36 +852,20 @@ public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<P
 					newMin = !newMin;
 				}
 				if (swapValid(i,j)) {
-					newObj = swapObj(i, j);
-					if (newObj > bObj) {
-						bi = i;
-						bj = j;
-						bObj = newObj;
+					SwapMove m = swapMove(i, j);
+					if (m.obj > best.obj) {
+						best = m;
 					}
 				}
 			}
 			if (tabuList[i][j] < iteration && swapValid(i,j)) {
-				newObj = swapObj(i, j);
-				ni = i;
-				nj = j;
-				if (newObj > bObj) {
-					bi = i;
-					bj = j;
-					bObj = newObj;
+				nonTabu = swapMove(i, j);
+				if (nonTabu.obj > best.obj) {
+					best = nonTabu;
 				}
 			}
 		}
-		// Compile and return data
-		ProblemSol[] results = new ProblemSol[2];
-		if (bi != -1 && bj != -1) {
-			results[0] = ProblemSol.copy(this);
-			results[0].swap(bi, bj);
-		}
-		if (ni != -1 && nj != -1) {
-			results[1] = ProblemSol.copy(this);
-			results[1].swap(ni, nj);
-		}
-		return results;
+		return new SwapMove[] {best, nonTabu};
 	}
 
 	/**
@@ -564,12 +874,10 @@ public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<P
 	 * 
 	 * @param iteration - current tabu search iteration
 	 * @param tabuList - tabu list
-	 * @return {tabu mutated solution, nontabu mutated solution}
+	 * @return {tabu move, nontabu move}
 	 */
-	private ProblemSol[] ratioMutate(int iteration, int[][] tabuList) {
-		// Store nontabu and best tabu swaps
-		int ni = -1;
-		int nj = -1;
+	private SwapMove[] ratioMutate(int iteration, int[][] tabuList) {
+		// Store best tabu swap
 		int bi = -1;
 		int bj = -1;
 		double bObj = Integer.MIN_VALUE;
@@ -578,9 +886,8 @@ public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<P
 		int i = minRatio(0);
 
 		// Swap with a random node and return
-		ArrayList<Integer> curR = getR();
-		int j = rnd.nextInt(getRSize());
-		j = curR.get(j);
+		int j = rnd().nextInt(getRSize());
+		j = getRItem(j);
 		int ki = 0;
 		int kj = 0;
 		boolean changeI = false;
@@ -592,8 +899,8 @@ public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<P
 			}
 
 			kj++;
-			j =  rnd.nextInt(getRSize());
-			j = curR.get(j);
+			j =  rnd().nextInt(getRSize());
+			j = getRItem(j);
 			if (kj == n-1) {
 				kj = -1;
 				changeI = !changeI;
@@ -607,94 +914,66 @@ public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<P
 				}
 			}
 		}
-		ni = i;
-		nj = j;
 		// Compile and return data
-		ProblemSol[] results = new ProblemSol[2];
+		SwapMove[] results = new SwapMove[2];
 		if (bi != -1 && bj != -1 && swapValid(bi,bj)) {
-			results[0] = ProblemSol.copy(this);
-			results[0].swap(bi, bj);
+			results[0] = new SwapMove(bi, bj, bObj);
 		}
-		if (ni != -1 && nj != -1 && swapValid(ni,nj) && tabuList[ni][nj] < iteration) {
-			results[1] = ProblemSol.copy(this);
-			results[1].swap(ni, nj);
+		if (swapValid(i,j) && tabuList[i][j] < iteration) {
+			results[1] = swapMove(i, j);
 		}
 		return results;
 	}
 
 	/**
 	 * Determine the kth minimum ratio item currently in the solution
+	 * 	(O(log n) from the ratio ranks of the items)
 	 * 
 	 * @param k - which minimum
 	 * @return item number
 	 */
 	public int minRatio(int k) {
-		// Find the minimum ratio in the solution
-		double minRatio = Double.MAX_VALUE;
-		int minI = -1;
-		ArrayList<Integer> bestIs = new ArrayList<Integer>();
-		while (bestIs.size() <= k && bestIs.size() < getXSize()) {
-			for (Integer i: getX()) {
-				if (p.getRatio(i) < minRatio && !bestIs.contains(i)) {
-					minRatio = p.getRatio(i);
-					minI = i;
-				}
-			}
-			minRatio = Double.MAX_VALUE;
-			bestIs.add(minI);
+		if (getXSize() == 0) {
+			return -1;
 		}
-		return minI;
+		// Past the end, return the maximum ratio item
+		k = Math.min(k, getXSize()-1);
+		return itemAt[xRanks.kth(k)];
 	}
 
 	/**
 	 * Determine the kth maximum ratio item currently not in the solution
+	 * 	(O(log n) from the ratio ranks of the items)
 	 * 
 	 * @param k - which maximum
 	 * @return item number
 	 */
 	public int maxRatio(int k) {
-		// Find the maximum ratio not in the solution
-		double maxRatio = -1*Double.MAX_VALUE;
-		int maxI = -1;
-		ArrayList<Integer> bestIs = new ArrayList<Integer>();
-		while (bestIs.size() <= k && bestIs.size() < getRSize()) {
-			for (Integer i: getR()) {
-				if (p.getRatio(i) > maxRatio && !bestIs.contains(i)) {
-					maxRatio = p.getRatio(i);
-					maxI = i;
-				}
-			}
-			maxRatio = -1*Double.MAX_VALUE;
-			bestIs.add(maxI);
+		if (getRSize() == 0) {
+			return -1;
 		}
-		return maxI;
+		// Past the end, return the minimum ratio item
+		k = Math.min(k, getRSize()-1);
+		return itemAt[rRanks.kth(getRSize()-1-k)];
 	}
 
 	/**
-	 * Find the best swap possible that keeps the knapsack feasible. 
+	 * Find the best swap possible that keeps the knapsack feasible
+	 * 	(no tabu list, used by bestMutate)
 	 * 
-	 * @param iteration - current tabu search iteration
-	 * @param tabuList - current tabu list
-	 * @return {tabu mutated solution, nontabu mutated solution}
+	 * @return move (null if no swap is feasible)
 	 */
-	private ProblemSol[] bestSwap(int iteration, int[][] tabuList) {
-		// Store nontabu and best tabu swaps
-		int ni = -1;
-		int nj = -1;
-		double nTObj = Integer.MIN_VALUE;
+	private SwapMove bestSwap() {
 		int bi = -1;
 		int bj = -1;
 		double bObj = Integer.MIN_VALUE;
-		for(Integer i: getX()) {
-			for(Integer j: getR()) {
+		for (int xk = 0; xk < getXSize(); xk++) {
+			int i = getXItem(xk);
+			for (int rk = 0; rk < getRSize(); rk++) {
+				int j = getRItem(rk);
 				// Check for problem feasibility
 				if (swapValid(i,j)) {
 					double newObj = swapObj(i, j);
-					if (newObj > nTObj && tabuList[i][j] < iteration) {
-						ni = i;
-						nj = j;
-						nTObj = newObj;
-					}
 					if (newObj > bObj) {
 						bi = i;
 						bj = j;
@@ -703,27 +982,20 @@ public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<P
 				}
 			}
 		}
-		// Compile and return data
-		ProblemSol[] results = new ProblemSol[2];
-		if (bi != -1 && bj != -1) {
-			results[0] = ProblemSol.copy(this);
-			results[0].swap(bi, bj);
-		}
-		if (ni != -1 && nj != -1) {
-			results[1] = ProblemSol.copy(this);
-			results[1].swap(ni, nj);
+		if (bi == -1) {
+			return null;
 		}
-		return results;
+		return new SwapMove(bi, bj, bObj);
 	}
 
 	/**
-	 * Return the first improving swap that keeps the knapsack feasible
+	 * Find the best swap possible that keeps the knapsack feasible. 
 	 * 
 	 * @param iteration - current tabu search iteration
 	 * @param tabuList - current tabu list
-	 * @return {tabu mutated solution, nontabu mutated solution}
+	 * @return {tabu move, nontabu move}
 	 */
-	private ProblemSol[] firstSwap(int iteration, int[][] tabuList) {
+	private SwapMove[] bestSwap(int iteration, int[][] tabuList) {
 		// Store nontabu and best tabu swaps
 		int ni = -1;
 		int nj = -1;
@@ -731,8 +1003,10 @@ public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<P
 		int bi = -1;
 		int bj = -1;
 		double bObj = Integer.MIN_VALUE;
-		for(Integer i: getX()) {
-			for(Integer j: getR()) {
+		for (int xk = 0; xk < getXSize(); xk++) {
+			int i = getXItem(xk);
+			for (int rk = 0; rk < getRSize(); rk++) {
+				int j = getRItem(rk);
 				// Check for problem feasibility
 				if (swapValid(i,j)) {
 					double newObj = swapObj(i, j);
@@ -746,30 +1020,39 @@ public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<P
 						bj = j;
 						bObj = newObj;
 					}
-					if (ni != -1 && nj != -1)  {
-						ProblemSol[] results = new ProblemSol[2];
-						if (bi != -1 && bj != -1) {
-							results[0] = ProblemSol.copy(this);
-							results[0].swap(bi, bj);
-						}
-						results[1] = ProblemSol.copy(this);
-						results[1].swap(ni, nj);
-						return results;
-					}
 				}
 			}
 		}
-		ProblemSol[] results = new ProblemSol[2];
+		// Compile and return data
+		SwapMove[] results = new SwapMove[2];
 		if (bi != -1 && bj != -1) {
-			results[0] = ProblemSol.copy(this);
-			results[0].swap(bi, bj);
+			results[0] = new SwapMove(bi, bj, bObj);
 		}
 		if (ni != -1 && nj != -1) {
-			results[1] = ProblemSol.copy(this);
-			results[1].swap(ni, nj);
+			results[1] = new SwapMove(ni, nj, nTObj);
 		}
 		return results;
 	}
+
+	/**
+	 * Return the first swap that keeps the knapsack feasible
+	 * 	(no tabu list, used by bestMutate on large problems)
+	 * 
+	 * @return move (null if no swap is feasible)
+	 */
+	private SwapMove firstSwap() {
+		for (int xk = 0; xk < getXSize(); xk++) {
+			int i = getXItem(xk);
+			for (int rk = 0; rk < getRSize(); rk++) {
+				int j = getRItem(rk);
+				// Check for problem feasibility
+				if (swapValid(i,j)) {
+					return swapMove(i, j);
+				}
+			}
+		}
+		return null;
+	}
 	
 	/**
 	 * Return if adding item i will keep the problem feasible 
@@ -798,7 +1081,7 @@ public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<P
 		if (getXSize() < 2) {
 			return tryAdd();
 		} else {
-			if (rnd.nextDouble() < 0.8) {
+			if (rnd().nextDouble() < 0.8) {
 				return tryAdd();
 			} else {
 				return trySub();
@@ -853,6 +1136,50 @@ public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<P
 		return null;
 	}
 
+	/**
+	 * Duplicate a solution into the given solve context
+	 * 	(e.g. a solution handed to another thread, which uses its own random stream)
+	 * 
+	 * @param ps - solution to copy
+	 * @param ctx - context of the copy (same problem as ps)
+	 */
+	public static ProblemSol copy(ProblemSol ps, SolveContext ctx) {
+		ProblemSol copy = copy(ps);
+		copy.ctx = ctx;
+		return copy;
+	}
+
+	/**
+	 * Read a solution of the same type as ps from the given file
+	 * 	(e.g. a solution written by writeSolution)
+	 * 
+	 * @param ps - solution of the problem type (and context) to read
+	 * @param filename - file to read
+	 */
+	public static ProblemSol read(ProblemSol ps, String filename) {
+		// Cubic
+		if (ps instanceof CubicSol) {
+			return new CubicSol(ps.getContext(), filename);
+		} 
+		// Cubic Multiple Knapsack
+		else if (ps instanceof CubicMultSol) {
+			return new CubicMultSol(ps.getContext(), filename);
+		} 
+		// Unconstrained Cubic
+		else if (ps instanceof UnconstrainedSol) {
+			return new UnconstrainedSol(ps.getContext(), filename);
+		} 
+		// Max Probability
+		else if (ps instanceof MaxProbabilitySol) {
+			return new MaxProbabilitySol(ps.getContext(), filename);
+		} 
+		// Fractional
+		else if (ps instanceof FractionalSol) {
+			return new FractionalSol(ps.getContext(), filename);
+		}
+		return null;
+	}
+
 	@Override
 	/**
 	 * Comparison for solutions used in genetic algorithm
@@ -886,6 +1213,10 @@ public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<P
 	 */
 	public boolean equals(Object object) {
 		ProblemSol ks2 = (ProblemSol)object;
+		// Different hashes mean different solutions
+		if (this.hash != ks2.hash) {
+			return false;
+		}
 		// If same objective,
 		if (this.getObj() == ks2.getObj()) {
 			// Check for same solution
@@ -912,6 +1243,14 @@ public abstract class ProblemSol implements Comparable<ProblemSol>, Comparator<P
 		return false;
 	}
 
+	@Override
+	/**
+	 * Hash of the solution items (consistent with equals)
+	 */
+	public int hashCode() {
+		return (int)(hash ^ (hash >>> 32));
+	}
+
 	@Override
 	/**
 	 * Comparison for solutions used for genetic algorithm population
@@ -0,0 +1,113 @@
+package Solutions;
+
+/**
+ * Set of the ranks 0..n-1 that returns its kth smallest member
+ * 	in O(log n) (Fenwick tree of member counts)
+ * - Used to find the kth min/max ratio item of a solution
+ * 	from the ratio rank of each item
+ *
+ * @author midkiffj
+ */
+public class RankedSet {
+
+	private int n;
+	// Fenwick tree over ranks (1-based)
+	private int[] tree;
+	private boolean[] has;
+	private int size;
+	// Highest power of two <= n
+	private int top;
+
+	/**
+	 * Create an empty set for ranks 0..n-1
+	 *
+	 * @param n - number of ranks
+	 */
+	public RankedSet(int n) {
+		this.n = n;
+		tree = new int[n+1];
+		has = new boolean[n];
+		size = 0;
+		top = 1;
+		while (top*2 <= n) {
+			top *= 2;
+		}
+	}
+
+	/**
+	 * Create a set with the same members as the given set
+	 *
+	 * @param s - set to copy
+	 */
+	public RankedSet(RankedSet s) {
+		n = s.n;
+		tree = s.tree.clone();
+		has = s.has.clone();
+		size = s.size;
+		top = s.top;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean contains(int rank) {
+		return has[rank];
+	}
+
+	/**
+	 * Add the rank (no change if already a member)
+	 */
+	public void add(int rank) {
+		if (has[rank]) {
+			return;
+		}
+		has[rank] = true;
+		size++;
+		for (int t = rank+1; t <= n; t += t & -t) {
+			tree[t]++;
+		}
+	}
+
+	/**
+	 * Remove the rank (no change if not a member)
+	 */
+	public void remove(int rank) {
+		if (!has[rank]) {
+			return;
+		}
+		has[rank] = false;
+		size--;
+		for (int t = rank+1; t <= n; t += t & -t) {
+			tree[t]--;
+		}
+	}
+
+	/**
+	 * Remove all members
+	 */
+	public void clear() {
+		for (int t = 0; t <= n; t++) {
+			tree[t] = 0;
+		}
+		for (int t = 0; t < n; t++) {
+			has[t] = false;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Return the kth smallest member (0 <= k < size())
+	 */
+	public int kth(int k) {
+		// Descend the tree, skipping blocks with at most k members
+		int t = 0;
+		for (int step = top; step > 0; step /= 2) {
+			if (t + step <= n && tree[t+step] <= k) {
+				t += step;
+				k -= tree[t];
+			}
+		}
+		return t;
+	}
+}
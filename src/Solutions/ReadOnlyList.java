@@ -0,0 +1,133 @@
+package Solutions;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Read-only list of solution items (see ProblemSol getX/getR)
+ * - Filled once by its builder, then sealed
+ * - Shared between a solution and its copies, so every mutator
+ * 	throws an UnsupportedOperationException once sealed
+ *
+ * @author midkiffj
+ */
+class ReadOnlyList extends ArrayList<Integer> {
+
+	private static final long serialVersionUID = 1L;
+
+	private boolean sealed;
+
+	/**
+	 * Copy the first size items of the given array
+	 *
+	 * @param items - items of the list
+	 * @param size - number of items
+	 */
+	ReadOnlyList(int[] items, int size) {
+		super(size);
+		for (int k = 0; k < size; k++) {
+			super.add(items[k]);
+		}
+		sealed = true;
+	}
+
+	private void check() {
+		if (sealed) {
+			throw new UnsupportedOperationException("Solution lists are read-only (use setX/setR or addI/removeI)");
+		}
+	}
+
+	@Override
+	public boolean add(Integer e) {
+		check();
+		return super.add(e);
+	}
+
+	@Override
+	public void add(int index, Integer e) {
+		check();
+		super.add(index, e);
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends Integer> c) {
+		check();
+		return super.addAll(c);
+	}
+
+	@Override
+	public boolean addAll(int index, Collection<? extends Integer> c) {
+		check();
+		return super.addAll(index, c);
+	}
+
+	@Override
+	public Integer set(int index, Integer e) {
+		check();
+		return super.set(index, e);
+	}
+
+	@Override
+	public Integer remove(int index) {
+		check();
+		return super.remove(index);
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		check();
+		return super.remove(o);
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		check();
+		return super.removeAll(c);
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		check();
+		return super.retainAll(c);
+	}
+
+	@Override
+	public boolean removeIf(Predicate<? super Integer> filter) {
+		check();
+		return super.removeIf(filter);
+	}
+
+	@Override
+	public void replaceAll(UnaryOperator<Integer> operator) {
+		check();
+		super.replaceAll(operator);
+	}
+
+	@Override
+	public void sort(Comparator<? super Integer> c) {
+		check();
+		super.sort(c);
+	}
+
+	@Override
+	public void clear() {
+		check();
+		super.clear();
+	}
+
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		check();
+		super.removeRange(fromIndex, toIndex);
+	}
+
+	@Override
+	public List<Integer> subList(int fromIndex, int toIndex) {
+		return Collections.unmodifiableList(super.subList(fromIndex, toIndex));
+	}
+}
@@ -0,0 +1,28 @@
+package Solutions;
+
+/**
+ * Move that removes item i from a solution and adds item j
+ * 	with the objective the solution would have after the swap.
+ * 	Moves are evaluated without changing the solution and
+ * 	applied or undone in place (ProblemSol apply/undo).
+ * 
+ * @author midkiffj
+ */
+public class SwapMove {
+	public final int i;
+	public final int j;
+	public final double obj;
+
+	/**
+	 * Construct a move
+	 * 
+	 * @param i - item to remove
+	 * @param j - item to add
+	 * @param obj - objective after the swap
+	 */
+	public SwapMove(int i, int j, double obj) {
+		this.i = i;
+		this.j = j;
+		this.obj = obj;
+	}
+}
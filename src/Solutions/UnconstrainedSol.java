@@ -7,6 +7,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Scanner;
 
+import Problems.SolveContext;
 import Problems.Unconstrained;
 
 /**
@@ -22,11 +23,17 @@ public class UnconstrainedSol extends ProblemSol {
 
 	/**
 	 * Construct a solution by calling the problem initial solution generator
+	 * 
+	 * @param ctx - solve context of the solution
 	 */
-	public UnconstrainedSol() {
-		super();
+	public UnconstrainedSol(SolveContext ctx) {
+		super(ctx);
 		u = (Unconstrained)p;
-		u.genRndInit(getX(), getR());
+		ArrayList<Integer> initX = new ArrayList<Integer>();
+		ArrayList<Integer> initR = new ArrayList<Integer>();
+		u.genRndInit(initX, initR, rnd());
+		setX(initX);
+		setR(initR);
 		for (Integer i: getX()) {
 			setXVals(i,true);
 		}
@@ -35,18 +42,30 @@ public class UnconstrainedSol extends ProblemSol {
 	}
 
 	/**
-	 * Construct a solution that is equivalent to the solution passed in
+	 * Construct a solution from the given file
 	 * 
-	 * @param us the solution to copy
+	 * @param ctx - solve context of the solution
+	 * @param filename to read
 	 */
-	public UnconstrainedSol(UnconstrainedSol us) {
-		super();
+	public UnconstrainedSol(SolveContext ctx, String filename) {
+		super(ctx);
 		u = (Unconstrained)p;
-		setX(us.getX());
-		setR(us.getR());
+		readSolution(filename);
 		for (Integer i : getX()) {
 			setXVals(i,true);
 		}
+		updateValid();
+	}
+
+	/**
+	 * Construct a solution that is equivalent to the solution passed in
+	 * 
+	 * @param us the solution to copy
+	 */
+	public UnconstrainedSol(UnconstrainedSol us) {
+		super(us);
+		u = (Unconstrained)p;
+		copyLists(us);
 		setObj(us.getObj());
 		updateValid();
 	}
@@ -54,10 +73,11 @@ public class UnconstrainedSol extends ProblemSol {
 	/**
 	 * Construct a solution with the given xVals
 	 * 
+	 * @param ctx - solve context of the solution
 	 * @param xVals (T) if item i is in the solutions
 	 */
-	public UnconstrainedSol(boolean[] xVals) {
-		super();
+	public UnconstrainedSol(SolveContext ctx, boolean[] xVals) {
+		super(ctx);
 		u = (Unconstrained)p;
 		ArrayList<Integer> x = new ArrayList<Integer>();
 		ArrayList<Integer> r = new ArrayList<Integer>();
@@ -78,11 +98,12 @@ public class UnconstrainedSol extends ProblemSol {
 	/**
 	 * Construct a solution with the given solution lists
 	 * 
+	 * @param ctx - solve context of the solution
 	 * @param x - list of items in solution
 	 * @param r - list of items not in solution
 	 */
-	public UnconstrainedSol(ArrayList<Integer> x, ArrayList<Integer> r) {
-		super();
+	public UnconstrainedSol(SolveContext ctx, ArrayList<Integer> x, ArrayList<Integer> r) {
+		super(ctx);
 		u = (Unconstrained)p;
 		setX(x);
 		setR(r);
@@ -96,12 +117,13 @@ public class UnconstrainedSol extends ProblemSol {
 	/**
 	 * Construct a solution with the given solution lists, objective, and knapsack weight
 	 * 
+	 * @param ctx - solve context of the solution
 	 * @param x - list of items in solution
 	 * @param r - list of items not in solution
 	 * @param obj - objective of the solution
 	 */
-	public UnconstrainedSol(ArrayList<Integer> x, ArrayList<Integer> r, double obj) {
-		super();
+	public UnconstrainedSol(SolveContext ctx, ArrayList<Integer> x, ArrayList<Integer> r, double obj) {
+		super(ctx);
 		u = (Unconstrained)p;
 
 		setX(x);
@@ -161,7 +183,7 @@ public class UnconstrainedSol extends ProblemSol {
 	 * @param j - item to add
 	 */
 	public void swap(int i, int j) {
-		setObj(swapObj(i, j, getX(), getObj()));
+		setObj(swapObj(i, j));
 		removeI(i);
 		addI(j);
 	}
@@ -175,29 +197,16 @@ public class UnconstrainedSol extends ProblemSol {
 	 * @return calculated objective
 	 */
 	public double swapObj(int i, int j) {
-		return swapObj(i, j, getX(), getObj());
-	}
-	
-	/**
-	 * Calculate the objective of curX 
-	 * 	if item i is removed and item j is added
-	 * 
-	 * @param i - item to be removed
-	 * @param j - item to be added
-	 * @param curX - current solution
-	 * @param oldObj - current solution objective value
-	 * @return the new objective if i and j swapped
-	 */
-	private double swapObj(int i, int j, ArrayList<Integer> curX, double oldObj) {
-		oldObj = oldObj - u.getCi(i);
+		double oldObj = getObj() - u.getCi(i);
 		oldObj = oldObj + u.getCi(j);
-		for (int k = 0; k < curX.size(); k++) {
-			int xk = curX.get(k);
+		int size = getXSize();
+		for (int k = 0; k < size; k++) {
+			int xk = getXItem(k);
 			if (xk != i) {
 				oldObj = oldObj - u.getCij(i,xk);
 				oldObj = oldObj + u.getCij(j,xk);
-				for (int l = k+1; l < curX.size(); l++) {
-					int xl = curX.get(l);
+				for (int l = k+1; l < size; l++) {
+					int xl = getXItem(l);
 					if (xl != i) {
 						oldObj = oldObj - u.getDijk(i,xk,xl);
 						oldObj = oldObj + u.getDijk(j,xk,xl);
@@ -214,7 +223,7 @@ public class UnconstrainedSol extends ProblemSol {
 	 * @return the item added or -1 if none added
 	 */
 	public int tryAdd() {
-		int index = tryAdd(getX(), getR());
+		int index = bestAdd();
 		if (index != -1) {
 			addX(index);
 		}
@@ -227,7 +236,7 @@ public class UnconstrainedSol extends ProblemSol {
 	 * @return the item removed or -1 if none added
 	 */
 	public int trySub() {
-		int index = trySub(getX());
+		int index = bestSub();
 		if (index != -1) {
 			removeX(index);
 		}
@@ -235,17 +244,15 @@ public class UnconstrainedSol extends ProblemSol {
 	}
 
 	/**
-	 * Try to add an item to the given solution
-	 * - Add the maxRatio item
+	 * Find the item whose addition best improves the objective
 	 * 
-	 * @param x - solution list
-	 * @param r - list of items not in the solution
 	 * @return the item to add or -1 if none to add
 	 */
-	private int tryAdd(ArrayList<Integer> x, ArrayList<Integer> r) {
+	private int bestAdd() {
 		double obj = getObj();
 		int index = -1;
-		for (int i: r) {
+		for (int k = 0; k < getRSize(); k++) {
+			int i = getRItem(k);
 			double newObj = addObj(i);
 			if (newObj > obj) {
 				obj = newObj;
@@ -256,16 +263,15 @@ public class UnconstrainedSol extends ProblemSol {
 	}
 	
 	/**
-	 * Try to remove an item from the given solution
-	 * - Remove the minRatio item
+	 * Find the item whose removal best improves the objective
 	 * 
-	 * @param x - solution list
 	 * @return the item to remove or -1 if none to remove
 	 */
-	private int trySub(ArrayList<Integer> x) {
+	private int bestSub() {
 		double obj = getObj();
 		int index = -1;
-		for (int i: x) {
+		for (int k = 0; k < getXSize(); k++) {
+			int i = getXItem(k);
 			double newObj = subObj(i);
 			if (newObj > obj) {
 				obj = newObj;
@@ -306,11 +312,11 @@ public class UnconstrainedSol extends ProblemSol {
 	private double subObj(int i) {
 		double oldObj = getObj() - u.getCi(i);
 		for (int k = 0; k < getXSize(); k++) {
-			int xk = getX().get(k);
+			int xk = getXItem(k);
 			if (xk != i) {
 				oldObj = oldObj - u.getCij(i,xk);
 				for (int l = k+1; l < getXSize(); l++) {
-					int xl = getX().get(l);
+					int xl = getXItem(l);
 					if (xl != i) {
 						oldObj = oldObj - u.getDijk(i,xk,xl);
 					}
@@ -329,11 +335,11 @@ public class UnconstrainedSol extends ProblemSol {
 	private double addObj(int i) {
 		double oldObj = getObj() + u.getCi(i);
 		for (int k = 0; k < getXSize(); k++) {
-			int xk = getX().get(k);
+			int xk = getXItem(k);
 			if (xk != i) {
 				oldObj = oldObj + u.getCij(i,xk);
 				for (int l = k+1; l < getXSize(); l++) {
-					int xl = getX().get(l);
+					int xl = getXItem(l);
 					if (xl != i) {
 						oldObj = oldObj + u.getDijk(i,xk,xl);
 					}
@@ -343,6 +349,24 @@ public class UnconstrainedSol extends ProblemSol {
 		return oldObj;
 	}
 
+	@Override
+	/**
+	 * Return true if applying the move lowers the objective
+	 * 	(same order as compareTo)
+	 */
+	public boolean improves(SwapMove m) {
+		return m.obj < getObj();
+	}
+
+	@Override
+	/**
+	 * Return true if applying the move gives a lower objective than o
+	 * 	(same order as compareTo)
+	 */
+	public boolean betterThan(SwapMove m, ProblemSol o) {
+		return m.obj < o.getObj();
+	}
+
 	@Override
 	/**
 	 * Comparison for solutions used in genetic algorithm
@@ -385,8 +409,9 @@ public class UnconstrainedSol extends ProblemSol {
 		try {
 			PrintWriter pw = new PrintWriter(filename);
 			pw.write(getObj() + "\n");
-			Collections.sort(getX());
-			for (Integer i: getX()) {
+			ArrayList<Integer> sortedX = new ArrayList<Integer>(getX());
+			Collections.sort(sortedX);
+			for (Integer i: sortedX) {
 				pw.write(i + " ");
 			}
 			pw.close();